@@ -3,28 +3,18 @@ package com.dexterous.flutterlocalnotifications;
 import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
-import android.util.Log;
+import android.os.Handler;
+import android.os.Looper;
 
 import androidx.annotation.Keep;
-import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 import androidx.core.app.NotificationManagerCompat;
 
 import com.dexterous.flutterlocalnotifications.isolate.IsolatePreferences;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
 
-import io.flutter.FlutterInjector;
-import io.flutter.embedding.engine.FlutterEngine;
-import io.flutter.embedding.engine.dart.DartExecutor;
-import io.flutter.embedding.engine.loader.FlutterLoader;
-import io.flutter.plugin.common.EventChannel;
-import io.flutter.plugin.common.EventChannel.EventSink;
-import io.flutter.plugin.common.EventChannel.StreamHandler;
 import io.flutter.plugin.common.MethodChannel;
-import io.flutter.view.FlutterCallbackInformation;
 
 public class ActionBroadcastReceiver extends BroadcastReceiver {
   public static final String ACTION_TAPPED =
@@ -34,9 +24,7 @@ public class ActionBroadcastReceiver extends BroadcastReceiver {
   public static final String DISMISS_ISOLATE = "dismissIsolate";
   private static final int DISMISS_ISOLATE_MAIN = 0;
   private static final int DISMISS_ISOLATE_BACKGROUND = 1;
-  private static final String TAG = "ActionBroadcastReceiver";
-  @Nullable private static ActionEventSink actionEventSink;
-  @Nullable private static FlutterEngine engine;
+  private static final Handler mainHandler = new Handler(Looper.getMainLooper());
   IsolatePreferences preferences;
 
   @VisibleForTesting
@@ -63,7 +51,7 @@ public class ActionBroadcastReceiver extends BroadcastReceiver {
             == DISMISS_ISOLATE_MAIN) {
       MethodChannel liveChannel = FlutterLocalNotificationsPlugin.liveChannel;
       if (liveChannel != null) {
-        liveChannel.invokeMethod("didReceiveNotificationResponse", action);
+        NotificationResponseBatcher.send(context, liveChannel, action);
       }
       return;
     }
@@ -81,79 +69,30 @@ public class ActionBroadcastReceiver extends BroadcastReceiver {
       }
     }
 
-    if (actionEventSink == null) {
-      actionEventSink = new ActionEventSink();
-    }
-    actionEventSink.addItem(action);
-
-    startEngine(context);
-  }
-
-  private void startEngine(Context context) {
-    if (engine != null) {
-      Log.e(TAG, "Engine is already initialised");
-      return;
-    }
-
-    FlutterInjector injector = FlutterInjector.instance();
-    FlutterLoader loader = injector.flutterLoader();
-
-    loader.startInitialization(context);
-    loader.ensureInitializationComplete(context, null);
-
-    engine = new FlutterEngine(context);
-
-    /// This lookup needs to be done after creating an instance of `FlutterEngine` or lookup may
-    // fail
-    FlutterCallbackInformation dispatcherHandle = preferences.lookupDispatcherHandle();
-    if (dispatcherHandle == null) {
-      Log.w(TAG, "Callback information could not be retrieved");
-      return;
-    }
-
-    DartExecutor dartExecutor = engine.getDartExecutor();
-
-    initializeEventChannel(dartExecutor);
-
-    String dartBundlePath = loader.findAppBundlePath();
-    dartExecutor.executeDartCallback(
-        new DartExecutor.DartCallback(context.getAssets(), dartBundlePath, dispatcherHandle));
-  }
-
-  private void initializeEventChannel(DartExecutor dartExecutor) {
-    EventChannel channel =
-        new EventChannel(
-            dartExecutor.getBinaryMessenger(), "dexterous.com/flutter/local_notifications/actions");
-    channel.setStreamHandler(actionEventSink);
-  }
-
-  private static class ActionEventSink implements StreamHandler {
-
-    final List<Map<String, Object>> cache = new ArrayList<>();
-
-    @Nullable private EventSink eventSink;
-
-    public void addItem(Map<String, Object> item) {
-      if (eventSink != null) {
-        eventSink.success(item);
-      } else {
-        cache.add(item);
-      }
-    }
-
-    @Override
-    public void onListen(Object arguments, EventSink events) {
-      for (Map<String, Object> item : cache) {
-        events.success(item);
-      }
-
-      cache.clear();
-      eventSink = events;
-    }
-
-    @Override
-    public void onCancel(Object arguments) {
-      eventSink = null;
-    }
+    final Context applicationContext = context.getApplicationContext();
+    final IsolatePreferences isolatePreferences = preferences;
+    final PendingResult pendingResult = goAsync();
+    ActionEventQueue.EXECUTOR.execute(
+        new Runnable() {
+          @Override
+          public void run() {
+            ActionEventQueue.getInstance(applicationContext).append(action);
+            mainHandler.post(
+                new Runnable() {
+                  @Override
+                  public void run() {
+                    try {
+                      BackgroundEngineHolder.getInstance()
+                          .dispatchSavedActions(applicationContext, isolatePreferences);
+                    } finally {
+                      // there's no pending result when the receiver is called directly
+                      if (pendingResult != null) {
+                        pendingResult.finish();
+                      }
+                    }
+                  }
+                });
+          }
+        });
   }
 }
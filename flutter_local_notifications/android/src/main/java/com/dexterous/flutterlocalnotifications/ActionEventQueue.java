@@ -0,0 +1,288 @@
+package com.dexterous.flutterlocalnotifications;
+
+import android.content.Context;
+import android.util.AtomicFile;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the notification actions that are passed to the background isolate until it acknowledges
+ * that they have been handled.
+ *
+ * <p>Each action is appended to a log file along with a sequence number that is one more than
+ * that of the previous action. Once the background isolate has handled the actions up to a
+ * sequence number, an acknowledgement of that number is appended as well. This means that actions
+ * received before the process died are passed to the background isolate, in the order they were
+ * received, the next time it starts. Once every action has been acknowledged the log is deleted,
+ * otherwise it's rewritten with just the actions that remain once it grows past {@link
+ * #MAX_LOG_BYTES}. The oldest actions are dropped when more than {@link #MAX_EVENTS} of them are
+ * waiting to be acknowledged.
+ */
+final class ActionEventQueue {
+  private static final String TAG = "ActionEventQueue";
+
+  private static final String FILE_NAME = "flutter_local_notifications/action_events";
+  private static final byte EVENT_RECORD = 1;
+  private static final byte ACKNOWLEDGEMENT_RECORD = 2;
+  @VisibleForTesting static final int MAX_EVENTS = 1000;
+  @VisibleForTesting static final long MAX_LOG_BYTES = 256 * 1024;
+
+  // actions received by ActionBroadcastReceiver are saved on a background thread as the log is
+  // synced to disk each time. The thread is only kept whilst there's work
+  @VisibleForTesting
+  static final ExecutorService EXECUTOR =
+      new ThreadPoolExecutor(0, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+
+  @Nullable private static ActionEventQueue instance;
+
+  private final File file;
+  // the actions that haven't been acknowledged, in the order they were received
+  private final ArrayDeque<Event> events = new ArrayDeque<>();
+  private long lastSequence;
+  private boolean loaded;
+
+  /** An action along with the sequence number and the time it was received. */
+  static final class Event {
+    final long sequence;
+    final long receivedTime;
+    final Map<String, Object> action;
+
+    Event(long sequence, long receivedTime, Map<String, Object> action) {
+      this.sequence = sequence;
+      this.receivedTime = receivedTime;
+      this.action = action;
+    }
+  }
+
+  private ActionEventQueue(Context context) {
+    this.file = new File(context.getNoBackupFilesDir(), FILE_NAME);
+  }
+
+  static synchronized ActionEventQueue getInstance(Context context) {
+    if (instance == null) {
+      instance = new ActionEventQueue(context.getApplicationContext());
+    }
+    return instance;
+  }
+
+  @VisibleForTesting
+  static synchronized void resetInstance() {
+    instance = null;
+  }
+
+  /** Saves the action and returns it along with the sequence number it was given. */
+  synchronized Event append(Map<String, Object> action) {
+    load();
+    final Event event = new Event(lastSequence + 1, System.currentTimeMillis(), action);
+    lastSequence = event.sequence;
+    events.add(event);
+    if (events.size() > MAX_EVENTS) {
+      final Event droppedEvent = events.remove();
+      Log.w(TAG, "Dropping notification action " + droppedEvent.sequence);
+    }
+    if (file.length() > MAX_LOG_BYTES) {
+      rewrite();
+      return event;
+    }
+    try {
+      appendRecord(toEventRecord(event));
+    } catch (JSONException e) {
+      Log.e(TAG, "Unable to save notification action " + event.sequence, e);
+    }
+    return event;
+  }
+
+  /** Returns the actions after the sequence number that haven't been acknowledged. */
+  synchronized List<Event> getEventsAfter(long sequence) {
+    load();
+    if (events.isEmpty() || lastSequence <= sequence) {
+      return Collections.emptyList();
+    }
+    final List<Event> eventsAfter = new ArrayList<>();
+    for (Event event : events) {
+      if (event.sequence > sequence) {
+        eventsAfter.add(event);
+      }
+    }
+    return eventsAfter;
+  }
+
+  /** Returns whether every action has been acknowledged. */
+  synchronized boolean isEmpty() {
+    load();
+    return events.isEmpty();
+  }
+
+  /** Removes the actions up to and including the sequence number. */
+  synchronized void acknowledge(long sequence) {
+    load();
+    boolean acknowledged = false;
+    final Iterator<Event> iterator = events.iterator();
+    while (iterator.hasNext() && iterator.next().sequence <= sequence) {
+      iterator.remove();
+      acknowledged = true;
+    }
+    if (!acknowledged) {
+      return;
+    }
+    if (events.isEmpty()) {
+      new AtomicFile(file).delete();
+    } else {
+      appendRecord(toAcknowledgementRecord(sequence));
+    }
+  }
+
+  private void load() {
+    if (loaded) {
+      return;
+    }
+    loaded = true;
+    long validLength = 0;
+    // this restores the log if the process died whilst it was being rewritten
+    try (DataInputStream inputStream =
+        new DataInputStream(new BufferedInputStream(new AtomicFile(file).openRead()))) {
+      while (true) {
+        byte type = inputStream.readByte();
+        long sequence = inputStream.readLong();
+        if (type == EVENT_RECORD) {
+          long receivedTime = inputStream.readLong();
+          byte[] bytes = new byte[inputStream.readInt()];
+          inputStream.readFully(bytes);
+          events.add(new Event(sequence, receivedTime, fromJson(bytes)));
+          lastSequence = Math.max(lastSequence, sequence);
+          validLength += 1 + 8 + 8 + 4 + bytes.length;
+        } else if (type == ACKNOWLEDGEMENT_RECORD) {
+          while (!events.isEmpty() && events.peek().sequence <= sequence) {
+            events.remove();
+          }
+          validLength += 1 + 8;
+        } else {
+          throw new IOException("Unexpected record type " + type);
+        }
+      }
+    } catch (FileNotFoundException e) {
+      return;
+    } catch (EOFException e) {
+      // the process may have died whilst the last record was being appended
+    } catch (IOException | JSONException e) {
+      Log.e(TAG, "Unable to read notification actions", e);
+    }
+    while (events.size() > MAX_EVENTS) {
+      events.remove();
+    }
+    if (validLength < file.length()) {
+      rewrite();
+    }
+  }
+
+  private void appendRecord(byte[] record) {
+    if (!ensureDirectory()) {
+      return;
+    }
+    try (FileOutputStream outputStream = new FileOutputStream(file, true)) {
+      outputStream.write(record);
+      outputStream.getFD().sync();
+    } catch (IOException e) {
+      Log.e(TAG, "Unable to save notification actions", e);
+    }
+  }
+
+  // replaces the log with one that only has the actions that haven't been acknowledged
+  private void rewrite() {
+    AtomicFile atomicFile = new AtomicFile(file);
+    if (events.isEmpty()) {
+      atomicFile.delete();
+      return;
+    }
+    if (!ensureDirectory()) {
+      return;
+    }
+    FileOutputStream outputStream = null;
+    try {
+      outputStream = atomicFile.startWrite();
+      BufferedOutputStream bufferedOutputStream = new BufferedOutputStream(outputStream);
+      for (Event event : events) {
+        bufferedOutputStream.write(toEventRecord(event));
+      }
+      bufferedOutputStream.flush();
+      atomicFile.finishWrite(outputStream);
+    } catch (IOException | JSONException e) {
+      Log.e(TAG, "Unable to save notification actions", e);
+      if (outputStream != null) {
+        atomicFile.failWrite(outputStream);
+      }
+    }
+  }
+
+  private boolean ensureDirectory() {
+    File directory = file.getParentFile();
+    if (!directory.exists() && !directory.mkdirs()) {
+      Log.e(TAG, "Unable to create directory " + directory);
+      return false;
+    }
+    return true;
+  }
+
+  private static byte[] toEventRecord(Event event) throws JSONException {
+    byte[] action = toJson(event.action);
+    return ByteBuffer.allocate(1 + 8 + 8 + 4 + action.length)
+        .put(EVENT_RECORD)
+        .putLong(event.sequence)
+        .putLong(event.receivedTime)
+        .putInt(action.length)
+        .put(action)
+        .array();
+  }
+
+  private static byte[] toAcknowledgementRecord(long sequence) {
+    return ByteBuffer.allocate(1 + 8).put(ACKNOWLEDGEMENT_RECORD).putLong(sequence).array();
+  }
+
+  private static byte[] toJson(Map<String, Object> action) throws JSONException {
+    JSONObject jsonObject = new JSONObject();
+    for (Map.Entry<String, Object> entry : action.entrySet()) {
+      jsonObject.put(
+          entry.getKey(), entry.getValue() == null ? JSONObject.NULL : entry.getValue());
+    }
+    return jsonObject.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static Map<String, Object> fromJson(byte[] bytes) throws JSONException {
+    JSONObject jsonObject = new JSONObject(new String(bytes, StandardCharsets.UTF_8));
+    Map<String, Object> action = new HashMap<>();
+    Iterator<String> keys = jsonObject.keys();
+    while (keys.hasNext()) {
+      String key = keys.next();
+      Object value = jsonObject.get(key);
+      action.put(key, value == JSONObject.NULL ? null : value);
+    }
+    return action;
+  }
+}
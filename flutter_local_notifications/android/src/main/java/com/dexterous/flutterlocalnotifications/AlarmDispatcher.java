@@ -0,0 +1,207 @@
+package com.dexterous.flutterlocalnotifications;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.os.Build;
+import android.os.Build.VERSION;
+import android.os.Build.VERSION_CODES;
+import android.util.Log;
+
+import androidx.annotation.VisibleForTesting;
+import androidx.core.app.AlarmManagerCompat;
+
+import com.dexterous.flutterlocalnotifications.models.NotificationDetails;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shows scheduled notifications using a single alarm instead of one alarm per notification. The
+ * alarm is set for the next time that any notification is due. When it goes off, every
+ * notification that is due is shown in one pass, the notifications are updated in the {@link
+ * ScheduledNotificationStore} as a single batch and the alarm is set for the next time. This is
+ * opted into via the initialization settings and suits apps where many notifications are due at
+ * the same time, as these are then shown by a single broadcast.
+ *
+ * <p>The alarm is as precise as the most precise schedule mode of the notifications that are due
+ * next. The time the notifications were last dispatched is persisted so that repeating
+ * notifications, which remain due after they're shown, are only shown once for each time they're
+ * due.
+ */
+final class AlarmDispatcher {
+  static final String ACTION_DISPATCH = "com.dexterous.flutterlocalnotifications.DISPATCH";
+
+  private static final String TAG = "AlarmDispatcher";
+  private static final String SHARED_PREFERENCES_KEY = "flutter_local_notifications_dispatcher";
+  private static final String LAST_DISPATCH_TIME = "lastDispatchTime";
+
+  private AlarmDispatcher() {}
+
+  static boolean isEnabled(Context context) {
+    return FlutterLocalNotificationsPlugin.useAlarmDispatcher(context);
+  }
+
+  /**
+   * Sets the alarm for the next time a notification is due or cancels it when there aren't any
+   * notifications left.
+   */
+  static synchronized void arm(Context context) {
+    ScheduledNotificationStore store = ScheduledNotificationStore.getInstance(context);
+    long lastDispatchTime = getLastDispatchTime(context);
+    if (lastDispatchTime == 0) {
+      // repeating notifications are only due from when the dispatcher is first used
+      lastDispatchTime = System.currentTimeMillis();
+      setLastDispatchTime(context, lastDispatchTime);
+    }
+    Map<Integer, Long> nextFireTimes = store.getNextFireTimes(1, Long.MAX_VALUE);
+    if (nextFireTimes.isEmpty()) {
+      getAlarmManager(context).cancel(getDispatchPendingIntent(context));
+      return;
+    }
+    long nextFireTime = nextFireTimes.values().iterator().next();
+    boolean alarmClock = false;
+    boolean exact = false;
+    boolean allowWhileIdle = false;
+    for (Map.Entry<Integer, Long> entry :
+        store.getNextFireTimes(Integer.MAX_VALUE, nextFireTime).entrySet()) {
+      if (entry.getValue() > nextFireTime) {
+        break;
+      }
+      NotificationDetails notificationDetails = store.get(entry.getKey());
+      if (notificationDetails == null || notificationDetails.scheduleMode == null) {
+        // notifications from older versions of the plugin default to exact alarms
+        exact = true;
+        continue;
+      }
+      alarmClock |= notificationDetails.scheduleMode.useAlarmClock();
+      exact |= notificationDetails.scheduleMode.useExactAlarm();
+      allowWhileIdle |= notificationDetails.scheduleMode.useAllowWhileIdle();
+    }
+    // a repeating notification that was just shown may be due again at the same instant, in which
+    // case it's only shown again the next time it's due
+    setAlarm(
+        context,
+        Math.max(nextFireTime, lastDispatchTime + 1),
+        getDispatchPendingIntent(context),
+        alarmClock,
+        exact,
+        allowWhileIdle);
+  }
+
+  /**
+   * Sets the alarm after the device has booted. Repeating notifications that were due whilst the
+   * device was off aren't shown, in the same way as when each notification has its own alarm.
+   */
+  static synchronized void rearm(Context context) {
+    setLastDispatchTime(
+        context, Math.max(getLastDispatchTime(context), System.currentTimeMillis()));
+    arm(context);
+  }
+
+  /**
+   * Shows every notification that is due, updates the notifications that repeat and removes the
+   * ones that don't before setting the alarm for the next time a notification is due.
+   */
+  static synchronized void dispatch(Context context) {
+    ScheduledNotificationStore store = ScheduledNotificationStore.getInstance(context);
+    long now = System.currentTimeMillis();
+    List<NotificationDetails> dueNotifications = store.getDue(getLastDispatchTime(context), now);
+    List<NotificationDetails> updatedNotifications = new ArrayList<>();
+    List<Integer> removedIds = new ArrayList<>();
+    for (NotificationDetails notificationDetails : dueNotifications) {
+      try {
+        FlutterLocalNotificationsPlugin.showNotification(context, notificationDetails);
+      } catch (RuntimeException e) {
+        // a notification that can't be shown mustn't stop the others from being shown
+        Log.e(TAG, "Failed to show notification " + notificationDetails.id, e);
+      }
+      String nextFireDate =
+          FlutterLocalNotificationsPlugin.getNextZonedFireDate(notificationDetails);
+      if (nextFireDate != null) {
+        notificationDetails.scheduledDateTime = nextFireDate;
+        updatedNotifications.add(notificationDetails);
+      } else if (notificationDetails.repeatInterval == null
+          && notificationDetails.repeatIntervalMilliseconds == null) {
+        removedIds.add(notificationDetails.id);
+      }
+    }
+    store.update(updatedNotifications, removedIds);
+    setLastDispatchTime(context, now);
+    arm(context);
+  }
+
+  static synchronized void cancel(Context context) {
+    getAlarmManager(context).cancel(getDispatchPendingIntent(context));
+  }
+
+  @VisibleForTesting
+  static long getLastDispatchTime(Context context) {
+    return getSharedPreferences(context).getLong(LAST_DISPATCH_TIME, 0);
+  }
+
+  private static void setLastDispatchTime(Context context, long lastDispatchTime) {
+    getSharedPreferences(context).edit().putLong(LAST_DISPATCH_TIME, lastDispatchTime).apply();
+  }
+
+  // The alarm is as precise as the most precise of the notifications that are due at that time.
+  // This is also used for alarms that are set before the user has unlocked the device, which is
+  // when it's too late to report that exact alarms aren't permitted
+  static void setAlarm(
+      Context context,
+      long triggerTime,
+      PendingIntent pendingIntent,
+      boolean alarmClock,
+      boolean exact,
+      boolean allowWhileIdle) {
+    AlarmManager alarmManager = getAlarmManager(context);
+    if ((alarmClock || exact)
+        && Build.VERSION.SDK_INT >= Build.VERSION_CODES.S
+        && !alarmManager.canScheduleExactAlarms()) {
+      // the permission may have been revoked since the notifications were scheduled
+      Log.e(TAG, "Exact alarms are not permitted");
+      alarmClock = false;
+      exact = false;
+      allowWhileIdle = true;
+    }
+    if (alarmClock) {
+      AlarmManagerCompat.setAlarmClock(alarmManager, triggerTime, pendingIntent, pendingIntent);
+    } else if (exact) {
+      if (allowWhileIdle) {
+        AlarmManagerCompat.setExactAndAllowWhileIdle(
+            alarmManager, AlarmManager.RTC_WAKEUP, triggerTime, pendingIntent);
+      } else {
+        AlarmManagerCompat.setExact(
+            alarmManager, AlarmManager.RTC_WAKEUP, triggerTime, pendingIntent);
+      }
+    } else if (allowWhileIdle) {
+      AlarmManagerCompat.setAndAllowWhileIdle(
+          alarmManager, AlarmManager.RTC_WAKEUP, triggerTime, pendingIntent);
+    } else {
+      alarmManager.set(AlarmManager.RTC_WAKEUP, triggerTime, pendingIntent);
+    }
+  }
+
+  private static PendingIntent getDispatchPendingIntent(Context context) {
+    // the action distinguishes the dispatcher from the alarms of notifications, which have no
+    // action
+    Intent intent = new Intent(context, ScheduledNotificationReceiver.class);
+    intent.setAction(ACTION_DISPATCH);
+    int flags = PendingIntent.FLAG_UPDATE_CURRENT;
+    if (VERSION.SDK_INT >= VERSION_CODES.M) {
+      flags |= PendingIntent.FLAG_IMMUTABLE;
+    }
+    return PendingIntent.getBroadcast(context, 0, intent, flags);
+  }
+
+  private static AlarmManager getAlarmManager(Context context) {
+    return (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+  }
+
+  private static SharedPreferences getSharedPreferences(Context context) {
+    return context.getSharedPreferences(SHARED_PREFERENCES_KEY, Context.MODE_PRIVATE);
+  }
+}
@@ -0,0 +1,225 @@
+package com.dexterous.flutterlocalnotifications;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.os.Build.VERSION;
+import android.os.Build.VERSION_CODES;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.core.app.AlarmManagerCompat;
+
+import com.dexterous.flutterlocalnotifications.models.NotificationDetails;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Limits the number of alarms that are set for scheduled notifications. Apps are only allowed a
+ * limited number of alarms at a time and each one uses memory in the system, so apps that schedule
+ * a large number of notifications can opt into only having alarms set for the notifications that
+ * are due soonest. This is limited to a maximum number of alarms, to the notifications that are due
+ * within a period of time or both, as specified via the initialization settings.
+ *
+ * <p>Every scheduled notification is still kept in the {@link ScheduledNotificationStore}. The
+ * horizon is updated whenever notifications are scheduled, shown or cancelled, at which point the
+ * alarms of notifications that are no longer amongst the soonest are cancelled and alarms are set
+ * for the ones that now are. A refill alarm is set for when the notifications that don't have an
+ * alarm yet need one, in case nothing else updates the horizon before then.
+ *
+ * <p>The ids of the notifications that have alarms are persisted so that the horizon knows which
+ * alarms to cancel after the process has been restarted.
+ */
+final class AlarmHorizon {
+  static final String ACTION_REFILL = "com.dexterous.flutterlocalnotifications.REFILL_ALARMS";
+
+  private static final String SHARED_PREFERENCES_KEY = "flutter_local_notifications_alarm_horizon";
+  private static final String ARMED_IDS = "armedIds";
+  // the soonest the refill alarm is set for so that overdue notifications can't cause it to be set
+  // repeatedly
+  private static final long MIN_REFILL_DELAY_MILLISECONDS = 60000;
+
+  @Nullable private static HashSet<Integer> armedIds;
+
+  private AlarmHorizon() {}
+
+  // The dispatcher only ever sets a single alarm so the horizon isn't used alongside it
+  static boolean isEnabled(Context context) {
+    return !AlarmDispatcher.isEnabled(context)
+        && (FlutterLocalNotificationsPlugin.getMaxScheduledAlarms(context) > 0
+            || FlutterLocalNotificationsPlugin.getScheduledAlarmHorizonMilliseconds(context) > 0);
+  }
+
+  /**
+   * Sets and cancels alarms so that only the notifications within the horizon have one. The
+   * notifications with the given ids have changed since their alarm may have been set, so their
+   * alarm is set again if they're within the horizon.
+   */
+  static synchronized void update(Context context, Collection<Integer> changedIds) {
+    update(context, changedIds, false);
+  }
+
+  /** Sets the alarm of every notification within the horizon, such as after the device boots. */
+  static synchronized void rearm(Context context) {
+    update(context, Collections.<Integer>emptySet(), true);
+  }
+
+  /** Forgets which notifications have alarms and cancels the refill alarm. */
+  static synchronized void reset(Context context) {
+    getAlarmManager(context).cancel(getRefillPendingIntent(context));
+    saveArmedIds(context, new HashSet<Integer>());
+  }
+
+  @VisibleForTesting
+  static synchronized Set<Integer> getArmedIds(Context context) {
+    return Collections.unmodifiableSet(loadArmedIds(context));
+  }
+
+  @VisibleForTesting
+  static synchronized void clear() {
+    armedIds = null;
+  }
+
+  private static void update(Context context, Collection<Integer> changedIds, boolean rearm) {
+    ScheduledNotificationStore store = ScheduledNotificationStore.getInstance(context);
+    int maxAlarms = FlutterLocalNotificationsPlugin.getMaxScheduledAlarms(context);
+    if (maxAlarms <= 0) {
+      maxAlarms = Integer.MAX_VALUE;
+    }
+    long horizon = FlutterLocalNotificationsPlugin.getScheduledAlarmHorizonMilliseconds(context);
+    long now = System.currentTimeMillis();
+    long horizonEnd = horizon > 0 ? now + horizon : Long.MAX_VALUE;
+
+    LinkedHashMap<Integer, Long> fireTimes =
+        store.getNextFireTimes(
+            maxAlarms == Integer.MAX_VALUE ? maxAlarms : maxAlarms + 1, horizonEnd);
+    List<Long> armedFireTimes = new ArrayList<>();
+    HashSet<Integer> idsToArm = new HashSet<>();
+    Long nextUnarmedFireTime = null;
+    for (Map.Entry<Integer, Long> entry : fireTimes.entrySet()) {
+      if (idsToArm.size() >= maxAlarms || entry.getValue() > horizonEnd) {
+        nextUnarmedFireTime = entry.getValue();
+        break;
+      }
+      idsToArm.add(entry.getKey());
+      armedFireTimes.add(entry.getValue());
+    }
+
+    HashSet<Integer> previouslyArmedIds = loadArmedIds(context);
+    for (Integer id : previouslyArmedIds) {
+      if (!idsToArm.contains(id)) {
+        FlutterLocalNotificationsPlugin.cancelAlarm(context, id);
+      }
+    }
+    HashSet<Integer> newlyArmedIds = new HashSet<>();
+    for (Integer id : idsToArm) {
+      if (!rearm && previouslyArmedIds.contains(id) && !changedIds.contains(id)) {
+        newlyArmedIds.add(id);
+        continue;
+      }
+      NotificationDetails notificationDetails = store.get(id);
+      if (notificationDetails == null) {
+        continue;
+      }
+      if (FlutterLocalNotificationsPlugin.setAlarm(context, notificationDetails)) {
+        newlyArmedIds.add(id);
+      } else {
+        store.remove(id);
+      }
+    }
+    saveArmedIds(context, newlyArmedIds);
+
+    if (nextUnarmedFireTime == null) {
+      getAlarmManager(context).cancel(getRefillPendingIntent(context));
+    } else {
+      setRefillAlarm(
+          context,
+          getRefillTime(
+              armedFireTimes, idsToArm.size() >= maxAlarms, nextUnarmedFireTime, horizon, now));
+    }
+  }
+
+  // The refill is due once half of the alarms that are limited by number have gone off, or when
+  // the next notification without an alarm is half of the horizon away. Either way half of the
+  // alarms or the horizon remain should the refill alarm be delayed
+  private static long getRefillTime(
+      List<Long> armedFireTimes,
+      boolean limitedByNumber,
+      long nextUnarmedFireTime,
+      long horizon,
+      long now) {
+    long refillTime = Long.MAX_VALUE;
+    if (limitedByNumber && !armedFireTimes.isEmpty()) {
+      refillTime = armedFireTimes.get(armedFireTimes.size() / 2);
+    }
+    if (horizon > 0) {
+      refillTime = Math.min(refillTime, nextUnarmedFireTime - horizon / 2);
+    }
+    if (refillTime == Long.MAX_VALUE) {
+      refillTime = nextUnarmedFireTime;
+    }
+    return Math.max(refillTime, now + MIN_REFILL_DELAY_MILLISECONDS);
+  }
+
+  private static void setRefillAlarm(Context context, long triggerTime) {
+    // the refill doesn't need to be exact as it's set ahead of when notifications need an alarm
+    AlarmManagerCompat.setAndAllowWhileIdle(
+        getAlarmManager(context),
+        AlarmManager.RTC_WAKEUP,
+        triggerTime,
+        getRefillPendingIntent(context));
+  }
+
+  private static PendingIntent getRefillPendingIntent(Context context) {
+    // the action distinguishes the refill from the alarms of notifications, which have no action
+    Intent intent = new Intent(context, ScheduledNotificationReceiver.class);
+    intent.setAction(ACTION_REFILL);
+    int flags = PendingIntent.FLAG_UPDATE_CURRENT;
+    if (VERSION.SDK_INT >= VERSION_CODES.M) {
+      flags |= PendingIntent.FLAG_IMMUTABLE;
+    }
+    return PendingIntent.getBroadcast(context, 0, intent, flags);
+  }
+
+  private static AlarmManager getAlarmManager(Context context) {
+    return (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+  }
+
+  private static HashSet<Integer> loadArmedIds(Context context) {
+    if (armedIds == null) {
+      SharedPreferences sharedPreferences =
+          context.getSharedPreferences(SHARED_PREFERENCES_KEY, Context.MODE_PRIVATE);
+      HashSet<Integer> ids = new HashSet<>();
+      for (String id : sharedPreferences.getStringSet(ARMED_IDS, new HashSet<String>())) {
+        ids.add(Integer.valueOf(id));
+      }
+      armedIds = ids;
+    }
+    return armedIds;
+  }
+
+  private static void saveArmedIds(Context context, HashSet<Integer> ids) {
+    if (ids.equals(loadArmedIds(context))) {
+      return;
+    }
+    armedIds = ids;
+    HashSet<String> values = new HashSet<>();
+    for (Integer id : ids) {
+      values.add(String.valueOf(id));
+    }
+    context
+        .getSharedPreferences(SHARED_PREFERENCES_KEY, Context.MODE_PRIVATE)
+        .edit()
+        .putStringSet(ARMED_IDS, values)
+        .apply();
+  }
+}
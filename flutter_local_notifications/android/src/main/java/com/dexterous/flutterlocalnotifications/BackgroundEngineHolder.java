@@ -0,0 +1,359 @@
+package com.dexterous.flutterlocalnotifications;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.dexterous.flutterlocalnotifications.isolate.IsolatePreferences;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.flutter.FlutterInjector;
+import io.flutter.embedding.engine.FlutterEngine;
+import io.flutter.embedding.engine.dart.DartExecutor;
+import io.flutter.embedding.engine.loader.FlutterLoader;
+import io.flutter.plugin.common.EventChannel;
+import io.flutter.plugin.common.EventChannel.EventSink;
+import io.flutter.plugin.common.EventChannel.StreamHandler;
+import io.flutter.view.FlutterCallbackInformation;
+
+/**
+ * Holds the engine that runs the background isolate that notification actions are passed to.
+ *
+ * <p>The engine is kept running after an action has been handled so that a burst of actions only
+ * pays for starting it once. It's destroyed once the actions have been acknowledged and no others
+ * have been received for the idle timeout given when the plugin was initialised, or as soon as
+ * they have been acknowledged when the system asks for memory to be trimmed. The next action starts
+ * it again. Actions are kept in the {@link ActionEventQueue} until the background
+ * isolate acknowledges them. When notification responses are batched, the actions are passed on as
+ * lists. Actions and engine callbacks arrive on the main thread whilst the metrics may be read from
+ * any thread.
+ */
+final class BackgroundEngineHolder {
+  private static final String TAG = "BackgroundEngineHolder";
+  private static final String ACTIONS_CHANNEL =
+      "dexterous.com/flutter/local_notifications/actions";
+
+  // the key of the sequence number that the background isolate acknowledges each action with
+  static final String SEQUENCE = "sequence";
+
+  static final String ENGINE_RUNNING = "engineRunning";
+  static final String ENGINE_START_COUNT = "engineStartCount";
+  static final String LAST_ENGINE_START_MILLISECONDS = "lastEngineStartMilliseconds";
+  static final String TOTAL_ENGINE_START_MILLISECONDS = "totalEngineStartMilliseconds";
+  static final String DISPATCH_COUNT = "dispatchCount";
+  static final String LAST_DISPATCH_LATENCY_MILLISECONDS = "lastDispatchLatencyMilliseconds";
+  static final String MAX_DISPATCH_LATENCY_MILLISECONDS = "maxDispatchLatencyMilliseconds";
+  static final String TOTAL_DISPATCH_LATENCY_MILLISECONDS = "totalDispatchLatencyMilliseconds";
+
+  /** Starts an engine that runs the background isolate. */
+  interface EngineStarter {
+    /**
+     * Returns the engine that was started or null if it couldn't be. The Dart side of the engine
+     * listens to the actions through the given stream handler.
+     */
+    @Nullable
+    FlutterEngine start(
+        Context context, IsolatePreferences preferences, StreamHandler actionStreamHandler);
+  }
+
+  private static final EngineStarter DEFAULT_ENGINE_STARTER =
+      new EngineStarter() {
+        @Nullable
+        @Override
+        public FlutterEngine start(
+            Context context, IsolatePreferences preferences, StreamHandler actionStreamHandler) {
+          FlutterLoader loader = FlutterInjector.instance().flutterLoader();
+          loader.startInitialization(context);
+          loader.ensureInitializationComplete(context, null);
+
+          FlutterEngine engine = new FlutterEngine(context);
+
+          /// This lookup needs to be done after creating an instance of `FlutterEngine` or lookup
+          // may fail
+          FlutterCallbackInformation dispatcherHandle = preferences.lookupDispatcherHandle();
+          if (dispatcherHandle == null) {
+            Log.w(TAG, "Callback information could not be retrieved");
+            engine.destroy();
+            return null;
+          }
+
+          DartExecutor dartExecutor = engine.getDartExecutor();
+          new EventChannel(dartExecutor.getBinaryMessenger(), ACTIONS_CHANNEL)
+              .setStreamHandler(actionStreamHandler);
+          dartExecutor.executeDartCallback(
+              new DartExecutor.DartCallback(
+                  context.getAssets(), loader.findAppBundlePath(), dispatcherHandle));
+          return engine;
+        }
+      };
+
+  @Nullable private static BackgroundEngineHolder instance;
+
+  private final EngineStarter engineStarter;
+  private final Handler handler = new Handler(Looper.getMainLooper());
+
+  private final Runnable idleTimeout =
+      new Runnable() {
+        @Override
+        public void run() {
+          synchronized (BackgroundEngineHolder.this) {
+            if (getQueue().isEmpty()) {
+              destroy();
+            } else {
+              // the engine is still starting or the background isolate is handling actions
+              scheduleIdleTimeout();
+            }
+          }
+        }
+      };
+
+  private final Runnable deliverBatch =
+      new Runnable() {
+        @Override
+        public void run() {
+          synchronized (BackgroundEngineHolder.this) {
+            deliverPendingActions();
+          }
+        }
+      };
+
+  private final StreamHandler actionStreamHandler =
+      new StreamHandler() {
+        @Override
+        public void onListen(Object arguments, EventSink events) {
+          synchronized (BackgroundEngineHolder.this) {
+            eventSink = events;
+            // the actions that weren't acknowledged by a previous isolate are passed on again
+            deliveredSequence = 0;
+            if (engineStartTime != 0) {
+              lastEngineStartMillis = SystemClock.elapsedRealtime() - engineStartTime;
+              totalEngineStartMillis += lastEngineStartMillis;
+              engineStartCount++;
+              engineStartTime = 0;
+            }
+            deliverPendingActions();
+            scheduleIdleTimeout();
+          }
+        }
+
+        @Override
+        public void onCancel(Object arguments) {
+          synchronized (BackgroundEngineHolder.this) {
+            eventSink = null;
+          }
+        }
+      };
+
+  private final ComponentCallbacks2 memoryCallbacks =
+      new ComponentCallbacks2() {
+        @Override
+        @SuppressWarnings("deprecation")
+        public void onTrimMemory(int level) {
+          if (level >= TRIM_MEMORY_BACKGROUND || level == TRIM_MEMORY_RUNNING_CRITICAL) {
+            destroyIfIdle();
+          }
+        }
+
+        @Override
+        public void onLowMemory() {
+          destroyIfIdle();
+        }
+
+        @Override
+        public void onConfigurationChanged(@NonNull Configuration newConfig) {}
+      };
+
+  @Nullable private Context context;
+  @Nullable private FlutterEngine engine;
+  @Nullable private EventSink eventSink;
+  // the sequence number of the last action that was passed to the background isolate
+  private long deliveredSequence;
+  private boolean batchScheduled;
+  // when the engine that is starting was requested, or 0 once the Dart side is listening
+  private long engineStartTime;
+
+  private int engineStartCount;
+  private long lastEngineStartMillis;
+  private long totalEngineStartMillis;
+  private int dispatchCount;
+  private long lastDispatchLatencyMillis;
+  private long maxDispatchLatencyMillis;
+  private long totalDispatchLatencyMillis;
+
+  @VisibleForTesting
+  BackgroundEngineHolder(EngineStarter engineStarter) {
+    this.engineStarter = engineStarter;
+  }
+
+  static synchronized BackgroundEngineHolder getInstance() {
+    if (instance == null) {
+      instance = new BackgroundEngineHolder(DEFAULT_ENGINE_STARTER);
+    }
+    return instance;
+  }
+
+  /**
+   * Passes the action to the background isolate, starting the engine that runs it if it isn't
+   * already running. The action is saved until the background isolate acknowledges it.
+   */
+  @VisibleForTesting
+  synchronized void dispatch(
+      Context context, Map<String, Object> action, IsolatePreferences preferences) {
+    ActionEventQueue.getInstance(context).append(action);
+    dispatchSavedActions(context, preferences);
+  }
+
+  /**
+   * Passes the actions that have already been saved to the {@link ActionEventQueue} to the
+   * background isolate, starting the engine that runs it if it isn't already running.
+   */
+  synchronized void dispatchSavedActions(Context context, IsolatePreferences preferences) {
+    this.context = context.getApplicationContext();
+    if (engine == null) {
+      startEngine(preferences);
+    } else if (isBatchReady()) {
+      deliverPendingActions();
+    }
+    scheduleIdleTimeout();
+  }
+
+  /**
+   * Starts the engine if there are actions that the background isolate didn't acknowledge before
+   * the process last died.
+   */
+  synchronized void resume(Context context, IsolatePreferences preferences) {
+    this.context = context.getApplicationContext();
+    if (engine == null && !getQueue().isEmpty()) {
+      startEngine(preferences);
+      scheduleIdleTimeout();
+    }
+  }
+
+  /**
+   * Destroys the engine once the background isolate has acknowledged every action, so that actions
+   * it's still handling aren't lost.
+   */
+  synchronized void destroyIfIdle() {
+    if (engine != null && getQueue().isEmpty()) {
+      destroy();
+    }
+  }
+
+  /** Returns how long it took to start the engine and pass actions to the background isolate. */
+  synchronized Map<String, Object> getMetrics() {
+    final Map<String, Object> metrics = new HashMap<>();
+    metrics.put(ENGINE_RUNNING, engine != null);
+    metrics.put(ENGINE_START_COUNT, engineStartCount);
+    metrics.put(LAST_ENGINE_START_MILLISECONDS, lastEngineStartMillis);
+    metrics.put(TOTAL_ENGINE_START_MILLISECONDS, totalEngineStartMillis);
+    metrics.put(DISPATCH_COUNT, dispatchCount);
+    metrics.put(LAST_DISPATCH_LATENCY_MILLISECONDS, lastDispatchLatencyMillis);
+    metrics.put(MAX_DISPATCH_LATENCY_MILLISECONDS, maxDispatchLatencyMillis);
+    metrics.put(TOTAL_DISPATCH_LATENCY_MILLISECONDS, totalDispatchLatencyMillis);
+    return metrics;
+  }
+
+  private ActionEventQueue getQueue() {
+    return ActionEventQueue.getInstance(context);
+  }
+
+  private void startEngine(IsolatePreferences preferences) {
+    engineStartTime = SystemClock.elapsedRealtime();
+    engine = engineStarter.start(context, preferences, actionStreamHandler);
+    if (engine == null) {
+      engineStartTime = 0;
+      return;
+    }
+    context.registerComponentCallbacks(memoryCallbacks);
+  }
+
+  // returns whether the actions should be passed on now instead of waiting for others that may
+  // follow to be batched with, in which case they're passed on once the maximum latency is reached
+  private boolean isBatchReady() {
+    final int maxBatchSize =
+        FlutterLocalNotificationsPlugin.getNotificationResponseBatchMaxSize(context);
+    if (maxBatchSize <= 0
+        || getQueue().getEventsAfter(deliveredSequence).size() >= maxBatchSize) {
+      return true;
+    }
+    if (!batchScheduled) {
+      batchScheduled = true;
+      handler.postDelayed(
+          deliverBatch,
+          FlutterLocalNotificationsPlugin.getNotificationResponseBatchMaxLatencyMilliseconds(
+              context));
+    }
+    return false;
+  }
+
+  private void deliverPendingActions() {
+    handler.removeCallbacks(deliverBatch);
+    batchScheduled = false;
+    if (eventSink == null) {
+      return;
+    }
+    final int maxBatchSize =
+        FlutterLocalNotificationsPlugin.getNotificationResponseBatchMaxSize(context);
+    final long now = System.currentTimeMillis();
+    List<Map<String, Object>> batch = new ArrayList<>();
+    for (ActionEventQueue.Event event : getQueue().getEventsAfter(deliveredSequence)) {
+      final Map<String, Object> action = new HashMap<>(event.action);
+      action.put(SEQUENCE, event.sequence);
+      if (maxBatchSize > 0) {
+        batch.add(action);
+        if (batch.size() == maxBatchSize) {
+          eventSink.success(batch);
+          batch = new ArrayList<>();
+        }
+      } else {
+        eventSink.success(action);
+      }
+      deliveredSequence = event.sequence;
+      lastDispatchLatencyMillis = Math.max(0, now - event.receivedTime);
+      maxDispatchLatencyMillis = Math.max(maxDispatchLatencyMillis, lastDispatchLatencyMillis);
+      totalDispatchLatencyMillis += lastDispatchLatencyMillis;
+      dispatchCount++;
+    }
+    if (!batch.isEmpty()) {
+      eventSink.success(batch);
+    }
+  }
+
+  private void scheduleIdleTimeout() {
+    handler.removeCallbacks(idleTimeout);
+    if (engine == null) {
+      return;
+    }
+    final long timeout =
+        FlutterLocalNotificationsPlugin.getBackgroundEngineIdleTimeoutMilliseconds(context);
+    if (timeout > 0) {
+      handler.postDelayed(idleTimeout, timeout);
+    }
+  }
+
+  private void destroy() {
+    handler.removeCallbacks(idleTimeout);
+    handler.removeCallbacks(deliverBatch);
+    batchScheduled = false;
+    if (engine == null) {
+      return;
+    }
+    context.unregisterComponentCallbacks(memoryCallbacks);
+    engine.destroy();
+    engine = null;
+    eventSink = null;
+    engineStartTime = 0;
+  }
+}
@@ -0,0 +1,243 @@
+package com.dexterous.flutterlocalnotifications;
+
+import android.content.Context;
+import android.util.AtomicFile;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.dexterous.flutterlocalnotifications.models.BitmapSource;
+import com.dexterous.flutterlocalnotifications.models.NotificationDetails;
+import com.dexterous.flutterlocalnotifications.models.styles.BigPictureStyleInformation;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Stores the bytes of images used by scheduled notifications as files named after the SHA-256
+ * hash of their contents. This means each distinct image is only stored once regardless of how
+ * many notifications use it.
+ *
+ * <p>When a notification is scheduled, images that were specified as byte arrays are replaced by
+ * the hash of their contents. That way the persisted record and the alarm's intent only hold a
+ * reference to the image. Images are kept in the no-backup directory as they're only needed
+ * whilst a notification is scheduled. {@link ScheduledNotificationStore} removes images that are
+ * no longer referenced by any scheduled notification.
+ *
+ * <p>An image is stored before the notification that refers to it is saved, and another engine
+ * may save or look up notifications in between. Images are therefore only deleted once they
+ * haven't been stored or reused for {@link #UNSAVED_IMAGE_GRACE_PERIOD_MILLISECONDS}, so that an
+ * image isn't deleted just before the notification that refers to it is saved.
+ */
+final class BitmapBlobStore {
+  private static final String TAG = "BitmapBlobStore";
+
+  private static final String DIRECTORY = "flutter_local_notifications/blobs";
+  private static final int HASH_LENGTH = 64;
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+  @VisibleForTesting static final long UNSAVED_IMAGE_GRACE_PERIOD_MILLISECONDS = 60 * 60 * 1000;
+
+  @Nullable private static BitmapBlobStore instance;
+
+  private final File directory;
+
+  private BitmapBlobStore(Context context) {
+    this.directory = new File(context.getNoBackupFilesDir(), DIRECTORY);
+  }
+
+  static synchronized BitmapBlobStore getInstance(Context context) {
+    if (instance == null) {
+      instance = new BitmapBlobStore(context.getApplicationContext());
+    }
+    return instance;
+  }
+
+  @VisibleForTesting
+  static synchronized void resetInstance() {
+    instance = null;
+  }
+
+  /**
+   * Moves the images of the notification that were specified as byte arrays into the store,
+   * replacing each of them with a reference to the stored image. Images that can't be stored are
+   * left as is.
+   */
+  synchronized void externalize(NotificationDetails notificationDetails) {
+    if (notificationDetails.largeIconBitmapSource == BitmapSource.ByteArray) {
+      notificationDetails.largeIcon = externalize(notificationDetails.largeIcon);
+    }
+    if (notificationDetails.styleInformation instanceof BigPictureStyleInformation) {
+      BigPictureStyleInformation bigPictureStyleInformation =
+          (BigPictureStyleInformation) notificationDetails.styleInformation;
+      if (bigPictureStyleInformation.largeIconBitmapSource == BitmapSource.ByteArray) {
+        bigPictureStyleInformation.largeIcon = externalize(bigPictureStyleInformation.largeIcon);
+      }
+      if (bigPictureStyleInformation.bigPictureBitmapSource == BitmapSource.ByteArray) {
+        bigPictureStyleInformation.bigPicture = externalize(bigPictureStyleInformation.bigPicture);
+      }
+    }
+  }
+
+  /** Returns the bytes of the image with the given reference or null if it isn't stored. */
+  @Nullable
+  synchronized byte[] get(String reference) {
+    if (!isReference(reference)) {
+      return null;
+    }
+    AtomicFile file = new AtomicFile(new File(directory, reference));
+    if (!file.getBaseFile().exists()) {
+      return null;
+    }
+    try {
+      return file.readFully();
+    } catch (IOException e) {
+      Log.e(TAG, "Unable to read image " + reference, e);
+      return null;
+    }
+  }
+
+  /**
+   * Deletes the image with the given reference unless it was stored or reused within the grace
+   * period, in which case it's left for {@link #retainAll} to delete later.
+   */
+  synchronized void delete(String reference) {
+    if (isReference(reference) && !isWithinGracePeriod(new File(directory, reference))) {
+      new AtomicFile(new File(directory, reference)).delete();
+    }
+  }
+
+  /**
+   * Deletes every stored image that isn't in the given set of references and wasn't stored or
+   * reused within the grace period.
+   */
+  synchronized void retainAll(Set<String> references) {
+    String[] fileNames = directory.list();
+    if (fileNames == null) {
+      return;
+    }
+    for (String fileName : fileNames) {
+      // AtomicFile may leave behind temporary and backup files named after the image
+      String reference =
+          fileName.length() > HASH_LENGTH ? fileName.substring(0, HASH_LENGTH) : fileName;
+      File file = new File(directory, fileName);
+      if (references.contains(reference)
+          || isWithinGracePeriod(new File(directory, reference))
+          || isWithinGracePeriod(file)) {
+        continue;
+      }
+      if (!file.delete()) {
+        Log.w(TAG, "Unable to delete image " + fileName);
+      }
+    }
+  }
+
+  /** Adds the references to stored images that are used by the notification to the set. */
+  static void collectReferences(NotificationDetails notificationDetails, Set<String> references) {
+    if (notificationDetails.largeIconBitmapSource == BitmapSource.ByteArray
+        && isReference(notificationDetails.largeIcon)) {
+      references.add((String) notificationDetails.largeIcon);
+    }
+    if (notificationDetails.styleInformation instanceof BigPictureStyleInformation) {
+      BigPictureStyleInformation bigPictureStyleInformation =
+          (BigPictureStyleInformation) notificationDetails.styleInformation;
+      if (bigPictureStyleInformation.largeIconBitmapSource == BitmapSource.ByteArray
+          && isReference(bigPictureStyleInformation.largeIcon)) {
+        references.add((String) bigPictureStyleInformation.largeIcon);
+      }
+      if (bigPictureStyleInformation.bigPictureBitmapSource == BitmapSource.ByteArray
+          && isReference(bigPictureStyleInformation.bigPicture)) {
+        references.add((String) bigPictureStyleInformation.bigPicture);
+      }
+    }
+  }
+
+  // Images specified as byte arrays are otherwise never held as strings so a string of the right
+  // form is a reference. Checking the characters also ensures it can't refer to another directory
+  static boolean isReference(@Nullable Object data) {
+    if (!(data instanceof String) || ((String) data).length() != HASH_LENGTH) {
+      return false;
+    }
+    String reference = (String) data;
+    for (int i = 0; i < HASH_LENGTH; i++) {
+      char c = reference.charAt(i);
+      if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private Object externalize(@Nullable Object data) {
+    byte[] bytes;
+    if (data instanceof byte[]) {
+      bytes = (byte[]) data;
+    } else if (data instanceof List) {
+      // images read back from JSON by older versions of the plugin are lists of numbers
+      List<?> values = (List<?>) data;
+      bytes = new byte[values.size()];
+      for (int i = 0; i < bytes.length; i++) {
+        bytes[i] = ((Number) values.get(i)).byteValue();
+      }
+    } else {
+      return data;
+    }
+    String reference = hash(bytes);
+    if (reference == null) {
+      return data;
+    }
+    AtomicFile file = new AtomicFile(new File(directory, reference));
+    if (file.getBaseFile().exists()) {
+      // restarts the grace period as the notification that now refers to it may not be saved yet
+      if (!file.getBaseFile().setLastModified(System.currentTimeMillis())) {
+        Log.w(TAG, "Unable to update the time image " + reference + " was last used");
+      }
+      return reference;
+    }
+    if (!directory.exists() && !directory.mkdirs()) {
+      Log.e(TAG, "Unable to create directory " + directory);
+      return data;
+    }
+    FileOutputStream outputStream = null;
+    try {
+      outputStream = file.startWrite();
+      outputStream.write(bytes);
+      file.finishWrite(outputStream);
+      return reference;
+    } catch (IOException e) {
+      Log.e(TAG, "Unable to save image " + reference, e);
+      if (outputStream != null) {
+        file.failWrite(outputStream);
+      }
+      return data;
+    }
+  }
+
+  private static boolean isWithinGracePeriod(File file) {
+    // a file that doesn't exist has a last modified time of 0
+    return System.currentTimeMillis() - file.lastModified()
+        < UNSAVED_IMAGE_GRACE_PERIOD_MILLISECONDS;
+  }
+
+  @Nullable
+  private static String hash(byte[] bytes) {
+    byte[] digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+    } catch (NoSuchAlgorithmException e) {
+      Log.e(TAG, "Unable to hash image", e);
+      return null;
+    }
+    char[] hex = new char[digest.length * 2];
+    for (int i = 0; i < digest.length; i++) {
+      hex[i * 2] = HEX_DIGITS[(digest[i] >> 4) & 0xF];
+      hex[i * 2 + 1] = HEX_DIGITS[digest[i] & 0xF];
+    }
+    return new String(hex);
+  }
+}
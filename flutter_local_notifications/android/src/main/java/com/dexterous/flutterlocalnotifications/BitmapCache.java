@@ -0,0 +1,164 @@
+package com.dexterous.flutterlocalnotifications;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.graphics.Bitmap;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import java.util.Arrays;
+
+/**
+ * Keeps recently decoded images in memory so that notifications that use the same image, such as
+ * the avatar of the sender in each message of a conversation, don't need to decode it every time
+ * they're shown.
+ *
+ * <p>The cache is bounded by the number of bytes used by the bitmaps it holds and the least
+ * recently used bitmaps are evicted first. It's trimmed or cleared when the system indicates that
+ * memory is running low.
+ */
+final class BitmapCache implements ComponentCallbacks2 {
+  // a fraction of the memory available to the app is used so that the cache doesn't significantly
+  // contribute to the memory pressure of apps that show few notifications
+  private static final int MAX_MEMORY_FRACTION = 16;
+
+  @Nullable private static BitmapCache instance;
+
+  private final LruCache<Key, Bitmap> bitmaps;
+  private int densityDpi;
+
+  @VisibleForTesting
+  BitmapCache(int maxSizeBytes) {
+    bitmaps =
+        new LruCache<Key, Bitmap>(maxSizeBytes) {
+          @Override
+          protected int sizeOf(Key key, Bitmap bitmap) {
+            return bitmap.getAllocationByteCount();
+          }
+        };
+  }
+
+  static synchronized BitmapCache getInstance(Context context) {
+    if (instance == null) {
+      Context applicationContext = context.getApplicationContext();
+      instance = new BitmapCache((int) (Runtime.getRuntime().maxMemory() / MAX_MEMORY_FRACTION));
+      instance.densityDpi = applicationContext.getResources().getConfiguration().densityDpi;
+      applicationContext.registerComponentCallbacks(instance);
+    }
+    return instance;
+  }
+
+  @Nullable
+  Bitmap get(Key key) {
+    return bitmaps.get(key);
+  }
+
+  void put(Key key, Bitmap bitmap) {
+    bitmaps.put(key, bitmap);
+  }
+
+  int hitCount() {
+    return bitmaps.hitCount();
+  }
+
+  int missCount() {
+    return bitmaps.missCount();
+  }
+
+  int size() {
+    return bitmaps.size();
+  }
+
+  @Override
+  public void onTrimMemory(int level) {
+    if (level >= TRIM_MEMORY_MODERATE || level == TRIM_MEMORY_RUNNING_CRITICAL) {
+      bitmaps.evictAll();
+    } else if (level >= TRIM_MEMORY_RUNNING_LOW) {
+      bitmaps.trimToSize(bitmaps.maxSize() / 2);
+    }
+  }
+
+  @Override
+  public void onLowMemory() {
+    bitmaps.evictAll();
+  }
+
+  @Override
+  public void onConfigurationChanged(@NonNull Configuration newConfig) {
+    // drawable resources are decoded for the density of the display
+    if (newConfig.densityDpi != densityDpi) {
+      densityDpi = newConfig.densityDpi;
+      bitmaps.evictAll();
+    }
+  }
+
+  /**
+   * Identifies a decoded image by where it came from and the size it was decoded at. Images that
+   * were given as bytes are identified by their contents.
+   */
+  static final class Key {
+    private final String source;
+    @Nullable private final String name;
+    @Nullable private final byte[] bytes;
+    private final long version;
+    private final BitmapTarget target;
+    private final int hashCode;
+
+    private Key(
+        String source,
+        @Nullable String name,
+        @Nullable byte[] bytes,
+        long version,
+        BitmapTarget target) {
+      this.source = source;
+      this.name = name;
+      this.bytes = bytes;
+      this.version = version;
+      this.target = target;
+      int hash = source.hashCode();
+      hash = 31 * hash + (name != null ? name.hashCode() : Arrays.hashCode(bytes));
+      hash = 31 * hash + Long.hashCode(version);
+      hash = 31 * hash + target.hashCode();
+      this.hashCode = hash;
+    }
+
+    /**
+     * Returns the key for an image that is identified by a name such as a resource name, file path
+     * or asset. The version allows images that can change, such as files, to be decoded again
+     * after they've been modified.
+     */
+    static Key forName(String source, String name, long version, BitmapTarget target) {
+      return new Key(source, name, null, version, target);
+    }
+
+    static Key forBytes(String source, byte[] bytes, BitmapTarget target) {
+      return new Key(source, null, bytes, 0, target);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) o;
+      return hashCode == key.hashCode
+          && version == key.version
+          && target.equals(key.target)
+          && source.equals(key.source)
+          && (name != null ? name.equals(key.name) : key.name == null)
+          && Arrays.equals(bytes, key.bytes);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
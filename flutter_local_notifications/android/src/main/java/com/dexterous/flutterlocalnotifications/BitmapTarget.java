@@ -0,0 +1,108 @@
+package com.dexterous.flutterlocalnotifications;
+
+import android.graphics.Bitmap;
+import android.os.Build.VERSION;
+import android.os.Build.VERSION_CODES;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Describes the size and format that an image should be decoded at. Images are decoded at the
+ * smallest power of two fraction of their original size that still covers the target dimensions
+ * and, if a maximum number of bytes has been specified, that fits within it.
+ */
+final class BitmapTarget {
+  /** Decodes images at their original size. */
+  static final BitmapTarget ORIGINAL = new BitmapTarget(0, 0, 0, Bitmap.Config.ARGB_8888);
+
+  final int width;
+  final int height;
+  final long maxBytes;
+  final Bitmap.Config config;
+
+  /**
+   * @param width the width the image is displayed at in pixels or 0 if it isn't constrained.
+   * @param height the height the image is displayed at in pixels or 0 if it isn't constrained.
+   * @param maxBytes the maximum number of bytes the decoded image may use or 0 for no limit.
+   * @param config the pixel format to decode the image with.
+   */
+  BitmapTarget(int width, int height, long maxBytes, Bitmap.Config config) {
+    this.width = width;
+    this.height = height;
+    this.maxBytes = maxBytes;
+    this.config = config;
+  }
+
+  /** Returns the value of {@code BitmapFactory.Options.inSampleSize} for an image of this size. */
+  int calculateInSampleSize(int sourceWidth, int sourceHeight) {
+    int inSampleSize = 1;
+    if (sourceWidth <= 0 || sourceHeight <= 0) {
+      return inSampleSize;
+    }
+    if (width > 0 || height > 0) {
+      while (sourceWidth / (inSampleSize * 2) >= width
+          && sourceHeight / (inSampleSize * 2) >= height) {
+        inSampleSize *= 2;
+      }
+    }
+    if (maxBytes > 0) {
+      while (calculateByteCount(sourceWidth, sourceHeight, inSampleSize) > maxBytes
+          && (sourceWidth > inSampleSize || sourceHeight > inSampleSize)) {
+        inSampleSize *= 2;
+      }
+    }
+    return inSampleSize;
+  }
+
+  /**
+   * Scales the bitmap down if it still uses more than the maximum number of bytes. This can happen
+   * when drawable resources are scaled for the density of the display after being decoded.
+   */
+  Bitmap fit(Bitmap bitmap) {
+    long byteCount = bitmap.getAllocationByteCount();
+    if (maxBytes <= 0 || byteCount <= maxBytes || isHardware(bitmap.getConfig())) {
+      return bitmap;
+    }
+    double scale = Math.sqrt((double) maxBytes / byteCount);
+    return Bitmap.createScaledBitmap(
+        bitmap,
+        Math.max(1, (int) (bitmap.getWidth() * scale)),
+        Math.max(1, (int) (bitmap.getHeight() * scale)),
+        true);
+  }
+
+  private long calculateByteCount(int sourceWidth, int sourceHeight, int inSampleSize) {
+    long sampledWidth = (sourceWidth + inSampleSize - 1) / inSampleSize;
+    long sampledHeight = (sourceHeight + inSampleSize - 1) / inSampleSize;
+    return sampledWidth * sampledHeight * (config == Bitmap.Config.RGB_565 ? 2 : 4);
+  }
+
+  // hardware bitmaps can't be drawn into software bitmaps to scale them
+  private static boolean isHardware(@Nullable Bitmap.Config config) {
+    return VERSION.SDK_INT >= VERSION_CODES.O && config == Bitmap.Config.HARDWARE;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof BitmapTarget)) {
+      return false;
+    }
+    BitmapTarget that = (BitmapTarget) o;
+    return width == that.width
+        && height == that.height
+        && maxBytes == that.maxBytes
+        && config == that.config;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = width;
+    result = 31 * result + height;
+    result = 31 * result + Long.hashCode(maxBytes);
+    result = 31 * result + config.hashCode();
+    return result;
+  }
+}
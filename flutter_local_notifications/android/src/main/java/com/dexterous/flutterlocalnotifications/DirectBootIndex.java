@@ -0,0 +1,385 @@
+package com.dexterous.flutterlocalnotifications;
+
+import android.app.AlarmManager;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.os.Build.VERSION;
+import android.os.Build.VERSION_CODES;
+import android.os.UserManager;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.NotificationManagerCompat;
+
+import com.dexterous.flutterlocalnotifications.models.NotificationDetails;
+import com.dexterous.flutterlocalnotifications.models.ScheduleMode;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps an index of when each scheduled notification is due in device protected storage so that
+ * alarms can be set after the device has booted but before the user has unlocked it. The
+ * notifications themselves are kept in credential protected storage, which can't be read until
+ * then. This is opted into via the initialization settings.
+ *
+ * <p>The index only holds the id of each notification, the time it's due, how precise its alarm
+ * should be and the details of its channel and icon. No content is kept in it. When an alarm that
+ * was set from the index goes off whilst the device is still locked, a notification without any
+ * content is shown on the channel of the scheduled notification. Once the user has unlocked the
+ * device, it's replaced with the scheduled notification, which is then rescheduled as usual.
+ */
+final class DirectBootIndex {
+  static final String ACTION_ALARM = "com.dexterous.flutterlocalnotifications.DIRECT_BOOT_ALARM";
+
+  private static final String TAG = "DirectBootIndex";
+  private static final String INDEX_SHARED_PREFERENCES_KEY =
+      "flutter_local_notifications_direct_boot_index";
+  private static final String STATE_SHARED_PREFERENCES_KEY =
+      "flutter_local_notifications_direct_boot_state";
+  private static final String ARMED_IDS = "armedIds";
+  private static final String SHOWN_IDS = "shownIds";
+  // only the soonest notifications have alarms set as the device is usually unlocked soon after
+  private static final int MAX_ALARMS = 50;
+
+  private static final String FIRE_TIME = "fireTime";
+  private static final String REPEAT_INTERVAL = "repeatInterval";
+  private static final String REPEATS = "repeats";
+  private static final String SCHEDULE_MODE = "scheduleMode";
+  private static final String CHANNEL_ID = "channelId";
+  private static final String CHANNEL_NAME = "channelName";
+  private static final String IMPORTANCE = "importance";
+  private static final String ICON = "icon";
+  private static final String DRAWABLE = "drawable";
+
+  private DirectBootIndex() {}
+
+  static boolean isEnabled(Context context) {
+    return FlutterLocalNotificationsPlugin.useDirectBootIndex(context);
+  }
+
+  /** Adds or replaces the entries of the given notifications and removes the ones with the ids. */
+  static synchronized void update(
+      Context context,
+      Collection<NotificationDetails> notifications,
+      Collection<Integer> removedIds) {
+    if (!isEnabled(context)) {
+      return;
+    }
+    SharedPreferences.Editor editor = getIndex(context).edit();
+    for (NotificationDetails notificationDetails : notifications) {
+      String entry = toEntry(context, notificationDetails);
+      if (entry != null) {
+        editor.putString(String.valueOf(notificationDetails.id), entry);
+      } else {
+        editor.remove(String.valueOf(notificationDetails.id));
+      }
+    }
+    for (Integer id : removedIds) {
+      editor.remove(String.valueOf(id));
+    }
+    editor.apply();
+  }
+
+  /** Replaces every entry with those of the given notifications. */
+  static synchronized void rebuild(Context context, Collection<NotificationDetails> notifications) {
+    clear(context);
+    update(context, notifications, Collections.<Integer>emptyList());
+  }
+
+  static synchronized void clear(Context context) {
+    getIndex(context).edit().clear().apply();
+  }
+
+  /**
+   * Sets alarms for the notifications that are due soonest once the device has booted but before
+   * the user has unlocked it. Notifications that are only shown once and whose time has passed are
+   * left for when the device is unlocked.
+   */
+  static synchronized void rearm(Context context) {
+    if (isUserUnlocked(context)) {
+      // the notifications are rescheduled once the boot has completed instead
+      return;
+    }
+    long now = System.currentTimeMillis();
+    List<Alarm> alarms = new ArrayList<>();
+    for (Map.Entry<String, ?> entry : getIndex(context).getAll().entrySet()) {
+      try {
+        JSONObject value = new JSONObject((String) entry.getValue());
+        long fireTime = getNextFireTime(value, now);
+        if (fireTime >= now || value.optBoolean(REPEATS)) {
+          alarms.add(
+              new Alarm(Integer.parseInt(entry.getKey()), fireTime, getScheduleMode(value)));
+        }
+      } catch (JSONException | NumberFormatException | ClassCastException e) {
+        Log.e(TAG, "Skipping invalid entry " + entry.getKey(), e);
+      }
+    }
+    Collections.sort(
+        alarms,
+        new Comparator<Alarm>() {
+          @Override
+          public int compare(Alarm a, Alarm b) {
+            return Long.compare(a.fireTime, b.fireTime);
+          }
+        });
+    Set<String> armedIds = new HashSet<>();
+    for (Alarm alarm : alarms.subList(0, Math.min(alarms.size(), MAX_ALARMS))) {
+      AlarmDispatcher.setAlarm(
+          context,
+          Math.max(alarm.fireTime, now),
+          getAlarmPendingIntent(context, alarm.id),
+          alarm.scheduleMode.useAlarmClock(),
+          alarm.scheduleMode.useExactAlarm(),
+          alarm.scheduleMode.useAllowWhileIdle());
+      armedIds.add(String.valueOf(alarm.id));
+    }
+    getState(context).edit().putStringSet(ARMED_IDS, armedIds).apply();
+  }
+
+  /**
+   * Handles an alarm that was set by {@link #rearm(Context)}. The scheduled notification is shown
+   * when the user has since unlocked the device, otherwise a notification without any content is
+   * shown in its place until they do.
+   */
+  static void onAlarm(Context context, Intent intent) {
+    int id = intent.getIntExtra(FlutterLocalNotificationsPlugin.NOTIFICATION_ID, 0);
+    removeArmedId(context, id);
+    if (isUserUnlocked(context)) {
+      NotificationDetails notificationDetails =
+          ScheduledNotificationStore.getInstance(context).get(id);
+      if (notificationDetails == null) {
+        return;
+      }
+      FlutterLocalNotificationsPlugin.showNotification(context, notificationDetails);
+      synchronized (FlutterLocalNotificationsPlugin.SCHEDULED_NOTIFICATIONS_LOCK) {
+        // the notification may have been cancelled after the alarm went off
+        if (ScheduledNotificationStore.getInstance(context).get(id) != null) {
+          FlutterLocalNotificationsPlugin.scheduleNextNotification(context, notificationDetails);
+        }
+      }
+      return;
+    }
+    String entry = getIndex(context).getString(String.valueOf(id), null);
+    if (entry == null) {
+      return;
+    }
+    try {
+      showPlaceholder(context, id, new JSONObject(entry));
+    } catch (JSONException e) {
+      Log.e(TAG, "Failed to show notification " + id, e);
+      return;
+    }
+    addShownId(context, id);
+  }
+
+  /**
+   * Cancels the alarms that were set before the user unlocked the device and replaces the
+   * notifications that were shown without any content with the scheduled notifications. This is
+   * done before the notifications are rescheduled after the device has booted.
+   */
+  static void onUnlocked(Context context) {
+    Set<String> armedIds = new HashSet<>();
+    Set<String> shownIds = new HashSet<>();
+    if (!takeState(context, armedIds, shownIds)) {
+      return;
+    }
+    AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+    for (String id : armedIds) {
+      alarmManager.cancel(getAlarmPendingIntent(context, Integer.parseInt(id)));
+    }
+    synchronized (FlutterLocalNotificationsPlugin.SCHEDULED_NOTIFICATIONS_LOCK) {
+      ScheduledNotificationStore store = ScheduledNotificationStore.getInstance(context);
+      for (String id : shownIds) {
+        NotificationDetails notificationDetails = store.get(Integer.parseInt(id));
+        if (notificationDetails == null) {
+          // the notification was cancelled before the device was unlocked
+          NotificationManagerCompat.from(context).cancel(Integer.parseInt(id));
+          continue;
+        }
+        // the user was already alerted when the notification was shown without any content
+        Boolean onlyAlertOnce = notificationDetails.onlyAlertOnce;
+        notificationDetails.onlyAlertOnce = true;
+        try {
+          FlutterLocalNotificationsPlugin.showNotification(context, notificationDetails);
+        } catch (RuntimeException e) {
+          Log.e(TAG, "Failed to show notification " + id, e);
+        } finally {
+          notificationDetails.onlyAlertOnce = onlyAlertOnce;
+        }
+        FlutterLocalNotificationsPlugin.scheduleNextNotification(context, notificationDetails);
+      }
+    }
+  }
+
+  // The state is changed whilst holding the lock of this class, which is never held whilst the
+  // scheduled notifications are read as the store updates the index whilst holding its own lock
+  private static synchronized void removeArmedId(Context context, int id) {
+    SharedPreferences state = getState(context);
+    Set<String> armedIds = new HashSet<>(state.getStringSet(ARMED_IDS, new HashSet<String>()));
+    armedIds.remove(String.valueOf(id));
+    state.edit().putStringSet(ARMED_IDS, armedIds).apply();
+  }
+
+  private static synchronized void addShownId(Context context, int id) {
+    SharedPreferences state = getState(context);
+    Set<String> shownIds = new HashSet<>(state.getStringSet(SHOWN_IDS, new HashSet<String>()));
+    shownIds.add(String.valueOf(id));
+    state.edit().putStringSet(SHOWN_IDS, shownIds).apply();
+  }
+
+  // Moves the ids of the alarms that were set and the notifications that were shown before the
+  // device was unlocked into the given sets. Returns false when there aren't any
+  private static synchronized boolean takeState(
+      Context context, Set<String> armedIds, Set<String> shownIds) {
+    SharedPreferences state = getState(context);
+    armedIds.addAll(state.getStringSet(ARMED_IDS, new HashSet<String>()));
+    shownIds.addAll(state.getStringSet(SHOWN_IDS, new HashSet<String>()));
+    if (armedIds.isEmpty() && shownIds.isEmpty()) {
+      return false;
+    }
+    state.edit().remove(ARMED_IDS).remove(SHOWN_IDS).apply();
+    return true;
+  }
+
+  @Nullable
+  private static String toEntry(Context context, NotificationDetails notificationDetails) {
+    Long fireTime;
+    long repeatInterval = 0;
+    if (notificationDetails.repeatInterval != null
+        || notificationDetails.repeatIntervalMilliseconds != null) {
+      fireTime = notificationDetails.calledAt;
+      repeatInterval =
+          FlutterLocalNotificationsPlugin.calculateRepeatIntervalMilliseconds(notificationDetails);
+    } else {
+      fireTime = ScheduledNotificationStore.getFireTime(notificationDetails);
+    }
+    if (fireTime == null) {
+      return null;
+    }
+    try {
+      JSONObject entry = new JSONObject();
+      entry.put(FIRE_TIME, fireTime);
+      entry.put(REPEAT_INTERVAL, repeatInterval);
+      entry.put(REPEATS, FlutterLocalNotificationsPlugin.repeats(notificationDetails));
+      if (notificationDetails.scheduleMode != null) {
+        entry.put(SCHEDULE_MODE, notificationDetails.scheduleMode.name());
+      }
+      entry.put(CHANNEL_ID, notificationDetails.channelId);
+      entry.put(CHANNEL_NAME, notificationDetails.channelName);
+      entry.put(IMPORTANCE, notificationDetails.importance);
+      entry.put(
+          ICON,
+          notificationDetails.icon != null
+              ? notificationDetails.icon
+              : FlutterLocalNotificationsPlugin.getDefaultIcon(context));
+      return entry.toString();
+    } catch (JSONException e) {
+      return null;
+    }
+  }
+
+  private static long getNextFireTime(JSONObject entry, long now) throws JSONException {
+    long fireTime = entry.getLong(FIRE_TIME);
+    long repeatInterval = entry.optLong(REPEAT_INTERVAL);
+    if (repeatInterval > 0) {
+      return NextFireTime.afterInterval(fireTime, repeatInterval, now);
+    }
+    return fireTime;
+  }
+
+  private static ScheduleMode getScheduleMode(JSONObject entry) {
+    try {
+      return ScheduleMode.valueOf(entry.getString(SCHEDULE_MODE));
+    } catch (JSONException | IllegalArgumentException e) {
+      // notifications from older versions of the plugin default to exact alarms
+      return ScheduleMode.exact;
+    }
+  }
+
+  private static void showPlaceholder(Context context, int id, JSONObject entry) {
+    String channelId = entry.optString(CHANNEL_ID, null);
+    if (VERSION.SDK_INT >= VERSION_CODES.O && channelId != null) {
+      NotificationManager notificationManager =
+          (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+      if (notificationManager.getNotificationChannel(channelId) == null) {
+        // the channel is usually created when the notification is first shown
+        int importance = entry.optInt(IMPORTANCE, NotificationManager.IMPORTANCE_DEFAULT);
+        notificationManager.createNotificationChannel(
+            new NotificationChannel(
+                channelId, entry.optString(CHANNEL_NAME, channelId), importance));
+      }
+    }
+    NotificationCompat.Builder builder =
+        new NotificationCompat.Builder(context, channelId)
+            .setSmallIcon(
+                ResourceIdCache.getIdentifier(context, entry.optString(ICON), DRAWABLE))
+            .setAutoCancel(true);
+    Intent launchIntent =
+        context.getPackageManager().getLaunchIntentForPackage(context.getPackageName());
+    if (launchIntent != null) {
+      int flags = PendingIntent.FLAG_UPDATE_CURRENT;
+      if (VERSION.SDK_INT >= VERSION_CODES.M) {
+        flags |= PendingIntent.FLAG_IMMUTABLE;
+      }
+      builder.setContentIntent(PendingIntent.getActivity(context, id, launchIntent, flags));
+    }
+    NotificationManagerCompat.from(context).notify(id, builder.build());
+  }
+
+  private static PendingIntent getAlarmPendingIntent(Context context, int id) {
+    // the action distinguishes these from the alarms that are set once the device is unlocked
+    Intent intent = new Intent(context, ScheduledNotificationReceiver.class);
+    intent.setAction(ACTION_ALARM);
+    intent.putExtra(FlutterLocalNotificationsPlugin.NOTIFICATION_ID, id);
+    int flags = PendingIntent.FLAG_UPDATE_CURRENT;
+    if (VERSION.SDK_INT >= VERSION_CODES.M) {
+      flags |= PendingIntent.FLAG_IMMUTABLE;
+    }
+    return PendingIntent.getBroadcast(context, id, intent, flags);
+  }
+
+  private static boolean isUserUnlocked(Context context) {
+    return context.getSystemService(UserManager.class).isUserUnlocked();
+  }
+
+  private static SharedPreferences getIndex(Context context) {
+    return getSharedPreferences(context, INDEX_SHARED_PREFERENCES_KEY);
+  }
+
+  private static SharedPreferences getState(Context context) {
+    return getSharedPreferences(context, STATE_SHARED_PREFERENCES_KEY);
+  }
+
+  private static SharedPreferences getSharedPreferences(Context context, String name) {
+    return context
+        .createDeviceProtectedStorageContext()
+        .getSharedPreferences(name, Context.MODE_PRIVATE);
+  }
+
+  private static final class Alarm {
+    final int id;
+    final long fireTime;
+    final ScheduleMode scheduleMode;
+
+    Alarm(int id, long fireTime, ScheduleMode scheduleMode) {
+      this.id = id;
+      this.fireTime = fireTime;
+      this.scheduleMode = scheduleMode;
+    }
+  }
+}
@@ -26,6 +26,8 @@ import android.os.Build;
 import android.os.Build.VERSION;
 import android.os.Build.VERSION_CODES;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.provider.Settings;
 import android.service.notification.StatusBarNotification;
 import android.text.Html;
@@ -39,6 +41,7 @@ import android.util.Log;
 import androidx.annotation.Keep;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.RequiresApi;
 import androidx.core.app.ActivityCompat;
 import androidx.core.app.AlarmManagerCompat;
 import androidx.core.app.NotificationCompat;
@@ -51,7 +54,6 @@ import androidx.core.graphics.drawable.IconCompat;
 
 import com.dexterous.flutterlocalnotifications.isolate.IsolatePreferences;
 import com.dexterous.flutterlocalnotifications.models.BitmapSource;
-import com.dexterous.flutterlocalnotifications.models.DateTimeComponents;
 import com.dexterous.flutterlocalnotifications.models.IconSource;
 import com.dexterous.flutterlocalnotifications.models.MessageDetails;
 import com.dexterous.flutterlocalnotifications.models.NotificationAction;
@@ -61,10 +63,17 @@ import com.dexterous.flutterlocalnotifications.models.NotificationChannelDetails
 import com.dexterous.flutterlocalnotifications.models.NotificationChannelGroupDetails;
 import com.dexterous.flutterlocalnotifications.models.NotificationDetails;
 import com.dexterous.flutterlocalnotifications.models.NotificationStyle;
+import com.dexterous.flutterlocalnotifications.models.PendingNotificationRequestFilter;
 import com.dexterous.flutterlocalnotifications.models.PersonDetails;
+import com.dexterous.flutterlocalnotifications.models.RecurrenceRule;
 import com.dexterous.flutterlocalnotifications.models.ScheduleMode;
 import com.dexterous.flutterlocalnotifications.models.ScheduledNotificationRepeatFrequency;
 import com.dexterous.flutterlocalnotifications.models.SoundSource;
+import com.dexterous.flutterlocalnotifications.models.adapters.NotificationActionTypeAdapter;
+import com.dexterous.flutterlocalnotifications.models.adapters.NotificationDetailsRecord;
+import com.dexterous.flutterlocalnotifications.models.adapters.NotificationDetailsTypeAdapter;
+import com.dexterous.flutterlocalnotifications.models.adapters.PersonDetailsTypeAdapter;
+import com.dexterous.flutterlocalnotifications.models.adapters.StyleInformationTypeAdapter;
 import com.dexterous.flutterlocalnotifications.models.styles.BigPictureStyleInformation;
 import com.dexterous.flutterlocalnotifications.models.styles.BigTextStyleInformation;
 import com.dexterous.flutterlocalnotifications.models.styles.DefaultStyleInformation;
@@ -76,11 +85,10 @@ import com.dexterous.flutterlocalnotifications.utils.LongUtils;
 import com.dexterous.flutterlocalnotifications.utils.StringUtils;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
 
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
-import java.lang.reflect.Type;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -88,8 +96,10 @@ import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -98,11 +108,13 @@ import io.flutter.embedding.engine.loader.FlutterLoader;
 import io.flutter.embedding.engine.plugins.FlutterPlugin;
 import io.flutter.embedding.engine.plugins.activity.ActivityAware;
 import io.flutter.embedding.engine.plugins.activity.ActivityPluginBinding;
+import io.flutter.plugin.common.BinaryMessenger;
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
 import io.flutter.plugin.common.MethodChannel.MethodCallHandler;
 import io.flutter.plugin.common.MethodChannel.Result;
 import io.flutter.plugin.common.PluginRegistry;
+import io.flutter.plugin.common.StandardMethodCodec;
 
 interface PermissionRequestListener {
   void complete(boolean granted);
@@ -132,10 +144,26 @@ public class FlutterLocalNotificationsPlugin
   private static final String CALLBACK_HANDLE = "callback_handle";
   private static final String DRAWABLE = "drawable";
   private static final String DEFAULT_ICON = "defaultIcon";
+  private static final String USE_COMPACT_STORAGE_FORMAT = "useCompactStorageFormat";
+  private static final String BITMAP_CONFIG = "bitmapConfig";
+  private static final String MAX_BITMAP_BYTES_PER_NOTIFICATION = "maxBitmapBytesPerNotification";
+  private static final String USE_ALARM_DISPATCHER = "useAlarmDispatcher";
+  private static final String USE_ID_ONLY_ALARM_INTENTS = "useIdOnlyAlarmIntents";
+  private static final String USE_DIRECT_BOOT_INDEX = "useDirectBootIndex";
+  private static final String MAX_SCHEDULED_ALARMS = "maxScheduledAlarms";
+  private static final String SCHEDULED_ALARM_HORIZON_MILLISECONDS =
+      "scheduledAlarmHorizonMilliseconds";
+  private static final String BACKGROUND_ENGINE_IDLE_TIMEOUT_MILLISECONDS =
+      "backgroundEngineIdleTimeoutMilliseconds";
+  private static final String NOTIFICATION_RESPONSE_BATCH_MAX_SIZE =
+      "notificationResponseBatchMaxSize";
+  private static final String NOTIFICATION_RESPONSE_BATCH_MAX_LATENCY_MILLISECONDS =
+      "notificationResponseBatchMaxLatencyMilliseconds";
+  private static final int LARGE_ICON_SIZE_DP = 64;
+  private static final int BIG_PICTURE_MAX_HEIGHT_DP = 256;
   private static final String SELECT_NOTIFICATION = "SELECT_NOTIFICATION";
   private static final String SELECT_FOREGROUND_NOTIFICATION_ACTION =
       "SELECT_FOREGROUND_NOTIFICATION";
-  private static final String SCHEDULED_NOTIFICATIONS = "scheduled_notifications";
   private static final String INITIALIZE_METHOD = "initialize";
   private static final String GET_CALLBACK_HANDLE_METHOD = "getCallbackHandle";
   private static final String ARE_NOTIFICATIONS_ENABLED_METHOD = "areNotificationsEnabled";
@@ -145,7 +173,10 @@ public class FlutterLocalNotificationsPlugin
       "createNotificationChannelGroup";
   private static final String DELETE_NOTIFICATION_CHANNEL_GROUP_METHOD =
       "deleteNotificationChannelGroup";
+  private static final String CREATE_NOTIFICATION_CHANNEL_GROUPS_METHOD =
+      "createNotificationChannelGroups";
   private static final String CREATE_NOTIFICATION_CHANNEL_METHOD = "createNotificationChannel";
+  private static final String CREATE_NOTIFICATION_CHANNELS_METHOD = "createNotificationChannels";
   private static final String DELETE_NOTIFICATION_CHANNEL_METHOD = "deleteNotificationChannel";
   private static final String GET_ACTIVE_NOTIFICATION_MESSAGING_STYLE_METHOD =
       "getActiveNotificationMessagingStyle";
@@ -153,13 +184,19 @@ public class FlutterLocalNotificationsPlugin
   private static final String START_FOREGROUND_SERVICE = "startForegroundService";
   private static final String STOP_FOREGROUND_SERVICE = "stopForegroundService";
   private static final String PENDING_NOTIFICATION_REQUESTS_METHOD = "pendingNotificationRequests";
+  private static final String GET_PENDING_NOTIFICATION_COUNT_METHOD =
+      "getPendingNotificationCount";
+  private static final String GET_BACKGROUND_ENGINE_METRICS_METHOD = "getBackgroundEngineMetrics";
+  private static final String ACKNOWLEDGE_ACTION_EVENTS_METHOD = "acknowledgeActionEvents";
   private static final String GET_ACTIVE_NOTIFICATIONS_METHOD = "getActiveNotifications";
   private static final String SHOW_METHOD = "show";
   private static final String CANCEL_METHOD = "cancel";
+  private static final String CANCEL_MANY_METHOD = "cancelMany";
   private static final String CANCEL_ALL_METHOD = "cancelAll";
   private static final String CANCEL_ALL_PENDING_NOTIFICATIONS_METHOD =
       "cancelAllPendingNotifications";
   private static final String ZONED_SCHEDULE_METHOD = "zonedSchedule";
+  private static final String ZONED_SCHEDULE_BATCH_METHOD = "zonedScheduleBatch";
   private static final String PERIODICALLY_SHOW_METHOD = "periodicallyShow";
   private static final String PERIODICALLY_SHOW_WITH_DURATION_METHOD =
       "periodicallyShowWithDuration";
@@ -181,12 +218,19 @@ public class FlutterLocalNotificationsPlugin
   private static final String INVALID_BIG_PICTURE_ERROR_CODE = "invalid_big_picture";
   private static final String INVALID_SOUND_ERROR_CODE = "invalid_sound";
   private static final String INVALID_LED_DETAILS_ERROR_CODE = "invalid_led_details";
+  private static final String INVALID_NOTIFICATION_DETAILS_ERROR_CODE =
+      "invalid_notification_details";
+  private static final String INVALID_NOTIFICATIONS_ERROR_CODE = "invalid_notifications";
   private static final String UNSUPPORTED_OS_VERSION_ERROR_CODE = "unsupported_os_version";
   private static final String GET_ACTIVE_NOTIFICATIONS_ERROR_MESSAGE =
       "Android version must be 6.0 or newer to use getActiveNotifications";
   private static final String GET_NOTIFICATION_CHANNELS_ERROR_CODE = "getNotificationChannelsError";
   private static final String GET_ACTIVE_NOTIFICATION_MESSAGING_STYLE_ERROR_CODE =
       "getActiveNotificationMessagingStyleError";
+  private static final String INVALID_NOTIFICATION_DETAILS_ERROR_MESSAGE =
+      "The notification details are invalid";
+  private static final String INVALID_NOTIFICATIONS_ERROR_MESSAGE =
+      "The list of notifications to schedule must be specified";
   private static final String INVALID_LED_DETAILS_ERROR_MESSAGE =
       "Must specify both ledOnMs and ledOffMs to configure the blink cycle on older versions of"
           + " Android before Oreo";
@@ -204,16 +248,42 @@ public class FlutterLocalNotificationsPlugin
   private static final String EXACT_ALARMS_PERMISSION_ERROR_CODE = "exact_alarms_not_permitted";
   private static final String CANCEL_ID = "id";
   private static final String CANCEL_TAG = "tag";
+  private static final String CANCEL_IDS = "ids";
+  private static final String CANCEL_GROUP_KEY = "groupKey";
+  private static final String CANCEL_CHANNEL_ID = "channelId";
+  private static final String NOTIFICATIONS = "notifications";
+  private static final String CHANNELS = "channels";
+  private static final String GROUPS = "groups";
+  private static final String PENDING_NOTIFICATIONS_OFFSET = "offset";
+  private static final String PENDING_NOTIFICATIONS_LIMIT = "limit";
+  private static final String PENDING_NOTIFICATIONS_FIELDS = "fields";
+  private static final String BATCH_ITEM_ID = "id";
+  private static final String BATCH_ITEM_ERROR_CODE = "errorCode";
+  private static final String BATCH_ITEM_ERROR_MESSAGE = "errorMessage";
   private static final String ACTION_ID = "actionId";
   private static final String INPUT_RESULT = "FlutterLocalNotificationsPluginInputResult";
   private static final String INPUT = "input";
   private static final String NOTIFICATION_RESPONSE_TYPE = "notificationResponseType";
   static String NOTIFICATION_DETAILS = "notificationDetails";
+  static final String NOTIFICATION_RECORD_VERSION = "notificationRecordVersion";
   static Gson gson;
+
+  // Held whilst scheduled notifications and their alarms are being changed. Method calls are
+  // handled on a background thread whilst the receivers run on the main thread so this stops a
+  // notification from being rescheduled by its receiver after it was cancelled. It's only held
+  // around reads and writes of the store and the alarms, and not whilst notifications are built,
+  // so that a receiver isn't held up for long
+  static final Object SCHEDULED_NOTIFICATIONS_LOCK = new Object();
+  private static final int RESCHEDULE_CHUNK_SIZE = 50;
+  private static final Object DEFAULT_ICON_LOCK = new Object();
+  private static volatile boolean defaultIconResourceIdLoaded;
+  private static volatile int defaultIconResourceId;
   private MethodChannel channel;
   static MethodChannel liveChannel;
-  private Context applicationContext;
-  private Activity mainActivity;
+  // these are read by method call handlers that run on a background thread
+  private volatile Context applicationContext;
+  private volatile Activity mainActivity;
+  private final Handler mainHandler = new Handler(Looper.getMainLooper());
   static final int NOTIFICATION_PERMISSION_REQUEST_CODE = 1;
 
   static final int EXACT_ALARM_PERMISSION_REQUEST_CODE = 2;
@@ -226,27 +296,151 @@ public class FlutterLocalNotificationsPlugin
   private PermissionRequestProgress permissionRequestProgress = PermissionRequestProgress.None;
 
   static void rescheduleNotifications(Context context) {
-    ArrayList<NotificationDetails> scheduledNotifications = loadScheduledNotifications(context);
-    for (NotificationDetails notificationDetails : scheduledNotifications) {
-      try {
-        if (notificationDetails.repeatInterval != null
-            || notificationDetails.repeatIntervalMilliseconds != null) {
-          repeatNotification(context, notificationDetails, false);
-        } else if (notificationDetails.timeZoneName != null) {
-          zonedScheduleNotification(context, notificationDetails, false);
-        } else {
-          scheduleNotification(context, notificationDetails, false);
+    rescheduleNotifications(context, false);
+  }
+
+  // Sets the alarms of the scheduled notifications again, such as after the device has booted.
+  // When each notification has its own alarm, the notifications are handled in chunks, soonest
+  // first, and the lock is released between chunks so that method calls aren't held up for the
+  // whole pass. When removeExpired is true, notifications that are only shown once and whose time
+  // has already passed are removed instead of being shown late. This is only the case after the
+  // device has booted, as alarms that are overdue otherwise may still be delivered
+  static void rescheduleNotifications(Context context, boolean removeExpired) {
+    LinkedHashMap<Integer, Long> fireTimes;
+    List<Integer> ids = new ArrayList<>();
+    synchronized (SCHEDULED_NOTIFICATIONS_LOCK) {
+      if (removeExpired && usesSharedAlarms(context)) {
+        removeExpiredNotifications(context);
+      }
+      if (AlarmDispatcher.isEnabled(context)) {
+        AlarmDispatcher.rearm(context);
+        return;
+      }
+      if (AlarmHorizon.isEnabled(context)) {
+        AlarmHorizon.rearm(context);
+        return;
+      }
+      ScheduledNotificationStore store = ScheduledNotificationStore.getInstance(context);
+      fireTimes = store.getNextFireTimes(Integer.MAX_VALUE, Long.MAX_VALUE);
+      ids.addAll(fireTimes.keySet());
+      // notifications whose time can't be determined are left until last
+      for (NotificationDetails notificationDetails : store.getAll()) {
+        if (!fireTimes.containsKey(notificationDetails.id)) {
+          ids.add(notificationDetails.id);
         }
-      } catch (ExactAlarmPermissionException e) {
-        Log.e(TAG, e.getMessage());
-        removeNotificationFromCache(context, notificationDetails.id);
       }
     }
+    long now = System.currentTimeMillis();
+    for (int start = 0; start < ids.size(); start += RESCHEDULE_CHUNK_SIZE) {
+      List<Integer> chunk = ids.subList(start, Math.min(start + RESCHEDULE_CHUNK_SIZE, ids.size()));
+      synchronized (SCHEDULED_NOTIFICATIONS_LOCK) {
+        if (usesSharedAlarms(context)) {
+          // the alarms were reset when the way they're managed changed during the pass
+          return;
+        }
+        ScheduledNotificationStore store = ScheduledNotificationStore.getInstance(context);
+        List<Integer> removedIds = new ArrayList<>();
+        for (Integer id : chunk) {
+          // the notification may have been cancelled or scheduled again since the pass started
+          NotificationDetails notificationDetails = store.get(id);
+          if (notificationDetails == null) {
+            continue;
+          }
+          Long fireTime = fireTimes.get(id);
+          boolean expired = fireTime != null && fireTime < now && !repeats(notificationDetails);
+          if ((removeExpired && expired) || !setAlarm(context, notificationDetails)) {
+            removedIds.add(id);
+          }
+        }
+        if (!removedIds.isEmpty()) {
+          store.removeAll(removedIds);
+        }
+      }
+    }
+  }
+
+  // Removes the notifications that are only shown once and whose time has already passed
+  private static void removeExpiredNotifications(Context context) {
+    ScheduledNotificationStore store = ScheduledNotificationStore.getInstance(context);
+    List<Integer> expiredIds = new ArrayList<>();
+    for (NotificationDetails notificationDetails :
+        store.getDue(Long.MAX_VALUE, System.currentTimeMillis())) {
+      if (!repeats(notificationDetails)) {
+        expiredIds.add(notificationDetails.id);
+      }
+    }
+    if (!expiredIds.isEmpty()) {
+      store.removeAll(expiredIds);
+    }
+  }
+
+  // Whether the notification remains scheduled after it has been shown
+  static boolean repeats(NotificationDetails notificationDetails) {
+    return notificationDetails.repeatInterval != null
+        || notificationDetails.repeatIntervalMilliseconds != null
+        || notificationDetails.scheduledNotificationRepeatFrequency != null
+        || notificationDetails.matchDateTimeComponents != null
+        || notificationDetails.recurrenceRule != null;
+  }
+
+  // Sets the alarm for a notification that has already been saved. Returns false when the alarm
+  // couldn't be set as exact alarms aren't permitted
+  static boolean setAlarm(Context context, NotificationDetails notificationDetails) {
+    try {
+      if (notificationDetails.repeatInterval != null
+          || notificationDetails.repeatIntervalMilliseconds != null) {
+        repeatNotification(context, notificationDetails, false);
+      } else if (notificationDetails.timeZoneName != null) {
+        zonedScheduleNotification(context, notificationDetails, false);
+      } else {
+        scheduleNotification(context, notificationDetails, false);
+      }
+      return true;
+    } catch (ExactAlarmPermissionException e) {
+      Log.e(TAG, e.getMessage());
+      return false;
+    }
+  }
+
+  static void cancelAlarm(Context context, int id) {
+    Intent intent = new Intent(context, ScheduledNotificationReceiver.class);
+    getAlarmManager(context).cancel(getBroadcastPendingIntent(context, id, intent));
+  }
+
+  // Whether the alarms of scheduled notifications are managed by the dispatcher or the horizon
+  // instead of each notification having its own alarm
+  private static boolean usesSharedAlarms(Context context) {
+    return AlarmDispatcher.isEnabled(context) || AlarmHorizon.isEnabled(context);
+  }
+
+  // Updates the alarms that are managed by the dispatcher or the horizon after the scheduled
+  // notifications with the given ids have been added, changed or removed
+  private static void onScheduledNotificationsChanged(Context context, Collection<Integer> ids) {
+    if (AlarmDispatcher.isEnabled(context)) {
+      AlarmDispatcher.arm(context);
+    } else if (AlarmHorizon.isEnabled(context)) {
+      AlarmHorizon.update(context, ids);
+    }
+  }
+
+  // Cancels the alarms of every scheduled notification and sets them again, which is needed when
+  // the way alarms are managed changes
+  static void resetAlarms(Context context) {
+    synchronized (SCHEDULED_NOTIFICATIONS_LOCK) {
+      for (NotificationDetails notificationDetails : loadScheduledNotifications(context)) {
+        cancelAlarm(context, notificationDetails.id);
+      }
+      AlarmDispatcher.cancel(context);
+      AlarmHorizon.reset(context);
+    }
+    rescheduleNotifications(context);
   }
 
   static void scheduleNextNotification(Context context, NotificationDetails notificationDetails) {
     try {
-      if (notificationDetails.scheduledNotificationRepeatFrequency != null) {
+      if (notificationDetails.recurrenceRule != null) {
+        zonedScheduleNextNotificationMatchingRecurrenceRule(context, notificationDetails);
+      } else if (notificationDetails.scheduledNotificationRepeatFrequency != null) {
         zonedScheduleNextNotification(context, notificationDetails);
       } else if (notificationDetails.matchDateTimeComponents != null) {
         zonedScheduleNextNotificationMatchingDateComponents(context, notificationDetails);
@@ -409,7 +603,10 @@ public class FlutterLocalNotificationsPlugin
     setSmallIcon(context, notificationDetails, builder);
     builder.setLargeIcon(
         getBitmapFromSource(
-            context, notificationDetails.largeIcon, notificationDetails.largeIconBitmapSource));
+            context,
+            notificationDetails.largeIcon,
+            notificationDetails.largeIconBitmapSource,
+            getLargeIconBitmapTarget(context)));
     if (notificationDetails.color != null) {
       builder.setColor(notificationDetails.color.intValue());
     }
@@ -474,10 +671,19 @@ public class FlutterLocalNotificationsPlugin
   private static Boolean canCreateNotificationChannel(
       Context context, NotificationChannelDetails notificationChannelDetails) {
     if (VERSION.SDK_INT >= VERSION_CODES.O) {
+      boolean update = notificationChannelDetails.channelAction == NotificationChannelAction.Update;
+      // asking the system whether the channel exists is skipped when the plugin already knows it
+      // does, which is the case after the first notification on the channel has been shown
+      if (NotificationChannelRegistry.isKnownToExist(notificationChannelDetails.id)) {
+        return update && !NotificationChannelRegistry.isUpToDate(notificationChannelDetails);
+      }
       NotificationManager notificationManager =
           (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
       NotificationChannel notificationChannel =
           notificationManager.getNotificationChannel(notificationChannelDetails.id);
+      if (notificationChannel != null) {
+        NotificationChannelRegistry.onExists(notificationChannelDetails.id);
+      }
       // only create/update the channel when needed/specified. Allow this happen to when
       // channelAction may be null to support cases where notifications had been
       // created on older versions of the plugin where channel management options weren't available
@@ -486,8 +692,7 @@ public class FlutterLocalNotificationsPlugin
               && (notificationChannelDetails.channelAction == null
                   || notificationChannelDetails.channelAction
                       == NotificationChannelAction.CreateIfNotExists))
-          || (notificationChannel != null
-              && notificationChannelDetails.channelAction == NotificationChannelAction.Update));
+          || (notificationChannel != null && update));
     }
     return false;
   }
@@ -499,72 +704,146 @@ public class FlutterLocalNotificationsPlugin
     if (!StringUtils.isNullOrEmpty(notificationDetails.icon)) {
       builder.setSmallIcon(getDrawableResourceId(context, notificationDetails.icon));
     } else {
-      SharedPreferences sharedPreferences =
-          context.getSharedPreferences(SHARED_PREFERENCES_KEY, Context.MODE_PRIVATE);
-      String defaultIcon = sharedPreferences.getString(DEFAULT_ICON, null);
-      if (StringUtils.isNullOrEmpty(defaultIcon)) {
+      int defaultIconResourceId = getDefaultIconResourceId(context);
+      if (defaultIconResourceId == 0) {
         // for backwards compatibility: this is for handling the old way references to the icon used
         // to be kept but should be removed in future
         builder.setSmallIcon(notificationDetails.iconResourceId);
 
       } else {
-        builder.setSmallIcon(getDrawableResourceId(context, defaultIcon));
+        builder.setSmallIcon(defaultIconResourceId);
       }
     }
   }
 
+  @Nullable
+  static String getDefaultIcon(Context context) {
+    SharedPreferences sharedPreferences =
+        context.getSharedPreferences(SHARED_PREFERENCES_KEY, Context.MODE_PRIVATE);
+    return sharedPreferences.getString(DEFAULT_ICON, null);
+  }
+
+  // The id of the default icon is only read from shared preferences the first time it's needed
+  // and is updated whenever the plugin is initialized. An id of 0 means there is no default icon
+  private static int getDefaultIconResourceId(Context context) {
+    if (!defaultIconResourceIdLoaded) {
+      synchronized (DEFAULT_ICON_LOCK) {
+        if (!defaultIconResourceIdLoaded) {
+          String defaultIcon = getDefaultIcon(context);
+          defaultIconResourceId =
+              StringUtils.isNullOrEmpty(defaultIcon)
+                  ? 0
+                  : getDrawableResourceId(context, defaultIcon);
+          defaultIconResourceIdLoaded = true;
+        }
+      }
+    }
+    return defaultIconResourceId;
+  }
+
   @NonNull
   static Gson buildGson() {
     if (gson == null) {
-      RuntimeTypeAdapterFactory<StyleInformation> styleInformationAdapter =
-          RuntimeTypeAdapterFactory.of(StyleInformation.class)
-              .registerSubtype(DefaultStyleInformation.class)
-              .registerSubtype(BigTextStyleInformation.class)
-              .registerSubtype(BigPictureStyleInformation.class)
-              .registerSubtype(InboxStyleInformation.class)
-              .registerSubtype(MessagingStyleInformation.class);
+      // the models are serialized using hand-written adapters as reflection is comparatively slow
+      // and this is done whenever a notification is scheduled or rescheduled
       GsonBuilder builder =
           new GsonBuilder()
-              .registerTypeAdapter(ScheduleMode.class, new ScheduleMode.Deserializer())
-              .registerTypeAdapterFactory(styleInformationAdapter);
+              .registerTypeAdapter(NotificationDetails.class, new NotificationDetailsTypeAdapter())
+              .registerTypeHierarchyAdapter(
+                  StyleInformation.class, new StyleInformationTypeAdapter())
+              .registerTypeAdapter(NotificationAction.class, new NotificationActionTypeAdapter())
+              .registerTypeAdapter(PersonDetails.class, new PersonDetailsTypeAdapter())
+              .registerTypeAdapter(ScheduleMode.class, new ScheduleMode.Deserializer());
       gson = builder.create();
     }
     return gson;
   }
 
-  private static ArrayList<NotificationDetails> loadScheduledNotifications(Context context) {
-    ArrayList<NotificationDetails> scheduledNotifications = new ArrayList<>();
+  // Whether scheduled notifications are persisted and passed to alarms in the compact binary format
+  // instead of JSON. This is opted into via the initialization settings
+  static boolean useCompactStorageFormat(Context context) {
     SharedPreferences sharedPreferences =
-        context.getSharedPreferences(SCHEDULED_NOTIFICATIONS, Context.MODE_PRIVATE);
-    String json = sharedPreferences.getString(SCHEDULED_NOTIFICATIONS, null);
-    if (json != null) {
-      Gson gson = buildGson();
-      Type type = new TypeToken<ArrayList<NotificationDetails>>() {}.getType();
-      scheduledNotifications = gson.fromJson(json, type);
+        context.getSharedPreferences(SHARED_PREFERENCES_KEY, Context.MODE_PRIVATE);
+    return sharedPreferences.getBoolean(USE_COMPACT_STORAGE_FORMAT, false);
+  }
+
+  private static void putNotificationDetailsExtra(
+      Context context, Intent intent, NotificationDetails notificationDetails) {
+    // images are stored once alongside the scheduled notifications so that the intent and the
+    // record that is saved afterwards only need to hold a reference to them
+    BitmapBlobStore.getInstance(context).externalize(notificationDetails);
+    if (useIdOnlyAlarmIntents(context)) {
+      // the receiver loads the notification from the store instead. Each alarm gets a newer
+      // version than the saved record, which the caller then saves along with the notification,
+      // so that an alarm that was set for an older version of the record can be ignored
+      NotificationDetails previous =
+          ScheduledNotificationStore.getInstance(context).get(notificationDetails.id);
+      long recordVersion =
+          Math.max(
+              System.currentTimeMillis(),
+              Math.max(getNextRecordVersion(notificationDetails), getNextRecordVersion(previous)));
+      notificationDetails.recordVersion = recordVersion;
+      intent.putExtra(NOTIFICATION_ID, notificationDetails.id);
+      intent.putExtra(NOTIFICATION_RECORD_VERSION, recordVersion);
+      return;
+    }
+    if (useCompactStorageFormat(context)) {
+      intent.putExtra(
+          NOTIFICATION_DETAILS,
+          NotificationDetailsRecord.toBytes(buildGson(), notificationDetails, true));
+    } else {
+      intent.putExtra(NOTIFICATION_DETAILS, buildGson().toJson(notificationDetails));
     }
-    return scheduledNotifications;
   }
 
-  private static void saveScheduledNotifications(
-      Context context, ArrayList<NotificationDetails> scheduledNotifications) {
-    Gson gson = buildGson();
-    String json = gson.toJson(scheduledNotifications);
-    SharedPreferences sharedPreferences =
-        context.getSharedPreferences(SCHEDULED_NOTIFICATIONS, Context.MODE_PRIVATE);
-    SharedPreferences.Editor editor = sharedPreferences.edit();
-    editor.putString(SCHEDULED_NOTIFICATIONS, json).apply();
+  // Alarms that were set before the compact format was opted into or out of hold the details in
+  // the other format so both need to be supported
+  @SuppressWarnings("deprecation")
+  @Nullable
+  static NotificationDetails getNotificationDetailsExtra(Intent intent) {
+    Bundle extras = intent.getExtras();
+    Object extra = extras != null ? extras.get(NOTIFICATION_DETAILS) : null;
+    if (extra instanceof byte[]) {
+      return NotificationDetailsRecord.fromBytes(buildGson(), (byte[]) extra);
+    }
+    if (extra instanceof String && !StringUtils.isNullOrEmpty((String) extra)) {
+      return buildGson().fromJson((String) extra, NotificationDetails.class);
+    }
+    return null;
   }
 
-  static void removeNotificationFromCache(Context context, Integer notificationId) {
-    ArrayList<NotificationDetails> scheduledNotifications = loadScheduledNotifications(context);
-    for (Iterator<NotificationDetails> it = scheduledNotifications.iterator(); it.hasNext(); ) {
-      NotificationDetails notificationDetails = it.next();
-      if (notificationDetails.id.equals(notificationId)) {
-        it.remove();
-        break;
-      }
+  private static long getNextRecordVersion(@Nullable NotificationDetails notificationDetails) {
+    if (notificationDetails == null || notificationDetails.recordVersion == null) {
+      return 0;
+    }
+    return notificationDetails.recordVersion + 1;
+  }
+
+  // Returns the scheduled notification that an alarm which only holds its id was set for or null
+  // when the notification has since been cancelled or saved again with a newer alarm
+  @Nullable
+  static NotificationDetails getScheduledNotificationDetails(Context context, Intent intent) {
+    NotificationDetails notificationDetails =
+        ScheduledNotificationStore.getInstance(context)
+            .get(intent.getIntExtra(NOTIFICATION_ID, 0));
+    if (notificationDetails == null) {
+      return null;
     }
-    saveScheduledNotifications(context, scheduledNotifications);
+    long recordVersion = intent.getLongExtra(NOTIFICATION_RECORD_VERSION, 0);
+    if (notificationDetails.recordVersion != null
+        && notificationDetails.recordVersion > recordVersion) {
+      return null;
+    }
+    return notificationDetails;
+  }
+
+  private static ArrayList<NotificationDetails> loadScheduledNotifications(Context context) {
+    return ScheduledNotificationStore.getInstance(context).getAll();
+  }
+
+  static void removeNotificationFromCache(Context context, Integer notificationId) {
+    ScheduledNotificationStore.getInstance(context).remove(notificationId);
+    onScheduledNotificationsChanged(context, Collections.singleton(notificationId));
   }
 
   @SuppressWarnings("deprecation")
@@ -585,10 +864,11 @@ public class FlutterLocalNotificationsPlugin
       Context context,
       final NotificationDetails notificationDetails,
       Boolean updateScheduledNotificationsCache) {
-    Gson gson = buildGson();
-    String notificationDetailsJson = gson.toJson(notificationDetails);
+    if (updateScheduledNotificationsCache && deferToSharedAlarms(context, notificationDetails)) {
+      return;
+    }
     Intent notificationIntent = new Intent(context, ScheduledNotificationReceiver.class);
-    notificationIntent.putExtra(NOTIFICATION_DETAILS, notificationDetailsJson);
+    putNotificationDetailsExtra(context, notificationIntent, notificationDetails);
     PendingIntent pendingIntent =
         getBroadcastPendingIntent(context, notificationDetails.id, notificationIntent);
 
@@ -608,10 +888,11 @@ public class FlutterLocalNotificationsPlugin
       Context context,
       final NotificationDetails notificationDetails,
       Boolean updateScheduledNotificationsCache) {
-    Gson gson = buildGson();
-    String notificationDetailsJson = gson.toJson(notificationDetails);
+    if (updateScheduledNotificationsCache && deferToSharedAlarms(context, notificationDetails)) {
+      return;
+    }
     Intent notificationIntent = new Intent(context, ScheduledNotificationReceiver.class);
-    notificationIntent.putExtra(NOTIFICATION_DETAILS, notificationDetailsJson);
+    putNotificationDetailsExtra(context, notificationIntent, notificationDetails);
     PendingIntent pendingIntent =
         getBroadcastPendingIntent(context, notificationDetails.id, notificationIntent);
     AlarmManager alarmManager = getAlarmManager(context);
@@ -631,16 +912,6 @@ public class FlutterLocalNotificationsPlugin
 
   private static void scheduleNextRepeatingNotification(
       Context context, NotificationDetails notificationDetails) {
-    long repeatInterval = calculateRepeatIntervalMilliseconds(notificationDetails);
-    long notificationTriggerTime =
-        calculateNextNotificationTrigger(notificationDetails.calledAt, repeatInterval);
-    Gson gson = buildGson();
-    String notificationDetailsJson = gson.toJson(notificationDetails);
-    Intent notificationIntent = new Intent(context, ScheduledNotificationReceiver.class);
-    notificationIntent.putExtra(NOTIFICATION_DETAILS, notificationDetailsJson);
-    PendingIntent pendingIntent =
-        getBroadcastPendingIntent(context, notificationDetails.id, notificationIntent);
-    AlarmManager alarmManager = getAlarmManager(context);
     if (notificationDetails.scheduleMode == null) {
       // This is to account for notifications created in older versions prior to allowWhileIdle
       // being added to the deserialiser.
@@ -648,6 +919,17 @@ public class FlutterLocalNotificationsPlugin
       // https://github.com/MaikuB/flutter_local_notifications/blob/4b723e750d1371206520b10a122a444c4bba7475/flutter_local_notifications/android/src/main/java/com/dexterous/flutterlocalnotifications/FlutterLocalNotificationsPlugin.java#L569C37-L569C37
       notificationDetails.scheduleMode = ScheduleMode.exactAllowWhileIdle;
     }
+    if (deferToSharedAlarms(context, notificationDetails)) {
+      return;
+    }
+    long repeatInterval = calculateRepeatIntervalMilliseconds(notificationDetails);
+    long notificationTriggerTime =
+        calculateNextNotificationTrigger(notificationDetails.calledAt, repeatInterval);
+    Intent notificationIntent = new Intent(context, ScheduledNotificationReceiver.class);
+    putNotificationDetailsExtra(context, notificationIntent, notificationDetails);
+    PendingIntent pendingIntent =
+        getBroadcastPendingIntent(context, notificationDetails.id, notificationIntent);
+    AlarmManager alarmManager = getAlarmManager(context);
 
     setupAllowWhileIdleAlarm(
         notificationDetails, alarmManager, notificationTriggerTime, pendingIntent);
@@ -697,6 +979,9 @@ public class FlutterLocalNotificationsPlugin
       Context context,
       NotificationDetails notificationDetails,
       Boolean updateScheduledNotificationsCache) {
+    if (updateScheduledNotificationsCache && deferToSharedAlarms(context, notificationDetails)) {
+      return;
+    }
     long repeatInterval = calculateRepeatIntervalMilliseconds(notificationDetails);
 
     long notificationTriggerTime = notificationDetails.calledAt;
@@ -716,10 +1001,8 @@ public class FlutterLocalNotificationsPlugin
     notificationTriggerTime =
         calculateNextNotificationTrigger(notificationTriggerTime, repeatInterval);
 
-    Gson gson = buildGson();
-    String notificationDetailsJson = gson.toJson(notificationDetails);
     Intent notificationIntent = new Intent(context, ScheduledNotificationReceiver.class);
-    notificationIntent.putExtra(NOTIFICATION_DETAILS, notificationDetailsJson);
+    putNotificationDetailsExtra(context, notificationIntent, notificationDetails);
     PendingIntent pendingIntent =
         getBroadcastPendingIntent(context, notificationDetails.id, notificationIntent);
     AlarmManager alarmManager = getAlarmManager(context);
@@ -793,6 +1076,34 @@ public class FlutterLocalNotificationsPlugin
     }
   }
 
+  // When alarms are managed by the dispatcher or the horizon, the notification is saved and they
+  // decide when its alarm is set. Returns false otherwise, in which case the caller sets the alarm
+  // itself
+  private static boolean deferToSharedAlarms(
+      Context context, NotificationDetails notificationDetails) {
+    if (!usesSharedAlarms(context)) {
+      return false;
+    }
+    prepareForSharedAlarms(context, notificationDetails);
+    saveScheduledNotification(context, notificationDetails);
+    onScheduledNotificationsChanged(context, Collections.singleton(notificationDetails.id));
+    return true;
+  }
+
+  // The notification may not have its alarm set straight away so whether exact alarms are
+  // permitted is checked upfront, which is when the error can still be reported. Images are
+  // externalized as would otherwise happen when the alarm is set, so that they aren't saved as
+  // part of the notification
+  private static void prepareForSharedAlarms(
+      Context context, NotificationDetails notificationDetails) {
+    if (notificationDetails.scheduleMode != null
+        && (notificationDetails.scheduleMode.useExactAlarm()
+            || notificationDetails.scheduleMode.useAlarmClock())) {
+      checkCanScheduleExactAlarms(getAlarmManager(context));
+    }
+    BitmapBlobStore.getInstance(context).externalize(notificationDetails);
+  }
+
   private static void checkCanScheduleExactAlarms(AlarmManager alarmManager) {
     if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S && !alarmManager.canScheduleExactAlarms()) {
       throw new ExactAlarmPermissionException();
@@ -802,14 +1113,11 @@ public class FlutterLocalNotificationsPlugin
   private static long calculateNextNotificationTrigger(
       long notificationTriggerTime, long repeatInterval) {
     // ensures that time is in the future
-    long currentTime = System.currentTimeMillis();
-    while (notificationTriggerTime < currentTime) {
-      notificationTriggerTime += repeatInterval;
-    }
-    return notificationTriggerTime;
+    return NextFireTime.afterInterval(
+        notificationTriggerTime, repeatInterval, System.currentTimeMillis());
   }
 
-  private static long calculateRepeatIntervalMilliseconds(NotificationDetails notificationDetails) {
+  static long calculateRepeatIntervalMilliseconds(NotificationDetails notificationDetails) {
     long repeatInterval = 0;
 
     if (notificationDetails.repeatIntervalMilliseconds != null) {
@@ -838,20 +1146,11 @@ public class FlutterLocalNotificationsPlugin
 
   private static void saveScheduledNotification(
       Context context, NotificationDetails notificationDetails) {
-    ArrayList<NotificationDetails> scheduledNotifications = loadScheduledNotifications(context);
-    ArrayList<NotificationDetails> scheduledNotificationsToSave = new ArrayList<>();
-    for (NotificationDetails scheduledNotification : scheduledNotifications) {
-      if (scheduledNotification.id.equals(notificationDetails.id)) {
-        continue;
-      }
-      scheduledNotificationsToSave.add(scheduledNotification);
-    }
-    scheduledNotificationsToSave.add(notificationDetails);
-    saveScheduledNotifications(context, scheduledNotificationsToSave);
+    ScheduledNotificationStore.getInstance(context).put(notificationDetails);
   }
 
   private static int getDrawableResourceId(Context context, String name) {
-    return context.getResources().getIdentifier(name, DRAWABLE, context.getPackageName());
+    return ResourceIdCache.getIdentifier(context, name, DRAWABLE);
   }
 
   @SuppressWarnings("unchecked")
@@ -870,18 +1169,165 @@ public class FlutterLocalNotificationsPlugin
     return byteArray;
   }
 
+  // Images are decoded at the size they're displayed at. A large icon is 64dp square whilst a big
+  // picture spans the width of the screen and is at most 256dp tall. When a budget has been set,
+  // a large icon can use up to an eighth of it and the big picture three quarters so that all
+  // of the images in a notification stay within the budget
+  private static BitmapTarget getLargeIconBitmapTarget(Context context) {
+    int size = dpToPx(context, LARGE_ICON_SIZE_DP);
+    return new BitmapTarget(
+        size, size, getMaxBitmapBytesPerNotification(context) / 8, getBitmapConfig(context));
+  }
+
+  private static BitmapTarget getBigPictureBitmapTarget(Context context) {
+    return new BitmapTarget(
+        context.getResources().getDisplayMetrics().widthPixels,
+        dpToPx(context, BIG_PICTURE_MAX_HEIGHT_DP),
+        getMaxBitmapBytesPerNotification(context) / 4 * 3,
+        getBitmapConfig(context));
+  }
+
+  private static int dpToPx(Context context, int dp) {
+    return Math.round(dp * context.getResources().getDisplayMetrics().density);
+  }
+
+  // Whether when scheduled notifications are due is also kept in device protected storage so that
+  // alarms can be set before the user unlocks the device. This is opted into via the
+  // initialization settings
+  static boolean useDirectBootIndex(Context context) {
+    SharedPreferences sharedPreferences =
+        context.getSharedPreferences(SHARED_PREFERENCES_KEY, Context.MODE_PRIVATE);
+    return sharedPreferences.getBoolean(USE_DIRECT_BOOT_INDEX, false);
+  }
+
+  // Whether alarms only hold the id of the notification rather than all of its details. This is
+  // opted into via the initialization settings
+  static boolean useIdOnlyAlarmIntents(Context context) {
+    SharedPreferences sharedPreferences =
+        context.getSharedPreferences(SHARED_PREFERENCES_KEY, Context.MODE_PRIVATE);
+    return sharedPreferences.getBoolean(USE_ID_ONLY_ALARM_INTENTS, false);
+  }
+
+  static boolean useAlarmDispatcher(Context context) {
+    SharedPreferences sharedPreferences =
+        context.getSharedPreferences(SHARED_PREFERENCES_KEY, Context.MODE_PRIVATE);
+    return sharedPreferences.getBoolean(USE_ALARM_DISPATCHER, false);
+  }
+
+  static int getMaxScheduledAlarms(Context context) {
+    SharedPreferences sharedPreferences =
+        context.getSharedPreferences(SHARED_PREFERENCES_KEY, Context.MODE_PRIVATE);
+    return sharedPreferences.getInt(MAX_SCHEDULED_ALARMS, 0);
+  }
+
+  static long getScheduledAlarmHorizonMilliseconds(Context context) {
+    SharedPreferences sharedPreferences =
+        context.getSharedPreferences(SHARED_PREFERENCES_KEY, Context.MODE_PRIVATE);
+    return sharedPreferences.getLong(SCHEDULED_ALARM_HORIZON_MILLISECONDS, 0);
+  }
+
+  // the engine used to handle notification actions in the background is kept running when this
+  // is zero
+  static long getBackgroundEngineIdleTimeoutMilliseconds(Context context) {
+    SharedPreferences sharedPreferences =
+        context.getSharedPreferences(SHARED_PREFERENCES_KEY, Context.MODE_PRIVATE);
+    return sharedPreferences.getLong(BACKGROUND_ENGINE_IDLE_TIMEOUT_MILLISECONDS, 0);
+  }
+
+  // notification responses are sent to the Dart side as soon as they're received when this is zero
+  static int getNotificationResponseBatchMaxSize(Context context) {
+    SharedPreferences sharedPreferences =
+        context.getSharedPreferences(SHARED_PREFERENCES_KEY, Context.MODE_PRIVATE);
+    return sharedPreferences.getInt(NOTIFICATION_RESPONSE_BATCH_MAX_SIZE, 0);
+  }
+
+  static long getNotificationResponseBatchMaxLatencyMilliseconds(Context context) {
+    SharedPreferences sharedPreferences =
+        context.getSharedPreferences(SHARED_PREFERENCES_KEY, Context.MODE_PRIVATE);
+    return sharedPreferences.getLong(NOTIFICATION_RESPONSE_BATCH_MAX_LATENCY_MILLISECONDS, 0);
+  }
+
+  private static long getMaxBitmapBytesPerNotification(Context context) {
+    SharedPreferences sharedPreferences =
+        context.getSharedPreferences(SHARED_PREFERENCES_KEY, Context.MODE_PRIVATE);
+    return Math.max(0, sharedPreferences.getLong(MAX_BITMAP_BYTES_PER_NOTIFICATION, 0));
+  }
+
+  private static Bitmap.Config getBitmapConfig(Context context) {
+    SharedPreferences sharedPreferences =
+        context.getSharedPreferences(SHARED_PREFERENCES_KEY, Context.MODE_PRIVATE);
+    String bitmapConfig = sharedPreferences.getString(BITMAP_CONFIG, null);
+    if ("rgb565".equals(bitmapConfig)) {
+      return Bitmap.Config.RGB_565;
+    }
+    if ("hardware".equals(bitmapConfig) && VERSION.SDK_INT >= VERSION_CODES.O) {
+      return Bitmap.Config.HARDWARE;
+    }
+    return Bitmap.Config.ARGB_8888;
+  }
+
   private static Bitmap getBitmapFromSource(
-      Context context, Object data, BitmapSource bitmapSource) {
+      Context context, Object data, BitmapSource bitmapSource, BitmapTarget target) {
+    if (data instanceof ArrayList) {
+      data = castObjectToByteArray(data);
+    }
+    BitmapCache.Key key;
+    if (data instanceof byte[]) {
+      key = BitmapCache.Key.forBytes(bitmapSource.name(), (byte[]) data, target);
+    } else if (data instanceof String) {
+      // files can be replaced between notifications being shown
+      long version =
+          bitmapSource == BitmapSource.FilePath ? new File((String) data).lastModified() : 0;
+      key = BitmapCache.Key.forName(bitmapSource.name(), (String) data, version, target);
+    } else {
+      return decodeBitmapFromSource(context, data, bitmapSource, target);
+    }
+    BitmapCache bitmapCache = BitmapCache.getInstance(context);
+    Bitmap bitmap = bitmapCache.get(key);
+    if (bitmap == null) {
+      bitmap = decodeBitmapFromSource(context, data, bitmapSource, target);
+      if (bitmap != null) {
+        bitmapCache.put(key, bitmap);
+      }
+    }
+    return bitmap;
+  }
+
+  // The dimensions of the image are read first so that it can be decoded at a fraction of its
+  // original size. This avoids allocating a full size bitmap for large images such as photos
+  private static Bitmap decodeBitmapFromSource(
+      Context context, Object data, BitmapSource bitmapSource, BitmapTarget target) {
+    if (bitmapSource == BitmapSource.ByteArray) {
+      data =
+          BitmapBlobStore.isReference(data)
+              ? BitmapBlobStore.getInstance(context).get((String) data)
+              : castObjectToByteArray(data);
+      if (data == null) {
+        return null;
+      }
+    }
+    BitmapFactory.Options options = new BitmapFactory.Options();
+    options.inJustDecodeBounds = true;
+    decodeBitmap(context, data, bitmapSource, options);
+    options.inJustDecodeBounds = false;
+    options.inSampleSize = target.calculateInSampleSize(options.outWidth, options.outHeight);
+    options.inPreferredConfig = target.config;
+    Bitmap bitmap = decodeBitmap(context, data, bitmapSource, options);
+    return bitmap != null ? target.fit(bitmap) : null;
+  }
+
+  private static Bitmap decodeBitmap(
+      Context context, Object data, BitmapSource bitmapSource, BitmapFactory.Options options) {
     Bitmap bitmap = null;
     if (bitmapSource == BitmapSource.DrawableResource) {
       bitmap =
           BitmapFactory.decodeResource(
-              context.getResources(), getDrawableResourceId(context, (String) data));
+              context.getResources(), getDrawableResourceId(context, (String) data), options);
     } else if (bitmapSource == BitmapSource.FilePath) {
-      bitmap = BitmapFactory.decodeFile((String) data);
+      bitmap = BitmapFactory.decodeFile((String) data, options);
     } else if (bitmapSource == BitmapSource.ByteArray) {
-      byte[] byteArray = castObjectToByteArray(data);
-      bitmap = BitmapFactory.decodeByteArray(byteArray, 0, byteArray.length);
+      byte[] byteArray = (byte[]) data;
+      bitmap = BitmapFactory.decodeByteArray(byteArray, 0, byteArray.length, options);
     }
 
     return bitmap;
@@ -895,23 +1341,36 @@ public class FlutterLocalNotificationsPlugin
             IconCompat.createWithResource(context, getDrawableResourceId(context, (String) data));
         break;
       case BitmapFilePath:
-        icon = IconCompat.createWithBitmap(BitmapFactory.decodeFile((String) data));
+        icon =
+            IconCompat.createWithBitmap(
+                getBitmapFromSource(
+                    context, data, BitmapSource.FilePath, getLargeIconBitmapTarget(context)));
         break;
       case ContentUri:
         icon = IconCompat.createWithContentUri((String) data);
         break;
       case FlutterBitmapAsset:
-        try {
-          FlutterLoader flutterLoader = FlutterInjector.instance().flutterLoader();
-          AssetFileDescriptor assetFileDescriptor =
-              context.getAssets().openFd(flutterLoader.getLookupKeyForAsset((String) data));
-          FileInputStream fileInputStream = assetFileDescriptor.createInputStream();
-          icon = IconCompat.createWithBitmap(BitmapFactory.decodeStream(fileInputStream));
-          fileInputStream.close();
-          assetFileDescriptor.close();
-        } catch (IOException e) {
-          throw new RuntimeException(e);
+        BitmapCache bitmapCache = BitmapCache.getInstance(context);
+        BitmapCache.Key key =
+            BitmapCache.Key.forName(iconSource.name(), (String) data, 0, BitmapTarget.ORIGINAL);
+        Bitmap bitmap = bitmapCache.get(key);
+        if (bitmap == null) {
+          try {
+            FlutterLoader flutterLoader = FlutterInjector.instance().flutterLoader();
+            AssetFileDescriptor assetFileDescriptor =
+                context.getAssets().openFd(flutterLoader.getLookupKeyForAsset((String) data));
+            FileInputStream fileInputStream = assetFileDescriptor.createInputStream();
+            bitmap = BitmapFactory.decodeStream(fileInputStream);
+            fileInputStream.close();
+            assetFileDescriptor.close();
+          } catch (IOException e) {
+            throw new RuntimeException(e);
+          }
+          if (bitmap != null) {
+            bitmapCache.put(key, bitmap);
+          }
         }
+        icon = IconCompat.createWithBitmap(bitmap);
         break;
       case ByteArray:
         byte[] byteArray = castObjectToByteArray(data);
@@ -1093,14 +1552,16 @@ public class FlutterLocalNotificationsPlugin
             getBitmapFromSource(
                 context,
                 bigPictureStyleInformation.largeIcon,
-                bigPictureStyleInformation.largeIconBitmapSource));
+                bigPictureStyleInformation.largeIconBitmapSource,
+                getLargeIconBitmapTarget(context)));
       }
     }
     bigPictureStyle.bigPicture(
         getBitmapFromSource(
             context,
             bigPictureStyleInformation.bigPicture,
-            bigPictureStyleInformation.bigPictureBitmapSource));
+            bigPictureStyleInformation.bigPictureBitmapSource,
+            getBigPictureBitmapTarget(context)));
     if (VERSION.SDK_INT >= VERSION_CODES.S
         && Boolean.TRUE.equals(bigPictureStyleInformation.showBigPictureWhenCollapsed)) {
       bigPictureStyle.showBigPictureWhenCollapsed(true);
@@ -1236,56 +1697,66 @@ public class FlutterLocalNotificationsPlugin
     if (VERSION.SDK_INT >= VERSION_CODES.O) {
       NotificationManager notificationManager =
           (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
-      NotificationChannel notificationChannel =
-          new NotificationChannel(
-              notificationChannelDetails.id,
-              notificationChannelDetails.name,
-              notificationChannelDetails.importance);
-      notificationChannel.setDescription(notificationChannelDetails.description);
-      notificationChannel.setGroup(notificationChannelDetails.groupId);
-      if (notificationChannelDetails.playSound) {
-        Integer audioAttributesUsage =
-            notificationChannelDetails.audioAttributesUsage != null
-                ? notificationChannelDetails.audioAttributesUsage
-                : AudioAttributes.USAGE_NOTIFICATION;
-        AudioAttributes audioAttributes =
-            new AudioAttributes.Builder().setUsage(audioAttributesUsage).build();
-        Uri uri =
-            retrieveSoundResourceUri(
-                context, notificationChannelDetails.sound, notificationChannelDetails.soundSource);
-        notificationChannel.setSound(uri, audioAttributes);
-      } else {
-        notificationChannel.setSound(null, null);
-      }
+      notificationManager.createNotificationChannel(
+          buildNotificationChannel(context, notificationManager, notificationChannelDetails));
+      NotificationChannelRegistry.onApplied(notificationChannelDetails);
+    }
+  }
 
-      if (BooleanUtils.getValue(notificationChannelDetails.bypassDnd)) {
-        boolean isAccessGranted = notificationManager.isNotificationPolicyAccessGranted();
+  @RequiresApi(api = VERSION_CODES.O)
+  private static NotificationChannel buildNotificationChannel(
+      Context context,
+      NotificationManager notificationManager,
+      NotificationChannelDetails notificationChannelDetails) {
+    NotificationChannel notificationChannel =
+        new NotificationChannel(
+            notificationChannelDetails.id,
+            notificationChannelDetails.name,
+            notificationChannelDetails.importance);
+    notificationChannel.setDescription(notificationChannelDetails.description);
+    notificationChannel.setGroup(notificationChannelDetails.groupId);
+    if (notificationChannelDetails.playSound) {
+      Integer audioAttributesUsage =
+          notificationChannelDetails.audioAttributesUsage != null
+              ? notificationChannelDetails.audioAttributesUsage
+              : AudioAttributes.USAGE_NOTIFICATION;
+      AudioAttributes audioAttributes =
+          new AudioAttributes.Builder().setUsage(audioAttributesUsage).build();
+      Uri uri =
+          retrieveSoundResourceUri(
+              context, notificationChannelDetails.sound, notificationChannelDetails.soundSource);
+      notificationChannel.setSound(uri, audioAttributes);
+    } else {
+      notificationChannel.setSound(null, null);
+    }
 
-        if (isAccessGranted) {
-          notificationChannel.setBypassDnd(true);
-        } else {
-          Log.w(
-              TAG,
-              "Channel '"
-                  + notificationChannelDetails.name
-                  + "' was set to bypass Do Not Disturb but the OS prevents it.");
-        }
-      }
+    if (BooleanUtils.getValue(notificationChannelDetails.bypassDnd)) {
+      boolean isAccessGranted = notificationManager.isNotificationPolicyAccessGranted();
 
-      notificationChannel.enableVibration(
-          BooleanUtils.getValue(notificationChannelDetails.enableVibration));
-      if (notificationChannelDetails.vibrationPattern != null
-          && notificationChannelDetails.vibrationPattern.length > 0) {
-        notificationChannel.setVibrationPattern(notificationChannelDetails.vibrationPattern);
-      }
-      boolean enableLights = BooleanUtils.getValue(notificationChannelDetails.enableLights);
-      notificationChannel.enableLights(enableLights);
-      if (enableLights && notificationChannelDetails.ledColor != null) {
-        notificationChannel.setLightColor(notificationChannelDetails.ledColor);
+      if (isAccessGranted) {
+        notificationChannel.setBypassDnd(true);
+      } else {
+        Log.w(
+            TAG,
+            "Channel '"
+                + notificationChannelDetails.name
+                + "' was set to bypass Do Not Disturb but the OS prevents it.");
       }
-      notificationChannel.setShowBadge(BooleanUtils.getValue(notificationChannelDetails.showBadge));
-      notificationManager.createNotificationChannel(notificationChannel);
     }
+
+    notificationChannel.enableVibration(
+        BooleanUtils.getValue(notificationChannelDetails.enableVibration));
+    if (notificationChannelDetails.vibrationPattern != null
+        && notificationChannelDetails.vibrationPattern.length > 0) {
+      notificationChannel.setVibrationPattern(notificationChannelDetails.vibrationPattern);
+    }
+    boolean enableLights = BooleanUtils.getValue(notificationChannelDetails.enableLights);
+    notificationChannel.enableLights(enableLights);
+    if (enableLights && notificationChannelDetails.ledColor != null) {
+      notificationChannel.setLightColor(notificationChannelDetails.ledColor);
+    }
+    notificationChannel.setShowBadge(BooleanUtils.getValue(notificationChannelDetails.showBadge));
+    return notificationChannel;
   }
 
   private static Uri retrieveSoundResourceUri(
@@ -1311,7 +1782,7 @@ public class FlutterLocalNotificationsPlugin
 
   private static boolean isValidDrawableResource(
       Context context, String name, Result result, String errorCode) {
-    int resourceId = context.getResources().getIdentifier(name, DRAWABLE, context.getPackageName());
+    int resourceId = getDrawableResourceId(context, name);
     if (resourceId == 0) {
       result.error(errorCode, String.format(INVALID_DRAWABLE_RESOURCE_ERROR_MESSAGE, name), null);
       return false;
@@ -1351,6 +1822,30 @@ public class FlutterLocalNotificationsPlugin
     zonedScheduleNotification(context, notificationDetails, true);
   }
 
+  private static void zonedScheduleNextNotificationMatchingRecurrenceRule(
+      Context context, NotificationDetails notificationDetails) {
+    String nextFireDate = getNextFireDateMatchingRecurrenceRule(notificationDetails);
+    if (nextFireDate == null) {
+      removeNotificationFromCache(context, notificationDetails.id);
+      return;
+    }
+    notificationDetails.scheduledDateTime = nextFireDate;
+    zonedScheduleNotification(context, notificationDetails, true);
+  }
+
+  // Returns the date that a notification which is scheduled with a time zone is next due after it
+  // has been shown or null when it doesn't repeat
+  static String getNextZonedFireDate(NotificationDetails notificationDetails) {
+    if (notificationDetails.recurrenceRule != null) {
+      return getNextFireDateMatchingRecurrenceRule(notificationDetails);
+    } else if (notificationDetails.scheduledNotificationRepeatFrequency != null) {
+      return getNextFireDate(notificationDetails);
+    } else if (notificationDetails.matchDateTimeComponents != null) {
+      return getNextFireDateMatchingDateTimeComponents(notificationDetails);
+    }
+    return null;
+  }
+
   private static String getNextFireDate(NotificationDetails notificationDetails) {
     if (notificationDetails.scheduledNotificationRepeatFrequency
         == ScheduledNotificationRepeatFrequency.Daily) {
@@ -1369,44 +1864,44 @@ public class FlutterLocalNotificationsPlugin
   private static String getNextFireDateMatchingDateTimeComponents(
       NotificationDetails notificationDetails) {
     ZoneId zoneId = ZoneId.of(notificationDetails.timeZoneName);
-    ZonedDateTime scheduledDateTime =
-        ZonedDateTime.of(LocalDateTime.parse(notificationDetails.scheduledDateTime), zoneId);
+    LocalDateTime nextFireDate =
+        NextFireTime.matchingDateTimeComponents(
+            LocalDateTime.parse(notificationDetails.scheduledDateTime),
+            notificationDetails.matchDateTimeComponents,
+            ZonedDateTime.now(zoneId));
+    if (nextFireDate == null) {
+      return null;
+    }
+    return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(nextFireDate);
+  }
+
+  // Returns the date of the occurrence after the one that was scheduled, which also counts it
+  // towards the number of times the notification is shown, or null when there aren't any more
+  private static String getNextFireDateMatchingRecurrenceRule(
+      NotificationDetails notificationDetails) {
+    RecurrenceRule recurrenceRule = notificationDetails.recurrenceRule;
+    ZoneId zoneId = ZoneId.of(notificationDetails.timeZoneName);
     ZonedDateTime now = ZonedDateTime.now(zoneId);
-    ZonedDateTime nextFireDate =
-        ZonedDateTime.of(
-            now.getYear(),
-            now.getMonthValue(),
-            now.getDayOfMonth(),
-            scheduledDateTime.getHour(),
-            scheduledDateTime.getMinute(),
-            scheduledDateTime.getSecond(),
-            scheduledDateTime.getNano(),
-            zoneId);
-    while (nextFireDate.isBefore(now)) {
-      // adjust to be a date in the future that matches the time
-      nextFireDate = nextFireDate.plusDays(1);
-    }
-    if (notificationDetails.matchDateTimeComponents == DateTimeComponents.Time) {
-      return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(nextFireDate);
-    } else if (notificationDetails.matchDateTimeComponents == DateTimeComponents.DayOfWeekAndTime) {
-      while (nextFireDate.getDayOfWeek() != scheduledDateTime.getDayOfWeek()) {
-        nextFireDate = nextFireDate.plusDays(1);
-      }
-      return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(nextFireDate);
-    } else if (notificationDetails.matchDateTimeComponents
-        == DateTimeComponents.DayOfMonthAndTime) {
-      while (nextFireDate.getDayOfMonth() != scheduledDateTime.getDayOfMonth()) {
-        nextFireDate = nextFireDate.plusDays(1);
-      }
-      return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(nextFireDate);
-    } else if (notificationDetails.matchDateTimeComponents == DateTimeComponents.DateAndTime) {
-      while (nextFireDate.getMonthValue() != scheduledDateTime.getMonthValue()
-          || nextFireDate.getDayOfMonth() != scheduledDateTime.getDayOfMonth()) {
-        nextFireDate = nextFireDate.plusDays(1);
-      }
-      return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(nextFireDate);
+    LocalDateTime nextFireDate = LocalDateTime.parse(notificationDetails.scheduledDateTime);
+    if (recurrenceRule.count == null) {
+      nextFireDate = NextFireTime.matchingRecurrenceRule(recurrenceRule, nextFireDate, now);
+    } else {
+      // occurrences that were missed whilst the device was off still count towards the number of
+      // times the notification is shown
+      do {
+        if (recurrenceRule.count <= 1) {
+          return null;
+        }
+        recurrenceRule.count--;
+        nextFireDate =
+            NextFireTime.matchingRecurrenceRule(
+                recurrenceRule, nextFireDate, ZonedDateTime.of(nextFireDate, zoneId));
+      } while (nextFireDate != null && ZonedDateTime.of(nextFireDate, zoneId).isBefore(now));
     }
-    return null;
+    if (nextFireDate == null) {
+      return null;
+    }
+    return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(nextFireDate);
   }
 
   private static NotificationManagerCompat getNotificationManager(Context context) {
@@ -1426,13 +1921,23 @@ public class FlutterLocalNotificationsPlugin
   @Override
   public void onAttachedToEngine(FlutterPluginBinding binding) {
     this.applicationContext = binding.getApplicationContext();
-    this.channel = new MethodChannel(binding.getBinaryMessenger(), METHOD_CHANNEL);
+    // method calls are handled on a serial background queue as most of them read and write
+    // files, decode images or make binder calls. Being serial means calls are handled in the order
+    // they were made so operations on the same notification can't be reordered
+    BinaryMessenger messenger = binding.getBinaryMessenger();
+    this.channel =
+        new MethodChannel(
+            messenger,
+            METHOD_CHANNEL,
+            StandardMethodCodec.INSTANCE,
+            messenger.makeBackgroundTaskQueue());
     this.channel.setMethodCallHandler(this);
     liveChannel = this.channel;
   }
 
   @Override
   public void onDetachedFromEngine(@NonNull FlutterPluginBinding binding) {
+    NotificationResponseBatcher.detach(this.channel);
     this.channel.setMethodCallHandler(null);
     if (liveChannel == this.channel) {
       liveChannel = null;
@@ -1477,7 +1982,29 @@ public class FlutterLocalNotificationsPlugin
   }
 
   @Override
-  public void onMethodCall(MethodCall call, @NonNull Result result) {
+  public void onMethodCall(final MethodCall call, @NonNull final Result result) {
+    switch (call.method) {
+      case REQUEST_NOTIFICATIONS_PERMISSION_METHOD:
+      case REQUEST_EXACT_ALARMS_PERMISSION_METHOD:
+      case REQUEST_FULL_SCREEN_INTENT_PERMISSION_METHOD:
+      case REQUEST_NOTIFICATION_POLICY_ACCESS_METHOD:
+        // permission requests interact with the activity and track their progress in state that
+        // is otherwise only accessed from the main thread
+        mainHandler.post(
+            new Runnable() {
+              @Override
+              public void run() {
+                handleMethodCall(call, result);
+              }
+            });
+        break;
+      default:
+        handleMethodCall(call, result);
+        break;
+    }
+  }
+
+  private void handleMethodCall(MethodCall call, Result result) {
     switch (call.method) {
       case INITIALIZE_METHOD:
         initialize(call, result);
@@ -1494,6 +2021,9 @@ public class FlutterLocalNotificationsPlugin
       case ZONED_SCHEDULE_METHOD:
         zonedSchedule(call, result);
         break;
+      case ZONED_SCHEDULE_BATCH_METHOD:
+        zonedScheduleBatch(call, result);
+        break;
       case REQUEST_NOTIFICATIONS_PERMISSION_METHOD:
         requestNotificationsPermission(
             new PermissionRequestListener() {
@@ -1562,6 +2092,9 @@ public class FlutterLocalNotificationsPlugin
       case CANCEL_METHOD:
         cancel(call, result);
         break;
+      case CANCEL_MANY_METHOD:
+        cancelMany(call, result);
+        break;
       case CANCEL_ALL_METHOD:
         cancelAllNotifications(result);
         break;
@@ -1569,7 +2102,18 @@ public class FlutterLocalNotificationsPlugin
         cancelAllPendingNotifications(result);
         break;
       case PENDING_NOTIFICATION_REQUESTS_METHOD:
-        pendingNotificationRequests(result);
+        pendingNotificationRequests(call, result);
+        break;
+      case GET_PENDING_NOTIFICATION_COUNT_METHOD:
+        getPendingNotificationCount(call, result);
+        break;
+      case GET_BACKGROUND_ENGINE_METRICS_METHOD:
+        result.success(BackgroundEngineHolder.getInstance().getMetrics());
+        break;
+      case ACKNOWLEDGE_ACTION_EVENTS_METHOD:
+        ActionEventQueue.getInstance(applicationContext)
+            .acknowledge(((Number) call.arguments()).longValue());
+        result.success(null);
         break;
       case ARE_NOTIFICATIONS_ENABLED_METHOD:
         areNotificationsEnabled(result);
@@ -1580,12 +2124,18 @@ public class FlutterLocalNotificationsPlugin
       case CREATE_NOTIFICATION_CHANNEL_GROUP_METHOD:
         createNotificationChannelGroup(call, result);
         break;
+      case CREATE_NOTIFICATION_CHANNEL_GROUPS_METHOD:
+        createNotificationChannelGroups(call, result);
+        break;
       case DELETE_NOTIFICATION_CHANNEL_GROUP_METHOD:
         deleteNotificationChannelGroup(call, result);
         break;
       case CREATE_NOTIFICATION_CHANNEL_METHOD:
         createNotificationChannel(call, result);
         break;
+      case CREATE_NOTIFICATION_CHANNELS_METHOD:
+        createNotificationChannels(call, result);
+        break;
       case DELETE_NOTIFICATION_CHANNEL_METHOD:
         deleteNotificationChannel(call, result);
         break;
@@ -1610,22 +2160,48 @@ public class FlutterLocalNotificationsPlugin
     }
   }
 
-  private void pendingNotificationRequests(Result result) {
-    ArrayList<NotificationDetails> scheduledNotifications =
-        loadScheduledNotifications(applicationContext);
-    List<Map<String, Object>> pendingNotifications = new ArrayList<>();
+  private void pendingNotificationRequests(MethodCall call, Result result) {
+    PendingNotificationRequestFilter filter =
+        PendingNotificationRequestFilter.from(call.arguments());
+    Integer offset = call.argument(PENDING_NOTIFICATIONS_OFFSET);
+    Integer limit = call.argument(PENDING_NOTIFICATIONS_LIMIT);
+    // when fields are specified, only those fields are sent back alongside the id
+    List<String> fields = call.argument(PENDING_NOTIFICATIONS_FIELDS);
+    boolean includeTitle = fields == null || fields.contains("title");
+    boolean includeBody = fields == null || fields.contains("body");
+    boolean includePayload = fields == null || fields.contains("payload");
+    List<NotificationDetails> scheduledNotifications =
+        ScheduledNotificationStore.getInstance(applicationContext)
+            .query(
+                filter,
+                offset != null ? offset : 0,
+                limit != null ? limit : Integer.MAX_VALUE);
+    List<Map<String, Object>> pendingNotifications =
+        new ArrayList<>(scheduledNotifications.size());
 
     for (NotificationDetails scheduledNotification : scheduledNotifications) {
       HashMap<String, Object> pendingNotification = new HashMap<>();
       pendingNotification.put("id", scheduledNotification.id);
-      pendingNotification.put("title", scheduledNotification.title);
-      pendingNotification.put("body", scheduledNotification.body);
-      pendingNotification.put("payload", scheduledNotification.payload);
+      if (includeTitle) {
+        pendingNotification.put("title", scheduledNotification.title);
+      }
+      if (includeBody) {
+        pendingNotification.put("body", scheduledNotification.body);
+      }
+      if (includePayload) {
+        pendingNotification.put("payload", scheduledNotification.payload);
+      }
       pendingNotifications.add(pendingNotification);
     }
     result.success(pendingNotifications);
   }
 
+  private void getPendingNotificationCount(MethodCall call, Result result) {
+    PendingNotificationRequestFilter filter =
+        PendingNotificationRequestFilter.from(call.arguments());
+    result.success(ScheduledNotificationStore.getInstance(applicationContext).count(filter));
+  }
+
   private void getActiveNotifications(Result result) {
     if (VERSION.SDK_INT < VERSION_CODES.M) {
       result.error(UNSUPPORTED_OS_VERSION_ERROR_CODE, GET_ACTIVE_NOTIFICATIONS_ERROR_MESSAGE, null);
@@ -1668,15 +2244,85 @@ public class FlutterLocalNotificationsPlugin
     Map<String, Object> arguments = call.arguments();
     Integer id = (Integer) arguments.get(CANCEL_ID);
     String tag = (String) arguments.get(CANCEL_TAG);
-    cancelNotification(id, tag);
+    synchronized (SCHEDULED_NOTIFICATIONS_LOCK) {
+      cancelNotification(id, tag);
+    }
     result.success(null);
   }
 
+  // Cancels the notifications with the given ids or, when no ids are given, the notifications
+  // that match all of the tag, group key and channel id that were specified. Both scheduled and
+  // active notifications are cancelled and the scheduled notifications are removed from the store
+  // together
+  private void cancelMany(MethodCall call, Result result) {
+    List<Integer> ids = call.argument(CANCEL_IDS);
+    String tag = call.argument(CANCEL_TAG);
+    String groupKey = call.argument(CANCEL_GROUP_KEY);
+    String channelId = call.argument(CANCEL_CHANNEL_ID);
+    if (ids == null && tag == null && groupKey == null && channelId == null) {
+      result.success(null);
+      return;
+    }
+    ScheduledNotificationStore store = ScheduledNotificationStore.getInstance(applicationContext);
+    AlarmManager alarmManager = getAlarmManager(applicationContext);
+    NotificationManagerCompat notificationManager = getNotificationManager(applicationContext);
+    Intent intent = new Intent(applicationContext, ScheduledNotificationReceiver.class);
+    List<Integer> cancelledIds = new ArrayList<>();
+    synchronized (SCHEDULED_NOTIFICATIONS_LOCK) {
+      if (ids != null) {
+        for (Integer id : ids) {
+          alarmManager.cancel(getBroadcastPendingIntent(applicationContext, id, intent));
+          notificationManager.cancel(id);
+          NotificationDetails notificationDetails = store.get(id);
+          if (notificationDetails != null && notificationDetails.tag != null) {
+            notificationManager.cancel(notificationDetails.tag, id);
+          }
+          cancelledIds.add(id);
+        }
+      } else {
+        // the store's indexes are used so that only the matching notifications are visited
+        PendingNotificationRequestFilter filter = new PendingNotificationRequestFilter();
+        filter.tag = tag;
+        filter.groupKey = groupKey;
+        filter.channelId = channelId;
+        for (NotificationDetails notificationDetails : store.query(filter)) {
+          alarmManager.cancel(
+              getBroadcastPendingIntent(applicationContext, notificationDetails.id, intent));
+          cancelledIds.add(notificationDetails.id);
+        }
+      }
+      store.removeAll(cancelledIds);
+      onScheduledNotificationsChanged(applicationContext, cancelledIds);
+    }
+    if (ids == null) {
+      NotificationManager platformNotificationManager =
+          (NotificationManager) applicationContext.getSystemService(Context.NOTIFICATION_SERVICE);
+      for (StatusBarNotification activeNotification :
+          platformNotificationManager.getActiveNotifications()) {
+        Notification notification = activeNotification.getNotification();
+        if (matches(activeNotification.getTag(), tag)
+            && matches(notification.getGroup(), groupKey)
+            && (channelId == null
+                || (VERSION.SDK_INT >= VERSION_CODES.O
+                    && channelId.equals(notification.getChannelId())))) {
+          notificationManager.cancel(activeNotification.getTag(), activeNotification.getId());
+        }
+      }
+    }
+    result.success(null);
+  }
+
+  private static boolean matches(String value, String expectedValue) {
+    return expectedValue == null || expectedValue.equals(value);
+  }
+
   private void repeat(MethodCall call, Result result) {
     NotificationDetails notificationDetails = extractNotificationDetails(result, call.arguments());
     if (notificationDetails != null) {
       try {
-        repeatNotification(applicationContext, notificationDetails, true);
+        synchronized (SCHEDULED_NOTIFICATIONS_LOCK) {
+          repeatNotification(applicationContext, notificationDetails, true);
+        }
         result.success(null);
       } catch (PluginException e) {
         result.error(e.code, e.getMessage(), null);
@@ -1687,12 +2333,15 @@ public class FlutterLocalNotificationsPlugin
   private void zonedSchedule(MethodCall call, Result result) {
     NotificationDetails notificationDetails = extractNotificationDetails(result, call.arguments());
     if (notificationDetails != null) {
-      if (notificationDetails.matchDateTimeComponents != null) {
+      if (notificationDetails.matchDateTimeComponents != null
+          && notificationDetails.recurrenceRule == null) {
         notificationDetails.scheduledDateTime =
             getNextFireDateMatchingDateTimeComponents(notificationDetails);
       }
       try {
-        zonedScheduleNotification(applicationContext, notificationDetails, true);
+        synchronized (SCHEDULED_NOTIFICATIONS_LOCK) {
+          zonedScheduleNotification(applicationContext, notificationDetails, true);
+        }
         result.success(null);
       } catch (PluginException e) {
         result.error(e.code, e.getMessage(), null);
@@ -1700,6 +2349,77 @@ public class FlutterLocalNotificationsPlugin
     }
   }
 
+  // Schedules each of the notifications in the same way as zonedSchedule but only persists them
+  // once the alarms have been set up. A notification that is invalid or can't be scheduled doesn't
+  // stop the remaining notifications from being scheduled, instead its error is reported in the
+  // list of results that is returned. The notifications are validated before the lock is taken and
+  // are then scheduled in chunks, with the lock released between chunks, so that a large batch
+  // doesn't hold up alarms that are delivered in the meantime
+  private void zonedScheduleBatch(MethodCall call, Result result) {
+    List<Map<String, Object>> notifications = call.argument(NOTIFICATIONS);
+    if (notifications == null) {
+      result.error(INVALID_NOTIFICATIONS_ERROR_CODE, INVALID_NOTIFICATIONS_ERROR_MESSAGE, null);
+      return;
+    }
+    List<BatchItemResult> itemResults = new ArrayList<>(notifications.size());
+    List<NotificationDetails> extractedNotifications = new ArrayList<>(notifications.size());
+    for (Map<String, Object> arguments : notifications) {
+      BatchItemResult itemResult = new BatchItemResult();
+      NotificationDetails notificationDetails =
+          arguments != null ? extractNotificationDetails(itemResult, arguments) : null;
+      if (notificationDetails == null) {
+        // some of the checks reject the details without reporting an error
+        itemResult.error(
+            INVALID_NOTIFICATION_DETAILS_ERROR_CODE,
+            INVALID_NOTIFICATION_DETAILS_ERROR_MESSAGE,
+            null);
+      } else if (notificationDetails.matchDateTimeComponents != null
+          && notificationDetails.recurrenceRule == null) {
+        notificationDetails.scheduledDateTime =
+            getNextFireDateMatchingDateTimeComponents(notificationDetails);
+      }
+      itemResults.add(itemResult);
+      // the details of a notification that is invalid are left as null
+      extractedNotifications.add(notificationDetails);
+    }
+    for (int start = 0; start < extractedNotifications.size(); start += RESCHEDULE_CHUNK_SIZE) {
+      int end = Math.min(start + RESCHEDULE_CHUNK_SIZE, extractedNotifications.size());
+      List<NotificationDetails> scheduledNotifications = new ArrayList<>(end - start);
+      List<Integer> scheduledIds = new ArrayList<>(end - start);
+      synchronized (SCHEDULED_NOTIFICATIONS_LOCK) {
+        boolean usesSharedAlarms = usesSharedAlarms(applicationContext);
+        for (int i = start; i < end; i++) {
+          NotificationDetails notificationDetails = extractedNotifications.get(i);
+          if (notificationDetails == null) {
+            continue;
+          }
+          try {
+            if (usesSharedAlarms) {
+              prepareForSharedAlarms(applicationContext, notificationDetails);
+            } else {
+              zonedScheduleNotification(applicationContext, notificationDetails, false);
+            }
+            scheduledNotifications.add(notificationDetails);
+            scheduledIds.add(notificationDetails.id);
+          } catch (PluginException e) {
+            itemResults.get(i).error(e.code, e.getMessage(), null);
+          }
+        }
+        ScheduledNotificationStore.getInstance(applicationContext).putAll(scheduledNotifications);
+        onScheduledNotificationsChanged(applicationContext, scheduledIds);
+      }
+    }
+    List<Map<String, Object>> results = new ArrayList<>(notifications.size());
+    for (int i = 0; i < notifications.size(); i++) {
+      Map<String, Object> arguments = notifications.get(i);
+      results.add(
+          itemResults
+              .get(i)
+              .toMap(arguments != null ? (Integer) arguments.get(BATCH_ITEM_ID) : null));
+    }
+    result.success(results);
+  }
+
   private void show(MethodCall call, Result result) {
     Map<String, Object> arguments = call.arguments();
     NotificationDetails notificationDetails = extractNotificationDetails(result, arguments);
@@ -1740,13 +2460,107 @@ public class FlutterLocalNotificationsPlugin
     Long dispatcherHandle = LongUtils.parseLong(call.argument(DISPATCHER_HANDLE));
     Long callbackHandle = LongUtils.parseLong(call.argument(CALLBACK_HANDLE));
     if (dispatcherHandle != null && callbackHandle != null) {
-      new IsolatePreferences(applicationContext).saveCallbackKeys(dispatcherHandle, callbackHandle);
+      final IsolatePreferences isolatePreferences = new IsolatePreferences(applicationContext);
+      isolatePreferences.saveCallbackKeys(dispatcherHandle, callbackHandle);
+      // passes on the actions that the background isolate didn't get to handle before the process
+      // last died
+      mainHandler.post(
+          new Runnable() {
+            @Override
+            public void run() {
+              BackgroundEngineHolder.getInstance().resume(applicationContext, isolatePreferences);
+            }
+          });
     }
 
     SharedPreferences sharedPreferences =
         applicationContext.getSharedPreferences(SHARED_PREFERENCES_KEY, Context.MODE_PRIVATE);
     SharedPreferences.Editor editor = sharedPreferences.edit();
-    editor.putString(DEFAULT_ICON, defaultIcon).apply();
+    editor.putString(DEFAULT_ICON, defaultIcon);
+    synchronized (DEFAULT_ICON_LOCK) {
+      defaultIconResourceId = getDrawableResourceId(applicationContext, defaultIcon);
+      defaultIconResourceIdLoaded = true;
+    }
+    editor.putBoolean(
+        USE_COMPACT_STORAGE_FORMAT,
+        BooleanUtils.getValue((Boolean) arguments.get(USE_COMPACT_STORAGE_FORMAT)));
+    editor.putString(BITMAP_CONFIG, (String) arguments.get(BITMAP_CONFIG));
+    Number maxBitmapBytesPerNotification =
+        (Number) arguments.get(MAX_BITMAP_BYTES_PER_NOTIFICATION);
+    if (maxBitmapBytesPerNotification != null) {
+      editor.putLong(MAX_BITMAP_BYTES_PER_NOTIFICATION, maxBitmapBytesPerNotification.longValue());
+    } else {
+      editor.remove(MAX_BITMAP_BYTES_PER_NOTIFICATION);
+    }
+    editor.putBoolean(
+        USE_ID_ONLY_ALARM_INTENTS,
+        BooleanUtils.getValue((Boolean) arguments.get(USE_ID_ONLY_ALARM_INTENTS)));
+    boolean directBootIndexWasEnabled = DirectBootIndex.isEnabled(applicationContext);
+    editor.putBoolean(
+        USE_DIRECT_BOOT_INDEX,
+        BooleanUtils.getValue((Boolean) arguments.get(USE_DIRECT_BOOT_INDEX)));
+    boolean alarmDispatcherWasEnabled = AlarmDispatcher.isEnabled(applicationContext);
+    boolean alarmHorizonWasEnabled = AlarmHorizon.isEnabled(applicationContext);
+    editor.putBoolean(
+        USE_ALARM_DISPATCHER,
+        BooleanUtils.getValue((Boolean) arguments.get(USE_ALARM_DISPATCHER)));
+    Integer maxScheduledAlarms = (Integer) arguments.get(MAX_SCHEDULED_ALARMS);
+    if (maxScheduledAlarms != null) {
+      editor.putInt(MAX_SCHEDULED_ALARMS, maxScheduledAlarms);
+    } else {
+      editor.remove(MAX_SCHEDULED_ALARMS);
+    }
+    Number scheduledAlarmHorizonMilliseconds =
+        (Number) arguments.get(SCHEDULED_ALARM_HORIZON_MILLISECONDS);
+    if (scheduledAlarmHorizonMilliseconds != null) {
+      editor.putLong(
+          SCHEDULED_ALARM_HORIZON_MILLISECONDS, scheduledAlarmHorizonMilliseconds.longValue());
+    } else {
+      editor.remove(SCHEDULED_ALARM_HORIZON_MILLISECONDS);
+    }
+    Number backgroundEngineIdleTimeoutMilliseconds =
+        (Number) arguments.get(BACKGROUND_ENGINE_IDLE_TIMEOUT_MILLISECONDS);
+    if (backgroundEngineIdleTimeoutMilliseconds != null) {
+      editor.putLong(
+          BACKGROUND_ENGINE_IDLE_TIMEOUT_MILLISECONDS,
+          backgroundEngineIdleTimeoutMilliseconds.longValue());
+    } else {
+      editor.remove(BACKGROUND_ENGINE_IDLE_TIMEOUT_MILLISECONDS);
+    }
+    Integer notificationResponseBatchMaxSize =
+        (Integer) arguments.get(NOTIFICATION_RESPONSE_BATCH_MAX_SIZE);
+    Number notificationResponseBatchMaxLatencyMilliseconds =
+        (Number) arguments.get(NOTIFICATION_RESPONSE_BATCH_MAX_LATENCY_MILLISECONDS);
+    if (notificationResponseBatchMaxSize != null
+        && notificationResponseBatchMaxLatencyMilliseconds != null) {
+      editor.putInt(NOTIFICATION_RESPONSE_BATCH_MAX_SIZE, notificationResponseBatchMaxSize);
+      editor.putLong(
+          NOTIFICATION_RESPONSE_BATCH_MAX_LATENCY_MILLISECONDS,
+          notificationResponseBatchMaxLatencyMilliseconds.longValue());
+    } else {
+      editor.remove(NOTIFICATION_RESPONSE_BATCH_MAX_SIZE);
+      editor.remove(NOTIFICATION_RESPONSE_BATCH_MAX_LATENCY_MILLISECONDS);
+    }
+    editor.apply();
+    if (alarmDispatcherWasEnabled != AlarmDispatcher.isEnabled(applicationContext)
+        || alarmHorizonWasEnabled != AlarmHorizon.isEnabled(applicationContext)) {
+      resetAlarms(applicationContext);
+    } else {
+      // the number of alarms or the horizon may have changed
+      synchronized (SCHEDULED_NOTIFICATIONS_LOCK) {
+        onScheduledNotificationsChanged(applicationContext, Collections.<Integer>emptySet());
+      }
+    }
+    if (directBootIndexWasEnabled != DirectBootIndex.isEnabled(applicationContext)) {
+      synchronized (SCHEDULED_NOTIFICATIONS_LOCK) {
+        if (DirectBootIndex.isEnabled(applicationContext)) {
+          DirectBootIndex.rebuild(
+              applicationContext, loadScheduledNotifications(applicationContext));
+        } else {
+          DirectBootIndex.clear(applicationContext);
+        }
+      }
+    }
     result.success(true);
   }
 
@@ -1787,9 +2601,7 @@ public class FlutterLocalNotificationsPlugin
         && (notificationDetails.soundSource == null
             || notificationDetails.soundSource == SoundSource.RawResource)) {
       int soundResourceId =
-          applicationContext
-              .getResources()
-              .getIdentifier(notificationDetails.sound, "raw", applicationContext.getPackageName());
+          ResourceIdCache.getIdentifier(applicationContext, notificationDetails.sound, "raw");
       if (soundResourceId == 0) {
         result.error(
             INVALID_SOUND_ERROR_CODE,
@@ -1865,31 +2677,24 @@ public class FlutterLocalNotificationsPlugin
   private void cancelAllNotifications(Result result) {
     NotificationManagerCompat notificationManager = getNotificationManager(applicationContext);
     notificationManager.cancelAll();
-    ArrayList<NotificationDetails> scheduledNotifications =
-        loadScheduledNotifications(applicationContext);
-    if (scheduledNotifications == null || scheduledNotifications.isEmpty()) {
-      result.success(null);
-      return;
+    synchronized (SCHEDULED_NOTIFICATIONS_LOCK) {
+      cancelAllScheduledNotifications();
     }
+    result.success(null);
+  }
 
-    Intent intent = new Intent(applicationContext, ScheduledNotificationReceiver.class);
-    for (NotificationDetails scheduledNotification : scheduledNotifications) {
-      PendingIntent pendingIntent =
-          getBroadcastPendingIntent(applicationContext, scheduledNotification.id, intent);
-      AlarmManager alarmManager = getAlarmManager(applicationContext);
-      alarmManager.cancel(pendingIntent);
+  private void cancelAllPendingNotifications(Result result) {
+    synchronized (SCHEDULED_NOTIFICATIONS_LOCK) {
+      cancelAllScheduledNotifications();
     }
-
-    saveScheduledNotifications(applicationContext, new ArrayList<>());
     result.success(null);
   }
 
-  private void cancelAllPendingNotifications(Result result) {
+  private void cancelAllScheduledNotifications() {
     ArrayList<NotificationDetails> scheduledNotifications =
         loadScheduledNotifications(applicationContext);
 
     if (scheduledNotifications == null || scheduledNotifications.isEmpty()) {
-      result.success(null);
       return;
     }
 
@@ -1902,8 +2707,8 @@ public class FlutterLocalNotificationsPlugin
       alarmManager.cancel(pendingIntent);
     }
 
-    saveScheduledNotifications(applicationContext, new ArrayList<>());
-    result.success(null);
+    ScheduledNotificationStore.getInstance(applicationContext).clear();
+    onScheduledNotificationsChanged(applicationContext, Collections.<Integer>emptySet());
   }
 
   public void requestNotificationsPermission(@NonNull PermissionRequestListener callback) {
@@ -2069,7 +2874,7 @@ public class FlutterLocalNotificationsPlugin
       if (SELECT_FOREGROUND_NOTIFICATION_ACTION.equals(intent.getAction())) {
         processForegroundNotificationAction(intent, notificationResponse);
       }
-      channel.invokeMethod("didReceiveNotificationResponse", notificationResponse);
+      NotificationResponseBatcher.send(applicationContext, channel, notificationResponse);
       return true;
     }
 
@@ -2087,27 +2892,49 @@ public class FlutterLocalNotificationsPlugin
   private void createNotificationChannelGroup(MethodCall call, Result result) {
     if (VERSION.SDK_INT >= VERSION_CODES.O) {
       Map<String, Object> arguments = call.arguments();
-      NotificationChannelGroupDetails notificationChannelGroupDetails =
-          NotificationChannelGroupDetails.from(arguments);
       NotificationManager notificationManager =
           (NotificationManager) applicationContext.getSystemService(Context.NOTIFICATION_SERVICE);
-      NotificationChannelGroup notificationChannelGroup =
-          new NotificationChannelGroup(
-              notificationChannelGroupDetails.id, notificationChannelGroupDetails.name);
-      if (VERSION.SDK_INT >= VERSION_CODES.P) {
-        notificationChannelGroup.setDescription(notificationChannelGroupDetails.description);
+      notificationManager.createNotificationChannelGroup(
+          buildNotificationChannelGroup(NotificationChannelGroupDetails.from(arguments)));
+    }
+    result.success(null);
+  }
+
+  // Creates all of the groups with a single call to the system
+  private void createNotificationChannelGroups(MethodCall call, Result result) {
+    if (VERSION.SDK_INT >= VERSION_CODES.O) {
+      List<Map<String, Object>> groups = call.argument(GROUPS);
+      List<NotificationChannelGroup> notificationChannelGroups = new ArrayList<>(groups.size());
+      for (Map<String, Object> arguments : groups) {
+        notificationChannelGroups.add(
+            buildNotificationChannelGroup(NotificationChannelGroupDetails.from(arguments)));
       }
-      notificationManager.createNotificationChannelGroup(notificationChannelGroup);
+      NotificationManager notificationManager =
+          (NotificationManager) applicationContext.getSystemService(Context.NOTIFICATION_SERVICE);
+      notificationManager.createNotificationChannelGroups(notificationChannelGroups);
     }
     result.success(null);
   }
 
+  @RequiresApi(api = VERSION_CODES.O)
+  private static NotificationChannelGroup buildNotificationChannelGroup(
+      NotificationChannelGroupDetails notificationChannelGroupDetails) {
+    NotificationChannelGroup notificationChannelGroup =
+        new NotificationChannelGroup(
+            notificationChannelGroupDetails.id, notificationChannelGroupDetails.name);
+    if (VERSION.SDK_INT >= VERSION_CODES.P) {
+      notificationChannelGroup.setDescription(notificationChannelGroupDetails.description);
+    }
+    return notificationChannelGroup;
+  }
+
   private void deleteNotificationChannelGroup(MethodCall call, Result result) {
     if (VERSION.SDK_INT >= VERSION_CODES.O) {
       NotificationManager notificationManager =
           (NotificationManager) applicationContext.getSystemService(Context.NOTIFICATION_SERVICE);
       String groupId = call.arguments();
       notificationManager.deleteNotificationChannelGroup(groupId);
+      NotificationChannelRegistry.onGroupDeleted(groupId);
     }
     result.success(null);
   }
@@ -2120,12 +2947,39 @@ public class FlutterLocalNotificationsPlugin
     result.success(null);
   }
 
+  // Creates all of the channels with a single call to the system
+  private void createNotificationChannels(MethodCall call, Result result) {
+    if (VERSION.SDK_INT >= VERSION_CODES.O) {
+      List<Map<String, Object>> channels = call.argument(CHANNELS);
+      NotificationManager notificationManager =
+          (NotificationManager) applicationContext.getSystemService(Context.NOTIFICATION_SERVICE);
+      List<NotificationChannelDetails> notificationChannelDetailsList =
+          new ArrayList<>(channels.size());
+      List<NotificationChannel> notificationChannels = new ArrayList<>(channels.size());
+      for (Map<String, Object> arguments : channels) {
+        NotificationChannelDetails notificationChannelDetails =
+            NotificationChannelDetails.from(arguments);
+        notificationChannelDetailsList.add(notificationChannelDetails);
+        notificationChannels.add(
+            buildNotificationChannel(
+                applicationContext, notificationManager, notificationChannelDetails));
+      }
+      notificationManager.createNotificationChannels(notificationChannels);
+      for (NotificationChannelDetails notificationChannelDetails :
+          notificationChannelDetailsList) {
+        NotificationChannelRegistry.onApplied(notificationChannelDetails);
+      }
+    }
+    result.success(null);
+  }
+
   private void deleteNotificationChannel(MethodCall call, Result result) {
     if (VERSION.SDK_INT >= VERSION_CODES.O) {
       NotificationManager notificationManager =
           (NotificationManager) applicationContext.getSystemService(Context.NOTIFICATION_SERVICE);
       String channelId = call.arguments();
       notificationManager.deleteNotificationChannel(channelId);
+      NotificationChannelRegistry.onDeleted(channelId);
     }
     result.success(null);
   }
@@ -2248,10 +3102,15 @@ public class FlutterLocalNotificationsPlugin
           getNotificationManager(applicationContext);
       List<NotificationChannel> channels = notificationManagerCompat.getNotificationChannels();
       List<Map<String, Object>> channelsPayload = new ArrayList<>();
+      List<String> channelIds = new ArrayList<>();
       for (NotificationChannel channel : channels) {
         HashMap<String, Object> channelPayload = getMappedNotificationChannel(channel);
         channelsPayload.add(channelPayload);
+        if (VERSION.SDK_INT >= VERSION_CODES.O) {
+          channelIds.add(channel.getId());
+        }
       }
+      NotificationChannelRegistry.onChannelsRetrieved(channelIds);
       result.success(channelsPayload);
     } catch (Throwable e) {
       result.error(
@@ -2426,6 +3285,35 @@ public class FlutterLocalNotificationsPlugin
     }
   }
 
+  // Captures the error reported for a single notification within a batch so that validation can
+  // reuse the same checks as the methods that handle one notification at a time
+  private static class BatchItemResult implements Result {
+    private String errorCode;
+    private String errorMessage;
+
+    @Override
+    public void success(Object result) {}
+
+    @Override
+    public void error(String errorCode, String errorMessage, Object errorDetails) {
+      if (this.errorCode == null) {
+        this.errorCode = errorCode;
+        this.errorMessage = errorMessage;
+      }
+    }
+
+    @Override
+    public void notImplemented() {}
+
+    Map<String, Object> toMap(Integer id) {
+      Map<String, Object> map = new HashMap<>();
+      map.put(BATCH_ITEM_ID, id);
+      map.put(BATCH_ITEM_ERROR_CODE, errorCode);
+      map.put(BATCH_ITEM_ERROR_MESSAGE, errorMessage);
+      return map;
+    }
+  }
+
   private static class ExactAlarmPermissionException extends PluginException {
     public ExactAlarmPermissionException() {
       super(EXACT_ALARMS_PERMISSION_ERROR_CODE, "Exact alarms are not permitted");
@@ -0,0 +1,352 @@
+package com.dexterous.flutterlocalnotifications;
+
+import com.dexterous.flutterlocalnotifications.models.DateTimeComponents;
+import com.dexterous.flutterlocalnotifications.models.RecurrenceFrequency;
+import com.dexterous.flutterlocalnotifications.models.RecurrenceRule;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.MonthDay;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Calculates when a repeating notification is next due. Rather than stepping through each
+ * occurrence until one is found that is in the future, the next occurrence is calculated directly.
+ * This matters for notifications that repeat frequently, which may have been scheduled a long time
+ * before the device boots.
+ *
+ * <p>Notifications that match date and time components are calculated on the local date so that
+ * they're due at the same wall clock time after a daylight saving time transition. The time is
+ * only adjusted on the day of a transition that skips over it.
+ *
+ * <p>Notifications that repeat based on a {@link RecurrenceRule} jump straight to the period (day,
+ * week, month or year) that contains the current time. Only the dates in that period that match
+ * the rule are considered before moving onto the next period.
+ */
+final class NextFireTime {
+  // a rule that doesn't match any dates in this many periods is treated as not having any more
+  // occurrences e.g. the 30th of February
+  private static final int MAX_PERIODS = 1000;
+
+  private NextFireTime() {}
+
+  /**
+   * Returns the first time at or after {@code now} that a notification which is first due at
+   * {@code firstFireTime} and repeats every {@code repeatInterval} milliseconds is due.
+   */
+  static long afterInterval(long firstFireTime, long repeatInterval, long now) {
+    if (firstFireTime >= now || repeatInterval <= 0) {
+      return firstFireTime;
+    }
+    long intervalsElapsed = (now - firstFireTime - 1) / repeatInterval + 1;
+    return firstFireTime + intervalsElapsed * repeatInterval;
+  }
+
+  /**
+   * Returns the first date and time that isn't before {@code now} and that matches the given
+   * components of {@code scheduledDateTime}. The result is a local date and time in the time zone
+   * of {@code now} or null when there aren't any components to match.
+   */
+  static LocalDateTime matchingDateTimeComponents(
+      LocalDateTime scheduledDateTime, DateTimeComponents components, ZonedDateTime now) {
+    if (components == null) {
+      return null;
+    }
+    ZoneId zoneId = now.getZone();
+    LocalTime time = scheduledDateTime.toLocalTime();
+    LocalDate date = now.toLocalDate();
+    if (ZonedDateTime.of(date, time, zoneId).isBefore(now)) {
+      date = date.plusDays(1);
+    }
+    switch (components) {
+      case Time:
+        break;
+      case DayOfWeekAndTime:
+        date = date.with(TemporalAdjusters.nextOrSame(scheduledDateTime.getDayOfWeek()));
+        break;
+      case DayOfMonthAndTime:
+        date = nextDayOfMonth(date, scheduledDateTime.getDayOfMonth());
+        break;
+      case DateAndTime:
+        date = nextMonthDay(date, MonthDay.from(scheduledDateTime));
+        break;
+      default:
+        return null;
+    }
+    return LocalDateTime.of(date, time);
+  }
+
+  // months are skipped when they're too short to have the day, which is at most two in a row
+  private static LocalDate nextDayOfMonth(LocalDate date, int dayOfMonth) {
+    YearMonth month = YearMonth.from(date);
+    if (date.getDayOfMonth() > dayOfMonth) {
+      month = month.plusMonths(1);
+    }
+    while (!month.isValidDay(dayOfMonth)) {
+      month = month.plusMonths(1);
+    }
+    return month.atDay(dayOfMonth);
+  }
+
+  // years are skipped when they don't have the day, which is at most seven in a row for the 29th
+  // of February
+  private static LocalDate nextMonthDay(LocalDate date, MonthDay monthDay) {
+    int year = date.getYear();
+    if (MonthDay.from(date).isAfter(monthDay)) {
+      year++;
+    }
+    while (!monthDay.isValidYear(year)) {
+      year++;
+    }
+    return monthDay.atYear(year);
+  }
+
+  /**
+   * Returns the first occurrence of the recurrence rule that is after {@code occurrence} and isn't
+   * before {@code now} or null when there aren't any more occurrences. The count of the rule isn't
+   * taken into account. The result is a local date and time in the time zone of {@code now}.
+   */
+  static LocalDateTime matchingRecurrenceRule(
+      RecurrenceRule rule, LocalDateTime occurrence, ZonedDateTime now) {
+    ZoneId zoneId = now.getZone();
+    RecurrenceFrequency frequency = rule.frequency;
+    int interval = rule.interval == null || rule.interval < 1 ? 1 : rule.interval;
+    List<WeekDay> byDay = WeekDay.parseAll(rule.byDay);
+    LocalDate date = occurrence.toLocalDate();
+    LocalTime time = occurrence.toLocalTime();
+    LocalDate periodStart = getPeriodStart(frequency, date);
+    long periodsElapsed =
+        getPeriodsBetween(frequency, periodStart, getPeriodStart(frequency, now.toLocalDate()));
+    if (periodsElapsed > 0) {
+      // the periods in between only have occurrences that are in the past
+      long intervalsElapsed = (periodsElapsed - 1) / interval + 1;
+      periodStart = plusPeriods(frequency, periodStart, intervalsElapsed * interval);
+    }
+    for (int i = 0; i < MAX_PERIODS; i++) {
+      for (LocalDate candidate : getOccurrences(rule, byDay, periodStart, date)) {
+        if (!candidate.isAfter(date)) {
+          continue;
+        }
+        ZonedDateTime nextFireDate = ZonedDateTime.of(candidate, time, zoneId);
+        if (nextFireDate.isBefore(now)) {
+          continue;
+        }
+        if (rule.until != null && nextFireDate.toInstant().toEpochMilli() > rule.until) {
+          return null;
+        }
+        return LocalDateTime.of(candidate, time);
+      }
+      periodStart = plusPeriods(frequency, periodStart, interval);
+    }
+    return null;
+  }
+
+  // Returns the dates in the period that match the rule in order. The date of the occurrence the
+  // rule is anchored to provides the day when the rule doesn't specify one
+  private static List<LocalDate> getOccurrences(
+      RecurrenceRule rule, List<WeekDay> byDay, LocalDate periodStart, LocalDate anchor) {
+    RecurrenceFrequency frequency = rule.frequency;
+    LocalDate periodEnd = plusPeriods(frequency, periodStart, 1);
+    TreeSet<LocalDate> dates = new TreeSet<>();
+    switch (frequency) {
+      case Daily:
+        if (matchesWeekDay(periodStart, byDay) && matchesMonthDay(periodStart, rule.byMonthDay)) {
+          dates.add(periodStart);
+        }
+        break;
+      case Weekly:
+        if (byDay == null) {
+          dates.add(periodStart.with(TemporalAdjusters.nextOrSame(anchor.getDayOfWeek())));
+        } else {
+          for (WeekDay weekDay : byDay) {
+            LocalDate date = periodStart.with(TemporalAdjusters.nextOrSame(weekDay.dayOfWeek));
+            if (matchesMonthDay(date, rule.byMonthDay)) {
+              dates.add(date);
+            }
+          }
+        }
+        break;
+      case Monthly:
+      case Yearly:
+        if (rule.byMonthDay != null) {
+          for (YearMonth month = YearMonth.from(periodStart);
+              month.atDay(1).isBefore(periodEnd);
+              month = month.plusMonths(1)) {
+            for (int monthDay : rule.byMonthDay) {
+              int dayOfMonth = monthDay > 0 ? monthDay : month.lengthOfMonth() + 1 + monthDay;
+              if (dayOfMonth >= 1 && month.isValidDay(dayOfMonth)) {
+                dates.add(month.atDay(dayOfMonth));
+              }
+            }
+          }
+          if (byDay != null) {
+            dates.retainAll(getWeekDays(byDay, periodStart, periodEnd));
+          }
+        } else if (byDay != null) {
+          dates.addAll(getWeekDays(byDay, periodStart, periodEnd));
+        } else if (frequency == RecurrenceFrequency.Monthly) {
+          YearMonth month = YearMonth.from(periodStart);
+          if (month.isValidDay(anchor.getDayOfMonth())) {
+            dates.add(month.atDay(anchor.getDayOfMonth()));
+          }
+        } else if (MonthDay.from(anchor).isValidYear(periodStart.getYear())) {
+          dates.add(MonthDay.from(anchor).atYear(periodStart.getYear()));
+        }
+        break;
+    }
+    List<LocalDate> occurrences = new ArrayList<>(dates);
+    if (rule.bySetPos == null) {
+      return occurrences;
+    }
+    TreeSet<LocalDate> selectedOccurrences = new TreeSet<>();
+    for (int setPos : rule.bySetPos) {
+      int index = setPos > 0 ? setPos - 1 : occurrences.size() + setPos;
+      if (index >= 0 && index < occurrences.size()) {
+        selectedOccurrences.add(occurrences.get(index));
+      }
+    }
+    return new ArrayList<>(selectedOccurrences);
+  }
+
+  // Returns the dates between the start (inclusive) and end (exclusive) that fall on the days of
+  // the week, where a day with an ordinal only matches the nth occurrence of that day
+  private static TreeSet<LocalDate> getWeekDays(
+      List<WeekDay> byDay, LocalDate start, LocalDate end) {
+    TreeSet<LocalDate> dates = new TreeSet<>();
+    for (WeekDay weekDay : byDay) {
+      if (weekDay.ordinal > 0) {
+        LocalDate date =
+            start
+                .with(TemporalAdjusters.nextOrSame(weekDay.dayOfWeek))
+                .plusWeeks(weekDay.ordinal - 1);
+        if (date.isBefore(end)) {
+          dates.add(date);
+        }
+      } else if (weekDay.ordinal < 0) {
+        LocalDate date =
+            end.minusDays(1)
+                .with(TemporalAdjusters.previousOrSame(weekDay.dayOfWeek))
+                .minusWeeks(-weekDay.ordinal - 1);
+        if (!date.isBefore(start)) {
+          dates.add(date);
+        }
+      } else {
+        for (LocalDate date = start.with(TemporalAdjusters.nextOrSame(weekDay.dayOfWeek));
+            date.isBefore(end);
+            date = date.plusWeeks(1)) {
+          dates.add(date);
+        }
+      }
+    }
+    return dates;
+  }
+
+  private static boolean matchesWeekDay(LocalDate date, List<WeekDay> byDay) {
+    if (byDay == null) {
+      return true;
+    }
+    for (WeekDay weekDay : byDay) {
+      if (weekDay.dayOfWeek == date.getDayOfWeek()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean matchesMonthDay(LocalDate date, int[] byMonthDay) {
+    if (byMonthDay == null) {
+      return true;
+    }
+    for (int monthDay : byMonthDay) {
+      if (monthDay == date.getDayOfMonth()
+          || monthDay == date.getDayOfMonth() - date.lengthOfMonth() - 1) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Weeks start on a Monday, which is the default for RRULEs
+  private static LocalDate getPeriodStart(RecurrenceFrequency frequency, LocalDate date) {
+    switch (frequency) {
+      case Weekly:
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+      case Monthly:
+        return date.withDayOfMonth(1);
+      case Yearly:
+        return date.withDayOfYear(1);
+      default:
+        return date;
+    }
+  }
+
+  private static long getPeriodsBetween(
+      RecurrenceFrequency frequency, LocalDate start, LocalDate end) {
+    switch (frequency) {
+      case Weekly:
+        return ChronoUnit.WEEKS.between(start, end);
+      case Monthly:
+        return ChronoUnit.MONTHS.between(start, end);
+      case Yearly:
+        return ChronoUnit.YEARS.between(start, end);
+      default:
+        return ChronoUnit.DAYS.between(start, end);
+    }
+  }
+
+  private static LocalDate plusPeriods(
+      RecurrenceFrequency frequency, LocalDate periodStart, long periods) {
+    switch (frequency) {
+      case Weekly:
+        return periodStart.plusWeeks(periods);
+      case Monthly:
+        return periodStart.plusMonths(periods);
+      case Yearly:
+        return periodStart.plusYears(periods);
+      default:
+        return periodStart.plusDays(periods);
+    }
+  }
+
+  // A day of the week in the form used by the BYDAY part of an RRULE e.g. MO, 1MO or -1FR
+  private static final class WeekDay {
+    private static final String[] ABBREVIATIONS = {"MO", "TU", "WE", "TH", "FR", "SA", "SU"};
+
+    final int ordinal;
+    final DayOfWeek dayOfWeek;
+
+    private WeekDay(int ordinal, DayOfWeek dayOfWeek) {
+      this.ordinal = ordinal;
+      this.dayOfWeek = dayOfWeek;
+    }
+
+    static List<WeekDay> parseAll(List<String> values) {
+      if (values == null) {
+        return null;
+      }
+      List<WeekDay> weekDays = new ArrayList<>(values.size());
+      for (String value : values) {
+        String abbreviation = value.substring(value.length() - 2);
+        String ordinal = value.substring(0, value.length() - 2);
+        for (int i = 0; i < ABBREVIATIONS.length; i++) {
+          if (ABBREVIATIONS[i].equals(abbreviation)) {
+            weekDays.add(
+                new WeekDay(
+                    ordinal.isEmpty() ? 0 : Integer.parseInt(ordinal.replace("+", "")),
+                    DayOfWeek.of(i + 1)));
+          }
+        }
+      }
+      return weekDays;
+    }
+  }
+}
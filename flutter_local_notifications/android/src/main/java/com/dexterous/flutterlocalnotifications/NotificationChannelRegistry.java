@@ -0,0 +1,173 @@
+package com.dexterous.flutterlocalnotifications;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.dexterous.flutterlocalnotifications.models.NotificationChannelDetails;
+import com.dexterous.flutterlocalnotifications.models.SoundSource;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which notification channels the plugin knows to exist and the configuration that was
+ * last applied to each of them. This allows showing a notification to skip asking the system
+ * whether its channel exists, and skip updating the channel when nothing has changed, as each of
+ * these is a call to another process.
+ *
+ * <p>The registry only reflects changes that are made through the plugin. It's cleared when the
+ * process ends, and entries are removed when their channel or channel group is deleted via the
+ * plugin. Retrieving the notification channels via the plugin replaces its contents with the
+ * channels that exist.
+ */
+final class NotificationChannelRegistry {
+  // channels that are known to exist but whose configuration isn't known are mapped to this
+  private static final Configuration UNKNOWN_CONFIGURATION = new Configuration();
+
+  private static final ConcurrentHashMap<String, Configuration> channels =
+      new ConcurrentHashMap<>();
+
+  private NotificationChannelRegistry() {}
+
+  /** Returns whether the channel is known to exist, in which case there's no need to check. */
+  static boolean isKnownToExist(String channelId) {
+    return channelId != null && channels.containsKey(channelId);
+  }
+
+  /**
+   * Returns whether the configuration that was last applied to the channel is the same as the
+   * given one, in which case updating the channel wouldn't change anything.
+   */
+  static boolean isUpToDate(NotificationChannelDetails notificationChannelDetails) {
+    if (notificationChannelDetails.id == null
+        || Boolean.TRUE.equals(notificationChannelDetails.bypassDnd)) {
+      // whether a channel can bypass Do Not Disturb depends on the access the user has granted so
+      // the channel is always updated
+      return false;
+    }
+    Configuration configuration = channels.get(notificationChannelDetails.id);
+    return configuration != null
+        && configuration != UNKNOWN_CONFIGURATION
+        && configuration.equals(new Configuration(notificationChannelDetails));
+  }
+
+  /** Records that the channel exists without knowing how it was configured. */
+  static void onExists(String channelId) {
+    if (channelId != null) {
+      channels.putIfAbsent(channelId, UNKNOWN_CONFIGURATION);
+    }
+  }
+
+  /** Records that the channel was created or updated with the given configuration. */
+  static void onApplied(NotificationChannelDetails notificationChannelDetails) {
+    if (notificationChannelDetails.id != null) {
+      channels.put(notificationChannelDetails.id, new Configuration(notificationChannelDetails));
+    }
+  }
+
+  static void onDeleted(String channelId) {
+    if (channelId != null) {
+      channels.remove(channelId);
+    }
+  }
+
+  /**
+   * Removes the channels that belonged to the group. Channels whose group isn't known are removed
+   * as well as they may have belonged to it.
+   */
+  static void onGroupDeleted(String groupId) {
+    Iterator<Map.Entry<String, Configuration>> iterator = channels.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Configuration configuration = iterator.next().getValue();
+      if (configuration == UNKNOWN_CONFIGURATION
+          || Objects.equals(configuration.groupId, groupId)) {
+        iterator.remove();
+      }
+    }
+  }
+
+  /** Replaces what's known with the ids of the channels that currently exist. */
+  static void onChannelsRetrieved(Collection<String> channelIds) {
+    channels.keySet().retainAll(channelIds);
+    for (String channelId : channelIds) {
+      onExists(channelId);
+    }
+  }
+
+  @VisibleForTesting
+  static void clear() {
+    channels.clear();
+  }
+
+  private static final class Configuration {
+    @Nullable private final String name;
+    @Nullable private final String description;
+    @Nullable private final String groupId;
+    @Nullable private final Integer importance;
+    @Nullable private final Boolean showBadge;
+    @Nullable private final Boolean playSound;
+    @Nullable private final String sound;
+    @Nullable private final SoundSource soundSource;
+    @Nullable private final Integer audioAttributesUsage;
+    @Nullable private final Boolean enableVibration;
+    @Nullable private final long[] vibrationPattern;
+    @Nullable private final Boolean enableLights;
+    @Nullable private final Integer ledColor;
+
+    private Configuration() {
+      this(new NotificationChannelDetails());
+    }
+
+    Configuration(NotificationChannelDetails notificationChannelDetails) {
+      name = notificationChannelDetails.name;
+      description = notificationChannelDetails.description;
+      groupId = notificationChannelDetails.groupId;
+      importance = notificationChannelDetails.importance;
+      showBadge = notificationChannelDetails.showBadge;
+      playSound = notificationChannelDetails.playSound;
+      sound = notificationChannelDetails.sound;
+      soundSource = notificationChannelDetails.soundSource;
+      audioAttributesUsage = notificationChannelDetails.audioAttributesUsage;
+      enableVibration = notificationChannelDetails.enableVibration;
+      vibrationPattern =
+          notificationChannelDetails.vibrationPattern != null
+              ? notificationChannelDetails.vibrationPattern.clone()
+              : null;
+      enableLights = notificationChannelDetails.enableLights;
+      ledColor = notificationChannelDetails.ledColor;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Configuration)) {
+        return false;
+      }
+      Configuration that = (Configuration) o;
+      return Objects.equals(name, that.name)
+          && Objects.equals(description, that.description)
+          && Objects.equals(groupId, that.groupId)
+          && Objects.equals(importance, that.importance)
+          && Objects.equals(showBadge, that.showBadge)
+          && Objects.equals(playSound, that.playSound)
+          && Objects.equals(sound, that.sound)
+          && soundSource == that.soundSource
+          && Objects.equals(audioAttributesUsage, that.audioAttributesUsage)
+          && Objects.equals(enableVibration, that.enableVibration)
+          && Arrays.equals(vibrationPattern, that.vibrationPattern)
+          && Objects.equals(enableLights, that.enableLights)
+          && Objects.equals(ledColor, that.ledColor);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(name, groupId, importance);
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package com.dexterous.flutterlocalnotifications;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import io.flutter.plugin.common.MethodChannel;
+
+/**
+ * Sends notification responses to the main isolate, coalescing the responses that are received in
+ * quick succession into a single message when batching was enabled when the plugin was
+ * initialised.
+ *
+ * <p>A batch is sent once it holds the maximum number of responses or once the first response in
+ * it has waited for the maximum latency, whichever comes first. Responses are sent in the order
+ * they were received. All methods are called on the main thread.
+ */
+final class NotificationResponseBatcher {
+  static final String DID_RECEIVE_NOTIFICATION_RESPONSE_METHOD = "didReceiveNotificationResponse";
+  static final String DID_RECEIVE_NOTIFICATION_RESPONSES_METHOD =
+      "didReceiveNotificationResponses";
+
+  private static final Handler handler = new Handler(Looper.getMainLooper());
+  private static final List<Map<String, Object>> responses = new ArrayList<>();
+  @Nullable private static MethodChannel pendingChannel;
+
+  private static final Runnable flushRunnable =
+      new Runnable() {
+        @Override
+        public void run() {
+          flush();
+        }
+      };
+
+  private NotificationResponseBatcher() {}
+
+  /** Sends the response through the channel or adds it to the batch that is to be sent. */
+  static void send(Context context, MethodChannel channel, Map<String, Object> response) {
+    int maxBatchSize = FlutterLocalNotificationsPlugin.getNotificationResponseBatchMaxSize(context);
+    if (maxBatchSize <= 0) {
+      flush();
+      channel.invokeMethod(DID_RECEIVE_NOTIFICATION_RESPONSE_METHOD, response);
+      return;
+    }
+    if (pendingChannel != null && pendingChannel != channel) {
+      flush();
+    }
+    pendingChannel = channel;
+    responses.add(response);
+    if (responses.size() >= maxBatchSize) {
+      flush();
+    } else if (responses.size() == 1) {
+      handler.postDelayed(
+          flushRunnable,
+          FlutterLocalNotificationsPlugin.getNotificationResponseBatchMaxLatencyMilliseconds(
+              context));
+    }
+  }
+
+  /**
+   * Sends the responses that are waiting to be batched for the channel straight away, whilst the
+   * channel can still be used, as it's about to be detached from its engine. Responses waiting for
+   * other channels are left alone.
+   */
+  static void detach(MethodChannel channel) {
+    if (pendingChannel == channel) {
+      flush();
+    }
+  }
+
+  /** Sends the responses that are waiting to be batched with others straight away. */
+  static void flush() {
+    handler.removeCallbacks(flushRunnable);
+    if (pendingChannel == null) {
+      return;
+    }
+    pendingChannel.invokeMethod(
+        DID_RECEIVE_NOTIFICATION_RESPONSES_METHOD, new ArrayList<>(responses));
+    responses.clear();
+    pendingChannel = null;
+  }
+}
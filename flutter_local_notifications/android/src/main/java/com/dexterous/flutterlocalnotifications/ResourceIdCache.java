@@ -0,0 +1,40 @@
+package com.dexterous.flutterlocalnotifications;
+
+import android.content.Context;
+
+import androidx.annotation.VisibleForTesting;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the ids of the app's resources by their name and type. Looking up an id via {@link
+ * android.content.res.Resources#getIdentifier} is comparatively slow. Resource ids don't change
+ * whilst the app is running, so each one only needs to be looked up once. The cache is shared by
+ * the plugin and its receivers.
+ *
+ * <p>Names that don't match a resource are cached as well, with an id of 0. This is the value that
+ * {@link android.content.res.Resources#getIdentifier} returns for them.
+ */
+final class ResourceIdCache {
+  private static final ConcurrentHashMap<String, Integer> resourceIds = new ConcurrentHashMap<>();
+
+  private ResourceIdCache() {}
+
+  static int getIdentifier(Context context, String name, String type) {
+    if (name == null) {
+      return context.getResources().getIdentifier(name, type, context.getPackageName());
+    }
+    String key = type + '/' + name;
+    Integer resourceId = resourceIds.get(key);
+    if (resourceId == null) {
+      resourceId = context.getResources().getIdentifier(name, type, context.getPackageName());
+      resourceIds.put(key, resourceId);
+    }
+    return resourceId;
+  }
+
+  @VisibleForTesting
+  static void clear() {
+    resourceIds.clear();
+  }
+}
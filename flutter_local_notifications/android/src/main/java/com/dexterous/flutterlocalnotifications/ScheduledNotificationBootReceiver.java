@@ -5,20 +5,73 @@ import android.content.Context;
 import android.content.Intent;
 
 import androidx.annotation.Keep;
+import androidx.annotation.VisibleForTesting;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Keep
 public class ScheduledNotificationBootReceiver extends BroadcastReceiver {
+  // notifications are rescheduled on a background thread as there may be too many of them to do so
+  // within the time a receiver has on the main thread. The thread is only kept whilst there's work
+  @VisibleForTesting
+  static final ExecutorService EXECUTOR =
+      new ThreadPoolExecutor(0, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+
   @Override
   @SuppressWarnings("deprecation")
   public void onReceive(final Context context, Intent intent) {
     String action = intent.getAction();
+    final Context applicationContext = context.getApplicationContext();
+    if (Intent.ACTION_LOCKED_BOOT_COMPLETED.equals(action)) {
+      // this is only received when the receiver has been declared as being direct boot aware
+      runInBackground(
+          new Runnable() {
+            @Override
+            public void run() {
+              DirectBootIndex.rearm(applicationContext);
+            }
+          });
+      return;
+    }
     if (action != null) {
-      if (action.equals(android.content.Intent.ACTION_BOOT_COMPLETED)
-          || action.equals(Intent.ACTION_MY_PACKAGE_REPLACED)
-          || action.equals("android.intent.action.QUICKBOOT_POWERON")
-          || action.equals("com.htc.intent.action.QUICKBOOT_POWERON")) {
-        FlutterLocalNotificationsPlugin.rescheduleNotifications(context);
+      final boolean booted =
+          action.equals(android.content.Intent.ACTION_BOOT_COMPLETED)
+              || action.equals("android.intent.action.QUICKBOOT_POWERON")
+              || action.equals("com.htc.intent.action.QUICKBOOT_POWERON");
+      if (booted || action.equals(Intent.ACTION_MY_PACKAGE_REPLACED)) {
+        runInBackground(
+            new Runnable() {
+              @Override
+              public void run() {
+                if (booted && DirectBootIndex.isEnabled(applicationContext)) {
+                  DirectBootIndex.onUnlocked(applicationContext);
+                }
+                FlutterLocalNotificationsPlugin.rescheduleNotifications(
+                    applicationContext, booted);
+              }
+            });
       }
     }
   }
+
+  private void runInBackground(final Runnable runnable) {
+    final PendingResult pendingResult = goAsync();
+    EXECUTOR.execute(
+        new Runnable() {
+          @Override
+          public void run() {
+            try {
+              runnable.run();
+            } finally {
+              // there's no pending result when the receiver is called directly
+              if (pendingResult != null) {
+                pendingResult.finish();
+              }
+            }
+          }
+        });
+  }
 }
@@ -10,11 +10,8 @@ import androidx.annotation.Keep;
 import androidx.core.app.NotificationManagerCompat;
 
 import com.dexterous.flutterlocalnotifications.models.NotificationDetails;
-import com.dexterous.flutterlocalnotifications.utils.StringUtils;
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
 
-import java.lang.reflect.Type;
+import java.util.Collections;
 
 /** Created by michaelbui on 24/3/18. */
 @Keep
@@ -25,9 +22,51 @@ public class ScheduledNotificationReceiver extends BroadcastReceiver {
   @Override
   @SuppressWarnings("deprecation")
   public void onReceive(final Context context, Intent intent) {
-    String notificationDetailsJson =
-        intent.getStringExtra(FlutterLocalNotificationsPlugin.NOTIFICATION_DETAILS);
-    if (StringUtils.isNullOrEmpty(notificationDetailsJson)) {
+    // this may be received before the user has unlocked the device, which is when the scheduled
+    // notifications and the settings of the plugin can't be read
+    if (DirectBootIndex.ACTION_ALARM.equals(intent.getAction())) {
+      DirectBootIndex.onAlarm(context, intent);
+      return;
+    }
+    if (AlarmHorizon.ACTION_REFILL.equals(intent.getAction())) {
+      synchronized (FlutterLocalNotificationsPlugin.SCHEDULED_NOTIFICATIONS_LOCK) {
+        if (AlarmHorizon.isEnabled(context)) {
+          AlarmHorizon.update(context, Collections.<Integer>emptySet());
+        }
+      }
+      return;
+    }
+    if (AlarmDispatcher.ACTION_DISPATCH.equals(intent.getAction())) {
+      synchronized (FlutterLocalNotificationsPlugin.SCHEDULED_NOTIFICATIONS_LOCK) {
+        if (AlarmDispatcher.isEnabled(context)) {
+          AlarmDispatcher.dispatch(context);
+        }
+      }
+      return;
+    }
+    if (intent.hasExtra(FlutterLocalNotificationsPlugin.NOTIFICATION_RECORD_VERSION)) {
+      NotificationDetails notificationDetails;
+      synchronized (FlutterLocalNotificationsPlugin.SCHEDULED_NOTIFICATIONS_LOCK) {
+        notificationDetails =
+            FlutterLocalNotificationsPlugin.getScheduledNotificationDetails(context, intent);
+      }
+      if (notificationDetails == null) {
+        Log.d(TAG, "Ignoring alarm for a notification that is no longer scheduled");
+        return;
+      }
+      FlutterLocalNotificationsPlugin.showNotification(context, notificationDetails);
+      synchronized (FlutterLocalNotificationsPlugin.SCHEDULED_NOTIFICATIONS_LOCK) {
+        // the notification may have been cancelled or scheduled again after the alarm went off
+        if (FlutterLocalNotificationsPlugin.getScheduledNotificationDetails(context, intent)
+            != null) {
+          FlutterLocalNotificationsPlugin.scheduleNextNotification(context, notificationDetails);
+        }
+      }
+      return;
+    }
+    NotificationDetails notificationDetails =
+        FlutterLocalNotificationsPlugin.getNotificationDetailsExtra(intent);
+    if (notificationDetails == null) {
       // This logic is needed for apps that used the plugin prior to 0.3.4
 
       Notification notification;
@@ -54,12 +93,13 @@ public class ScheduledNotificationReceiver extends BroadcastReceiver {
         FlutterLocalNotificationsPlugin.removeNotificationFromCache(context, notificationId);
       }
     } else {
-      Gson gson = FlutterLocalNotificationsPlugin.buildGson();
-      Type type = new TypeToken<NotificationDetails>() {}.getType();
-      NotificationDetails notificationDetails = gson.fromJson(notificationDetailsJson, type);
-
       FlutterLocalNotificationsPlugin.showNotification(context, notificationDetails);
-      FlutterLocalNotificationsPlugin.scheduleNextNotification(context, notificationDetails);
+      synchronized (FlutterLocalNotificationsPlugin.SCHEDULED_NOTIFICATIONS_LOCK) {
+        // the notification may have been cancelled by the plugin after the alarm went off
+        if (ScheduledNotificationStore.getInstance(context).get(notificationDetails.id) != null) {
+          FlutterLocalNotificationsPlugin.scheduleNextNotification(context, notificationDetails);
+        }
+      }
     }
   }
 }
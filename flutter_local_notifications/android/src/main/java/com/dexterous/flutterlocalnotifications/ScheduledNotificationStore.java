@@ -0,0 +1,739 @@
+package com.dexterous.flutterlocalnotifications;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.AtomicFile;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.dexterous.flutterlocalnotifications.models.NotificationDetails;
+import com.dexterous.flutterlocalnotifications.models.PendingNotificationRequestFilter;
+import com.dexterous.flutterlocalnotifications.models.adapters.NotificationDetailsRecord;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persists scheduled notifications with one file per notification id so that scheduling or
+ * cancelling a notification only reads and writes the record that changed.
+ *
+ * <p>The store is shared by the plugin and its receivers. Records are loaded into an in-memory
+ * index the first time every notification is needed and from then on every write goes through the
+ * index to disk, so subsequent reads don't need to touch the file system. Until then, looking up,
+ * storing or removing a notification only reads and writes its own record so that an alarm firing
+ * in a new process doesn't load every record. The index is reloaded if the records have been
+ * written by another instance of the store.
+ *
+ * <p>Once a query needs them, the ids of the notifications are also kept in secondary indexes by
+ * channel id, group key, tag and the time the notification is next due to be shown. These allow
+ * {@link #query(PendingNotificationRequestFilter)} to only look at the notifications that can
+ * match. Repeating notifications don't have a fixed time so their next time is calculated when
+ * queried.
+ *
+ * <p>Records are written as JSON unless the compact binary format has been opted into, in which
+ * case they're written as {@code <id>.bin} files instead of {@code <id>.json} files. Records in
+ * the other format are rewritten in the current one when they are read.
+ *
+ * <p>Images that were specified as byte arrays are held by {@link BitmapBlobStore} and records
+ * only refer to them. The index counts the notifications that refer to each image so that an image
+ * can be deleted as soon as the last notification that refers to it is removed or replaced. Images
+ * that stop being referred to whilst the index isn't loaded are deleted when it's next loaded.
+ *
+ * <p>Older versions of the plugin stored every scheduled notification as a single JSON array in
+ * the {@code scheduled_notifications} shared preferences. That array is migrated into the keyed
+ * store the first time the store is accessed.
+ */
+final class ScheduledNotificationStore {
+  private static final String TAG = "ScheduledNotifStore";
+
+  static final String LEGACY_SCHEDULED_NOTIFICATIONS = "scheduled_notifications";
+
+  private static final String DIRECTORY = "flutter_local_notifications/scheduled_notifications";
+  private static final String JSON_RECORD_EXTENSION = ".json";
+  private static final String BINARY_RECORD_EXTENSION = ".bin";
+
+  @Nullable private static ScheduledNotificationStore instance;
+
+  // incremented each time a record is written or deleted so that the index can tell whether it
+  // still reflects the records
+  private static final AtomicLong writeCount = new AtomicLong();
+
+  private final Context context;
+  private final File directory;
+  private boolean migrated;
+
+  @Nullable private TreeMap<Integer, NotificationDetails> index;
+  private long indexedWriteCount;
+  private boolean secondaryIndexesBuilt;
+
+  private final HashMap<String, TreeSet<Integer>> idsByChannelId = new HashMap<>();
+  private final HashMap<String, TreeSet<Integer>> idsByGroupKey = new HashMap<>();
+  private final HashMap<String, TreeSet<Integer>> idsByTag = new HashMap<>();
+  private final TreeMap<Long, TreeSet<Integer>> idsByFireTime = new TreeMap<>();
+  // the keys each notification was indexed by as a notification may be updated in place before
+  // it's stored again
+  private final HashMap<Integer, IndexKeys> indexKeysById = new HashMap<>();
+  private final TreeSet<Integer> repeatingIds = new TreeSet<>();
+
+  // the number of indexed notifications that refer to each image and the images that each
+  // notification referred to when it was indexed
+  private final HashMap<String, Integer> imageReferenceCounts = new HashMap<>();
+  private final HashMap<Integer, HashSet<String>> imageReferencesById = new HashMap<>();
+
+  private ScheduledNotificationStore(Context context) {
+    this.context = context;
+    this.directory = new File(context.getFilesDir(), DIRECTORY);
+  }
+
+  static synchronized ScheduledNotificationStore getInstance(Context context) {
+    if (instance == null) {
+      instance = new ScheduledNotificationStore(context.getApplicationContext());
+    }
+    return instance;
+  }
+
+  @VisibleForTesting
+  static synchronized void resetInstance() {
+    instance = null;
+  }
+
+  /** Returns every scheduled notification, ordered by id. */
+  synchronized ArrayList<NotificationDetails> getAll() {
+    return new ArrayList<>(getIndex().values());
+  }
+
+  @Nullable
+  synchronized NotificationDetails get(int id) {
+    if (isIndexLoaded()) {
+      return index.get(id);
+    }
+    ensureMigrated();
+    return readRecord(id);
+  }
+
+  /** Inserts the notification or replaces the one that was previously stored with the same id. */
+  synchronized void put(@NonNull NotificationDetails notificationDetails) {
+    ensureMigrated();
+    boolean indexLoaded = isIndexLoaded();
+    if (write(notificationDetails)) {
+      if (indexLoaded) {
+        addToIndex(notificationDetails);
+        onIndexUpdated();
+      }
+      DirectBootIndex.update(
+          context, Collections.singleton(notificationDetails), Collections.<Integer>emptyList());
+    }
+  }
+
+  /**
+   * Inserts or replaces each of the given notifications. The index and the direct boot index are
+   * only updated once for the whole batch, which is cheaper than calling {@link
+   * #put(NotificationDetails)} for each notification.
+   */
+  synchronized void putAll(@NonNull Collection<NotificationDetails> notifications) {
+    update(notifications, Collections.<Integer>emptyList());
+  }
+
+  synchronized void remove(int id) {
+    ensureMigrated();
+    boolean indexLoaded = isIndexLoaded();
+    if (indexLoaded ? !index.containsKey(id) : !hasRecord(id)) {
+      return;
+    }
+    deleteRecord(id);
+    if (indexLoaded) {
+      removeFromIndex(id);
+      onIndexUpdated();
+    }
+    DirectBootIndex.update(
+        context, Collections.<NotificationDetails>emptyList(), Collections.singleton(id));
+  }
+
+  /** Removes each of the notifications with the given ids. */
+  synchronized void removeAll(@NonNull Collection<Integer> ids) {
+    update(Collections.<NotificationDetails>emptyList(), ids);
+  }
+
+  /**
+   * Inserts or replaces the given notifications and removes the ones with the given ids as a
+   * single batch.
+   */
+  synchronized void update(
+      @NonNull Collection<NotificationDetails> notifications,
+      @NonNull Collection<Integer> removedIds) {
+    if (notifications.isEmpty() && removedIds.isEmpty()) {
+      return;
+    }
+    ensureMigrated();
+    boolean indexLoaded = isIndexLoaded();
+    boolean modified = false;
+    for (NotificationDetails notificationDetails : notifications) {
+      if (write(notificationDetails)) {
+        if (indexLoaded) {
+          addToIndex(notificationDetails);
+        }
+        modified = true;
+      }
+    }
+    for (Integer id : removedIds) {
+      if (indexLoaded ? index.containsKey(id) : hasRecord(id)) {
+        deleteRecord(id);
+        if (indexLoaded) {
+          removeFromIndex(id);
+        }
+        modified = true;
+      }
+    }
+    if (modified) {
+      if (indexLoaded) {
+        onIndexUpdated();
+      }
+      DirectBootIndex.update(context, notifications, removedIds);
+    }
+  }
+
+  synchronized void clear() {
+    ensureMigrated();
+    for (Integer id : listIds()) {
+      deleteRecord(id);
+    }
+    index = new TreeMap<>();
+    clearSecondaryIndexes();
+    imageReferenceCounts.clear();
+    imageReferencesById.clear();
+    onIndexUpdated();
+    if (DirectBootIndex.isEnabled(context)) {
+      DirectBootIndex.clear(context);
+    }
+    BitmapBlobStore.getInstance(context).retainAll(new HashSet<String>());
+  }
+
+  /**
+   * Returns the notifications that match all of the criteria in the filter, ordered by id. Criteria
+   * that haven't been specified are ignored.
+   */
+  synchronized List<NotificationDetails> query(@NonNull PendingNotificationRequestFilter filter) {
+    return query(filter, 0, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Returns a page of the notifications that match the filter, skipping the first {@code offset}
+   * matches and returning at most {@code limit} notifications.
+   */
+  synchronized List<NotificationDetails> query(
+      @NonNull PendingNotificationRequestFilter filter, int offset, int limit) {
+    TreeMap<Integer, NotificationDetails> index =
+        filter.hasCriteria() ? getIndexWithSecondaryIndexes() : getIndex();
+    TreeSet<Integer> matchingIds = getMatchingIds(index, filter);
+    Collection<Integer> ids = matchingIds != null ? matchingIds : index.keySet();
+    List<NotificationDetails> notifications =
+        new ArrayList<>(Math.max(0, Math.min(limit, ids.size() - offset)));
+    int position = 0;
+    for (Integer id : ids) {
+      if (notifications.size() >= limit) {
+        break;
+      }
+      if (position++ >= offset) {
+        notifications.add(index.get(id));
+      }
+    }
+    return notifications;
+  }
+
+  /**
+   * Returns the number of notifications that match the filter. When the filter has no criteria
+   * and the index hasn't been loaded yet, the records are counted without being read.
+   */
+  synchronized int count(@NonNull PendingNotificationRequestFilter filter) {
+    if (!filter.hasCriteria()) {
+      if (!isIndexLoaded()) {
+        ensureMigrated();
+        return listIds().size();
+      }
+      return index.size();
+    }
+    TreeMap<Integer, NotificationDetails> index = getIndexWithSecondaryIndexes();
+    TreeSet<Integer> matchingIds = getMatchingIds(index, filter);
+    return matchingIds != null ? matchingIds.size() : index.size();
+  }
+
+  /**
+   * Returns the notifications that are due by {@code until}, ordered by the time they're due.
+   * Repeating notifications remain scheduled after they're shown, so they're only returned when
+   * they were due after {@code since}.
+   */
+  synchronized List<NotificationDetails> getDue(long since, long until) {
+    TreeMap<Integer, NotificationDetails> index = getIndexWithSecondaryIndexes();
+    TreeMap<Long, TreeSet<Integer>> dueIds = new TreeMap<>();
+    for (Map.Entry<Long, TreeSet<Integer>> entry :
+        idsByFireTime.headMap(until, true).entrySet()) {
+      for (Integer id : entry.getValue()) {
+        addId(dueIds, entry.getKey(), id);
+      }
+    }
+    for (Integer id : repeatingIds) {
+      Long fireTime = getLastRepeatFireTime(index.get(id), until);
+      if (fireTime != null && fireTime > since) {
+        addId(dueIds, fireTime, id);
+      }
+    }
+    List<NotificationDetails> notifications = new ArrayList<>();
+    for (TreeSet<Integer> ids : dueIds.values()) {
+      for (Integer id : ids) {
+        notifications.add(index.get(id));
+      }
+    }
+    return notifications;
+  }
+
+  /**
+   * Returns the ids of the notifications that are due soonest mapped to the time they're next due,
+   * ordered by that time. At most {@code limit} notifications are returned and the first
+   * notification that is due after {@code until} is the last one returned, so that callers know
+   * when the next notification outside of that range is due. Notifications whose time can't be
+   * determined are left out.
+   */
+  synchronized LinkedHashMap<Integer, Long> getNextFireTimes(int limit, long until) {
+    TreeMap<Integer, NotificationDetails> index = getIndexWithSecondaryIndexes();
+    // only the soonest notifications that don't repeat can be amongst those returned so they're
+    // merged with the repeating notifications, whose next time needs to be calculated
+    TreeMap<Long, TreeSet<Integer>> candidates = new TreeMap<>();
+    long now = System.currentTimeMillis();
+    for (Integer id : repeatingIds) {
+      addId(candidates, getNextRepeatFireTime(index.get(id), now), id);
+    }
+    int count = 0;
+    for (Map.Entry<Long, TreeSet<Integer>> entry : idsByFireTime.entrySet()) {
+      if (count >= limit) {
+        break;
+      }
+      for (Integer id : entry.getValue()) {
+        addId(candidates, entry.getKey(), id);
+      }
+      count += entry.getValue().size();
+      if (entry.getKey() > until) {
+        break;
+      }
+    }
+    LinkedHashMap<Integer, Long> fireTimes = new LinkedHashMap<>();
+    for (Map.Entry<Long, TreeSet<Integer>> entry : candidates.entrySet()) {
+      for (Integer id : entry.getValue()) {
+        if (fireTimes.size() >= limit) {
+          return fireTimes;
+        }
+        fireTimes.put(id, entry.getKey());
+        if (entry.getKey() > until) {
+          return fireTimes;
+        }
+      }
+    }
+    return fireTimes;
+  }
+
+  /** Discards the in-memory index so that it is reloaded from disk on next access. */
+  synchronized void invalidate() {
+    index = null;
+  }
+
+  private boolean isIndexLoaded() {
+    return index != null && indexedWriteCount == writeCount.get();
+  }
+
+  private TreeMap<Integer, NotificationDetails> getIndex() {
+    ensureMigrated();
+    if (isIndexLoaded()) {
+      return index;
+    }
+    index = new TreeMap<>();
+    clearSecondaryIndexes();
+    imageReferenceCounts.clear();
+    imageReferencesById.clear();
+    for (Integer id : listIds()) {
+      NotificationDetails notificationDetails = readRecord(id);
+      if (notificationDetails != null) {
+        addToIndex(notificationDetails);
+      }
+    }
+    onIndexUpdated();
+    // deletes the images that stopped being referred to whilst the index wasn't loaded
+    BitmapBlobStore.getInstance(context).retainAll(imageReferenceCounts.keySet());
+    return index;
+  }
+
+  private TreeMap<Integer, NotificationDetails> getIndexWithSecondaryIndexes() {
+    TreeMap<Integer, NotificationDetails> index = getIndex();
+    if (!secondaryIndexesBuilt) {
+      for (NotificationDetails notificationDetails : index.values()) {
+        addToSecondaryIndexes(notificationDetails);
+      }
+      secondaryIndexesBuilt = true;
+    }
+    return index;
+  }
+
+  // Returns the ids of the notifications that match the filter or null when the filter has no
+  // criteria, in which case every notification matches
+  @Nullable
+  private TreeSet<Integer> getMatchingIds(
+      TreeMap<Integer, NotificationDetails> index, PendingNotificationRequestFilter filter) {
+    TreeSet<Integer> candidateIds = null;
+    candidateIds = narrow(candidateIds, idsByChannelId, filter.channelId);
+    candidateIds = narrow(candidateIds, idsByGroupKey, filter.groupKey);
+    candidateIds = narrow(candidateIds, idsByTag, filter.tag);
+    if (filter.hasFireTimeRange()) {
+      long from = filter.fireTimeFrom != null ? filter.fireTimeFrom : Long.MIN_VALUE;
+      long to = filter.fireTimeTo != null ? filter.fireTimeTo : Long.MAX_VALUE;
+      TreeSet<Integer> idsInRange = new TreeSet<>();
+      for (TreeSet<Integer> ids : idsByFireTime.subMap(from, true, to, true).values()) {
+        idsInRange.addAll(ids);
+      }
+      long now = System.currentTimeMillis();
+      for (Integer id : repeatingIds) {
+        Long fireTime = getNextRepeatFireTime(index.get(id), now);
+        if (fireTime != null && fireTime >= from && fireTime <= to) {
+          idsInRange.add(id);
+        }
+      }
+      candidateIds = narrow(candidateIds, idsInRange);
+    }
+    return candidateIds;
+  }
+
+  // records that the index reflects every write that has been made so far
+  private void onIndexUpdated() {
+    indexedWriteCount = writeCount.get();
+  }
+
+  private void addToIndex(NotificationDetails notificationDetails) {
+    // the images of the notification are counted before those of the one it replaces so that an
+    // image they share isn't deleted
+    HashSet<String> imageReferences = new HashSet<>();
+    BitmapBlobStore.collectReferences(notificationDetails, imageReferences);
+    for (String reference : imageReferences) {
+      Integer count = imageReferenceCounts.get(reference);
+      imageReferenceCounts.put(reference, count == null ? 1 : count + 1);
+    }
+    removeFromIndex(notificationDetails.id);
+    index.put(notificationDetails.id, notificationDetails);
+    if (!imageReferences.isEmpty()) {
+      imageReferencesById.put(notificationDetails.id, imageReferences);
+    }
+    if (secondaryIndexesBuilt) {
+      addToSecondaryIndexes(notificationDetails);
+    }
+  }
+
+  private void addToSecondaryIndexes(NotificationDetails notificationDetails) {
+    IndexKeys indexKeys = new IndexKeys(notificationDetails);
+    indexKeysById.put(notificationDetails.id, indexKeys);
+    addId(idsByChannelId, indexKeys.channelId, notificationDetails.id);
+    addId(idsByGroupKey, indexKeys.groupKey, notificationDetails.id);
+    addId(idsByTag, indexKeys.tag, notificationDetails.id);
+    addId(idsByFireTime, indexKeys.fireTime, notificationDetails.id);
+    if (indexKeys.repeating) {
+      repeatingIds.add(notificationDetails.id);
+    }
+  }
+
+  private void removeFromIndex(int id) {
+    if (index.remove(id) == null) {
+      return;
+    }
+    HashSet<String> imageReferences = imageReferencesById.remove(id);
+    if (imageReferences != null) {
+      removeImageReferences(imageReferences);
+    }
+    if (!secondaryIndexesBuilt) {
+      return;
+    }
+    IndexKeys indexKeys = indexKeysById.remove(id);
+    removeId(idsByChannelId, indexKeys.channelId, id);
+    removeId(idsByGroupKey, indexKeys.groupKey, id);
+    removeId(idsByTag, indexKeys.tag, id);
+    removeId(idsByFireTime, indexKeys.fireTime, id);
+    repeatingIds.remove(id);
+  }
+
+  // Images are shared by notifications with the same content so they're only deleted once no
+  // notification refers to them
+  private void removeImageReferences(Collection<String> imageReferences) {
+    for (String reference : imageReferences) {
+      int count = imageReferenceCounts.get(reference) - 1;
+      if (count > 0) {
+        imageReferenceCounts.put(reference, count);
+      } else {
+        imageReferenceCounts.remove(reference);
+        BitmapBlobStore.getInstance(context).delete(reference);
+      }
+    }
+  }
+
+  private void clearSecondaryIndexes() {
+    idsByChannelId.clear();
+    idsByGroupKey.clear();
+    idsByTag.clear();
+    idsByFireTime.clear();
+    indexKeysById.clear();
+    repeatingIds.clear();
+    secondaryIndexesBuilt = false;
+  }
+
+  private static <K> void addId(Map<K, TreeSet<Integer>> ids, @Nullable K key, int id) {
+    if (key == null) {
+      return;
+    }
+    TreeSet<Integer> idsForKey = ids.get(key);
+    if (idsForKey == null) {
+      idsForKey = new TreeSet<>();
+      ids.put(key, idsForKey);
+    }
+    idsForKey.add(id);
+  }
+
+  private static <K> void removeId(Map<K, TreeSet<Integer>> ids, @Nullable K key, int id) {
+    if (key == null) {
+      return;
+    }
+    TreeSet<Integer> idsForKey = ids.get(key);
+    if (idsForKey != null && idsForKey.remove(id) && idsForKey.isEmpty()) {
+      ids.remove(key);
+    }
+  }
+
+  @Nullable
+  private static TreeSet<Integer> narrow(
+      @Nullable TreeSet<Integer> candidateIds,
+      Map<String, TreeSet<Integer>> ids,
+      @Nullable String key) {
+    if (key == null) {
+      return candidateIds;
+    }
+    TreeSet<Integer> idsForKey = ids.get(key);
+    return narrow(candidateIds, idsForKey != null ? idsForKey : new TreeSet<>());
+  }
+
+  private static TreeSet<Integer> narrow(
+      @Nullable TreeSet<Integer> candidateIds, TreeSet<Integer> matchingIds) {
+    if (candidateIds == null) {
+      return new TreeSet<>(matchingIds);
+    }
+    candidateIds.retainAll(matchingIds);
+    return candidateIds;
+  }
+
+  // Returns the time a notification that doesn't repeat is due to be shown. Notifications that
+  // match date time components have their scheduled date updated each time they're shown
+  @Nullable
+  static Long getFireTime(NotificationDetails notificationDetails) {
+    if (notificationDetails.timeZoneName != null
+        && notificationDetails.scheduledDateTime != null) {
+      try {
+        return ZonedDateTime.of(
+                LocalDateTime.parse(notificationDetails.scheduledDateTime),
+                ZoneId.of(notificationDetails.timeZoneName))
+            .toInstant()
+            .toEpochMilli();
+      } catch (DateTimeException e) {
+        return null;
+      }
+    }
+    return notificationDetails.millisecondsSinceEpoch;
+  }
+
+  @Nullable
+  private static Long getNextRepeatFireTime(NotificationDetails notificationDetails, long now) {
+    long repeatInterval =
+        FlutterLocalNotificationsPlugin.calculateRepeatIntervalMilliseconds(notificationDetails);
+    if (notificationDetails.calledAt == null || repeatInterval <= 0) {
+      return null;
+    }
+    return NextFireTime.afterInterval(notificationDetails.calledAt, repeatInterval, now);
+  }
+
+  // Returns the last time a repeating notification was due at or before the given time
+  @Nullable
+  private static Long getLastRepeatFireTime(NotificationDetails notificationDetails, long time) {
+    long repeatInterval =
+        FlutterLocalNotificationsPlugin.calculateRepeatIntervalMilliseconds(notificationDetails);
+    if (notificationDetails.calledAt == null
+        || repeatInterval <= 0
+        || notificationDetails.calledAt > time) {
+      return null;
+    }
+    long calledAt = notificationDetails.calledAt;
+    return calledAt + (time - calledAt) / repeatInterval * repeatInterval;
+  }
+
+  private void ensureMigrated() {
+    if (migrated) {
+      return;
+    }
+    if (!directory.exists() && !directory.mkdirs()) {
+      Log.e(TAG, "Unable to create directory " + directory);
+    }
+    SharedPreferences sharedPreferences =
+        context.getSharedPreferences(LEGACY_SCHEDULED_NOTIFICATIONS, Context.MODE_PRIVATE);
+    String json = sharedPreferences.getString(LEGACY_SCHEDULED_NOTIFICATIONS, null);
+    if (json != null) {
+      Type type = new TypeToken<ArrayList<NotificationDetails>>() {}.getType();
+      boolean migratedAll = true;
+      try {
+        ArrayList<NotificationDetails> legacyNotifications =
+            FlutterLocalNotificationsPlugin.buildGson().fromJson(json, type);
+        if (legacyNotifications != null) {
+          for (NotificationDetails notificationDetails : legacyNotifications) {
+            migratedAll &= write(notificationDetails);
+          }
+        }
+      } catch (JsonParseException e) {
+        Log.e(TAG, "Unable to migrate scheduled notifications", e);
+        migratedAll = false;
+      }
+      // records are written before the legacy value is removed so that a crash or a failure part
+      // way through migrating results in the migration being repeated by the next process rather
+      // than notifications being lost
+      if (migratedAll) {
+        sharedPreferences.edit().remove(LEGACY_SCHEDULED_NOTIFICATIONS).commit();
+      }
+    }
+    migrated = true;
+  }
+
+  private List<Integer> listIds() {
+    // a notification can briefly have a record in each format whilst it's being migrated
+    TreeSet<Integer> ids = new TreeSet<>();
+    String[] fileNames = directory.list();
+    if (fileNames == null) {
+      return new ArrayList<>(ids);
+    }
+    for (String fileName : fileNames) {
+      // skips the temporary and backup files maintained by AtomicFile
+      String extension;
+      if (fileName.endsWith(JSON_RECORD_EXTENSION)) {
+        extension = JSON_RECORD_EXTENSION;
+      } else if (fileName.endsWith(BINARY_RECORD_EXTENSION)) {
+        extension = BINARY_RECORD_EXTENSION;
+      } else {
+        continue;
+      }
+      try {
+        ids.add(Integer.parseInt(fileName.substring(0, fileName.length() - extension.length())));
+      } catch (NumberFormatException e) {
+        Log.w(TAG, "Ignoring unexpected file " + fileName);
+      }
+    }
+    return new ArrayList<>(ids);
+  }
+
+  @Nullable
+  private NotificationDetails readRecord(int id) {
+    boolean compact = FlutterLocalNotificationsPlugin.useCompactStorageFormat(context);
+    NotificationDetails notificationDetails = read(recordFile(id, compact));
+    if (notificationDetails == null) {
+      notificationDetails = read(recordFile(id, !compact));
+      if (notificationDetails != null) {
+        // migrates the record to the format that is currently in use
+        write(notificationDetails);
+      }
+    }
+    return notificationDetails;
+  }
+
+  @Nullable
+  private NotificationDetails read(File recordFile) {
+    AtomicFile file = new AtomicFile(recordFile);
+    if (!file.getBaseFile().exists()) {
+      return null;
+    }
+    try {
+      // the format is detected from the contents so that a record is still read correctly if it
+      // was renamed
+      return NotificationDetailsRecord.fromBytes(
+          FlutterLocalNotificationsPlugin.buildGson(), file.readFully());
+    } catch (IOException | JsonParseException e) {
+      Log.e(TAG, "Unable to read scheduled notification " + recordFile.getName(), e);
+      return null;
+    }
+  }
+
+  private boolean write(NotificationDetails notificationDetails) {
+    boolean compact = FlutterLocalNotificationsPlugin.useCompactStorageFormat(context);
+    byte[] bytes =
+        NotificationDetailsRecord.toBytes(
+            FlutterLocalNotificationsPlugin.buildGson(), notificationDetails, compact);
+    AtomicFile file = new AtomicFile(recordFile(notificationDetails.id, compact));
+    FileOutputStream outputStream = null;
+    try {
+      outputStream = file.startWrite();
+      outputStream.write(bytes);
+      file.finishWrite(outputStream);
+    } catch (IOException e) {
+      Log.e(TAG, "Unable to save scheduled notification " + notificationDetails.id, e);
+      if (outputStream != null) {
+        file.failWrite(outputStream);
+      }
+      return false;
+    }
+    // the record in the other format is only removed once the new one has been written
+    AtomicFile otherFile = new AtomicFile(recordFile(notificationDetails.id, !compact));
+    if (otherFile.getBaseFile().exists()) {
+      otherFile.delete();
+    }
+    writeCount.incrementAndGet();
+    return true;
+  }
+
+  private boolean hasRecord(int id) {
+    return recordFile(id, false).exists() || recordFile(id, true).exists();
+  }
+
+  private void deleteRecord(int id) {
+    writeCount.incrementAndGet();
+    new AtomicFile(recordFile(id, false)).delete();
+    new AtomicFile(recordFile(id, true)).delete();
+  }
+
+  private File recordFile(int id, boolean compact) {
+    return new File(directory, id + (compact ? BINARY_RECORD_EXTENSION : JSON_RECORD_EXTENSION));
+  }
+
+  private static final class IndexKeys {
+    @Nullable final String channelId;
+    @Nullable final String groupKey;
+    @Nullable final String tag;
+    final boolean repeating;
+    @Nullable final Long fireTime;
+
+    IndexKeys(NotificationDetails notificationDetails) {
+      channelId = notificationDetails.channelId;
+      groupKey = notificationDetails.groupKey;
+      tag = notificationDetails.tag;
+      repeating =
+          notificationDetails.repeatInterval != null
+              || notificationDetails.repeatIntervalMilliseconds != null;
+      fireTime = repeating ? null : getFireTime(notificationDetails);
+    }
+  }
+}
@@ -99,9 +99,37 @@ public class NotificationAction implements Serializable {
   @Nullable public final IconSource iconSource;
   // actionInputs is annotated as nullable as the Flutter API use to allow this to be nullable
   // before null-safety was added in
-  @Nullable public final List<NotificationActionInput> actionInputs = new ArrayList<>();
+  @Nullable public final List<NotificationActionInput> actionInputs;
+
+  public NotificationAction(
+      String id,
+      String title,
+      @Nullable Integer titleColor,
+      @Nullable String icon,
+      @Nullable Boolean cancelNotification,
+      @Nullable Boolean contextual,
+      @Nullable Boolean showsUserInterface,
+      @Nullable Boolean allowGeneratedReplies,
+      @Nullable Integer semanticAction,
+      @Nullable Boolean invisible,
+      @Nullable IconSource iconSource,
+      @Nullable List<NotificationActionInput> actionInputs) {
+    this.id = id;
+    this.title = title;
+    this.titleColor = titleColor;
+    this.icon = icon;
+    this.cancelNotification = cancelNotification;
+    this.contextual = contextual;
+    this.showsUserInterface = showsUserInterface;
+    this.allowGeneratedReplies = allowGeneratedReplies;
+    this.semanticAction = semanticAction;
+    this.invisible = invisible;
+    this.iconSource = iconSource;
+    this.actionInputs = actionInputs;
+  }
 
   public NotificationAction(Map<String, Object> arguments) {
+    actionInputs = new ArrayList<>();
     id = (String) arguments.get(ID);
     cancelNotification = (Boolean) arguments.get(CANCEL_NOTIFICATION);
     title = (String) arguments.get(TITLE);
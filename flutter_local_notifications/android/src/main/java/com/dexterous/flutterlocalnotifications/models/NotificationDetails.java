@@ -121,6 +121,7 @@ public class NotificationDetails implements Serializable {
   private static final String SCHEDULED_NOTIFICATION_REPEAT_FREQUENCY =
       "scheduledNotificationRepeatFrequency";
   private static final String MATCH_DATE_TIME_COMPONENTS = "matchDateTimeComponents";
+  private static final String RECURRENCE_RULE = "recurrenceRule";
 
   private static final String FULL_SCREEN_INTENT = "fullScreenIntent";
   private static final String DISMISS_ISOLATE = "dismissIsolate";
@@ -191,6 +192,7 @@ public class NotificationDetails implements Serializable {
   public String timeZoneName;
   public ScheduledNotificationRepeatFrequency scheduledNotificationRepeatFrequency;
   public DateTimeComponents matchDateTimeComponents;
+  public RecurrenceRule recurrenceRule;
   public Long when;
   public Boolean fullScreenIntent;
   public Integer dismissIsolate;
@@ -206,6 +208,10 @@ public class NotificationDetails implements Serializable {
   // re-hydrating scheduled notifications when a device has been restarted.
   public Integer iconResourceId;
 
+  // Note: this is set on Android when alarms only hold the id of the notification so that an alarm
+  // that was set for an older version of the record can be told apart.
+  public Long recordVersion;
+
   public static NotificationDetails from(Map<String, Object> arguments) {
     NotificationDetails notificationDetails = new NotificationDetails();
     notificationDetails.payload = (String) arguments.get(PAYLOAD);
@@ -223,6 +229,12 @@ public class NotificationDetails implements Serializable {
       notificationDetails.matchDateTimeComponents =
           DateTimeComponents.values()[(Integer) arguments.get(MATCH_DATE_TIME_COMPONENTS)];
     }
+    if (arguments.containsKey(RECURRENCE_RULE)) {
+      @SuppressWarnings("unchecked")
+      Map<String, Object> recurrenceRuleParams =
+          (Map<String, Object>) arguments.get(RECURRENCE_RULE);
+      notificationDetails.recurrenceRule = RecurrenceRule.from(recurrenceRuleParams);
+    }
     if (arguments.containsKey(MILLISECONDS_SINCE_EPOCH)) {
       notificationDetails.millisecondsSinceEpoch = (Long) arguments.get(MILLISECONDS_SINCE_EPOCH);
     }
@@ -0,0 +1,44 @@
+package com.dexterous.flutterlocalnotifications.models;
+
+import com.dexterous.flutterlocalnotifications.utils.LongUtils;
+
+import java.util.Map;
+
+/** Criteria used to select which pending notification requests are returned. */
+public class PendingNotificationRequestFilter {
+  private static final String CHANNEL_ID = "channelId";
+  private static final String GROUP_KEY = "groupKey";
+  private static final String TAG = "tag";
+  private static final String FIRE_TIME_FROM = "fireTimeFrom";
+  private static final String FIRE_TIME_TO = "fireTimeTo";
+
+  public String channelId;
+  public String groupKey;
+  public String tag;
+
+  // The inclusive range, in milliseconds since epoch, that the next time a notification is due to
+  // be shown must fall within
+  public Long fireTimeFrom;
+  public Long fireTimeTo;
+
+  public static PendingNotificationRequestFilter from(Map<String, Object> arguments) {
+    PendingNotificationRequestFilter filter = new PendingNotificationRequestFilter();
+    if (arguments == null) {
+      return filter;
+    }
+    filter.channelId = (String) arguments.get(CHANNEL_ID);
+    filter.groupKey = (String) arguments.get(GROUP_KEY);
+    filter.tag = (String) arguments.get(TAG);
+    filter.fireTimeFrom = LongUtils.parseLong(arguments.get(FIRE_TIME_FROM));
+    filter.fireTimeTo = LongUtils.parseLong(arguments.get(FIRE_TIME_TO));
+    return filter;
+  }
+
+  public boolean hasCriteria() {
+    return channelId != null || groupKey != null || tag != null || hasFireTimeRange();
+  }
+
+  public boolean hasFireTimeRange() {
+    return fireTimeFrom != null || fireTimeTo != null;
+  }
+}
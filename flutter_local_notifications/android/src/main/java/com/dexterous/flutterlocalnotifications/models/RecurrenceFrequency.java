@@ -0,0 +1,11 @@
+package com.dexterous.flutterlocalnotifications.models;
+
+import androidx.annotation.Keep;
+
+@Keep
+public enum RecurrenceFrequency {
+  Daily,
+  Weekly,
+  Monthly,
+  Yearly
+}
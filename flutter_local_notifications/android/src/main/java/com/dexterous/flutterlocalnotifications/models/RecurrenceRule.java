@@ -0,0 +1,57 @@
+package com.dexterous.flutterlocalnotifications.models;
+
+import androidx.annotation.Keep;
+
+import com.dexterous.flutterlocalnotifications.utils.LongUtils;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A rule that describes when a notification that is scheduled with a time zone repeats. This
+ * mirrors the parts of the iCalendar RRULE property that make sense for notifications. The
+ * scheduled date of the notification is its first occurrence and provides the time of day of
+ * every occurrence.
+ */
+@Keep
+public class RecurrenceRule implements Serializable {
+  private static final String FREQUENCY = "frequency";
+  private static final String INTERVAL = "interval";
+  private static final String BY_DAY = "byDay";
+  private static final String BY_MONTH_DAY = "byMonthDay";
+  private static final String BY_SET_POS = "bySetPos";
+  private static final String COUNT = "count";
+  private static final String UNTIL = "until";
+
+  public RecurrenceFrequency frequency;
+  public Integer interval;
+
+  // days of the week in the same form as the BYDAY part of an RRULE e.g. MO, 1MO or -1FR
+  public List<String> byDay;
+
+  public int[] byMonthDay;
+  public int[] bySetPos;
+
+  // the number of occurrences that are left, including the one that is scheduled
+  public Integer count;
+
+  // the milliseconds since epoch after which there are no more occurrences
+  public Long until;
+
+  @SuppressWarnings("unchecked")
+  public static RecurrenceRule from(Map<String, Object> arguments) {
+    RecurrenceRule recurrenceRule = new RecurrenceRule();
+    recurrenceRule.frequency = RecurrenceFrequency.values()[(Integer) arguments.get(FREQUENCY)];
+    recurrenceRule.interval = (Integer) arguments.get(INTERVAL);
+    if (arguments.containsKey(BY_DAY)) {
+      recurrenceRule.byDay = new ArrayList<>((List<String>) arguments.get(BY_DAY));
+    }
+    recurrenceRule.byMonthDay = (int[]) arguments.get(BY_MONTH_DAY);
+    recurrenceRule.bySetPos = (int[]) arguments.get(BY_SET_POS);
+    recurrenceRule.count = (Integer) arguments.get(COUNT);
+    recurrenceRule.until = LongUtils.parseLong(arguments.get(UNTIL));
+    return recurrenceRule;
+  }
+}
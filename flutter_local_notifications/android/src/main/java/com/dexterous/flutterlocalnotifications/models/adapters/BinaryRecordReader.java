@@ -0,0 +1,355 @@
+package com.dexterous.flutterlocalnotifications.models.adapters;
+
+import static com.dexterous.flutterlocalnotifications.models.adapters.BinaryRecordWriter.BEGIN_ARRAY;
+import static com.dexterous.flutterlocalnotifications.models.adapters.BinaryRecordWriter.BEGIN_OBJECT;
+import static com.dexterous.flutterlocalnotifications.models.adapters.BinaryRecordWriter.BYTES;
+import static com.dexterous.flutterlocalnotifications.models.adapters.BinaryRecordWriter.DOUBLE;
+import static com.dexterous.flutterlocalnotifications.models.adapters.BinaryRecordWriter.END_ARRAY;
+import static com.dexterous.flutterlocalnotifications.models.adapters.BinaryRecordWriter.END_OBJECT;
+import static com.dexterous.flutterlocalnotifications.models.adapters.BinaryRecordWriter.FALSE;
+import static com.dexterous.flutterlocalnotifications.models.adapters.BinaryRecordWriter.INTEGER;
+import static com.dexterous.flutterlocalnotifications.models.adapters.BinaryRecordWriter.NAME;
+import static com.dexterous.flutterlocalnotifications.models.adapters.BinaryRecordWriter.NULL;
+import static com.dexterous.flutterlocalnotifications.models.adapters.BinaryRecordWriter.STRING;
+import static com.dexterous.flutterlocalnotifications.models.adapters.BinaryRecordWriter.TRUE;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * Reads the tokens written by {@link BinaryRecordWriter} so that they can be consumed by type
+ * adapters as though they were JSON.
+ *
+ * <p>Byte arrays are presented as arrays of numbers to type adapters that aren't aware of this
+ * reader. {@link #peekBytes()} and {@link #nextBytes()} allow them to be read in one go instead.
+ */
+final class BinaryRecordReader extends JsonReader {
+  private static final Reader UNREADABLE_READER =
+      new Reader() {
+        @Override
+        public int read(char[] buffer, int offset, int count) {
+          throw new AssertionError();
+        }
+
+        @Override
+        public void close() {
+          throw new AssertionError();
+        }
+      };
+
+  private final byte[] data;
+  private int position;
+  private final ArrayList<String> names = new ArrayList<>();
+
+  // the array of bytes currently being read one number at a time, if any
+  private byte[] bytesArray;
+  private int bytesArrayPosition;
+
+  BinaryRecordReader(byte[] data, int offset) {
+    super(UNREADABLE_READER);
+    this.data = data;
+    this.position = offset;
+  }
+
+  @Override
+  public JsonToken peek() throws IOException {
+    if (bytesArray != null) {
+      return bytesArrayPosition < bytesArray.length ? JsonToken.NUMBER : JsonToken.END_ARRAY;
+    }
+    if (position >= data.length) {
+      return JsonToken.END_DOCUMENT;
+    }
+    switch (data[position]) {
+      case END_OBJECT:
+        return JsonToken.END_OBJECT;
+      case BEGIN_OBJECT:
+        return JsonToken.BEGIN_OBJECT;
+      case END_ARRAY:
+        return JsonToken.END_ARRAY;
+      case BEGIN_ARRAY:
+      case BYTES:
+        return JsonToken.BEGIN_ARRAY;
+      case NAME:
+        return JsonToken.NAME;
+      case STRING:
+        return JsonToken.STRING;
+      case INTEGER:
+      case DOUBLE:
+        return JsonToken.NUMBER;
+      case TRUE:
+      case FALSE:
+        return JsonToken.BOOLEAN;
+      case NULL:
+        return JsonToken.NULL;
+      default:
+        throw new MalformedJsonException("Unknown token " + data[position] + " at " + position);
+    }
+  }
+
+  /** Returns whether the next value is an array of bytes that can be read by {@link #nextBytes}. */
+  boolean peekBytes() {
+    return bytesArray == null && position < data.length && data[position] == BYTES;
+  }
+
+  byte[] nextBytes() throws IOException {
+    expect(BYTES);
+    int length = readLength();
+    byte[] bytes = new byte[length];
+    System.arraycopy(data, position, bytes, 0, length);
+    position += length;
+    return bytes;
+  }
+
+  @Override
+  public void beginArray() throws IOException {
+    if (peekBytes()) {
+      bytesArray = nextBytes();
+      bytesArrayPosition = 0;
+      return;
+    }
+    expect(BEGIN_ARRAY);
+  }
+
+  @Override
+  public void endArray() throws IOException {
+    if (bytesArray != null) {
+      if (bytesArrayPosition < bytesArray.length) {
+        throw new IllegalStateException("Expected END_ARRAY but was NUMBER");
+      }
+      bytesArray = null;
+      return;
+    }
+    expect(END_ARRAY);
+  }
+
+  @Override
+  public void beginObject() throws IOException {
+    expect(BEGIN_OBJECT);
+  }
+
+  @Override
+  public void endObject() throws IOException {
+    expect(END_OBJECT);
+  }
+
+  @Override
+  public boolean hasNext() throws IOException {
+    JsonToken token = peek();
+    return token != JsonToken.END_OBJECT
+        && token != JsonToken.END_ARRAY
+        && token != JsonToken.END_DOCUMENT;
+  }
+
+  @Override
+  public String nextName() throws IOException {
+    expect(NAME);
+    long index = readVarint();
+    if (index == names.size()) {
+      names.add(readString());
+    } else if (index < 0 || index > names.size()) {
+      throw new MalformedJsonException("Unknown name " + index + " at " + position);
+    }
+    return names.get((int) index);
+  }
+
+  @Override
+  public String nextString() throws IOException {
+    if (bytesArray != null) {
+      return Integer.toString(nextInt());
+    }
+    switch (peek()) {
+      case STRING:
+        position++;
+        return readString();
+      case NUMBER:
+        return data[position] == INTEGER
+            ? Long.toString(nextLong())
+            : Double.toString(nextDouble());
+      default:
+        throw unexpected("a string");
+    }
+  }
+
+  @Override
+  public boolean nextBoolean() throws IOException {
+    if (peek() != JsonToken.BOOLEAN) {
+      throw unexpected("a boolean");
+    }
+    return data[position++] == TRUE;
+  }
+
+  @Override
+  public void nextNull() throws IOException {
+    expect(NULL);
+  }
+
+  @Override
+  public double nextDouble() throws IOException {
+    if (bytesArray != null) {
+      return nextInt();
+    }
+    switch (peek()) {
+      case NUMBER:
+        if (data[position] == INTEGER) {
+          return nextLong();
+        }
+        position++;
+        if (data.length - position < 8) {
+          throw new MalformedJsonException("Truncated record");
+        }
+        long bits = 0;
+        for (int i = 0; i < 8; i++) {
+          bits |= (data[position++] & 0xFFL) << (i * 8);
+        }
+        return Double.longBitsToDouble(bits);
+      case STRING:
+        return Double.parseDouble(nextString());
+      default:
+        throw unexpected("a double");
+    }
+  }
+
+  @Override
+  public long nextLong() throws IOException {
+    if (bytesArray != null) {
+      return nextInt();
+    }
+    switch (peek()) {
+      case NUMBER:
+        if (data[position] == INTEGER) {
+          position++;
+          long value = readVarint();
+          return (value >>> 1) ^ -(value & 1);
+        }
+        double value = nextDouble();
+        long result = (long) value;
+        if (result != value) {
+          throw new NumberFormatException("Expected a long but was " + value);
+        }
+        return result;
+      case STRING:
+        return Long.parseLong(nextString());
+      default:
+        throw unexpected("a long");
+    }
+  }
+
+  @Override
+  public int nextInt() throws IOException {
+    if (bytesArray != null) {
+      if (bytesArrayPosition >= bytesArray.length) {
+        throw new IllegalStateException("Expected an int but was END_ARRAY");
+      }
+      return bytesArray[bytesArrayPosition++];
+    }
+    long value = nextLong();
+    int result = (int) value;
+    if (result != value) {
+      throw new NumberFormatException("Expected an int but was " + value);
+    }
+    return result;
+  }
+
+  @Override
+  public void skipValue() throws IOException {
+    if (bytesArray != null) {
+      bytesArrayPosition++;
+      return;
+    }
+    int depth = 0;
+    do {
+      switch (peek()) {
+        case BEGIN_OBJECT:
+        case BEGIN_ARRAY:
+          if (peekBytes()) {
+            nextBytes();
+          } else {
+            position++;
+            depth++;
+          }
+          break;
+        case END_OBJECT:
+        case END_ARRAY:
+          position++;
+          depth--;
+          break;
+        case NAME:
+          nextName();
+          break;
+        case STRING:
+          nextString();
+          break;
+        case NUMBER:
+          nextDouble();
+          break;
+        case BOOLEAN:
+        case NULL:
+          position++;
+          break;
+        case END_DOCUMENT:
+          return;
+      }
+    } while (depth > 0);
+  }
+
+  @Override
+  public String getPath() {
+    return "$";
+  }
+
+  @Override
+  public void close() {}
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + " at " + position;
+  }
+
+  private void expect(int token) throws IOException {
+    if (position >= data.length || data[position] != token) {
+      throw unexpected("token " + token);
+    }
+    position++;
+  }
+
+  private IllegalStateException unexpected(String expected) throws IOException {
+    return new IllegalStateException(
+        "Expected " + expected + " but was " + peek() + " at " + position);
+  }
+
+  private String readString() throws IOException {
+    int length = readLength();
+    String value = new String(data, position, length, StandardCharsets.UTF_8);
+    position += length;
+    return value;
+  }
+
+  private int readLength() throws IOException {
+    long length = readVarint();
+    if (length < 0 || length > data.length - position) {
+      throw new MalformedJsonException("Invalid length " + length + " at " + position);
+    }
+    return (int) length;
+  }
+
+  private long readVarint() throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      if (position >= data.length) {
+        throw new MalformedJsonException("Truncated record");
+      }
+      byte b = data[position++];
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new MalformedJsonException("Malformed varint at " + position);
+  }
+}
@@ -0,0 +1,204 @@
+package com.dexterous.flutterlocalnotifications.models.adapters;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+
+/**
+ * Writes the values that a type adapter produces as a compact stream of tokens instead of JSON.
+ * This allows the same type adapters to be used for both formats.
+ *
+ * <p>Each token starts with a single byte identifying it. Integers are written as zig-zag encoded
+ * varints, strings and byte arrays are prefixed with their length, and each property name is only
+ * written in full the first time it appears in a record. Later occurrences refer to it by index.
+ */
+final class BinaryRecordWriter extends JsonWriter {
+  static final int END_OBJECT = 0;
+  static final int BEGIN_OBJECT = 1;
+  static final int END_ARRAY = 2;
+  static final int BEGIN_ARRAY = 3;
+  static final int NAME = 4;
+  static final int STRING = 5;
+  static final int INTEGER = 6;
+  static final int DOUBLE = 7;
+  static final int TRUE = 8;
+  static final int FALSE = 9;
+  static final int NULL = 10;
+  static final int BYTES = 11;
+
+  private static final Writer UNWRITABLE_WRITER =
+      new Writer() {
+        @Override
+        public void write(char[] buffer, int offset, int counter) {
+          throw new AssertionError();
+        }
+
+        @Override
+        public void flush() {
+          throw new AssertionError();
+        }
+
+        @Override
+        public void close() {
+          throw new AssertionError();
+        }
+      };
+
+  private final ByteArrayOutputStream out;
+  private final HashMap<String, Integer> nameIndexes = new HashMap<>();
+
+  BinaryRecordWriter(ByteArrayOutputStream out) {
+    super(UNWRITABLE_WRITER);
+    this.out = out;
+  }
+
+  @Override
+  public JsonWriter beginObject() {
+    out.write(BEGIN_OBJECT);
+    return this;
+  }
+
+  @Override
+  public JsonWriter endObject() {
+    out.write(END_OBJECT);
+    return this;
+  }
+
+  @Override
+  public JsonWriter beginArray() {
+    out.write(BEGIN_ARRAY);
+    return this;
+  }
+
+  @Override
+  public JsonWriter endArray() {
+    out.write(END_ARRAY);
+    return this;
+  }
+
+  @Override
+  public JsonWriter name(String name) {
+    out.write(NAME);
+    Integer index = nameIndexes.get(name);
+    if (index != null) {
+      writeVarint(index);
+    } else {
+      int newIndex = nameIndexes.size();
+      nameIndexes.put(name, newIndex);
+      writeVarint(newIndex);
+      writeString(name);
+    }
+    return this;
+  }
+
+  @Override
+  public JsonWriter value(String value) {
+    if (value == null) {
+      return nullValue();
+    }
+    out.write(STRING);
+    writeString(value);
+    return this;
+  }
+
+  @Override
+  public JsonWriter jsonValue(String value) {
+    throw new UnsupportedOperationException("Raw JSON values can't be written to binary records");
+  }
+
+  @Override
+  public JsonWriter nullValue() {
+    out.write(NULL);
+    return this;
+  }
+
+  @Override
+  public JsonWriter value(boolean value) {
+    out.write(value ? TRUE : FALSE);
+    return this;
+  }
+
+  @Override
+  public JsonWriter value(Boolean value) {
+    if (value == null) {
+      return nullValue();
+    }
+    return value(value.booleanValue());
+  }
+
+  @Override
+  public JsonWriter value(float value) {
+    return value((double) value);
+  }
+
+  @Override
+  public JsonWriter value(double value) {
+    out.write(DOUBLE);
+    long bits = Double.doubleToRawLongBits(value);
+    for (int i = 0; i < 8; i++) {
+      out.write((int) (bits >>> (i * 8)));
+    }
+    return this;
+  }
+
+  @Override
+  public JsonWriter value(long value) {
+    out.write(INTEGER);
+    writeVarint((value << 1) ^ (value >> 63));
+    return this;
+  }
+
+  @Override
+  public JsonWriter value(Number value) {
+    if (value == null) {
+      return nullValue();
+    }
+    if (value instanceof Integer
+        || value instanceof Long
+        || value instanceof Short
+        || value instanceof Byte) {
+      return value(value.longValue());
+    }
+    if (value instanceof BigInteger || value instanceof BigDecimal) {
+      return value(value.toString());
+    }
+    return value(value.doubleValue());
+  }
+
+  /** Writes the bytes as a single value rather than as an array of numbers. */
+  JsonWriter value(byte[] value) {
+    if (value == null) {
+      return nullValue();
+    }
+    out.write(BYTES);
+    writeVarint(value.length);
+    out.write(value, 0, value.length);
+    return this;
+  }
+
+  @Override
+  public void flush() {}
+
+  @Override
+  public void close() throws IOException {}
+
+  private void writeString(String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    writeVarint(bytes.length);
+    out.write(bytes, 0, bytes.length);
+  }
+
+  private void writeVarint(long value) {
+    while ((value & ~0x7FL) != 0) {
+      out.write((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.write((int) value);
+  }
+}
@@ -0,0 +1,251 @@
+package com.dexterous.flutterlocalnotifications.models.adapters;
+
+import androidx.annotation.Nullable;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Helpers for reading and writing the values of the plugin's models. Null values are skipped when
+ * writing so that the JSON matches what Gson produces through reflection.
+ */
+final class JsonValues {
+  private JsonValues() {}
+
+  @Nullable
+  static String nextString(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    return in.nextString();
+  }
+
+  @Nullable
+  static Integer nextInteger(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    return in.nextInt();
+  }
+
+  @Nullable
+  static Long nextLong(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    return in.nextLong();
+  }
+
+  @Nullable
+  static Boolean nextBoolean(JsonReader in) throws IOException {
+    JsonToken token = in.peek();
+    if (token == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    if (token == JsonToken.STRING) {
+      return Boolean.parseBoolean(in.nextString());
+    }
+    return in.nextBoolean();
+  }
+
+  // Enums are written using their names. Names that aren't recognised are read as null, which is
+  // the same behaviour as Gson's own enum adapter
+  @Nullable
+  static <E extends Enum<E>> E nextEnum(JsonReader in, Class<E> enumClass) throws IOException {
+    String name = nextString(in);
+    if (name == null) {
+      return null;
+    }
+    try {
+      return Enum.valueOf(enumClass, name);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  // Reads a value that is either a string (e.g. a resource name or file path) or the bytes of an
+  // image
+  @Nullable
+  static Object nextStringOrBytes(JsonReader in) throws IOException {
+    if (in instanceof BinaryRecordReader && ((BinaryRecordReader) in).peekBytes()) {
+      return ((BinaryRecordReader) in).nextBytes();
+    }
+    switch (in.peek()) {
+      case STRING:
+        return in.nextString();
+      case BEGIN_ARRAY:
+        return nextByteArray(in);
+      default:
+        in.skipValue();
+        return null;
+    }
+  }
+
+  @Nullable
+  static byte[] nextByteArray(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    byte[] bytes = new byte[64];
+    int length = 0;
+    in.beginArray();
+    while (in.hasNext()) {
+      if (length == bytes.length) {
+        byte[] grownBytes = new byte[bytes.length * 2];
+        System.arraycopy(bytes, 0, grownBytes, 0, length);
+        bytes = grownBytes;
+      }
+      bytes[length++] = (byte) in.nextInt();
+    }
+    in.endArray();
+    byte[] result = new byte[length];
+    System.arraycopy(bytes, 0, result, 0, length);
+    return result;
+  }
+
+  @Nullable
+  static long[] nextLongArray(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    List<Long> values = new ArrayList<>();
+    in.beginArray();
+    while (in.hasNext()) {
+      values.add(in.nextLong());
+    }
+    in.endArray();
+    long[] result = new long[values.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = values.get(i);
+    }
+    return result;
+  }
+
+  @Nullable
+  static int[] nextIntArray(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    List<Integer> values = new ArrayList<>();
+    in.beginArray();
+    while (in.hasNext()) {
+      values.add(in.nextInt());
+    }
+    in.endArray();
+    int[] result = new int[values.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = values.get(i);
+    }
+    return result;
+  }
+
+  @Nullable
+  static ArrayList<String> nextStringList(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    ArrayList<String> values = new ArrayList<>();
+    in.beginArray();
+    while (in.hasNext()) {
+      values.add(nextString(in));
+    }
+    in.endArray();
+    return values;
+  }
+
+  static void writeField(JsonWriter out, String name, @Nullable String value) throws IOException {
+    if (value != null) {
+      out.name(name).value(value);
+    }
+  }
+
+  static void writeField(JsonWriter out, String name, @Nullable Number value) throws IOException {
+    if (value != null) {
+      out.name(name).value(value);
+    }
+  }
+
+  static void writeField(JsonWriter out, String name, @Nullable Boolean value) throws IOException {
+    if (value != null) {
+      out.name(name).value(value);
+    }
+  }
+
+  static void writeField(JsonWriter out, String name, @Nullable Enum<?> value) throws IOException {
+    if (value != null) {
+      out.name(name).value(value.name());
+    }
+  }
+
+  static void writeField(JsonWriter out, String name, @Nullable long[] values) throws IOException {
+    if (values != null) {
+      out.name(name).beginArray();
+      for (long value : values) {
+        out.value(value);
+      }
+      out.endArray();
+    }
+  }
+
+  static void writeField(JsonWriter out, String name, @Nullable int[] values) throws IOException {
+    if (values != null) {
+      out.name(name).beginArray();
+      for (int value : values) {
+        out.value(value);
+      }
+      out.endArray();
+    }
+  }
+
+  static void writeField(JsonWriter out, String name, @Nullable List<String> values)
+      throws IOException {
+    if (values != null) {
+      out.name(name).beginArray();
+      for (String value : values) {
+        if (value == null) {
+          out.nullValue();
+        } else {
+          out.value(value);
+        }
+      }
+      out.endArray();
+    }
+  }
+
+  // Counterpart to nextStringOrBytes(). Images that were read by an older version of the plugin
+  // may be held as a list of numbers rather than bytes. Binary records hold the bytes as is
+  static void writeStringOrBytes(JsonWriter out, String name, @Nullable Object value)
+      throws IOException {
+    if (value instanceof String) {
+      out.name(name).value((String) value);
+    } else if (value instanceof byte[] && out instanceof BinaryRecordWriter) {
+      out.name(name);
+      ((BinaryRecordWriter) out).value((byte[]) value);
+    } else if (value instanceof byte[]) {
+      out.name(name).beginArray();
+      for (byte b : (byte[]) value) {
+        out.value(b);
+      }
+      out.endArray();
+    } else if (value instanceof List) {
+      out.name(name).beginArray();
+      for (Object element : (List<?>) value) {
+        out.value(((Number) element).byteValue());
+      }
+      out.endArray();
+    }
+  }
+}
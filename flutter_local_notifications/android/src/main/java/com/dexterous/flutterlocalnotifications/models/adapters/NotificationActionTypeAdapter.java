@@ -0,0 +1,206 @@
+package com.dexterous.flutterlocalnotifications.models.adapters;
+
+import static com.dexterous.flutterlocalnotifications.models.adapters.JsonValues.nextBoolean;
+import static com.dexterous.flutterlocalnotifications.models.adapters.JsonValues.nextEnum;
+import static com.dexterous.flutterlocalnotifications.models.adapters.JsonValues.nextInteger;
+import static com.dexterous.flutterlocalnotifications.models.adapters.JsonValues.nextString;
+import static com.dexterous.flutterlocalnotifications.models.adapters.JsonValues.nextStringList;
+import static com.dexterous.flutterlocalnotifications.models.adapters.JsonValues.writeField;
+
+import com.dexterous.flutterlocalnotifications.models.IconSource;
+import com.dexterous.flutterlocalnotifications.models.NotificationAction;
+import com.dexterous.flutterlocalnotifications.models.NotificationAction.NotificationActionInput;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Reads and writes {@link NotificationAction} without relying on reflection. */
+public class NotificationActionTypeAdapter extends TypeAdapter<NotificationAction> {
+  private static final String ID = "id";
+  private static final String TITLE = "title";
+  private static final String TITLE_COLOR = "titleColor";
+  private static final String ICON = "icon";
+  private static final String CANCEL_NOTIFICATION = "cancelNotification";
+  private static final String CONTEXTUAL = "contextual";
+  private static final String SHOWS_USER_INTERFACE = "showsUserInterface";
+  private static final String ALLOW_GENERATED_REPLIES = "allowGeneratedReplies";
+  private static final String SEMANTIC_ACTION = "semanticAction";
+  private static final String INVISIBLE = "invisible";
+  private static final String ICON_SOURCE = "iconSource";
+  private static final String ACTION_INPUTS = "actionInputs";
+
+  private static final String CHOICES = "choices";
+  private static final String ALLOW_FREE_FORM_INPUT = "allowFreeFormInput";
+  private static final String LABEL = "label";
+  private static final String ALLOWED_MIME_TYPES = "allowedMimeTypes";
+
+  @Override
+  public void write(JsonWriter out, NotificationAction action) throws IOException {
+    if (action == null) {
+      out.nullValue();
+      return;
+    }
+    out.beginObject();
+    writeField(out, ID, action.id);
+    writeField(out, TITLE, action.title);
+    writeField(out, TITLE_COLOR, action.titleColor);
+    writeField(out, ICON, action.icon);
+    writeField(out, CANCEL_NOTIFICATION, action.cancelNotification);
+    writeField(out, CONTEXTUAL, action.contextual);
+    writeField(out, SHOWS_USER_INTERFACE, action.showsUserInterface);
+    writeField(out, ALLOW_GENERATED_REPLIES, action.allowGeneratedReplies);
+    writeField(out, SEMANTIC_ACTION, action.semanticAction);
+    writeField(out, INVISIBLE, action.invisible);
+    writeField(out, ICON_SOURCE, action.iconSource);
+    if (action.actionInputs != null) {
+      out.name(ACTION_INPUTS).beginArray();
+      for (NotificationActionInput input : action.actionInputs) {
+        writeInput(out, input);
+      }
+      out.endArray();
+    }
+    out.endObject();
+  }
+
+  @Override
+  public NotificationAction read(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    String id = null;
+    String title = null;
+    Integer titleColor = null;
+    String icon = null;
+    Boolean cancelNotification = null;
+    Boolean contextual = null;
+    Boolean showsUserInterface = null;
+    Boolean allowGeneratedReplies = null;
+    Integer semanticAction = null;
+    Boolean invisible = null;
+    IconSource iconSource = null;
+    List<NotificationActionInput> actionInputs = null;
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case ID:
+          id = nextString(in);
+          break;
+        case TITLE:
+          title = nextString(in);
+          break;
+        case TITLE_COLOR:
+          titleColor = nextInteger(in);
+          break;
+        case ICON:
+          icon = nextString(in);
+          break;
+        case CANCEL_NOTIFICATION:
+          cancelNotification = nextBoolean(in);
+          break;
+        case CONTEXTUAL:
+          contextual = nextBoolean(in);
+          break;
+        case SHOWS_USER_INTERFACE:
+          showsUserInterface = nextBoolean(in);
+          break;
+        case ALLOW_GENERATED_REPLIES:
+          allowGeneratedReplies = nextBoolean(in);
+          break;
+        case SEMANTIC_ACTION:
+          semanticAction = nextInteger(in);
+          break;
+        case INVISIBLE:
+          invisible = nextBoolean(in);
+          break;
+        case ICON_SOURCE:
+          iconSource = nextEnum(in, IconSource.class);
+          break;
+        case ACTION_INPUTS:
+          actionInputs = readInputs(in);
+          break;
+        default:
+          in.skipValue();
+      }
+    }
+    in.endObject();
+    return new NotificationAction(
+        id,
+        title,
+        titleColor,
+        icon,
+        cancelNotification,
+        contextual,
+        showsUserInterface,
+        allowGeneratedReplies,
+        semanticAction,
+        invisible,
+        iconSource,
+        actionInputs);
+  }
+
+  private static void writeInput(JsonWriter out, NotificationActionInput input)
+      throws IOException {
+    if (input == null) {
+      out.nullValue();
+      return;
+    }
+    out.beginObject();
+    writeField(out, CHOICES, input.choices);
+    writeField(out, ALLOW_FREE_FORM_INPUT, input.allowFreeFormInput);
+    writeField(out, LABEL, input.label);
+    writeField(out, ALLOWED_MIME_TYPES, input.allowedMimeTypes);
+    out.endObject();
+  }
+
+  private static List<NotificationActionInput> readInputs(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    List<NotificationActionInput> inputs = new ArrayList<>();
+    in.beginArray();
+    while (in.hasNext()) {
+      inputs.add(readInput(in));
+    }
+    in.endArray();
+    return inputs;
+  }
+
+  private static NotificationActionInput readInput(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    List<String> choices = null;
+    Boolean allowFreeFormInput = null;
+    String label = null;
+    List<String> allowedMimeTypes = null;
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case CHOICES:
+          choices = nextStringList(in);
+          break;
+        case ALLOW_FREE_FORM_INPUT:
+          allowFreeFormInput = nextBoolean(in);
+          break;
+        case LABEL:
+          label = nextString(in);
+          break;
+        case ALLOWED_MIME_TYPES:
+          allowedMimeTypes = nextStringList(in);
+          break;
+        default:
+          in.skipValue();
+      }
+    }
+    in.endObject();
+    return new NotificationActionInput(choices, allowFreeFormInput, label, allowedMimeTypes);
+  }
+}
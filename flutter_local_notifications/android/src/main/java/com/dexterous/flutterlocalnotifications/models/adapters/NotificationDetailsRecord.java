@@ -0,0 +1,66 @@
+package com.dexterous.flutterlocalnotifications.models.adapters;
+
+import com.dexterous.flutterlocalnotifications.models.NotificationDetails;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts {@link NotificationDetails} to and from the bytes that are persisted for scheduled
+ * notifications and passed to alarms.
+ *
+ * <p>Records are either JSON or, when the compact format is used, a header followed by the tokens
+ * written by {@link BinaryRecordWriter}. The header starts with a byte that can't begin a JSON
+ * document, followed by the version of the format as a varint. Either format can be read
+ * regardless of which one is currently being written so existing records continue to work.
+ */
+public final class NotificationDetailsRecord {
+  private static final byte MAGIC = (byte) 0xFB;
+  static final int VERSION = 1;
+
+  private NotificationDetailsRecord() {}
+
+  public static byte[] toBytes(
+      Gson gson, NotificationDetails notificationDetails, boolean compact) {
+    if (!compact) {
+      return gson.toJson(notificationDetails).getBytes(StandardCharsets.UTF_8);
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+    out.write(MAGIC);
+    out.write(VERSION);
+    try {
+      gson.getAdapter(NotificationDetails.class)
+          .write(new BinaryRecordWriter(out), notificationDetails);
+    } catch (IOException e) {
+      // writing to memory doesn't throw
+      throw new AssertionError(e);
+    }
+    return out.toByteArray();
+  }
+
+  public static NotificationDetails fromBytes(Gson gson, byte[] bytes) {
+    if (!isCompact(bytes)) {
+      return gson.fromJson(new String(bytes, StandardCharsets.UTF_8), NotificationDetails.class);
+    }
+    if (bytes.length < 2 || bytes[1] != VERSION) {
+      throw new JsonParseException(
+          "Unsupported record version " + (bytes.length < 2 ? "(missing)" : bytes[1]));
+    }
+    TypeAdapter<NotificationDetails> adapter = gson.getAdapter(NotificationDetails.class);
+    try {
+      return adapter.read(new BinaryRecordReader(bytes, 2));
+    } catch (IOException | IllegalStateException | NumberFormatException e) {
+      throw new JsonSyntaxException(e);
+    }
+  }
+
+  /** Returns whether the bytes are a record in the compact format rather than JSON. */
+  public static boolean isCompact(byte[] bytes) {
+    return bytes.length > 0 && bytes[0] == MAGIC;
+  }
+}
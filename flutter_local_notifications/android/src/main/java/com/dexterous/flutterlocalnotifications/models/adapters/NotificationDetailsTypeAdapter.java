@@ -0,0 +1,571 @@
+package com.dexterous.flutterlocalnotifications.models.adapters;
+
+import static com.dexterous.flutterlocalnotifications.models.adapters.JsonValues.nextBoolean;
+import static com.dexterous.flutterlocalnotifications.models.adapters.JsonValues.nextEnum;
+import static com.dexterous.flutterlocalnotifications.models.adapters.JsonValues.nextIntArray;
+import static com.dexterous.flutterlocalnotifications.models.adapters.JsonValues.nextInteger;
+import static com.dexterous.flutterlocalnotifications.models.adapters.JsonValues.nextLong;
+import static com.dexterous.flutterlocalnotifications.models.adapters.JsonValues.nextLongArray;
+import static com.dexterous.flutterlocalnotifications.models.adapters.JsonValues.nextString;
+import static com.dexterous.flutterlocalnotifications.models.adapters.JsonValues.nextStringList;
+import static com.dexterous.flutterlocalnotifications.models.adapters.JsonValues.nextStringOrBytes;
+import static com.dexterous.flutterlocalnotifications.models.adapters.JsonValues.writeField;
+import static com.dexterous.flutterlocalnotifications.models.adapters.JsonValues.writeStringOrBytes;
+
+import com.dexterous.flutterlocalnotifications.models.BitmapSource;
+import com.dexterous.flutterlocalnotifications.models.DateTimeComponents;
+import com.dexterous.flutterlocalnotifications.models.NotificationAction;
+import com.dexterous.flutterlocalnotifications.models.NotificationChannelAction;
+import com.dexterous.flutterlocalnotifications.models.NotificationDetails;
+import com.dexterous.flutterlocalnotifications.models.NotificationStyle;
+import com.dexterous.flutterlocalnotifications.models.RecurrenceFrequency;
+import com.dexterous.flutterlocalnotifications.models.RecurrenceRule;
+import com.dexterous.flutterlocalnotifications.models.RepeatInterval;
+import com.dexterous.flutterlocalnotifications.models.ScheduleMode;
+import com.dexterous.flutterlocalnotifications.models.ScheduledNotificationRepeatFrequency;
+import com.dexterous.flutterlocalnotifications.models.SoundSource;
+import com.dexterous.flutterlocalnotifications.models.Time;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes {@link NotificationDetails} without relying on reflection.
+ *
+ * <p>The JSON matches what Gson produces through reflection so that notifications saved by older
+ * versions of the plugin can still be read and vice versa. Properties that aren't recognised are
+ * skipped.
+ */
+public class NotificationDetailsTypeAdapter extends TypeAdapter<NotificationDetails> {
+  private static final String ID = "id";
+  private static final String TITLE = "title";
+  private static final String BODY = "body";
+  private static final String ICON = "icon";
+  private static final String CHANNEL_ID = "channelId";
+  private static final String CHANNEL_NAME = "channelName";
+  private static final String CHANNEL_DESCRIPTION = "channelDescription";
+  private static final String CHANNEL_SHOW_BADGE = "channelShowBadge";
+  private static final String IMPORTANCE = "importance";
+  private static final String CHANNEL_BYPASS_DND = "channelBypassDnd";
+  private static final String PRIORITY = "priority";
+  private static final String PLAY_SOUND = "playSound";
+  private static final String SOUND = "sound";
+  private static final String SOUND_SOURCE = "soundSource";
+  private static final String ENABLE_VIBRATION = "enableVibration";
+  private static final String VIBRATION_PATTERN = "vibrationPattern";
+  private static final String STYLE = "style";
+  private static final String STYLE_INFORMATION = "styleInformation";
+  private static final String REPEAT_INTERVAL = "repeatInterval";
+  private static final String REPEAT_INTERVAL_MILLISECONDS = "repeatIntervalMilliseconds";
+  private static final String REPEAT_TIME = "repeatTime";
+  private static final String MILLISECONDS_SINCE_EPOCH = "millisecondsSinceEpoch";
+  private static final String CALLED_AT = "calledAt";
+  private static final String PAYLOAD = "payload";
+  private static final String GROUP_KEY = "groupKey";
+  private static final String SET_AS_GROUP_SUMMARY = "setAsGroupSummary";
+  private static final String GROUP_ALERT_BEHAVIOR = "groupAlertBehavior";
+  private static final String AUTO_CANCEL = "autoCancel";
+  private static final String ONGOING = "ongoing";
+  private static final String SILENT = "silent";
+  private static final String DAY = "day";
+  private static final String COLOR = "color";
+  private static final String LARGE_ICON = "largeIcon";
+  private static final String LARGE_ICON_BITMAP_SOURCE = "largeIconBitmapSource";
+  private static final String ONLY_ALERT_ONCE = "onlyAlertOnce";
+  private static final String SHOW_PROGRESS = "showProgress";
+  private static final String MAX_PROGRESS = "maxProgress";
+  private static final String PROGRESS = "progress";
+  private static final String INDETERMINATE = "indeterminate";
+  private static final String CHANNEL_ACTION = "channelAction";
+  private static final String ENABLE_LIGHTS = "enableLights";
+  private static final String LED_COLOR = "ledColor";
+  private static final String LED_ON_MS = "ledOnMs";
+  private static final String LED_OFF_MS = "ledOffMs";
+  private static final String TICKER = "ticker";
+  private static final String VISIBILITY = "visibility";
+  private static final String SCHEDULE_MODE = "scheduleMode";
+  private static final String ALLOW_WHILE_IDLE = "allowWhileIdle";
+  private static final String TIMEOUT_AFTER = "timeoutAfter";
+  private static final String CATEGORY = "category";
+  private static final String ADDITIONAL_FLAGS = "additionalFlags";
+  private static final String SHOW_WHEN = "showWhen";
+  private static final String USES_CHRONOMETER = "usesChronometer";
+  private static final String CHRONOMETER_COUNT_DOWN = "chronometerCountDown";
+  private static final String SCHEDULED_DATE_TIME = "scheduledDateTime";
+  private static final String TIME_ZONE_NAME = "timeZoneName";
+  private static final String SCHEDULED_NOTIFICATION_REPEAT_FREQUENCY =
+      "scheduledNotificationRepeatFrequency";
+  private static final String MATCH_DATE_TIME_COMPONENTS = "matchDateTimeComponents";
+  private static final String RECURRENCE_RULE = "recurrenceRule";
+  private static final String WHEN = "when";
+  private static final String FULL_SCREEN_INTENT = "fullScreenIntent";
+  private static final String DISMISS_ISOLATE = "dismissIsolate";
+  private static final String SHORTCUT_ID = "shortcutId";
+  private static final String SUB_TEXT = "subText";
+  private static final String ACTIONS = "actions";
+  private static final String TAG = "tag";
+  private static final String COLORIZED = "colorized";
+  private static final String NUMBER = "number";
+  private static final String AUDIO_ATTRIBUTES_USAGE = "audioAttributesUsage";
+  private static final String ICON_RESOURCE_ID = "iconResourceId";
+  private static final String RECORD_VERSION = "recordVersion";
+
+  private static final String HOUR = "hour";
+  private static final String MINUTE = "minute";
+  private static final String SECOND = "second";
+
+  private static final String FREQUENCY = "frequency";
+  private static final String INTERVAL = "interval";
+  private static final String BY_DAY = "byDay";
+  private static final String BY_MONTH_DAY = "byMonthDay";
+  private static final String BY_SET_POS = "bySetPos";
+  private static final String COUNT = "count";
+  private static final String UNTIL = "until";
+
+  private final StyleInformationTypeAdapter styleInformationAdapter =
+      new StyleInformationTypeAdapter();
+  private final NotificationActionTypeAdapter notificationActionAdapter =
+      new NotificationActionTypeAdapter();
+
+  @Override
+  public void write(JsonWriter out, NotificationDetails details) throws IOException {
+    if (details == null) {
+      out.nullValue();
+      return;
+    }
+    out.beginObject();
+    writeField(out, ID, details.id);
+    writeField(out, TITLE, details.title);
+    writeField(out, BODY, details.body);
+    writeField(out, ICON, details.icon);
+    writeField(out, CHANNEL_ID, details.channelId);
+    writeField(out, CHANNEL_NAME, details.channelName);
+    writeField(out, CHANNEL_DESCRIPTION, details.channelDescription);
+    writeField(out, CHANNEL_SHOW_BADGE, details.channelShowBadge);
+    writeField(out, IMPORTANCE, details.importance);
+    writeField(out, CHANNEL_BYPASS_DND, details.channelBypassDnd);
+    writeField(out, PRIORITY, details.priority);
+    writeField(out, PLAY_SOUND, details.playSound);
+    writeField(out, SOUND, details.sound);
+    writeField(out, SOUND_SOURCE, details.soundSource);
+    writeField(out, ENABLE_VIBRATION, details.enableVibration);
+    writeField(out, VIBRATION_PATTERN, details.vibrationPattern);
+    writeField(out, STYLE, details.style);
+    if (details.styleInformation != null) {
+      out.name(STYLE_INFORMATION);
+      styleInformationAdapter.write(out, details.styleInformation);
+    }
+    writeField(out, REPEAT_INTERVAL, details.repeatInterval);
+    writeField(out, REPEAT_INTERVAL_MILLISECONDS, details.repeatIntervalMilliseconds);
+    if (details.repeatTime != null) {
+      out.name(REPEAT_TIME).beginObject();
+      writeField(out, HOUR, details.repeatTime.hour);
+      writeField(out, MINUTE, details.repeatTime.minute);
+      writeField(out, SECOND, details.repeatTime.second);
+      out.endObject();
+    }
+    writeField(out, MILLISECONDS_SINCE_EPOCH, details.millisecondsSinceEpoch);
+    writeField(out, CALLED_AT, details.calledAt);
+    writeField(out, PAYLOAD, details.payload);
+    writeField(out, GROUP_KEY, details.groupKey);
+    writeField(out, SET_AS_GROUP_SUMMARY, details.setAsGroupSummary);
+    writeField(out, GROUP_ALERT_BEHAVIOR, details.groupAlertBehavior);
+    writeField(out, AUTO_CANCEL, details.autoCancel);
+    writeField(out, ONGOING, details.ongoing);
+    writeField(out, SILENT, details.silent);
+    writeField(out, DAY, details.day);
+    writeField(out, COLOR, details.color);
+    writeStringOrBytes(out, LARGE_ICON, details.largeIcon);
+    writeField(out, LARGE_ICON_BITMAP_SOURCE, details.largeIconBitmapSource);
+    writeField(out, ONLY_ALERT_ONCE, details.onlyAlertOnce);
+    writeField(out, SHOW_PROGRESS, details.showProgress);
+    writeField(out, MAX_PROGRESS, details.maxProgress);
+    writeField(out, PROGRESS, details.progress);
+    writeField(out, INDETERMINATE, details.indeterminate);
+    writeField(out, CHANNEL_ACTION, details.channelAction);
+    writeField(out, ENABLE_LIGHTS, details.enableLights);
+    writeField(out, LED_COLOR, details.ledColor);
+    writeField(out, LED_ON_MS, details.ledOnMs);
+    writeField(out, LED_OFF_MS, details.ledOffMs);
+    writeField(out, TICKER, details.ticker);
+    writeField(out, VISIBILITY, details.visibility);
+    writeField(out, SCHEDULE_MODE, details.scheduleMode);
+    writeField(out, TIMEOUT_AFTER, details.timeoutAfter);
+    writeField(out, CATEGORY, details.category);
+    writeField(out, ADDITIONAL_FLAGS, details.additionalFlags);
+    writeField(out, SHOW_WHEN, details.showWhen);
+    writeField(out, USES_CHRONOMETER, details.usesChronometer);
+    writeField(out, CHRONOMETER_COUNT_DOWN, details.chronometerCountDown);
+    writeField(out, SCHEDULED_DATE_TIME, details.scheduledDateTime);
+    writeField(out, TIME_ZONE_NAME, details.timeZoneName);
+    writeField(
+        out,
+        SCHEDULED_NOTIFICATION_REPEAT_FREQUENCY,
+        details.scheduledNotificationRepeatFrequency);
+    writeField(out, MATCH_DATE_TIME_COMPONENTS, details.matchDateTimeComponents);
+    if (details.recurrenceRule != null) {
+      out.name(RECURRENCE_RULE).beginObject();
+      writeField(out, FREQUENCY, details.recurrenceRule.frequency);
+      writeField(out, INTERVAL, details.recurrenceRule.interval);
+      writeField(out, BY_DAY, details.recurrenceRule.byDay);
+      writeField(out, BY_MONTH_DAY, details.recurrenceRule.byMonthDay);
+      writeField(out, BY_SET_POS, details.recurrenceRule.bySetPos);
+      writeField(out, COUNT, details.recurrenceRule.count);
+      writeField(out, UNTIL, details.recurrenceRule.until);
+      out.endObject();
+    }
+    writeField(out, WHEN, details.when);
+    writeField(out, FULL_SCREEN_INTENT, details.fullScreenIntent);
+    writeField(out, DISMISS_ISOLATE, details.dismissIsolate);
+    writeField(out, SHORTCUT_ID, details.shortcutId);
+    writeField(out, SUB_TEXT, details.subText);
+    if (details.actions != null) {
+      out.name(ACTIONS).beginArray();
+      for (NotificationAction action : details.actions) {
+        notificationActionAdapter.write(out, action);
+      }
+      out.endArray();
+    }
+    writeField(out, TAG, details.tag);
+    writeField(out, COLORIZED, details.colorized);
+    writeField(out, NUMBER, details.number);
+    writeField(out, AUDIO_ATTRIBUTES_USAGE, details.audioAttributesUsage);
+    writeField(out, ICON_RESOURCE_ID, details.iconResourceId);
+    writeField(out, RECORD_VERSION, details.recordVersion);
+    out.endObject();
+  }
+
+  @Override
+  public NotificationDetails read(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    NotificationDetails details = new NotificationDetails();
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case ID:
+          details.id = nextInteger(in);
+          break;
+        case TITLE:
+          details.title = nextString(in);
+          break;
+        case BODY:
+          details.body = nextString(in);
+          break;
+        case ICON:
+          details.icon = nextString(in);
+          break;
+        case CHANNEL_ID:
+          details.channelId = nextString(in);
+          break;
+        case CHANNEL_NAME:
+          details.channelName = nextString(in);
+          break;
+        case CHANNEL_DESCRIPTION:
+          details.channelDescription = nextString(in);
+          break;
+        case CHANNEL_SHOW_BADGE:
+          details.channelShowBadge = nextBoolean(in);
+          break;
+        case IMPORTANCE:
+          details.importance = nextInteger(in);
+          break;
+        case CHANNEL_BYPASS_DND:
+          details.channelBypassDnd = nextBoolean(in);
+          break;
+        case PRIORITY:
+          details.priority = nextInteger(in);
+          break;
+        case PLAY_SOUND:
+          details.playSound = nextBoolean(in);
+          break;
+        case SOUND:
+          details.sound = nextString(in);
+          break;
+        case SOUND_SOURCE:
+          details.soundSource = nextEnum(in, SoundSource.class);
+          break;
+        case ENABLE_VIBRATION:
+          details.enableVibration = nextBoolean(in);
+          break;
+        case VIBRATION_PATTERN:
+          details.vibrationPattern = nextLongArray(in);
+          break;
+        case STYLE:
+          details.style = nextEnum(in, NotificationStyle.class);
+          break;
+        case STYLE_INFORMATION:
+          details.styleInformation = styleInformationAdapter.read(in);
+          break;
+        case REPEAT_INTERVAL:
+          details.repeatInterval = nextEnum(in, RepeatInterval.class);
+          break;
+        case REPEAT_INTERVAL_MILLISECONDS:
+          details.repeatIntervalMilliseconds = nextInteger(in);
+          break;
+        case REPEAT_TIME:
+          details.repeatTime = readTime(in);
+          break;
+        case MILLISECONDS_SINCE_EPOCH:
+          details.millisecondsSinceEpoch = nextLong(in);
+          break;
+        case CALLED_AT:
+          details.calledAt = nextLong(in);
+          break;
+        case PAYLOAD:
+          details.payload = nextString(in);
+          break;
+        case GROUP_KEY:
+          details.groupKey = nextString(in);
+          break;
+        case SET_AS_GROUP_SUMMARY:
+          details.setAsGroupSummary = nextBoolean(in);
+          break;
+        case GROUP_ALERT_BEHAVIOR:
+          details.groupAlertBehavior = nextInteger(in);
+          break;
+        case AUTO_CANCEL:
+          details.autoCancel = nextBoolean(in);
+          break;
+        case ONGOING:
+          details.ongoing = nextBoolean(in);
+          break;
+        case SILENT:
+          details.silent = nextBoolean(in);
+          break;
+        case DAY:
+          details.day = nextInteger(in);
+          break;
+        case COLOR:
+          details.color = nextInteger(in);
+          break;
+        case LARGE_ICON:
+          details.largeIcon = nextStringOrBytes(in);
+          break;
+        case LARGE_ICON_BITMAP_SOURCE:
+          details.largeIconBitmapSource = nextEnum(in, BitmapSource.class);
+          break;
+        case ONLY_ALERT_ONCE:
+          details.onlyAlertOnce = nextBoolean(in);
+          break;
+        case SHOW_PROGRESS:
+          details.showProgress = nextBoolean(in);
+          break;
+        case MAX_PROGRESS:
+          details.maxProgress = nextInteger(in);
+          break;
+        case PROGRESS:
+          details.progress = nextInteger(in);
+          break;
+        case INDETERMINATE:
+          details.indeterminate = nextBoolean(in);
+          break;
+        case CHANNEL_ACTION:
+          details.channelAction = nextEnum(in, NotificationChannelAction.class);
+          break;
+        case ENABLE_LIGHTS:
+          details.enableLights = nextBoolean(in);
+          break;
+        case LED_COLOR:
+          details.ledColor = nextInteger(in);
+          break;
+        case LED_ON_MS:
+          details.ledOnMs = nextInteger(in);
+          break;
+        case LED_OFF_MS:
+          details.ledOffMs = nextInteger(in);
+          break;
+        case TICKER:
+          details.ticker = nextString(in);
+          break;
+        case VISIBILITY:
+          details.visibility = nextInteger(in);
+          break;
+        case SCHEDULE_MODE:
+        case ALLOW_WHILE_IDLE:
+          details.scheduleMode = readScheduleMode(in);
+          break;
+        case TIMEOUT_AFTER:
+          details.timeoutAfter = nextLong(in);
+          break;
+        case CATEGORY:
+          details.category = nextString(in);
+          break;
+        case ADDITIONAL_FLAGS:
+          details.additionalFlags = nextIntArray(in);
+          break;
+        case SHOW_WHEN:
+          details.showWhen = nextBoolean(in);
+          break;
+        case USES_CHRONOMETER:
+          details.usesChronometer = nextBoolean(in);
+          break;
+        case CHRONOMETER_COUNT_DOWN:
+          details.chronometerCountDown = nextBoolean(in);
+          break;
+        case SCHEDULED_DATE_TIME:
+          details.scheduledDateTime = nextString(in);
+          break;
+        case TIME_ZONE_NAME:
+          details.timeZoneName = nextString(in);
+          break;
+        case SCHEDULED_NOTIFICATION_REPEAT_FREQUENCY:
+          details.scheduledNotificationRepeatFrequency =
+              nextEnum(in, ScheduledNotificationRepeatFrequency.class);
+          break;
+        case MATCH_DATE_TIME_COMPONENTS:
+          details.matchDateTimeComponents = nextEnum(in, DateTimeComponents.class);
+          break;
+        case RECURRENCE_RULE:
+          details.recurrenceRule = readRecurrenceRule(in);
+          break;
+        case WHEN:
+          details.when = nextLong(in);
+          break;
+        case FULL_SCREEN_INTENT:
+          details.fullScreenIntent = nextBoolean(in);
+          break;
+        case DISMISS_ISOLATE:
+          details.dismissIsolate = nextInteger(in);
+          break;
+        case SHORTCUT_ID:
+          details.shortcutId = nextString(in);
+          break;
+        case SUB_TEXT:
+          details.subText = nextString(in);
+          break;
+        case ACTIONS:
+          details.actions = readActions(in);
+          break;
+        case TAG:
+          details.tag = nextString(in);
+          break;
+        case COLORIZED:
+          details.colorized = nextBoolean(in);
+          break;
+        case NUMBER:
+          details.number = nextInteger(in);
+          break;
+        case AUDIO_ATTRIBUTES_USAGE:
+          details.audioAttributesUsage = nextInteger(in);
+          break;
+        case ICON_RESOURCE_ID:
+          details.iconResourceId = nextInteger(in);
+          break;
+        case RECORD_VERSION:
+          details.recordVersion = nextLong(in);
+          break;
+        default:
+          in.skipValue();
+      }
+    }
+    in.endObject();
+    return details;
+  }
+
+  private static Time readTime(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    Time time = new Time();
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case HOUR:
+          time.hour = nextInteger(in);
+          break;
+        case MINUTE:
+          time.minute = nextInteger(in);
+          break;
+        case SECOND:
+          time.second = nextInteger(in);
+          break;
+        default:
+          in.skipValue();
+      }
+    }
+    in.endObject();
+    return time;
+  }
+
+  private static RecurrenceRule readRecurrenceRule(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    RecurrenceRule recurrenceRule = new RecurrenceRule();
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case FREQUENCY:
+          recurrenceRule.frequency = nextEnum(in, RecurrenceFrequency.class);
+          break;
+        case INTERVAL:
+          recurrenceRule.interval = nextInteger(in);
+          break;
+        case BY_DAY:
+          recurrenceRule.byDay = nextStringList(in);
+          break;
+        case BY_MONTH_DAY:
+          recurrenceRule.byMonthDay = nextIntArray(in);
+          break;
+        case BY_SET_POS:
+          recurrenceRule.bySetPos = nextIntArray(in);
+          break;
+        case COUNT:
+          recurrenceRule.count = nextInteger(in);
+          break;
+        case UNTIL:
+          recurrenceRule.until = nextLong(in);
+          break;
+        default:
+          in.skipValue();
+      }
+    }
+    in.endObject();
+    return recurrenceRule;
+  }
+
+  // Older versions of the plugin saved whether the notification was allowed to be shown whilst
+  // the device was idle as a boolean. See ScheduleMode.Deserializer
+  private static ScheduleMode readScheduleMode(JsonReader in) throws IOException {
+    switch (in.peek()) {
+      case NULL:
+        in.nextNull();
+        return null;
+      case BOOLEAN:
+        return in.nextBoolean() ? ScheduleMode.exactAllowWhileIdle : ScheduleMode.exact;
+      default:
+        String value = in.nextString();
+        try {
+          return ScheduleMode.valueOf(value);
+        } catch (IllegalArgumentException e) {
+          return Boolean.parseBoolean(value)
+              ? ScheduleMode.exactAllowWhileIdle
+              : ScheduleMode.exact;
+        }
+    }
+  }
+
+  private List<NotificationAction> readActions(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    List<NotificationAction> actions = new ArrayList<>();
+    in.beginArray();
+    while (in.hasNext()) {
+      actions.add(notificationActionAdapter.read(in));
+    }
+    in.endArray();
+    return actions;
+  }
+}
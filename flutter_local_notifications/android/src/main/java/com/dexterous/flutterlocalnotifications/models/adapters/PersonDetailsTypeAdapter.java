@@ -0,0 +1,90 @@
+package com.dexterous.flutterlocalnotifications.models.adapters;
+
+import static com.dexterous.flutterlocalnotifications.models.adapters.JsonValues.nextBoolean;
+import static com.dexterous.flutterlocalnotifications.models.adapters.JsonValues.nextEnum;
+import static com.dexterous.flutterlocalnotifications.models.adapters.JsonValues.nextString;
+import static com.dexterous.flutterlocalnotifications.models.adapters.JsonValues.nextStringOrBytes;
+import static com.dexterous.flutterlocalnotifications.models.adapters.JsonValues.writeField;
+import static com.dexterous.flutterlocalnotifications.models.adapters.JsonValues.writeStringOrBytes;
+
+import com.dexterous.flutterlocalnotifications.models.IconSource;
+import com.dexterous.flutterlocalnotifications.models.PersonDetails;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/** Reads and writes {@link PersonDetails} without relying on reflection. */
+public class PersonDetailsTypeAdapter extends TypeAdapter<PersonDetails> {
+  private static final String BOT = "bot";
+  private static final String ICON = "icon";
+  private static final String ICON_BITMAP_SOURCE = "iconBitmapSource";
+  private static final String IMPORTANT = "important";
+  private static final String KEY = "key";
+  private static final String NAME = "name";
+  private static final String URI = "uri";
+
+  @Override
+  public void write(JsonWriter out, PersonDetails person) throws IOException {
+    if (person == null) {
+      out.nullValue();
+      return;
+    }
+    out.beginObject();
+    writeField(out, BOT, person.bot);
+    writeStringOrBytes(out, ICON, person.icon);
+    writeField(out, ICON_BITMAP_SOURCE, person.iconBitmapSource);
+    writeField(out, IMPORTANT, person.important);
+    writeField(out, KEY, person.key);
+    writeField(out, NAME, person.name);
+    writeField(out, URI, person.uri);
+    out.endObject();
+  }
+
+  @Override
+  public PersonDetails read(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    Boolean bot = null;
+    Object icon = null;
+    IconSource iconBitmapSource = null;
+    Boolean important = null;
+    String key = null;
+    String name = null;
+    String uri = null;
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case BOT:
+          bot = nextBoolean(in);
+          break;
+        case ICON:
+          icon = nextStringOrBytes(in);
+          break;
+        case ICON_BITMAP_SOURCE:
+          iconBitmapSource = nextEnum(in, IconSource.class);
+          break;
+        case IMPORTANT:
+          important = nextBoolean(in);
+          break;
+        case KEY:
+          key = nextString(in);
+          break;
+        case NAME:
+          name = nextString(in);
+          break;
+        case URI:
+          uri = nextString(in);
+          break;
+        default:
+          in.skipValue();
+      }
+    }
+    in.endObject();
+    return new PersonDetails(bot, icon, iconBitmapSource, important, key, name, uri);
+  }
+}
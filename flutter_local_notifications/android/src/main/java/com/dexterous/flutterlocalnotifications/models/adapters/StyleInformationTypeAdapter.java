@@ -0,0 +1,357 @@
+package com.dexterous.flutterlocalnotifications.models.adapters;
+
+import static com.dexterous.flutterlocalnotifications.models.adapters.JsonValues.nextBoolean;
+import static com.dexterous.flutterlocalnotifications.models.adapters.JsonValues.nextEnum;
+import static com.dexterous.flutterlocalnotifications.models.adapters.JsonValues.nextLong;
+import static com.dexterous.flutterlocalnotifications.models.adapters.JsonValues.nextString;
+import static com.dexterous.flutterlocalnotifications.models.adapters.JsonValues.nextStringList;
+import static com.dexterous.flutterlocalnotifications.models.adapters.JsonValues.nextStringOrBytes;
+import static com.dexterous.flutterlocalnotifications.models.adapters.JsonValues.writeField;
+import static com.dexterous.flutterlocalnotifications.models.adapters.JsonValues.writeStringOrBytes;
+
+import com.dexterous.flutterlocalnotifications.models.BitmapSource;
+import com.dexterous.flutterlocalnotifications.models.MessageDetails;
+import com.dexterous.flutterlocalnotifications.models.PersonDetails;
+import com.dexterous.flutterlocalnotifications.models.styles.BigPictureStyleInformation;
+import com.dexterous.flutterlocalnotifications.models.styles.BigTextStyleInformation;
+import com.dexterous.flutterlocalnotifications.models.styles.DefaultStyleInformation;
+import com.dexterous.flutterlocalnotifications.models.styles.InboxStyleInformation;
+import com.dexterous.flutterlocalnotifications.models.styles.MessagingStyleInformation;
+import com.dexterous.flutterlocalnotifications.models.styles.StyleInformation;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * Reads and writes the subclasses of {@link StyleInformation} without relying on reflection.
+ *
+ * <p>The subclass is identified by a {@code type} property holding its simple name. This is the
+ * same format as the one produced by the {@code RuntimeTypeAdapterFactory} that was previously
+ * used, so that notifications saved by older versions of the plugin can still be read.
+ */
+public class StyleInformationTypeAdapter extends TypeAdapter<StyleInformation> {
+  private static final String TYPE = "type";
+
+  private static final String HTML_FORMAT_TITLE = "htmlFormatTitle";
+  private static final String HTML_FORMAT_BODY = "htmlFormatBody";
+  private static final String BIG_TEXT = "bigText";
+  private static final String HTML_FORMAT_BIG_TEXT = "htmlFormatBigText";
+  private static final String CONTENT_TITLE = "contentTitle";
+  private static final String HTML_FORMAT_CONTENT_TITLE = "htmlFormatContentTitle";
+  private static final String SUMMARY_TEXT = "summaryText";
+  private static final String HTML_FORMAT_SUMMARY_TEXT = "htmlFormatSummaryText";
+  private static final String LARGE_ICON = "largeIcon";
+  private static final String LARGE_ICON_BITMAP_SOURCE = "largeIconBitmapSource";
+  private static final String BIG_PICTURE = "bigPicture";
+  private static final String BIG_PICTURE_BITMAP_SOURCE = "bigPictureBitmapSource";
+  private static final String HIDE_EXPANDED_LARGE_ICON = "hideExpandedLargeIcon";
+  private static final String SHOW_BIG_PICTURE_WHEN_COLLAPSED = "showBigPictureWhenCollapsed";
+  private static final String HTML_FORMAT_LINES = "htmlFormatLines";
+  private static final String LINES = "lines";
+  private static final String PERSON = "person";
+  private static final String CONVERSATION_TITLE = "conversationTitle";
+  private static final String GROUP_CONVERSATION = "groupConversation";
+  private static final String MESSAGES = "messages";
+
+  private static final String TEXT = "text";
+  private static final String TIMESTAMP = "timestamp";
+  private static final String DATA_MIME_TYPE = "dataMimeType";
+  private static final String DATA_URI = "dataUri";
+
+  private final PersonDetailsTypeAdapter personDetailsAdapter = new PersonDetailsTypeAdapter();
+
+  @Override
+  public void write(JsonWriter out, StyleInformation styleInformation) throws IOException {
+    if (styleInformation == null) {
+      out.nullValue();
+      return;
+    }
+    out.beginObject();
+    out.name(TYPE).value(styleInformation.getClass().getSimpleName());
+    if (styleInformation instanceof BigTextStyleInformation) {
+      BigTextStyleInformation bigTextStyleInformation =
+          (BigTextStyleInformation) styleInformation;
+      writeField(out, BIG_TEXT, bigTextStyleInformation.bigText);
+      writeField(out, HTML_FORMAT_BIG_TEXT, bigTextStyleInformation.htmlFormatBigText);
+      writeField(out, CONTENT_TITLE, bigTextStyleInformation.contentTitle);
+      writeField(out, HTML_FORMAT_CONTENT_TITLE, bigTextStyleInformation.htmlFormatContentTitle);
+      writeField(out, SUMMARY_TEXT, bigTextStyleInformation.summaryText);
+      writeField(out, HTML_FORMAT_SUMMARY_TEXT, bigTextStyleInformation.htmlFormatSummaryText);
+    } else if (styleInformation instanceof BigPictureStyleInformation) {
+      BigPictureStyleInformation bigPictureStyleInformation =
+          (BigPictureStyleInformation) styleInformation;
+      writeField(out, CONTENT_TITLE, bigPictureStyleInformation.contentTitle);
+      writeField(out, HTML_FORMAT_CONTENT_TITLE, bigPictureStyleInformation.htmlFormatContentTitle);
+      writeField(out, SUMMARY_TEXT, bigPictureStyleInformation.summaryText);
+      writeField(out, HTML_FORMAT_SUMMARY_TEXT, bigPictureStyleInformation.htmlFormatSummaryText);
+      writeStringOrBytes(out, LARGE_ICON, bigPictureStyleInformation.largeIcon);
+      writeField(out, LARGE_ICON_BITMAP_SOURCE, bigPictureStyleInformation.largeIconBitmapSource);
+      writeStringOrBytes(out, BIG_PICTURE, bigPictureStyleInformation.bigPicture);
+      writeField(out, BIG_PICTURE_BITMAP_SOURCE, bigPictureStyleInformation.bigPictureBitmapSource);
+      writeField(out, HIDE_EXPANDED_LARGE_ICON, bigPictureStyleInformation.hideExpandedLargeIcon);
+      writeField(
+          out,
+          SHOW_BIG_PICTURE_WHEN_COLLAPSED,
+          bigPictureStyleInformation.showBigPictureWhenCollapsed);
+    } else if (styleInformation instanceof InboxStyleInformation) {
+      InboxStyleInformation inboxStyleInformation = (InboxStyleInformation) styleInformation;
+      writeField(out, HTML_FORMAT_LINES, inboxStyleInformation.htmlFormatLines);
+      writeField(out, LINES, inboxStyleInformation.lines);
+      writeField(out, CONTENT_TITLE, inboxStyleInformation.contentTitle);
+      writeField(out, HTML_FORMAT_CONTENT_TITLE, inboxStyleInformation.htmlFormatContentTitle);
+      writeField(out, SUMMARY_TEXT, inboxStyleInformation.summaryText);
+      writeField(out, HTML_FORMAT_SUMMARY_TEXT, inboxStyleInformation.htmlFormatSummaryText);
+    } else if (styleInformation instanceof MessagingStyleInformation) {
+      MessagingStyleInformation messagingStyleInformation =
+          (MessagingStyleInformation) styleInformation;
+      if (messagingStyleInformation.person != null) {
+        out.name(PERSON);
+        personDetailsAdapter.write(out, messagingStyleInformation.person);
+      }
+      writeField(out, CONVERSATION_TITLE, messagingStyleInformation.conversationTitle);
+      writeField(out, GROUP_CONVERSATION, messagingStyleInformation.groupConversation);
+      if (messagingStyleInformation.messages != null) {
+        out.name(MESSAGES).beginArray();
+        for (MessageDetails message : messagingStyleInformation.messages) {
+          writeMessage(out, message);
+        }
+        out.endArray();
+      }
+    } else if (!(styleInformation instanceof DefaultStyleInformation)) {
+      throw new JsonParseException(
+          "Cannot serialize " + styleInformation.getClass().getName() + " as it isn't registered");
+    }
+    DefaultStyleInformation defaultStyleInformation = (DefaultStyleInformation) styleInformation;
+    writeField(out, HTML_FORMAT_TITLE, defaultStyleInformation.htmlFormatTitle);
+    writeField(out, HTML_FORMAT_BODY, defaultStyleInformation.htmlFormatBody);
+    out.endObject();
+  }
+
+  @Override
+  public StyleInformation read(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    // properties can appear in any order so the values are gathered before the type is known
+    String type = null;
+    Boolean htmlFormatTitle = null;
+    Boolean htmlFormatBody = null;
+    String bigText = null;
+    Boolean htmlFormatBigText = null;
+    String contentTitle = null;
+    Boolean htmlFormatContentTitle = null;
+    String summaryText = null;
+    Boolean htmlFormatSummaryText = null;
+    Object largeIcon = null;
+    BitmapSource largeIconBitmapSource = null;
+    Object bigPicture = null;
+    BitmapSource bigPictureBitmapSource = null;
+    Boolean hideExpandedLargeIcon = null;
+    Boolean showBigPictureWhenCollapsed = null;
+    Boolean htmlFormatLines = null;
+    ArrayList<String> lines = null;
+    PersonDetails person = null;
+    String conversationTitle = null;
+    Boolean groupConversation = null;
+    ArrayList<MessageDetails> messages = null;
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case TYPE:
+          type = nextString(in);
+          break;
+        case HTML_FORMAT_TITLE:
+          htmlFormatTitle = nextBoolean(in);
+          break;
+        case HTML_FORMAT_BODY:
+          htmlFormatBody = nextBoolean(in);
+          break;
+        case BIG_TEXT:
+          bigText = nextString(in);
+          break;
+        case HTML_FORMAT_BIG_TEXT:
+          htmlFormatBigText = nextBoolean(in);
+          break;
+        case CONTENT_TITLE:
+          contentTitle = nextString(in);
+          break;
+        case HTML_FORMAT_CONTENT_TITLE:
+          htmlFormatContentTitle = nextBoolean(in);
+          break;
+        case SUMMARY_TEXT:
+          summaryText = nextString(in);
+          break;
+        case HTML_FORMAT_SUMMARY_TEXT:
+          htmlFormatSummaryText = nextBoolean(in);
+          break;
+        case LARGE_ICON:
+          largeIcon = nextStringOrBytes(in);
+          break;
+        case LARGE_ICON_BITMAP_SOURCE:
+          largeIconBitmapSource = nextEnum(in, BitmapSource.class);
+          break;
+        case BIG_PICTURE:
+          bigPicture = nextStringOrBytes(in);
+          break;
+        case BIG_PICTURE_BITMAP_SOURCE:
+          bigPictureBitmapSource = nextEnum(in, BitmapSource.class);
+          break;
+        case HIDE_EXPANDED_LARGE_ICON:
+          hideExpandedLargeIcon = nextBoolean(in);
+          break;
+        case SHOW_BIG_PICTURE_WHEN_COLLAPSED:
+          showBigPictureWhenCollapsed = nextBoolean(in);
+          break;
+        case HTML_FORMAT_LINES:
+          htmlFormatLines = nextBoolean(in);
+          break;
+        case LINES:
+          lines = nextStringList(in);
+          break;
+        case PERSON:
+          person = personDetailsAdapter.read(in);
+          break;
+        case CONVERSATION_TITLE:
+          conversationTitle = nextString(in);
+          break;
+        case GROUP_CONVERSATION:
+          groupConversation = nextBoolean(in);
+          break;
+        case MESSAGES:
+          messages = readMessages(in);
+          break;
+        default:
+          in.skipValue();
+      }
+    }
+    in.endObject();
+    if (type == null) {
+      throw new JsonParseException(
+          "Cannot deserialize StyleInformation because it does not define a field named " + TYPE);
+    }
+    switch (type) {
+      case "DefaultStyleInformation":
+        return new DefaultStyleInformation(htmlFormatTitle, htmlFormatBody);
+      case "BigTextStyleInformation":
+        return new BigTextStyleInformation(
+            htmlFormatTitle,
+            htmlFormatBody,
+            bigText,
+            htmlFormatBigText,
+            contentTitle,
+            htmlFormatContentTitle,
+            summaryText,
+            htmlFormatSummaryText);
+      case "BigPictureStyleInformation":
+        return new BigPictureStyleInformation(
+            htmlFormatTitle,
+            htmlFormatBody,
+            contentTitle,
+            htmlFormatContentTitle,
+            summaryText,
+            htmlFormatSummaryText,
+            largeIcon,
+            largeIconBitmapSource,
+            bigPicture,
+            bigPictureBitmapSource,
+            hideExpandedLargeIcon,
+            showBigPictureWhenCollapsed);
+      case "InboxStyleInformation":
+        return new InboxStyleInformation(
+            htmlFormatTitle,
+            htmlFormatBody,
+            contentTitle,
+            htmlFormatContentTitle,
+            summaryText,
+            htmlFormatSummaryText,
+            lines,
+            htmlFormatLines);
+      case "MessagingStyleInformation":
+        return new MessagingStyleInformation(
+            person,
+            conversationTitle,
+            groupConversation,
+            messages,
+            htmlFormatTitle,
+            htmlFormatBody);
+      default:
+        throw new JsonParseException(
+            "Cannot deserialize StyleInformation subtype named "
+                + type
+                + "; did you forget to register a subtype?");
+    }
+  }
+
+  private void writeMessage(JsonWriter out, MessageDetails message) throws IOException {
+    if (message == null) {
+      out.nullValue();
+      return;
+    }
+    out.beginObject();
+    writeField(out, TEXT, message.text);
+    writeField(out, TIMESTAMP, message.timestamp);
+    if (message.person != null) {
+      out.name(PERSON);
+      personDetailsAdapter.write(out, message.person);
+    }
+    writeField(out, DATA_MIME_TYPE, message.dataMimeType);
+    writeField(out, DATA_URI, message.dataUri);
+    out.endObject();
+  }
+
+  private ArrayList<MessageDetails> readMessages(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    ArrayList<MessageDetails> messages = new ArrayList<>();
+    in.beginArray();
+    while (in.hasNext()) {
+      messages.add(readMessage(in));
+    }
+    in.endArray();
+    return messages;
+  }
+
+  private MessageDetails readMessage(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    String text = null;
+    Long timestamp = null;
+    PersonDetails person = null;
+    String dataMimeType = null;
+    String dataUri = null;
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case TEXT:
+          text = nextString(in);
+          break;
+        case TIMESTAMP:
+          timestamp = nextLong(in);
+          break;
+        case PERSON:
+          person = personDetailsAdapter.read(in);
+          break;
+        case DATA_MIME_TYPE:
+          dataMimeType = nextString(in);
+          break;
+        case DATA_URI:
+          dataUri = nextString(in);
+          break;
+        default:
+          in.skipValue();
+      }
+    }
+    in.endObject();
+    return new MessageDetails(text, timestamp, person, dataMimeType, dataUri);
+  }
+}
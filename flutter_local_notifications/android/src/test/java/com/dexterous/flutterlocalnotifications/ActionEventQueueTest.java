@@ -0,0 +1,117 @@
+package com.dexterous.flutterlocalnotifications;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import androidx.test.core.app.ApplicationProvider;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class ActionEventQueueTest {
+  private Context context;
+  private File file;
+
+  @Before
+  public void before() {
+    context = ApplicationProvider.getApplicationContext();
+    ActionEventQueue.resetInstance();
+    file = new File(context.getNoBackupFilesDir(), "flutter_local_notifications/action_events");
+  }
+
+  @Test
+  public void append_keepsActionsInOrderAcrossRestarts() {
+    ActionEventQueue.getInstance(context).append(createAction(1));
+    ActionEventQueue.getInstance(context).append(createAction(2));
+
+    ActionEventQueue.resetInstance();
+    final List<ActionEventQueue.Event> events =
+        ActionEventQueue.getInstance(context).getEventsAfter(0);
+
+    assertEquals(2, events.size());
+    assertEquals(1, events.get(0).sequence);
+    assertEquals(createAction(1), events.get(0).action);
+    assertNull(events.get(0).action.get("input"));
+    assertTrue(events.get(0).action.containsKey("input"));
+    assertEquals(2, events.get(1).sequence);
+    assertEquals(createAction(2), events.get(1).action);
+    assertEquals(3, ActionEventQueue.getInstance(context).append(createAction(3)).sequence);
+  }
+
+  @Test
+  public void acknowledge_removesActionsUpToSequenceAcrossRestarts() {
+    final ActionEventQueue queue = ActionEventQueue.getInstance(context);
+    for (int id = 1; id <= 3; id++) {
+      queue.append(createAction(id));
+    }
+    queue.acknowledge(2);
+
+    ActionEventQueue.resetInstance();
+    final List<ActionEventQueue.Event> events =
+        ActionEventQueue.getInstance(context).getEventsAfter(0);
+
+    assertEquals(1, events.size());
+    assertEquals(3, events.get(0).sequence);
+    assertEquals(0, ActionEventQueue.getInstance(context).getEventsAfter(3).size());
+    ActionEventQueue.getInstance(context).acknowledge(3);
+    assertTrue(ActionEventQueue.getInstance(context).isEmpty());
+    assertFalse(file.exists());
+  }
+
+  @Test
+  public void load_ignoresActionThatWasPartiallySaved() throws IOException {
+    ActionEventQueue.getInstance(context).append(createAction(1));
+    ActionEventQueue.getInstance(context).append(createAction(2));
+    try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+      randomAccessFile.setLength(randomAccessFile.length() - 3);
+    }
+
+    ActionEventQueue.resetInstance();
+    ActionEventQueue.getInstance(context).append(createAction(3));
+    ActionEventQueue.resetInstance();
+    final List<ActionEventQueue.Event> events =
+        ActionEventQueue.getInstance(context).getEventsAfter(0);
+
+    assertEquals(2, events.size());
+    assertEquals(createAction(1), events.get(0).action);
+    assertEquals(2, events.get(1).sequence);
+    assertEquals(createAction(3), events.get(1).action);
+  }
+
+  @Test
+  public void append_dropsOldestActionsOnceFull() {
+    final ActionEventQueue queue = ActionEventQueue.getInstance(context);
+    for (int id = 1; id <= ActionEventQueue.MAX_EVENTS + 5; id++) {
+      queue.append(createAction(id));
+    }
+
+    ActionEventQueue.resetInstance();
+    final List<ActionEventQueue.Event> events =
+        ActionEventQueue.getInstance(context).getEventsAfter(0);
+
+    assertEquals(ActionEventQueue.MAX_EVENTS, events.size());
+    assertEquals(6, events.get(0).sequence);
+    assertEquals(ActionEventQueue.MAX_EVENTS + 5, events.get(events.size() - 1).sequence);
+  }
+
+  private static Map<String, Object> createAction(int id) {
+    final Map<String, Object> action = new HashMap<>();
+    action.put("notificationId", id);
+    action.put("actionId", "action " + id);
+    action.put("payload", "payload " + id);
+    action.put("input", null);
+    action.put("notificationResponseType", 1);
+    return action;
+  }
+}
@@ -0,0 +1,186 @@
+package com.dexterous.flutterlocalnotifications;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.AlarmManager;
+import android.content.Context;
+import android.content.Intent;
+import androidx.test.core.app.ApplicationProvider;
+import com.dexterous.flutterlocalnotifications.models.NotificationDetails;
+import com.dexterous.flutterlocalnotifications.models.RecurrenceFrequency;
+import com.dexterous.flutterlocalnotifications.models.RecurrenceRule;
+import com.dexterous.flutterlocalnotifications.models.ScheduledNotificationRepeatFrequency;
+import io.flutter.embedding.engine.plugins.FlutterPlugin.FlutterPluginBinding;
+import io.flutter.plugin.common.BinaryMessenger;
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel.Result;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowAlarmManager;
+import org.robolectric.shadows.ShadowAlarmManager.ScheduledAlarm;
+
+@RunWith(RobolectricTestRunner.class)
+public class AlarmDispatcherTest {
+  private static final long MINUTE = 60000;
+
+  private Context context;
+  private FlutterLocalNotificationsPlugin plugin;
+  private long now;
+
+  @Before
+  public void before() {
+    context = ApplicationProvider.getApplicationContext();
+    ScheduledNotificationStore.resetInstance();
+    ShadowAlarmManager.setCanScheduleExactAlarms(true);
+    FlutterPluginBinding binding = mock(FlutterPluginBinding.class);
+    when(binding.getApplicationContext()).thenReturn(context);
+    when(binding.getBinaryMessenger()).thenReturn(mock(BinaryMessenger.class));
+    plugin = new FlutterLocalNotificationsPlugin();
+    plugin.onAttachedToEngine(binding);
+    context
+        .getSharedPreferences("notification_plugin_cache", Context.MODE_PRIVATE)
+        .edit()
+        .putBoolean("useAlarmDispatcher", true)
+        .commit();
+    now = System.currentTimeMillis() / 1000 * 1000;
+  }
+
+  @Test
+  public void zonedSchedule_setsSingleAlarmForNextTime() {
+    for (int id = 1; id <= 3; id++) {
+      zonedSchedule(id, now + 10 * MINUTE);
+    }
+    zonedSchedule(4, now + 20 * MINUTE);
+    zonedSchedule(5, now + 20 * MINUTE);
+
+    final List<ScheduledAlarm> alarms = getScheduledAlarms();
+    assertEquals(1, alarms.size());
+    assertEquals(
+        AlarmDispatcher.ACTION_DISPATCH,
+        shadowOf(alarms.get(0).operation).getSavedIntent().getAction());
+    assertEquals(now + 10 * MINUTE, alarms.get(0).getTriggerAtMs());
+  }
+
+  @Test
+  public void dispatch_updatesDueNotificationsAndSetsAlarmForNextTime() {
+    final ScheduledNotificationStore store = ScheduledNotificationStore.getInstance(context);
+    AlarmDispatcher.arm(context);
+    final NotificationDetails daily = createNotificationDetails(3, now - 1000);
+    daily.scheduledNotificationRepeatFrequency = ScheduledNotificationRepeatFrequency.Daily;
+    store.putAll(
+        Arrays.asList(
+            createNotificationDetails(1, now - 1000),
+            createNotificationDetails(2, now - 1000),
+            daily,
+            createNotificationDetails(4, now + 20 * MINUTE)));
+
+    new ScheduledNotificationReceiver()
+        .onReceive(context, new Intent(AlarmDispatcher.ACTION_DISPATCH));
+
+    assertNull(store.get(1));
+    assertNull(store.get(2));
+    assertEquals(
+        toLocalDateTime(now - 1000).plusDays(1),
+        LocalDateTime.parse(store.get(3).scheduledDateTime));
+    final List<ScheduledAlarm> alarms = getScheduledAlarms();
+    assertEquals(1, alarms.size());
+    assertEquals(now + 20 * MINUTE, alarms.get(0).getTriggerAtMs());
+  }
+
+  @Test
+  public void dispatch_removesRecurringNotificationOnceCountIsReached() {
+    final ScheduledNotificationStore store = ScheduledNotificationStore.getInstance(context);
+    AlarmDispatcher.arm(context);
+    final NotificationDetails recurring = createNotificationDetails(1, now - 1000);
+    recurring.recurrenceRule = new RecurrenceRule();
+    recurring.recurrenceRule.frequency = RecurrenceFrequency.Daily;
+    recurring.recurrenceRule.count = 2;
+    store.put(recurring);
+
+    new ScheduledNotificationReceiver()
+        .onReceive(context, new Intent(AlarmDispatcher.ACTION_DISPATCH));
+
+    assertEquals(1, (int) store.get(1).recurrenceRule.count);
+    assertEquals(
+        toLocalDateTime(now - 1000).plusDays(1),
+        LocalDateTime.parse(store.get(1).scheduledDateTime));
+
+    final NotificationDetails nextOccurrence = store.get(1);
+    nextOccurrence.scheduledDateTime = toLocalDateTime(System.currentTimeMillis()).toString();
+    store.put(nextOccurrence);
+    new ScheduledNotificationReceiver()
+        .onReceive(context, new Intent(AlarmDispatcher.ACTION_DISPATCH));
+
+    assertNull(store.get(1));
+  }
+
+  @Test
+  public void getDue_onlyIncludesRepeatingNotificationsDueSinceLastDispatch() {
+    final ScheduledNotificationStore store = ScheduledNotificationStore.getInstance(context);
+    final NotificationDetails repeating = createNotificationDetails(1, now);
+    repeating.millisecondsSinceEpoch = null;
+    repeating.timeZoneName = null;
+    repeating.repeatIntervalMilliseconds = 60000;
+    repeating.calledAt = now - 10 * MINUTE;
+    store.put(repeating);
+    AlarmDispatcher.arm(context);
+
+    assertEquals(0, store.getDue(AlarmDispatcher.getLastDispatchTime(context), now).size());
+    assertEquals(1, store.getDue(now - MINUTE / 2, now).size());
+    assertTrue(getScheduledAlarms().get(0).getTriggerAtMs() > now);
+  }
+
+  private void zonedSchedule(int id, long epochMilli) {
+    final Map<String, Object> arguments = new HashMap<>();
+    arguments.put("id", id);
+    arguments.put("title", "title " + id);
+    arguments.put("body", "body " + id);
+    arguments.put("payload", "");
+    arguments.put("timeZoneName", "UTC");
+    arguments.put("scheduledDateTime", toLocalDateTime(epochMilli).toString());
+    plugin.onMethodCall(new MethodCall("zonedSchedule", arguments), new EmptyResult());
+  }
+
+  private static NotificationDetails createNotificationDetails(int id, long epochMilli) {
+    final NotificationDetails notificationDetails = new NotificationDetails();
+    notificationDetails.id = id;
+    notificationDetails.title = "title " + id;
+    notificationDetails.timeZoneName = "UTC";
+    notificationDetails.scheduledDateTime = toLocalDateTime(epochMilli).toString();
+    return notificationDetails;
+  }
+
+  private static LocalDateTime toLocalDateTime(long epochMilli) {
+    return LocalDateTime.ofEpochSecond(epochMilli / 1000, 0, ZoneOffset.UTC);
+  }
+
+  private List<ScheduledAlarm> getScheduledAlarms() {
+    final AlarmManager alarmManager =
+        (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+    return shadowOf(alarmManager).getScheduledAlarms();
+  }
+
+  private static class EmptyResult implements Result {
+    @Override
+    public void success(Object result) {}
+
+    @Override
+    public void error(String errorCode, String errorMessage, Object errorDetails) {}
+
+    @Override
+    public void notImplemented() {}
+  }
+}
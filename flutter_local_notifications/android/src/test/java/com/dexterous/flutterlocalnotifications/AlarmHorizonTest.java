@@ -0,0 +1,204 @@
+package com.dexterous.flutterlocalnotifications;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.AlarmManager;
+import android.content.Context;
+import androidx.test.core.app.ApplicationProvider;
+import io.flutter.embedding.engine.plugins.FlutterPlugin.FlutterPluginBinding;
+import io.flutter.plugin.common.BinaryMessenger;
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel.Result;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowAlarmManager;
+import org.robolectric.shadows.ShadowAlarmManager.ScheduledAlarm;
+
+@RunWith(RobolectricTestRunner.class)
+public class AlarmHorizonTest {
+  private static final long MINUTE = 60000;
+
+  private Context context;
+  private FlutterLocalNotificationsPlugin plugin;
+  private long now;
+
+  @Before
+  public void before() {
+    context = ApplicationProvider.getApplicationContext();
+    ScheduledNotificationStore.resetInstance();
+    AlarmHorizon.clear();
+    ShadowAlarmManager.setCanScheduleExactAlarms(true);
+    FlutterPluginBinding binding = mock(FlutterPluginBinding.class);
+    when(binding.getApplicationContext()).thenReturn(context);
+    when(binding.getBinaryMessenger()).thenReturn(mock(BinaryMessenger.class));
+    plugin = new FlutterLocalNotificationsPlugin();
+    plugin.onAttachedToEngine(binding);
+    now = System.currentTimeMillis();
+  }
+
+  @Test
+  public void zonedSchedule_onlySetsAlarmsForSoonestNotifications() {
+    setMaxScheduledAlarms(3);
+
+    for (int id : new int[] {5, 1, 4, 2, 3, 6}) {
+      zonedSchedule(id, now + id * 10 * MINUTE);
+    }
+
+    assertEquals(6, ScheduledNotificationStore.getInstance(context).getAll().size());
+    assertEquals(new HashSet<>(Arrays.asList(1, 2, 3)), getNotificationAlarmIds());
+    assertEquals(new HashSet<>(Arrays.asList(1, 2, 3)), AlarmHorizon.getArmedIds(context));
+    // the refill is due once half of the alarms have gone off
+    assertEquals(now + 20 * MINUTE, getRefillAlarm().getTriggerAtMs(), 1000);
+  }
+
+  @Test
+  public void cancel_setsAlarmForNextNotification() {
+    setMaxScheduledAlarms(2);
+    for (int id = 1; id <= 4; id++) {
+      zonedSchedule(id, now + id * 10 * MINUTE);
+    }
+
+    cancel(1);
+
+    assertEquals(new HashSet<>(Arrays.asList(2, 3)), getNotificationAlarmIds());
+    zonedSchedule(5, now + 5 * MINUTE);
+    assertEquals(new HashSet<>(Arrays.asList(5, 2)), getNotificationAlarmIds());
+  }
+
+  @Test
+  public void update_onlySetsAlarmsWithinHorizon() {
+    setScheduledAlarmHorizon(60 * MINUTE);
+
+    zonedSchedule(1, now + 30 * MINUTE);
+    zonedSchedule(2, now + 120 * MINUTE);
+    zonedSchedule(3, now + 180 * MINUTE);
+
+    assertEquals(new HashSet<>(Arrays.asList(1)), getNotificationAlarmIds());
+    // the refill is due when the next notification is half of the horizon away
+    assertEquals(now + 90 * MINUTE, getRefillAlarm().getTriggerAtMs(), 1000);
+
+    cancel(2);
+    cancel(3);
+    assertNull(getRefillAlarm());
+  }
+
+  @Test
+  public void resetAlarms_setsAlarmForEveryNotificationWhenOptedOut() {
+    setMaxScheduledAlarms(1);
+    for (int id = 1; id <= 3; id++) {
+      zonedSchedule(id, now + id * 10 * MINUTE);
+    }
+    assertEquals(1, getNotificationAlarmIds().size());
+
+    setMaxScheduledAlarms(0);
+    FlutterLocalNotificationsPlugin.resetAlarms(context);
+
+    assertEquals(new HashSet<>(Arrays.asList(1, 2, 3)), getNotificationAlarmIds());
+    assertTrue(AlarmHorizon.getArmedIds(context).isEmpty());
+    assertNull(getRefillAlarm());
+  }
+
+  @Test
+  public void refill_setsAlarmsForNotificationsNowWithinHorizon() {
+    setMaxScheduledAlarms(1);
+    for (int id = 1; id <= 3; id++) {
+      zonedSchedule(id, now + id * 10 * MINUTE);
+    }
+    ScheduledNotificationStore.getInstance(context).remove(1);
+    ScheduledAlarm refillAlarm = getRefillAlarm();
+    assertNotNull(refillAlarm);
+
+    new ScheduledNotificationReceiver()
+        .onReceive(context, shadowOf(refillAlarm.operation).getSavedIntent());
+
+    assertEquals(new HashSet<>(Arrays.asList(2)), getNotificationAlarmIds());
+  }
+
+  private void setMaxScheduledAlarms(int maxScheduledAlarms) {
+    context
+        .getSharedPreferences("notification_plugin_cache", Context.MODE_PRIVATE)
+        .edit()
+        .putInt("maxScheduledAlarms", maxScheduledAlarms)
+        .commit();
+  }
+
+  private void setScheduledAlarmHorizon(long horizonMilliseconds) {
+    context
+        .getSharedPreferences("notification_plugin_cache", Context.MODE_PRIVATE)
+        .edit()
+        .putLong("scheduledAlarmHorizonMilliseconds", horizonMilliseconds)
+        .commit();
+  }
+
+  private void zonedSchedule(int id, long epochMilli) {
+    final Map<String, Object> arguments = new HashMap<>();
+    arguments.put("id", id);
+    arguments.put("title", "title " + id);
+    arguments.put("body", "body " + id);
+    arguments.put("payload", "");
+    arguments.put("timeZoneName", "UTC");
+    arguments.put(
+        "scheduledDateTime",
+        LocalDateTime.ofEpochSecond(epochMilli / 1000, 0, ZoneOffset.UTC).toString());
+    plugin.onMethodCall(new MethodCall("zonedSchedule", arguments), new EmptyResult());
+  }
+
+  private void cancel(int id) {
+    final Map<String, Object> arguments = new HashMap<>();
+    arguments.put("id", id);
+    plugin.onMethodCall(new MethodCall("cancel", arguments), new EmptyResult());
+  }
+
+  private HashSet<Integer> getNotificationAlarmIds() {
+    final HashSet<Integer> ids = new HashSet<>();
+    for (ScheduledAlarm alarm : getScheduledAlarms()) {
+      if (shadowOf(alarm.operation).getSavedIntent().getAction() == null) {
+        ids.add(shadowOf(alarm.operation).getRequestCode());
+      }
+    }
+    return ids;
+  }
+
+  private ScheduledAlarm getRefillAlarm() {
+    for (ScheduledAlarm alarm : getScheduledAlarms()) {
+      if (AlarmHorizon.ACTION_REFILL.equals(
+          shadowOf(alarm.operation).getSavedIntent().getAction())) {
+        return alarm;
+      }
+    }
+    return null;
+  }
+
+  private List<ScheduledAlarm> getScheduledAlarms() {
+    final AlarmManager alarmManager =
+        (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+    return new ArrayList<>(shadowOf(alarmManager).getScheduledAlarms());
+  }
+
+  private static class EmptyResult implements Result {
+    @Override
+    public void success(Object result) {}
+
+    @Override
+    public void error(String errorCode, String errorMessage, Object errorDetails) {}
+
+    @Override
+    public void notImplemented() {}
+  }
+}
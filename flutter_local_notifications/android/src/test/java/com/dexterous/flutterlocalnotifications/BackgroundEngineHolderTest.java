@@ -0,0 +1,228 @@
+package com.dexterous.flutterlocalnotifications;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.Application;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.os.Looper;
+import androidx.test.core.app.ApplicationProvider;
+import com.dexterous.flutterlocalnotifications.isolate.IsolatePreferences;
+import io.flutter.embedding.engine.FlutterEngine;
+import io.flutter.plugin.common.EventChannel.EventSink;
+import io.flutter.plugin.common.EventChannel.StreamHandler;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class BackgroundEngineHolderTest {
+  private Application context;
+  private final List<FlutterEngine> engines = new ArrayList<>();
+  private final List<Object> events = new ArrayList<>();
+  private StreamHandler actionStreamHandler;
+  private BackgroundEngineHolder holder;
+
+  @Before
+  public void before() {
+    context = ApplicationProvider.getApplicationContext();
+    ActionEventQueue.resetInstance();
+    holder = createHolder();
+  }
+
+  @Test
+  public void dispatch_reusesEngineForActionsReceivedWhilstRunning() {
+    dispatch(1);
+    dispatch(2);
+    listen();
+    dispatch(3);
+
+    assertEquals(1, engines.size());
+    assertEquals(3, events.size());
+    assertEquals(3, getId(events.get(2)));
+    assertEquals(3L, ((Map<?, ?>) events.get(2)).get(BackgroundEngineHolder.SEQUENCE));
+    final Map<String, Object> metrics = holder.getMetrics();
+    assertEquals(true, metrics.get(BackgroundEngineHolder.ENGINE_RUNNING));
+    assertEquals(1, metrics.get(BackgroundEngineHolder.ENGINE_START_COUNT));
+    assertEquals(3, metrics.get(BackgroundEngineHolder.DISPATCH_COUNT));
+  }
+
+  @Test
+  public void dispatch_passesActionsOnInBatchesWhenBatching() {
+    context
+        .getSharedPreferences("notification_plugin_cache", Context.MODE_PRIVATE)
+        .edit()
+        .putInt("notificationResponseBatchMaxSize", 2)
+        .putLong("notificationResponseBatchMaxLatencyMilliseconds", 100)
+        .commit();
+    dispatch(1);
+    listen();
+    dispatch(2);
+    assertEquals(1, events.size());
+    dispatch(3);
+    dispatch(4);
+    shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(100));
+
+    assertEquals(3, events.size());
+    assertEquals(Arrays.asList(1), getIds(events.get(0)));
+    assertEquals(Arrays.asList(2, 3), getIds(events.get(1)));
+    assertEquals(Arrays.asList(4), getIds(events.get(2)));
+    assertEquals(4, holder.getMetrics().get(BackgroundEngineHolder.DISPATCH_COUNT));
+  }
+
+  @Test
+  public void resume_passesUnacknowledgedActionsToNextEngineInOrder() {
+    dispatch(1);
+    dispatch(2);
+    dispatch(3);
+    listen();
+    acknowledge(1);
+
+    // simulates the process dying before the remaining actions were handled
+    ActionEventQueue.resetInstance();
+    holder = createHolder();
+    events.clear();
+    holder.resume(context, new IsolatePreferences(context));
+    listen();
+
+    assertEquals(2, engines.size());
+    assertEquals(2, events.size());
+    assertEquals(2, getId(events.get(0)));
+    assertEquals(3, getId(events.get(1)));
+  }
+
+  @Test
+  public void resume_doesNothingOnceActionsAreAcknowledged() {
+    holder.resume(context, new IsolatePreferences(context));
+
+    assertEquals(0, engines.size());
+  }
+
+  @Test
+  public void idleTimeout_destroysEngineUntilNextAction() {
+    setIdleTimeout(1000);
+    dispatch(1);
+    listen();
+    acknowledge(1);
+
+    shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(999));
+    verify(engines.get(0), never()).destroy();
+    shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(1));
+    verify(engines.get(0)).destroy();
+    assertEquals(false, holder.getMetrics().get(BackgroundEngineHolder.ENGINE_RUNNING));
+
+    dispatch(2);
+    listen();
+    assertEquals(2, engines.size());
+    assertEquals(2, events.size());
+    assertEquals(2, holder.getMetrics().get(BackgroundEngineHolder.ENGINE_START_COUNT));
+  }
+
+  @Test
+  public void idleTimeout_waitsForActionsToBeAcknowledged() {
+    setIdleTimeout(1000);
+    dispatch(1);
+
+    shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(1500));
+    listen();
+    shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(1500));
+    verify(engines.get(0), never()).destroy();
+    acknowledge(1);
+    shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(1000));
+    verify(engines.get(0)).destroy();
+    assertEquals(1, events.size());
+  }
+
+  @Test
+  public void onTrimMemory_destroysEngineOnceActionsAreAcknowledged() {
+    dispatch(1);
+    context.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_BACKGROUND);
+    verify(engines.get(0), never()).destroy();
+    listen();
+    context.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_BACKGROUND);
+    verify(engines.get(0), never()).destroy();
+    acknowledge(1);
+
+    context.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN);
+    verify(engines.get(0), never()).destroy();
+    context.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_BACKGROUND);
+    verify(engines.get(0)).destroy();
+    context.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+    verify(engines.get(0), times(1)).destroy();
+  }
+
+  private BackgroundEngineHolder createHolder() {
+    return
+        new BackgroundEngineHolder(
+            new BackgroundEngineHolder.EngineStarter() {
+              @Override
+              public FlutterEngine start(
+                  Context context, IsolatePreferences preferences, StreamHandler handler) {
+                actionStreamHandler = handler;
+                final FlutterEngine engine = mock(FlutterEngine.class);
+                engines.add(engine);
+                return engine;
+              }
+            });
+  }
+
+  private void dispatch(int id) {
+    holder.dispatch(
+        context,
+        Collections.<String, Object>singletonMap("id", id),
+        new IsolatePreferences(context));
+  }
+
+  private void acknowledge(long sequence) {
+    ActionEventQueue.getInstance(context).acknowledge(sequence);
+  }
+
+  private static List<Object> getIds(Object batch) {
+    final List<Object> ids = new ArrayList<>();
+    for (Object event : (List<?>) batch) {
+      ids.add(getId(event));
+    }
+    return ids;
+  }
+
+  private static Object getId(Object event) {
+    return ((Map<?, ?>) event).get("id");
+  }
+
+  private void listen() {
+    actionStreamHandler.onListen(
+        null,
+        new EventSink() {
+          @Override
+          public void success(Object event) {
+            events.add(event);
+          }
+
+          @Override
+          public void error(String errorCode, String errorMessage, Object errorDetails) {}
+
+          @Override
+          public void endOfStream() {}
+        });
+  }
+
+  private void setIdleTimeout(long milliseconds) {
+    context
+        .getSharedPreferences("notification_plugin_cache", Context.MODE_PRIVATE)
+        .edit()
+        .putLong("backgroundEngineIdleTimeoutMilliseconds", milliseconds)
+        .commit();
+  }
+}
@@ -0,0 +1,85 @@
+package com.dexterous.flutterlocalnotifications;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import android.content.ComponentCallbacks2;
+import android.graphics.Bitmap;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class BitmapCacheTest {
+  // each bitmap created by the tests takes 10 * 10 * 4 bytes
+  private static final int BITMAP_SIZE_BYTES = 400;
+  private static final BitmapTarget LARGE_ICON =
+      new BitmapTarget(64, 64, 0, Bitmap.Config.ARGB_8888);
+
+  @Test
+  public void get_returnsBitmapForImageWithSameContents() {
+    final BitmapCache cache = new BitmapCache(BITMAP_SIZE_BYTES * 4);
+    final Bitmap bitmap = createBitmap();
+    cache.put(bytesKey(new byte[] {1, 2, 3}, BitmapTarget.ORIGINAL), bitmap);
+
+    assertSame(bitmap, cache.get(bytesKey(new byte[] {1, 2, 3}, BitmapTarget.ORIGINAL)));
+    assertNull(cache.get(bytesKey(new byte[] {1, 2, 4}, BitmapTarget.ORIGINAL)));
+    assertNull(cache.get(bytesKey(new byte[] {1, 2, 3}, LARGE_ICON)));
+    assertEquals(1, cache.hitCount());
+    assertEquals(2, cache.missCount());
+  }
+
+  @Test
+  public void get_doesNotReturnBitmapForModifiedFile() {
+    final BitmapCache cache = new BitmapCache(BITMAP_SIZE_BYTES * 4);
+    cache.put(fileKey("/image.png", 1), createBitmap());
+
+    assertNotNull(cache.get(fileKey("/image.png", 1)));
+    assertNull(cache.get(fileKey("/image.png", 2)));
+    assertNull(
+        cache.get(
+            BitmapCache.Key.forName("DrawableResource", "/image.png", 1, BitmapTarget.ORIGINAL)));
+  }
+
+  @Test
+  public void put_evictsLeastRecentlyUsedBitmapsWhenFull() {
+    final BitmapCache cache = new BitmapCache(BITMAP_SIZE_BYTES * 2);
+    cache.put(fileKey("first", 0), createBitmap());
+    cache.put(fileKey("second", 0), createBitmap());
+    cache.get(fileKey("first", 0));
+
+    cache.put(fileKey("third", 0), createBitmap());
+
+    assertEquals(BITMAP_SIZE_BYTES * 2, cache.size());
+    assertNotNull(cache.get(fileKey("first", 0)));
+    assertNull(cache.get(fileKey("second", 0)));
+  }
+
+  @Test
+  public void onTrimMemory_releasesBitmaps() {
+    final BitmapCache cache = new BitmapCache(BITMAP_SIZE_BYTES * 4);
+    for (int i = 0; i < 4; i++) {
+      cache.put(fileKey("image" + i, 0), createBitmap());
+    }
+
+    cache.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW);
+    assertEquals(BITMAP_SIZE_BYTES * 2, cache.size());
+
+    cache.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+    assertEquals(0, cache.size());
+  }
+
+  private static BitmapCache.Key bytesKey(byte[] bytes, BitmapTarget target) {
+    return BitmapCache.Key.forBytes("ByteArray", bytes, target);
+  }
+
+  private static BitmapCache.Key fileKey(String path, long version) {
+    return BitmapCache.Key.forName("FilePath", path, version, BitmapTarget.ORIGINAL);
+  }
+
+  private static Bitmap createBitmap() {
+    return Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888);
+  }
+}
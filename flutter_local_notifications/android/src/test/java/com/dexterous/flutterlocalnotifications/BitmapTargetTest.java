@@ -0,0 +1,48 @@
+package com.dexterous.flutterlocalnotifications;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import android.graphics.Bitmap;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class BitmapTargetTest {
+  @Test
+  public void calculateInSampleSize_coversTargetDimensions() {
+    final BitmapTarget bigPicture = new BitmapTarget(1080, 704, 0, Bitmap.Config.ARGB_8888);
+    final BitmapTarget largeIcon = new BitmapTarget(176, 176, 0, Bitmap.Config.ARGB_8888);
+
+    assertEquals(2, bigPicture.calculateInSampleSize(4000, 3000));
+    assertEquals(1, bigPicture.calculateInSampleSize(1080, 704));
+    assertEquals(1, bigPicture.calculateInSampleSize(200, 200));
+    assertEquals(16, largeIcon.calculateInSampleSize(4000, 3000));
+    assertEquals(1, BitmapTarget.ORIGINAL.calculateInSampleSize(4000, 3000));
+  }
+
+  @Test
+  public void calculateInSampleSize_fitsWithinMaxBytes() {
+    final BitmapTarget argb = new BitmapTarget(1080, 704, 1024 * 1024, Bitmap.Config.ARGB_8888);
+    final BitmapTarget rgb565 = new BitmapTarget(0, 0, 2 * 1024 * 1024, Bitmap.Config.RGB_565);
+
+    // 500x375 pixels at 4 bytes each
+    assertEquals(8, argb.calculateInSampleSize(4000, 3000));
+    // 1000x750 pixels at 2 bytes each
+    assertEquals(4, rgb565.calculateInSampleSize(4000, 3000));
+  }
+
+  @Test
+  public void fit_scalesDownBitmapsThatExceedMaxBytes() {
+    final BitmapTarget target = new BitmapTarget(0, 0, 100 * 100, Bitmap.Config.ARGB_8888);
+    final Bitmap small = Bitmap.createBitmap(50, 50, Bitmap.Config.ARGB_8888);
+    final Bitmap large = Bitmap.createBitmap(400, 200, Bitmap.Config.ARGB_8888);
+
+    assertSame(small, target.fit(small));
+    final Bitmap fitted = target.fit(large);
+    assertTrue(fitted.getAllocationByteCount() <= 100 * 100);
+    assertEquals(2, fitted.getWidth() / fitted.getHeight());
+  }
+}
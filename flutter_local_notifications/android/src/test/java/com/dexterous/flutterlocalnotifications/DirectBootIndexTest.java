@@ -0,0 +1,181 @@
+package com.dexterous.flutterlocalnotifications;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.AlarmManager;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.content.pm.ActivityInfo;
+import android.content.pm.ResolveInfo;
+import android.os.UserManager;
+import androidx.test.core.app.ApplicationProvider;
+import com.dexterous.flutterlocalnotifications.models.NotificationDetails;
+import com.dexterous.flutterlocalnotifications.models.ScheduleMode;
+import com.dexterous.flutterlocalnotifications.models.ScheduledNotificationRepeatFrequency;
+import com.dexterous.flutterlocalnotifications.models.styles.DefaultStyleInformation;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowAlarmManager;
+import org.robolectric.shadows.ShadowAlarmManager.ScheduledAlarm;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 35)
+public class DirectBootIndexTest {
+  private static final long MINUTE = 60000;
+
+  private Context context;
+  private ScheduledNotificationStore store;
+  private long now;
+
+  @Before
+  public void before() {
+    context = ApplicationProvider.getApplicationContext();
+    ScheduledNotificationStore.resetInstance();
+    ShadowAlarmManager.setCanScheduleExactAlarms(true);
+    context
+        .getSharedPreferences("notification_plugin_cache", Context.MODE_PRIVATE)
+        .edit()
+        .putBoolean("useDirectBootIndex", true)
+        .putString("defaultIcon", "app_icon")
+        .commit();
+    // notifications open the launch activity of the app when they're tapped
+    final Intent launchIntent = new Intent(Intent.ACTION_MAIN);
+    launchIntent.addCategory(Intent.CATEGORY_LAUNCHER);
+    launchIntent.setPackage(context.getPackageName());
+    final ResolveInfo resolveInfo = new ResolveInfo();
+    resolveInfo.activityInfo = new ActivityInfo();
+    resolveInfo.activityInfo.packageName = context.getPackageName();
+    resolveInfo.activityInfo.name = "MainActivity";
+    shadowOf(context.getPackageManager()).addResolveInfoForIntent(launchIntent, resolveInfo);
+    store = ScheduledNotificationStore.getInstance(context);
+    now = System.currentTimeMillis();
+  }
+
+  @Test
+  public void put_keepsEntryWithoutContentInDeviceProtectedStorage() {
+    store.put(createNotificationDetails(1, now + MINUTE));
+
+    final String entry = getIndex().getString("1", null);
+    assertNotNull(entry);
+    assertTrue(entry.contains("\"channelId\":\"channel\""));
+    assertTrue(entry.contains("\"icon\":\"app_icon\""));
+    assertFalse(entry.contains("title"));
+
+    store.remove(1);
+    assertNull(getIndex().getString("1", null));
+  }
+
+  @Test
+  public void rearm_setsAlarmsForSoonestNotificationsWhilstLocked() {
+    setUserUnlocked(false);
+    final List<NotificationDetails> notifications = new ArrayList<>();
+    for (int id = 1; id <= 60; id++) {
+      notifications.add(createNotificationDetails(id, now + (61 - id) * MINUTE));
+    }
+    notifications.add(createNotificationDetails(61, now - MINUTE));
+    store.putAll(notifications);
+
+    DirectBootIndex.rearm(context);
+
+    final List<ScheduledAlarm> alarms = getScheduledAlarms();
+    assertEquals(50, alarms.size());
+    for (ScheduledAlarm alarm : alarms) {
+      final Intent intent = shadowOf(alarm.operation).getSavedIntent();
+      assertEquals(DirectBootIndex.ACTION_ALARM, intent.getAction());
+      final int id = intent.getIntExtra(FlutterLocalNotificationsPlugin.NOTIFICATION_ID, 0);
+      assertTrue(id > 10 && id <= 60);
+    }
+  }
+
+  @Test
+  public void rearm_doesNothingOnceUnlocked() {
+    store.put(createNotificationDetails(1, now + MINUTE));
+
+    DirectBootIndex.rearm(context);
+
+    assertTrue(getScheduledAlarms().isEmpty());
+  }
+
+  @Test
+  public void onUnlocked_replacesNotificationShownWhilstLockedAndCancelsAlarms() {
+    setUserUnlocked(false);
+    store.put(createNotificationDetails(1, now - 1000));
+    final NotificationDetails daily = createNotificationDetails(2, now - 1000);
+    daily.scheduledNotificationRepeatFrequency = ScheduledNotificationRepeatFrequency.Daily;
+    store.put(daily);
+    store.put(createNotificationDetails(3, now + 60 * MINUTE));
+    DirectBootIndex.rearm(context);
+    assertEquals(2, getScheduledAlarms().size());
+    for (ScheduledAlarm alarm : getScheduledAlarms()) {
+      final Intent intent = shadowOf(alarm.operation).getSavedIntent();
+      if (intent.getIntExtra(FlutterLocalNotificationsPlugin.NOTIFICATION_ID, 0) == 2) {
+        // the alarm goes off
+        getAlarmManager().cancel(alarm.operation);
+        new ScheduledNotificationReceiver().onReceive(context, intent);
+      }
+    }
+
+    setUserUnlocked(true);
+    DirectBootIndex.onUnlocked(context);
+
+    // only the alarm for the next time the daily notification is due remains
+    final List<ScheduledAlarm> alarms = getScheduledAlarms();
+    assertEquals(1, alarms.size());
+    assertNull(shadowOf(alarms.get(0).operation).getSavedIntent().getAction());
+    assertEquals(2, shadowOf(alarms.get(0).operation).getRequestCode());
+    assertEquals(
+        LocalDateTime.ofEpochSecond((now - 1000) / 1000, 0, ZoneOffset.UTC).plusDays(1),
+        LocalDateTime.parse(store.get(2).scheduledDateTime));
+    assertFalse(store.get(2).onlyAlertOnce);
+    assertNotNull(store.get(1));
+    assertNotNull(store.get(3));
+  }
+
+  private void setUserUnlocked(boolean unlocked) {
+    shadowOf((UserManager) context.getSystemService(Context.USER_SERVICE))
+        .setUserUnlocked(unlocked);
+  }
+
+  private SharedPreferences getIndex() {
+    return context
+        .createDeviceProtectedStorageContext()
+        .getSharedPreferences("flutter_local_notifications_direct_boot_index", Context.MODE_PRIVATE);
+  }
+
+  private static NotificationDetails createNotificationDetails(int id, long epochMilli) {
+    final NotificationDetails notificationDetails = new NotificationDetails();
+    notificationDetails.id = id;
+    notificationDetails.title = "title " + id;
+    notificationDetails.channelId = "channel";
+    notificationDetails.timeZoneName = "UTC";
+    notificationDetails.scheduleMode = ScheduleMode.exactAllowWhileIdle;
+    notificationDetails.styleInformation = new DefaultStyleInformation(false, false);
+    notificationDetails.priority = 0;
+    notificationDetails.onlyAlertOnce = false;
+    notificationDetails.iconResourceId = android.R.drawable.ic_dialog_info;
+    notificationDetails.scheduledDateTime =
+        LocalDateTime.ofEpochSecond(epochMilli / 1000, 0, ZoneOffset.UTC).toString();
+    return notificationDetails;
+  }
+
+  private AlarmManager getAlarmManager() {
+    return (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+  }
+
+  private List<ScheduledAlarm> getScheduledAlarms() {
+    return new ArrayList<>(shadowOf(getAlarmManager()).getScheduledAlarms());
+  }
+}
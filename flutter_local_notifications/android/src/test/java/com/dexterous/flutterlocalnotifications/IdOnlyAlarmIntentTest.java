@@ -0,0 +1,166 @@
+package com.dexterous.flutterlocalnotifications;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.AlarmManager;
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.ActivityInfo;
+import android.content.pm.ResolveInfo;
+import androidx.test.core.app.ApplicationProvider;
+import com.dexterous.flutterlocalnotifications.models.NotificationDetails;
+import io.flutter.embedding.engine.plugins.FlutterPlugin.FlutterPluginBinding;
+import io.flutter.plugin.common.BinaryMessenger;
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel.Result;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowAlarmManager;
+import org.robolectric.shadows.ShadowAlarmManager.ScheduledAlarm;
+
+@RunWith(RobolectricTestRunner.class)
+public class IdOnlyAlarmIntentTest {
+  private static final long MINUTE = 60000;
+
+  private Context context;
+  private FlutterLocalNotificationsPlugin plugin;
+  private long now;
+
+  @Before
+  public void before() {
+    context = ApplicationProvider.getApplicationContext();
+    ScheduledNotificationStore.resetInstance();
+    ShadowAlarmManager.setCanScheduleExactAlarms(true);
+    FlutterPluginBinding binding = mock(FlutterPluginBinding.class);
+    when(binding.getApplicationContext()).thenReturn(context);
+    when(binding.getBinaryMessenger()).thenReturn(mock(BinaryMessenger.class));
+    plugin = new FlutterLocalNotificationsPlugin();
+    plugin.onAttachedToEngine(binding);
+    context
+        .getSharedPreferences("notification_plugin_cache", Context.MODE_PRIVATE)
+        .edit()
+        .putBoolean("useIdOnlyAlarmIntents", true)
+        .commit();
+    // notifications open the launch activity of the app when they're tapped
+    final Intent launchIntent = new Intent(Intent.ACTION_MAIN);
+    launchIntent.addCategory(Intent.CATEGORY_LAUNCHER);
+    launchIntent.setPackage(context.getPackageName());
+    final ResolveInfo resolveInfo = new ResolveInfo();
+    resolveInfo.activityInfo = new ActivityInfo();
+    resolveInfo.activityInfo.packageName = context.getPackageName();
+    resolveInfo.activityInfo.name = "MainActivity";
+    shadowOf(context.getPackageManager()).addResolveInfoForIntent(launchIntent, resolveInfo);
+    now = System.currentTimeMillis();
+  }
+
+  @Test
+  public void zonedSchedule_setsAlarmWithOnlyTheId() {
+    zonedSchedule(1, now + 10 * MINUTE);
+
+    final Intent intent = getAlarmIntent();
+    assertFalse(intent.hasExtra(FlutterLocalNotificationsPlugin.NOTIFICATION_DETAILS));
+    assertEquals(1, intent.getIntExtra(FlutterLocalNotificationsPlugin.NOTIFICATION_ID, 0));
+    assertEquals(
+        (long) ScheduledNotificationStore.getInstance(context).get(1).recordVersion,
+        intent.getLongExtra(FlutterLocalNotificationsPlugin.NOTIFICATION_RECORD_VERSION, 0));
+  }
+
+  @Test
+  public void onReceive_showsNotificationLoadedFromStoreAndRemovesIt() {
+    zonedSchedule(1, now + 10 * MINUTE);
+    final NotificationDetails notificationDetails =
+        ScheduledNotificationStore.getInstance(context).get(1);
+    notificationDetails.iconResourceId = android.R.drawable.ic_dialog_info;
+    ScheduledNotificationStore.getInstance(context).put(notificationDetails);
+
+    new ScheduledNotificationReceiver().onReceive(context, getAlarmIntent());
+
+    assertNull(ScheduledNotificationStore.getInstance(context).get(1));
+  }
+
+  @Test
+  public void onReceive_ignoresAlarmForCancelledNotification() {
+    zonedSchedule(1, now + 10 * MINUTE);
+    final Intent intent = getAlarmIntent();
+    ScheduledNotificationStore.getInstance(context).remove(1);
+
+    assertNull(FlutterLocalNotificationsPlugin.getScheduledNotificationDetails(context, intent));
+    new ScheduledNotificationReceiver().onReceive(context, intent);
+
+    assertNull(ScheduledNotificationStore.getInstance(context).get(1));
+  }
+
+  @Test
+  public void onReceive_ignoresAlarmSetForOlderVersionOfNotification() {
+    zonedSchedule(1, now + 10 * MINUTE);
+    final Intent staleIntent = new Intent(getAlarmIntent());
+    zonedSchedule(1, now + 20 * MINUTE);
+    final Intent intent = getAlarmIntent();
+    assertTrue(
+        intent.getLongExtra(FlutterLocalNotificationsPlugin.NOTIFICATION_RECORD_VERSION, 0)
+            > staleIntent.getLongExtra(
+                FlutterLocalNotificationsPlugin.NOTIFICATION_RECORD_VERSION, 0));
+
+    assertNull(
+        FlutterLocalNotificationsPlugin.getScheduledNotificationDetails(context, staleIntent));
+    new ScheduledNotificationReceiver().onReceive(context, staleIntent);
+
+    assertEquals(
+        LocalDateTime.ofEpochSecond((now + 20 * MINUTE) / 1000, 0, ZoneOffset.UTC),
+        LocalDateTime.parse(
+            ScheduledNotificationStore.getInstance(context).get(1).scheduledDateTime));
+  }
+
+  private void zonedSchedule(int id, long epochMilli) {
+    final Map<String, Object> arguments = new HashMap<>();
+    arguments.put("id", id);
+    arguments.put("title", "title " + id);
+    arguments.put("body", "body " + id);
+    arguments.put("payload", "");
+    arguments.put("timeZoneName", "UTC");
+    final Map<String, Object> platformSpecifics = new HashMap<>();
+    platformSpecifics.put("style", 0);
+    final Map<String, Object> styleInformation = new HashMap<>();
+    styleInformation.put("htmlFormatTitle", false);
+    styleInformation.put("htmlFormatContent", false);
+    platformSpecifics.put("styleInformation", styleInformation);
+    platformSpecifics.put("priority", 0);
+    arguments.put("platformSpecifics", platformSpecifics);
+    arguments.put(
+        "scheduledDateTime",
+        LocalDateTime.ofEpochSecond(epochMilli / 1000, 0, ZoneOffset.UTC).toString());
+    plugin.onMethodCall(new MethodCall("zonedSchedule", arguments), new EmptyResult());
+  }
+
+  private Intent getAlarmIntent() {
+    final AlarmManager alarmManager =
+        (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+    final List<ScheduledAlarm> alarms = shadowOf(alarmManager).getScheduledAlarms();
+    assertEquals(1, alarms.size());
+    return shadowOf(alarms.get(0).operation).getSavedIntent();
+  }
+
+  private static class EmptyResult implements Result {
+    @Override
+    public void success(Object result) {}
+
+    @Override
+    public void error(String errorCode, String errorMessage, Object errorDetails) {}
+
+    @Override
+    public void notImplemented() {}
+  }
+}
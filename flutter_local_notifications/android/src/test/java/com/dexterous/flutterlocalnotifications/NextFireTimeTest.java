@@ -0,0 +1,325 @@
+package com.dexterous.flutterlocalnotifications;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.dexterous.flutterlocalnotifications.models.DateTimeComponents;
+import com.dexterous.flutterlocalnotifications.models.RecurrenceFrequency;
+import com.dexterous.flutterlocalnotifications.models.RecurrenceRule;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+public class NextFireTimeTest {
+  private static final String[] ZONES = {
+    "UTC",
+    "America/New_York",
+    "Europe/London",
+    "Australia/Sydney",
+    "Australia/Lord_Howe",
+    "America/Santiago",
+    "Asia/Kolkata",
+    "Pacific/Chatham"
+  };
+
+  private static final LocalDateTime[] SCHEDULED_DATE_TIMES = {
+    LocalDateTime.of(2023, 1, 31, 0, 0),
+    LocalDateTime.of(2024, 2, 29, 2, 30),
+    LocalDateTime.of(2023, 3, 30, 9, 15, 30),
+    LocalDateTime.of(2023, 4, 15, 23, 59, 59, 500000000),
+    LocalDateTime.of(2023, 6, 1, 12, 0),
+    LocalDateTime.of(2023, 9, 30, 2, 0),
+    LocalDateTime.of(2023, 10, 7, 1, 30),
+    LocalDateTime.of(2023, 12, 31, 0, 30)
+  };
+
+  @Test
+  public void afterInterval_matchesSteppingThroughEachInterval() {
+    final Random random = new Random(42);
+    for (int i = 0; i < 100000; i++) {
+      final long repeatInterval = 1 + random.nextInt(3600000);
+      final long firstFireTime = random.nextInt(Integer.MAX_VALUE);
+      final long now = firstFireTime + random.nextInt(1000) * repeatInterval + random.nextInt(3);
+      assertEquals(
+          legacyAfterInterval(firstFireTime, repeatInterval, now),
+          NextFireTime.afterInterval(firstFireTime, repeatInterval, now));
+      assertEquals(
+          legacyAfterInterval(now, repeatInterval, firstFireTime),
+          NextFireTime.afterInterval(now, repeatInterval, firstFireTime));
+    }
+  }
+
+  @Test
+  public void afterInterval_returnsFirstFireTimeWhenItIsNotInThePast() {
+    assertEquals(1000, NextFireTime.afterInterval(1000, 60000, 1000));
+    assertEquals(1000, NextFireTime.afterInterval(1000, 60000, 999));
+    assertEquals(61000, NextFireTime.afterInterval(1000, 60000, 1001));
+  }
+
+  @Test
+  public void afterInterval_handlesFrequentNotificationsScheduledLongAgo() {
+    final long yearMilliseconds = 366L * 24 * 60 * 60 * 1000;
+    final long now = 1700000000123L;
+
+    assertEquals(now, NextFireTime.afterInterval(now - yearMilliseconds, 60000, now));
+    assertEquals(
+        now + 59999, NextFireTime.afterInterval(now - yearMilliseconds - 1, 60000, now));
+  }
+
+  @Test
+  public void matchingDateTimeComponents_matchesSteppingThroughEachDay() {
+    for (String zone : ZONES) {
+      final ZoneId zoneId = ZoneId.of(zone);
+      ZonedDateTime now = ZonedDateTime.of(2023, 12, 25, 0, 0, 0, 0, zoneId);
+      final ZonedDateTime end = now.plusYears(3);
+      while (now.isBefore(end)) {
+        for (LocalDateTime scheduledDateTime : SCHEDULED_DATE_TIMES) {
+          for (DateTimeComponents components : DateTimeComponents.values()) {
+            assertMatchesLegacy(scheduledDateTime, components, now);
+          }
+        }
+        now = now.plusMinutes(97 * 60 + 13);
+      }
+    }
+  }
+
+  @Test
+  public void matchingDateTimeComponents_keepsTimeAfterDaylightSavingTimeTransition() {
+    final ZoneId zoneId = ZoneId.of("America/New_York");
+    // 2:30 doesn't exist on the 10th of March 2024 as the clocks go forward from 2:00 to 3:00
+    final ZonedDateTime now = ZonedDateTime.of(2024, 3, 10, 4, 0, 0, 0, zoneId);
+    final LocalDateTime scheduledDateTime = LocalDateTime.of(2024, 3, 1, 2, 30);
+
+    assertEquals(
+        LocalDateTime.of(2024, 3, 11, 2, 30),
+        NextFireTime.matchingDateTimeComponents(
+            scheduledDateTime, DateTimeComponents.Time, now));
+    assertEquals(
+        LocalDateTime.of(2024, 3, 15, 2, 30),
+        NextFireTime.matchingDateTimeComponents(
+            scheduledDateTime, DateTimeComponents.DayOfWeekAndTime, now));
+    // stepping through each day kept the adjusted time from the day of the transition
+    assertEquals(
+        LocalDateTime.of(2024, 3, 11, 3, 30),
+        legacyMatchingDateTimeComponents(scheduledDateTime, DateTimeComponents.Time, now));
+  }
+
+  @Test
+  public void matchingDateTimeComponents_skipsDatesThatDoNotExist() {
+    final ZonedDateTime now = ZonedDateTime.of(2097, 3, 1, 0, 0, 0, 0, ZoneId.of("UTC"));
+
+    assertEquals(
+        LocalDateTime.of(2104, 2, 29, 9, 0),
+        NextFireTime.matchingDateTimeComponents(
+            LocalDateTime.of(2024, 2, 29, 9, 0), DateTimeComponents.DateAndTime, now));
+    assertEquals(
+        LocalDateTime.of(2097, 3, 31, 9, 0),
+        NextFireTime.matchingDateTimeComponents(
+            LocalDateTime.of(2024, 1, 31, 9, 0), DateTimeComponents.DayOfMonthAndTime, now));
+  }
+
+  @Test
+  public void matchingDateTimeComponents_returnsNullWithoutComponents() {
+    assertNull(
+        NextFireTime.matchingDateTimeComponents(
+            LocalDateTime.of(2024, 1, 1, 9, 0), null, ZonedDateTime.now(ZoneId.of("UTC"))));
+  }
+
+  @Test
+  public void matchingRecurrenceRule_weekdays() {
+    final RecurrenceRule rule = createRule(RecurrenceFrequency.Weekly);
+    rule.byDay = Arrays.asList("MO", "TU", "WE", "TH", "FR");
+
+    // the 1st of March 2024 is a Friday
+    assertNextOccurrence(rule, "2024-03-01T08:00", "2024-03-04T08:00");
+    assertNextOccurrence(rule, "2024-03-04T08:00", "2024-03-05T08:00");
+  }
+
+  @Test
+  public void matchingRecurrenceRule_firstMondayOfEachMonth() {
+    final RecurrenceRule rule = createRule(RecurrenceFrequency.Monthly);
+    rule.byDay = Arrays.asList("1MO");
+
+    assertNextOccurrence(rule, "2024-03-04T09:00", "2024-04-01T09:00");
+    assertNextOccurrence(rule, "2024-04-01T09:00", "2024-05-06T09:00");
+  }
+
+  @Test
+  public void matchingRecurrenceRule_lastWeekdayOfEachMonth() {
+    final RecurrenceRule rule = createRule(RecurrenceFrequency.Monthly);
+    rule.byDay = Arrays.asList("MO", "TU", "WE", "TH", "FR");
+    rule.bySetPos = new int[] {-1};
+
+    assertNextOccurrence(rule, "2024-03-29T17:00", "2024-04-30T17:00");
+    assertNextOccurrence(rule, "2024-04-30T17:00", "2024-05-31T17:00");
+    // the 30th of June 2024 is a Sunday
+    assertNextOccurrence(rule, "2024-05-31T17:00", "2024-06-28T17:00");
+  }
+
+  @Test
+  public void matchingRecurrenceRule_daysOfMonthThatSomeMonthsDoNotHave() {
+    final RecurrenceRule lastDay = createRule(RecurrenceFrequency.Monthly);
+    lastDay.byMonthDay = new int[] {-1};
+    final RecurrenceRule thirtyFirst = createRule(RecurrenceFrequency.Monthly);
+
+    assertNextOccurrence(lastDay, "2024-01-31T09:00", "2024-02-29T09:00");
+    assertNextOccurrence(lastDay, "2024-02-29T09:00", "2024-03-31T09:00");
+    assertNextOccurrence(thirtyFirst, "2024-01-31T09:00", "2024-03-31T09:00");
+  }
+
+  @Test
+  public void matchingRecurrenceRule_yearlyOnTheTwentyNinthOfFebruary() {
+    assertNextOccurrence(
+        createRule(RecurrenceFrequency.Yearly), "2024-02-29T09:00", "2028-02-29T09:00");
+  }
+
+  @Test
+  public void matchingRecurrenceRule_intersectsDaysOfWeekAndMonth() {
+    final RecurrenceRule rule = createRule(RecurrenceFrequency.Monthly);
+    rule.byDay = Arrays.asList("FR");
+    rule.byMonthDay = new int[] {13};
+
+    assertNextOccurrence(rule, "2024-09-13T09:00", "2024-12-13T09:00");
+  }
+
+  @Test
+  public void matchingRecurrenceRule_jumpsToPeriodThatContainsNow() {
+    final ZoneId zoneId = ZoneId.of("UTC");
+    final RecurrenceRule rule = createRule(RecurrenceFrequency.Weekly);
+    rule.interval = 2;
+    rule.byDay = Arrays.asList("MO", "WE");
+
+    // the 1st of January 2024 is a Monday and the 4th of March is 9 weeks later so the
+    // notification doesn't repeat that week
+    assertEquals(
+        LocalDateTime.of(2024, 3, 11, 9, 0),
+        NextFireTime.matchingRecurrenceRule(
+            rule,
+            LocalDateTime.of(2024, 1, 1, 9, 0),
+            ZonedDateTime.of(2024, 3, 6, 12, 0, 0, 0, zoneId)));
+    assertEquals(
+        LocalDateTime.of(2024, 2, 28, 9, 0),
+        NextFireTime.matchingRecurrenceRule(
+            rule,
+            LocalDateTime.of(2024, 1, 1, 9, 0),
+            ZonedDateTime.of(2024, 2, 26, 12, 0, 0, 0, zoneId)));
+  }
+
+  @Test
+  public void matchingRecurrenceRule_returnsNullAfterUntil() {
+    final RecurrenceRule rule = createRule(RecurrenceFrequency.Daily);
+    rule.until =
+        ZonedDateTime.of(2024, 3, 2, 8, 0, 0, 0, ZoneId.of("UTC")).toInstant().toEpochMilli();
+
+    assertNextOccurrence(rule, "2024-03-01T08:00", "2024-03-02T08:00");
+    assertNull(
+        NextFireTime.matchingRecurrenceRule(
+            rule,
+            LocalDateTime.parse("2024-03-02T08:00"),
+            ZonedDateTime.of(2024, 3, 2, 8, 0, 0, 0, ZoneId.of("UTC"))));
+  }
+
+  @Test
+  public void matchingRecurrenceRule_keepsTimeAfterDaylightSavingTimeTransition() {
+    final ZoneId zoneId = ZoneId.of("America/New_York");
+    final RecurrenceRule rule = createRule(RecurrenceFrequency.Daily);
+
+    final LocalDateTime nextFireDate =
+        NextFireTime.matchingRecurrenceRule(
+            rule,
+            LocalDateTime.of(2024, 3, 9, 9, 0),
+            ZonedDateTime.of(2024, 3, 9, 9, 0, 0, 0, zoneId));
+
+    assertEquals(LocalDateTime.of(2024, 3, 10, 9, 0), nextFireDate);
+    assertEquals(
+        23 * 60 * 60,
+        ZonedDateTime.of(nextFireDate, zoneId).toEpochSecond()
+            - ZonedDateTime.of(2024, 3, 9, 9, 0, 0, 0, zoneId).toEpochSecond());
+  }
+
+  private static RecurrenceRule createRule(RecurrenceFrequency frequency) {
+    final RecurrenceRule rule = new RecurrenceRule();
+    rule.frequency = frequency;
+    return rule;
+  }
+
+  // Checks the occurrence after the given one when it's the current time
+  private static void assertNextOccurrence(
+      RecurrenceRule rule, String occurrence, String nextOccurrence) {
+    final ZonedDateTime now = ZonedDateTime.of(LocalDateTime.parse(occurrence), ZoneId.of("UTC"));
+    assertEquals(
+        LocalDateTime.parse(nextOccurrence),
+        NextFireTime.matchingRecurrenceRule(rule, LocalDateTime.parse(occurrence), now));
+  }
+
+  private static void assertMatchesLegacy(
+      LocalDateTime scheduledDateTime, DateTimeComponents components, ZonedDateTime now) {
+    final ZoneId zoneId = now.getZone();
+    final LocalTime time = scheduledDateTime.toLocalTime();
+    final LocalDateTime expected =
+        legacyMatchingDateTimeComponents(scheduledDateTime, components, now);
+    final LocalDateTime actual =
+        NextFireTime.matchingDateTimeComponents(scheduledDateTime, components, now);
+    final String message = scheduledDateTime + " " + components + " " + now;
+    assertEquals(message, expected.toLocalDate(), actual.toLocalDate());
+    assertEquals(message, time, actual.toLocalTime());
+    final LocalDate date = expected.toLocalDate();
+    if (expected.toLocalTime().equals(ZonedDateTime.of(date, time, zoneId).toLocalTime())) {
+      // the times only differ when stepping through each day kept a time that was adjusted on the
+      // day of an earlier daylight saving time transition
+      assertEquals(
+          message,
+          ZonedDateTime.of(expected, zoneId).toInstant(),
+          ZonedDateTime.of(actual, zoneId).toInstant());
+    }
+  }
+
+  // The implementations that stepped through each occurrence, which the results must match
+
+  private static long legacyAfterInterval(
+      long notificationTriggerTime, long repeatInterval, long currentTime) {
+    while (notificationTriggerTime < currentTime) {
+      notificationTriggerTime += repeatInterval;
+    }
+    return notificationTriggerTime;
+  }
+
+  private static LocalDateTime legacyMatchingDateTimeComponents(
+      LocalDateTime localScheduledDateTime, DateTimeComponents components, ZonedDateTime now) {
+    final ZoneId zoneId = now.getZone();
+    final ZonedDateTime scheduledDateTime = ZonedDateTime.of(localScheduledDateTime, zoneId);
+    ZonedDateTime nextFireDate =
+        ZonedDateTime.of(
+            now.getYear(),
+            now.getMonthValue(),
+            now.getDayOfMonth(),
+            scheduledDateTime.getHour(),
+            scheduledDateTime.getMinute(),
+            scheduledDateTime.getSecond(),
+            scheduledDateTime.getNano(),
+            zoneId);
+    while (nextFireDate.isBefore(now)) {
+      nextFireDate = nextFireDate.plusDays(1);
+    }
+    if (components == DateTimeComponents.DayOfWeekAndTime) {
+      while (nextFireDate.getDayOfWeek() != scheduledDateTime.getDayOfWeek()) {
+        nextFireDate = nextFireDate.plusDays(1);
+      }
+    } else if (components == DateTimeComponents.DayOfMonthAndTime) {
+      while (nextFireDate.getDayOfMonth() != scheduledDateTime.getDayOfMonth()) {
+        nextFireDate = nextFireDate.plusDays(1);
+      }
+    } else if (components == DateTimeComponents.DateAndTime) {
+      while (nextFireDate.getMonthValue() != scheduledDateTime.getMonthValue()
+          || nextFireDate.getDayOfMonth() != scheduledDateTime.getDayOfMonth()) {
+        nextFireDate = nextFireDate.plusDays(1);
+      }
+    }
+    return nextFireDate.toLocalDateTime();
+  }
+}
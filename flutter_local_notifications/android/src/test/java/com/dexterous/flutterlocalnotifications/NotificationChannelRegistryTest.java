@@ -0,0 +1,83 @@
+package com.dexterous.flutterlocalnotifications;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.dexterous.flutterlocalnotifications.models.NotificationChannelDetails;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+
+public class NotificationChannelRegistryTest {
+  @Before
+  public void before() {
+    NotificationChannelRegistry.clear();
+  }
+
+  @Test
+  public void isUpToDate_onlyWhenSameConfigurationWasApplied() {
+    final NotificationChannelDetails details = createChannelDetails("chat", "messages");
+    assertFalse(NotificationChannelRegistry.isKnownToExist("chat"));
+
+    NotificationChannelRegistry.onExists("chat");
+    assertTrue(NotificationChannelRegistry.isKnownToExist("chat"));
+    assertFalse(NotificationChannelRegistry.isUpToDate(details));
+
+    NotificationChannelRegistry.onApplied(details);
+    assertTrue(NotificationChannelRegistry.isUpToDate(createChannelDetails("chat", "messages")));
+
+    final NotificationChannelDetails changed = createChannelDetails("chat", "messages");
+    changed.vibrationPattern = new long[] {0, 500};
+    assertFalse(NotificationChannelRegistry.isUpToDate(changed));
+
+    final NotificationChannelDetails bypassingDnd = createChannelDetails("chat", "messages");
+    bypassingDnd.bypassDnd = true;
+    NotificationChannelRegistry.onApplied(bypassingDnd);
+    assertFalse(NotificationChannelRegistry.isUpToDate(bypassingDnd));
+  }
+
+  @Test
+  public void onDeleted_forgetsChannel() {
+    NotificationChannelRegistry.onApplied(createChannelDetails("chat", "messages"));
+
+    NotificationChannelRegistry.onDeleted("chat");
+
+    assertFalse(NotificationChannelRegistry.isKnownToExist("chat"));
+  }
+
+  @Test
+  public void onGroupDeleted_forgetsChannelsThatMayHaveBelongedToGroup() {
+    NotificationChannelRegistry.onApplied(createChannelDetails("chat", "messages"));
+    NotificationChannelRegistry.onApplied(createChannelDetails("news", "updates"));
+    NotificationChannelRegistry.onExists("other");
+
+    NotificationChannelRegistry.onGroupDeleted("messages");
+
+    assertFalse(NotificationChannelRegistry.isKnownToExist("chat"));
+    assertTrue(NotificationChannelRegistry.isKnownToExist("news"));
+    assertFalse(NotificationChannelRegistry.isKnownToExist("other"));
+  }
+
+  @Test
+  public void onChannelsRetrieved_replacesKnownChannels() {
+    NotificationChannelRegistry.onApplied(createChannelDetails("chat", "messages"));
+    NotificationChannelRegistry.onApplied(createChannelDetails("news", "updates"));
+
+    NotificationChannelRegistry.onChannelsRetrieved(Arrays.asList("news", "other"));
+
+    assertFalse(NotificationChannelRegistry.isKnownToExist("chat"));
+    assertTrue(NotificationChannelRegistry.isUpToDate(createChannelDetails("news", "updates")));
+    assertTrue(NotificationChannelRegistry.isKnownToExist("other"));
+  }
+
+  private static NotificationChannelDetails createChannelDetails(String id, String groupId) {
+    final NotificationChannelDetails details = new NotificationChannelDetails();
+    details.id = id;
+    details.name = id + " name";
+    details.groupId = groupId;
+    details.importance = 4;
+    details.playSound = true;
+    details.enableVibration = true;
+    return details;
+  }
+}
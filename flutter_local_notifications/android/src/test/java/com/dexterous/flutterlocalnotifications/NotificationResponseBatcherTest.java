@@ -0,0 +1,127 @@
+package com.dexterous.flutterlocalnotifications;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Context;
+import android.os.Looper;
+import androidx.test.core.app.ApplicationProvider;
+import io.flutter.plugin.common.MethodChannel;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class NotificationResponseBatcherTest {
+  private Context context;
+  private MethodChannel channel;
+
+  @Before
+  public void before() {
+    context = ApplicationProvider.getApplicationContext();
+    channel = mock(MethodChannel.class);
+  }
+
+  @After
+  public void after() {
+    NotificationResponseBatcher.flush();
+  }
+
+  @Test
+  public void send_passesResponseOnStraightAwayWhenNotBatching() {
+    final Map<String, Object> response = createResponse(1);
+
+    NotificationResponseBatcher.send(context, channel, response);
+
+    verify(channel).invokeMethod("didReceiveNotificationResponse", response);
+  }
+
+  @Test
+  public void send_passesBatchOnOnceFull() {
+    setBatching(3, 1000);
+
+    for (int id = 1; id <= 4; id++) {
+      NotificationResponseBatcher.send(context, channel, createResponse(id));
+    }
+
+    assertEquals(
+        Collections.singletonList(
+            Arrays.asList(createResponse(1), createResponse(2), createResponse(3))),
+        getBatches());
+  }
+
+  @Test
+  public void send_passesBatchOnOnceMaxLatencyIsReached() {
+    setBatching(10, 100);
+
+    NotificationResponseBatcher.send(context, channel, createResponse(1));
+    shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(50));
+    NotificationResponseBatcher.send(context, channel, createResponse(2));
+    shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(49));
+    verify(channel, never()).invokeMethod(anyString(), any());
+    shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(1));
+
+    assertEquals(
+        Collections.singletonList(Arrays.asList(createResponse(1), createResponse(2))),
+        getBatches());
+  }
+
+  @Test
+  public void detach_passesBatchOnToDetachingChannelStraightAway() {
+    setBatching(10, 100);
+
+    NotificationResponseBatcher.send(context, channel, createResponse(1));
+    NotificationResponseBatcher.detach(channel);
+
+    assertEquals(
+        Collections.singletonList(Collections.singletonList(createResponse(1))), getBatches());
+  }
+
+  @Test
+  public void detach_leavesBatchForOtherChannel() {
+    setBatching(10, 100);
+
+    NotificationResponseBatcher.send(context, channel, createResponse(1));
+    NotificationResponseBatcher.detach(mock(MethodChannel.class));
+    verify(channel, never()).invokeMethod(anyString(), any());
+    shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(100));
+
+    assertEquals(
+        Collections.singletonList(Collections.singletonList(createResponse(1))), getBatches());
+  }
+
+  private List<Object> getBatches() {
+    final ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+    verify(channel, atLeast(0))
+        .invokeMethod(eq("didReceiveNotificationResponses"), captor.capture());
+    return captor.getAllValues();
+  }
+
+  private void setBatching(int maxBatchSize, long maxLatencyMilliseconds) {
+    context
+        .getSharedPreferences("notification_plugin_cache", Context.MODE_PRIVATE)
+        .edit()
+        .putInt("notificationResponseBatchMaxSize", maxBatchSize)
+        .putLong("notificationResponseBatchMaxLatencyMilliseconds", maxLatencyMilliseconds)
+        .commit();
+  }
+
+  private static Map<String, Object> createResponse(int id) {
+    return Collections.<String, Object>singletonMap("notificationId", id);
+  }
+}
@@ -0,0 +1,87 @@
+package com.dexterous.flutterlocalnotifications;
+
+import static org.junit.Assert.assertEquals;
+
+import android.content.Context;
+import androidx.test.core.app.ApplicationProvider;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class ResourceIdCacheTest {
+  // the small icon, large icon and an action icon of a typical notification
+  private static final String[] NOTIFICATION_DRAWABLES = {"app_icon", "large_icon", "reply"};
+
+  private Context context;
+
+  @Before
+  public void before() {
+    context = ApplicationProvider.getApplicationContext();
+    ResourceIdCache.clear();
+  }
+
+  @Test
+  public void getIdentifier_returnsSameIdAsResources() {
+    for (String name : NOTIFICATION_DRAWABLES) {
+      final int expected = getIdentifierUncached(name, "drawable");
+
+      assertEquals(expected, ResourceIdCache.getIdentifier(context, name, "drawable"));
+      assertEquals(expected, ResourceIdCache.getIdentifier(context, name, "drawable"));
+    }
+    assertEquals(
+        getIdentifierUncached("app_icon", "raw"),
+        ResourceIdCache.getIdentifier(context, "app_icon", "raw"));
+  }
+
+  @Test
+  @Ignore("benchmark that is only run manually")
+  public void benchmark_lookupsPerNotification() {
+    final int warmupIterations = 1000;
+    final int iterations = 10000;
+    for (int i = 0; i < warmupIterations; i++) {
+      lookUpUncached();
+      lookUpCached();
+    }
+
+    long start = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      lookUpUncached();
+    }
+    final long uncachedNanos = System.nanoTime() - start;
+    start = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      lookUpCached();
+    }
+    final long cachedNanos = System.nanoTime() - start;
+
+    System.out.printf(
+        "Resource id lookups per notification: getIdentifier %.2f us, cached %.2f us,"
+            + " saved %.2f us%n",
+        uncachedNanos / 1000.0 / iterations,
+        cachedNanos / 1000.0 / iterations,
+        (uncachedNanos - cachedNanos) / 1000.0 / iterations);
+  }
+
+  private int lookUpUncached() {
+    int sum = 0;
+    for (String name : NOTIFICATION_DRAWABLES) {
+      sum += getIdentifierUncached(name, "drawable");
+    }
+    return sum;
+  }
+
+  private int lookUpCached() {
+    int sum = 0;
+    for (String name : NOTIFICATION_DRAWABLES) {
+      sum += ResourceIdCache.getIdentifier(context, name, "drawable");
+    }
+    return sum;
+  }
+
+  private int getIdentifierUncached(String name, String type) {
+    return context.getResources().getIdentifier(name, type, context.getPackageName());
+  }
+}
@@ -0,0 +1,140 @@
+package com.dexterous.flutterlocalnotifications;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.AlarmManager;
+import android.content.Context;
+import android.content.Intent;
+import androidx.test.core.app.ApplicationProvider;
+import com.dexterous.flutterlocalnotifications.models.NotificationDetails;
+import com.dexterous.flutterlocalnotifications.models.ScheduleMode;
+import com.dexterous.flutterlocalnotifications.models.ScheduledNotificationRepeatFrequency;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowAlarmManager;
+import org.robolectric.shadows.ShadowAlarmManager.ScheduledAlarm;
+
+@RunWith(RobolectricTestRunner.class)
+public class ScheduledNotificationBootReceiverTest {
+  private static final long MINUTE = 60000;
+
+  private Context context;
+  private ScheduledNotificationStore store;
+  private long now;
+
+  @Before
+  public void before() {
+    context = ApplicationProvider.getApplicationContext();
+    ScheduledNotificationStore.resetInstance();
+    ShadowAlarmManager.setCanScheduleExactAlarms(true);
+    store = ScheduledNotificationStore.getInstance(context);
+    now = System.currentTimeMillis();
+  }
+
+  @Test
+  public void onReceive_setsAlarmsInChunksAndRemovesExpiredNotifications() throws Exception {
+    final List<NotificationDetails> notifications = new ArrayList<>();
+    for (int id = 1; id <= 120; id++) {
+      notifications.add(createNotificationDetails(id, now + id * MINUTE));
+    }
+    for (int id = 121; id <= 130; id++) {
+      notifications.add(createNotificationDetails(id, now - id * MINUTE));
+    }
+    final NotificationDetails daily = createNotificationDetails(131, now - 10 * MINUTE);
+    daily.scheduledNotificationRepeatFrequency = ScheduledNotificationRepeatFrequency.Daily;
+    notifications.add(daily);
+    store.putAll(notifications);
+
+    new ScheduledNotificationBootReceiver()
+        .onReceive(context, new Intent(Intent.ACTION_BOOT_COMPLETED));
+    awaitReschedule();
+
+    final Set<Integer> alarmIds = getAlarmIds();
+    assertEquals(121, alarmIds.size());
+    for (int id = 1; id <= 120; id++) {
+      assertNotNull(store.get(id));
+    }
+    for (int id = 121; id <= 130; id++) {
+      assertNull(store.get(id));
+    }
+    assertNotNull(store.get(131));
+    assertEquals(121, store.getAll().size());
+  }
+
+  @Test
+  public void onReceive_keepsExpiredNotificationsWhenPackageIsReplaced() throws Exception {
+    store.put(createNotificationDetails(1, now - MINUTE));
+
+    new ScheduledNotificationBootReceiver()
+        .onReceive(context, new Intent(Intent.ACTION_MY_PACKAGE_REPLACED));
+    awaitReschedule();
+
+    assertNotNull(store.get(1));
+    assertEquals(1, getAlarmIds().size());
+  }
+
+  @Test
+  public void onReceive_removesExpiredNotificationsWhenAlarmDispatcherIsUsed() throws Exception {
+    context
+        .getSharedPreferences("notification_plugin_cache", Context.MODE_PRIVATE)
+        .edit()
+        .putBoolean("useAlarmDispatcher", true)
+        .commit();
+    store.put(createNotificationDetails(1, now - MINUTE));
+    store.put(createNotificationDetails(2, now + MINUTE));
+    final NotificationDetails daily = createNotificationDetails(3, now - 10 * MINUTE);
+    daily.scheduledNotificationRepeatFrequency = ScheduledNotificationRepeatFrequency.Daily;
+    store.put(daily);
+
+    new ScheduledNotificationBootReceiver()
+        .onReceive(context, new Intent(Intent.ACTION_BOOT_COMPLETED));
+    awaitReschedule();
+
+    assertNull(store.get(1));
+    assertNotNull(store.get(2));
+    assertNotNull(store.get(3));
+  }
+
+  private static void awaitReschedule() throws Exception {
+    ScheduledNotificationBootReceiver.EXECUTOR
+        .submit(
+            new Runnable() {
+              @Override
+              public void run() {}
+            })
+        .get(10, TimeUnit.SECONDS);
+  }
+
+  private static NotificationDetails createNotificationDetails(int id, long epochMilli) {
+    final NotificationDetails notificationDetails = new NotificationDetails();
+    notificationDetails.id = id;
+    notificationDetails.title = "title " + id;
+    notificationDetails.timeZoneName = "UTC";
+    notificationDetails.scheduleMode = ScheduleMode.exactAllowWhileIdle;
+    notificationDetails.scheduledDateTime =
+        LocalDateTime.ofEpochSecond(epochMilli / 1000, 0, ZoneOffset.UTC).toString();
+    return notificationDetails;
+  }
+
+  private Set<Integer> getAlarmIds() {
+    final AlarmManager alarmManager =
+        (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+    final Set<Integer> ids = new HashSet<>();
+    for (ScheduledAlarm alarm : shadowOf(alarmManager).getScheduledAlarms()) {
+      ids.add(shadowOf(alarm.operation).getRequestCode());
+    }
+    return ids;
+  }
+}
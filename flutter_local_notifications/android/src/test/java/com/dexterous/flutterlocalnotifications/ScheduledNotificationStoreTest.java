@@ -0,0 +1,442 @@
+package com.dexterous.flutterlocalnotifications;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import androidx.test.core.app.ApplicationProvider;
+import com.dexterous.flutterlocalnotifications.models.BitmapSource;
+import com.dexterous.flutterlocalnotifications.models.NotificationDetails;
+import com.dexterous.flutterlocalnotifications.models.PendingNotificationRequestFilter;
+import java.io.File;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class ScheduledNotificationStoreTest {
+  private Context context;
+
+  @Before
+  public void before() {
+    context = ApplicationProvider.getApplicationContext();
+    ScheduledNotificationStore.resetInstance();
+    BitmapBlobStore.resetInstance();
+  }
+
+  @Test
+  public void put_replacesNotificationWithSameId() {
+    final ScheduledNotificationStore store = ScheduledNotificationStore.getInstance(context);
+    store.put(createNotificationDetails(1, "first"));
+    store.put(createNotificationDetails(2, "second"));
+    store.put(createNotificationDetails(1, "updated"));
+
+    final List<NotificationDetails> scheduledNotifications = store.getAll();
+    assertEquals(2, scheduledNotifications.size());
+    assertEquals("updated", store.get(1).title);
+    assertEquals("second", store.get(2).title);
+  }
+
+  @Test
+  public void remove_onlyRemovesMatchingNotification() {
+    final ScheduledNotificationStore store = ScheduledNotificationStore.getInstance(context);
+    store.put(createNotificationDetails(1, "first"));
+    store.put(createNotificationDetails(2, "second"));
+
+    store.remove(1);
+
+    assertNull(store.get(1));
+    assertEquals("second", store.get(2).title);
+  }
+
+  @Test
+  public void removeAll_onlyRemovesMatchingNotifications() {
+    final ScheduledNotificationStore store = ScheduledNotificationStore.getInstance(context);
+    store.put(createNotificationDetails(1, "first"));
+    store.put(createNotificationDetails(2, "second"));
+    store.put(createNotificationDetails(3, "third"));
+
+    store.removeAll(Arrays.asList(1, 3, 4));
+
+    assertEquals(1, store.getAll().size());
+    assertEquals("second", store.get(2).title);
+  }
+
+  @Test
+  public void clear_removesAllNotifications() {
+    final ScheduledNotificationStore store = ScheduledNotificationStore.getInstance(context);
+    store.put(createNotificationDetails(1, "first"));
+    store.put(createNotificationDetails(2, "second"));
+
+    store.clear();
+
+    assertEquals(0, store.getAll().size());
+  }
+
+  @Test
+  public void get_returnsIndexedNotificationWithoutReadingFromDisk() {
+    final ScheduledNotificationStore store = ScheduledNotificationStore.getInstance(context);
+    assertEquals(0, store.getAll().size());
+    final NotificationDetails notificationDetails = createNotificationDetails(1, "first");
+    store.put(notificationDetails);
+
+    assertSame(notificationDetails, store.get(1));
+    assertSame(notificationDetails, store.getAll().get(0));
+  }
+
+  @Test
+  public void get_readsRecordBeforeIndexIsLoaded() {
+    ScheduledNotificationStore.getInstance(context).put(createNotificationDetails(1, "first"));
+    ScheduledNotificationStore.resetInstance();
+    final ScheduledNotificationStore store = ScheduledNotificationStore.getInstance(context);
+
+    assertEquals("first", store.get(1).title);
+    assertNull(store.get(2));
+    store.remove(1);
+    assertNull(store.get(1));
+    assertEquals(0, store.getAll().size());
+  }
+
+  @Test
+  public void getAll_reloadsNotificationsWrittenByAnotherStore() {
+    final ScheduledNotificationStore store = ScheduledNotificationStore.getInstance(context);
+    store.put(createNotificationDetails(1, "first"));
+    assertEquals(1, store.getAll().size());
+    ScheduledNotificationStore.resetInstance();
+    ScheduledNotificationStore.getInstance(context).put(createNotificationDetails(2, "second"));
+
+    assertEquals(2, store.getAll().size());
+  }
+
+  @Test
+  public void invalidate_reloadsNotificationsFromDisk() {
+    final ScheduledNotificationStore store = ScheduledNotificationStore.getInstance(context);
+    store.put(createNotificationDetails(1, "first"));
+    ScheduledNotificationStore.resetInstance();
+    ScheduledNotificationStore.getInstance(context).put(createNotificationDetails(2, "second"));
+
+    store.invalidate();
+
+    assertEquals(2, store.getAll().size());
+    assertEquals("second", store.get(2).title);
+  }
+
+  @Test
+  public void query_returnsNotificationsMatchingAllCriteria() {
+    final ScheduledNotificationStore store = ScheduledNotificationStore.getInstance(context);
+    final NotificationDetails first = createNotificationDetails(1, "first");
+    first.channelId = "reminders";
+    first.groupKey = "conversation";
+    final NotificationDetails second = createNotificationDetails(2, "second");
+    second.channelId = "reminders";
+    final NotificationDetails third = createNotificationDetails(3, "third");
+    third.channelId = "other";
+    third.groupKey = "conversation";
+    store.putAll(Arrays.asList(first, second, third));
+
+    final PendingNotificationRequestFilter filter = new PendingNotificationRequestFilter();
+    filter.channelId = "reminders";
+    assertEquals(Arrays.asList(1, 2), ids(store.query(filter)));
+
+    filter.groupKey = "conversation";
+    assertEquals(Arrays.asList(1), ids(store.query(filter)));
+
+    second.channelId = "other";
+    store.put(second);
+    filter.groupKey = null;
+    assertEquals(Arrays.asList(1), ids(store.query(filter)));
+  }
+
+  @Test
+  public void query_returnsNotificationsDueWithinFireTimeRange() {
+    final ScheduledNotificationStore store = ScheduledNotificationStore.getInstance(context);
+    final long now = System.currentTimeMillis();
+    final NotificationDetails soon = createNotificationDetails(1, "soon");
+    soon.millisecondsSinceEpoch = now + 60000;
+    final NotificationDetails later = createNotificationDetails(2, "later");
+    later.timeZoneName = "UTC";
+    later.scheduledDateTime =
+        LocalDateTime.ofInstant(Instant.ofEpochMilli(now + 3600000), ZoneOffset.UTC).toString();
+    final NotificationDetails repeating = createNotificationDetails(3, "repeating");
+    repeating.repeatIntervalMilliseconds = 120000;
+    repeating.calledAt = now - 60000;
+    store.putAll(Arrays.asList(soon, later, repeating));
+
+    final PendingNotificationRequestFilter filter = new PendingNotificationRequestFilter();
+    filter.fireTimeTo = now + 90000;
+    assertEquals(Arrays.asList(1, 3), ids(store.query(filter)));
+
+    filter.fireTimeFrom = now + 90000;
+    filter.fireTimeTo = null;
+    assertEquals(Arrays.asList(2), ids(store.query(filter)));
+  }
+
+  @Test
+  public void getNextFireTimes_returnsSoonestNotificationsInOrder() {
+    final ScheduledNotificationStore store = ScheduledNotificationStore.getInstance(context);
+    final long now = System.currentTimeMillis();
+    final List<NotificationDetails> notifications = new ArrayList<>();
+    for (int id = 1; id <= 5; id++) {
+      final NotificationDetails notificationDetails = createNotificationDetails(id, "title");
+      notificationDetails.millisecondsSinceEpoch = now + (6 - id) * 60000L;
+      notifications.add(notificationDetails);
+    }
+    final NotificationDetails repeating = createNotificationDetails(6, "repeating");
+    repeating.repeatIntervalMilliseconds = 150000;
+    repeating.calledAt = now + 30000;
+    notifications.add(repeating);
+    store.putAll(notifications);
+
+    assertEquals(
+        Arrays.asList(6, 5, 4),
+        new ArrayList<>(store.getNextFireTimes(3, Long.MAX_VALUE).keySet()));
+    // the first notification after the given time is included
+    assertEquals(
+        Arrays.asList(6, 5, 4, 3),
+        new ArrayList<>(store.getNextFireTimes(Integer.MAX_VALUE, now + 150000).keySet()));
+    assertEquals(now + 60000, (long) store.getNextFireTimes(2, Long.MAX_VALUE).get(5));
+  }
+
+  @Test
+  public void query_returnsRequestedPage() {
+    final ScheduledNotificationStore store = ScheduledNotificationStore.getInstance(context);
+    for (int id = 1; id <= 5; id++) {
+      store.put(createNotificationDetails(id, "notification " + id));
+    }
+    final PendingNotificationRequestFilter filter = new PendingNotificationRequestFilter();
+
+    assertEquals(Arrays.asList(2, 3), ids(store.query(filter, 1, 2)));
+    assertEquals(Arrays.asList(5), ids(store.query(filter, 4, 2)));
+    assertEquals(0, store.query(filter, 5, 2).size());
+  }
+
+  @Test
+  public void count_returnsNumberOfMatchingNotifications() {
+    final ScheduledNotificationStore store = ScheduledNotificationStore.getInstance(context);
+    final NotificationDetails first = createNotificationDetails(1, "first");
+    first.tag = "tag";
+    store.putAll(Arrays.asList(first, createNotificationDetails(2, "second")));
+    final PendingNotificationRequestFilter filter = new PendingNotificationRequestFilter();
+
+    assertEquals(2, store.count(filter));
+    ScheduledNotificationStore.resetInstance();
+    assertEquals(2, ScheduledNotificationStore.getInstance(context).count(filter));
+    filter.tag = "tag";
+    assertEquals(1, ScheduledNotificationStore.getInstance(context).count(filter));
+  }
+
+  @Test
+  public void getInstance_migratesLegacyScheduledNotifications() {
+    final ArrayList<NotificationDetails> legacyNotifications = new ArrayList<>();
+    legacyNotifications.add(createNotificationDetails(3, "third"));
+    legacyNotifications.add(createNotificationDetails(4, "fourth"));
+    context
+        .getSharedPreferences(
+            ScheduledNotificationStore.LEGACY_SCHEDULED_NOTIFICATIONS, Context.MODE_PRIVATE)
+        .edit()
+        .putString(
+            ScheduledNotificationStore.LEGACY_SCHEDULED_NOTIFICATIONS,
+            FlutterLocalNotificationsPlugin.buildGson().toJson(legacyNotifications))
+        .commit();
+
+    final ScheduledNotificationStore store = ScheduledNotificationStore.getInstance(context);
+
+    assertEquals(2, store.getAll().size());
+    assertEquals("third", store.get(3).title);
+    assertEquals("fourth", store.get(4).title);
+    assertFalse(
+        context
+            .getSharedPreferences(
+                ScheduledNotificationStore.LEGACY_SCHEDULED_NOTIFICATIONS, Context.MODE_PRIVATE)
+            .contains(ScheduledNotificationStore.LEGACY_SCHEDULED_NOTIFICATIONS));
+  }
+
+  @Test
+  public void getInstance_keepsLegacyScheduledNotificationsThatCannotBeMigrated() {
+    context
+        .getSharedPreferences(
+            ScheduledNotificationStore.LEGACY_SCHEDULED_NOTIFICATIONS, Context.MODE_PRIVATE)
+        .edit()
+        .putString(ScheduledNotificationStore.LEGACY_SCHEDULED_NOTIFICATIONS, "[{\"id\":")
+        .commit();
+
+    assertEquals(0, ScheduledNotificationStore.getInstance(context).getAll().size());
+    assertTrue(
+        context
+            .getSharedPreferences(
+                ScheduledNotificationStore.LEGACY_SCHEDULED_NOTIFICATIONS, Context.MODE_PRIVATE)
+            .contains(ScheduledNotificationStore.LEGACY_SCHEDULED_NOTIFICATIONS));
+  }
+
+  @Test
+  public void getAll_migratesRecordsToFormatInUse() {
+    final File directory =
+        new File(context.getFilesDir(), "flutter_local_notifications/scheduled_notifications");
+    ScheduledNotificationStore.getInstance(context).put(createNotificationDetails(1, "first"));
+    assertTrue(new File(directory, "1.json").exists());
+
+    setUseCompactStorageFormat(true);
+    ScheduledNotificationStore.resetInstance();
+
+    assertEquals("first", ScheduledNotificationStore.getInstance(context).get(1).title);
+    assertTrue(new File(directory, "1.bin").exists());
+    assertFalse(new File(directory, "1.json").exists());
+
+    setUseCompactStorageFormat(false);
+    ScheduledNotificationStore.resetInstance();
+
+    assertEquals("first", ScheduledNotificationStore.getInstance(context).get(1).title);
+    assertTrue(new File(directory, "1.json").exists());
+    assertFalse(new File(directory, "1.bin").exists());
+  }
+
+  @Test
+  public void remove_deletesRecordInEitherFormat() {
+    setUseCompactStorageFormat(true);
+    final ScheduledNotificationStore store = ScheduledNotificationStore.getInstance(context);
+    store.put(createNotificationDetails(1, "first"));
+
+    store.remove(1);
+    ScheduledNotificationStore.resetInstance();
+
+    assertNull(ScheduledNotificationStore.getInstance(context).get(1));
+    assertEquals(
+        0,
+        ScheduledNotificationStore.getInstance(context)
+            .count(new PendingNotificationRequestFilter()));
+  }
+
+  @Test
+  public void put_storesImageOnceForNotificationsThatShareIt() {
+    final ScheduledNotificationStore store = ScheduledNotificationStore.getInstance(context);
+    final NotificationDetails first = createNotificationDetailsWithLargeIcon(1, new byte[] {1, 2});
+    final NotificationDetails second = createNotificationDetailsWithLargeIcon(2, new byte[] {1, 2});
+
+    BitmapBlobStore.getInstance(context).externalize(first);
+    BitmapBlobStore.getInstance(context).externalize(second);
+    store.putAll(Arrays.asList(first, second));
+    ScheduledNotificationStore.resetInstance();
+
+    final String reference =
+        (String) ScheduledNotificationStore.getInstance(context).get(1).largeIcon;
+    assertEquals(reference, ScheduledNotificationStore.getInstance(context).get(2).largeIcon);
+    assertEquals(1, blobDirectory().list().length);
+    assertArrayEquals(new byte[] {1, 2}, BitmapBlobStore.getInstance(context).get(reference));
+  }
+
+  @Test
+  public void remove_deletesImageOnceNoLongerReferenced() {
+    final ScheduledNotificationStore store = ScheduledNotificationStore.getInstance(context);
+    final NotificationDetails first = createNotificationDetailsWithLargeIcon(1, new byte[] {1, 2});
+    final NotificationDetails second = createNotificationDetailsWithLargeIcon(2, new byte[] {1, 2});
+    final NotificationDetails third = createNotificationDetailsWithLargeIcon(3, new byte[] {3});
+    for (NotificationDetails notificationDetails : Arrays.asList(first, second, third)) {
+      BitmapBlobStore.getInstance(context).externalize(notificationDetails);
+      store.put(notificationDetails);
+    }
+    store.getAll();
+    ageImages();
+
+    store.remove(1);
+    assertNotNull(BitmapBlobStore.getInstance(context).get((String) second.largeIcon));
+
+    store.put(createNotificationDetails(2, "without image"));
+    assertNull(BitmapBlobStore.getInstance(context).get((String) second.largeIcon));
+    assertNotNull(BitmapBlobStore.getInstance(context).get((String) third.largeIcon));
+
+    store.clear();
+    assertEquals(0, blobDirectory().list().length);
+  }
+
+  @Test
+  public void getAll_deletesImagesNoLongerReferencedWhilstIndexWasNotLoaded() {
+    final ScheduledNotificationStore store = ScheduledNotificationStore.getInstance(context);
+    final NotificationDetails first = createNotificationDetailsWithLargeIcon(1, new byte[] {1, 2});
+    final NotificationDetails second = createNotificationDetailsWithLargeIcon(2, new byte[] {3});
+    for (NotificationDetails notificationDetails : Arrays.asList(first, second)) {
+      BitmapBlobStore.getInstance(context).externalize(notificationDetails);
+      store.put(notificationDetails);
+    }
+    ageImages();
+
+    store.remove(1);
+    assertNotNull(BitmapBlobStore.getInstance(context).get((String) first.largeIcon));
+
+    store.getAll();
+    assertNull(BitmapBlobStore.getInstance(context).get((String) first.largeIcon));
+    assertNotNull(BitmapBlobStore.getInstance(context).get((String) second.largeIcon));
+  }
+
+  @Test
+  public void getAll_keepsImageOfNotificationThatIsYetToBeSaved() {
+    final ScheduledNotificationStore store = ScheduledNotificationStore.getInstance(context);
+    final NotificationDetails first = createNotificationDetailsWithLargeIcon(1, new byte[] {1, 2});
+    final NotificationDetails second = createNotificationDetailsWithLargeIcon(2, new byte[] {1, 2});
+    BitmapBlobStore.getInstance(context).externalize(first);
+    ageImages();
+
+    // the image is reused by a notification that another engine is about to save
+    BitmapBlobStore.getInstance(context).externalize(second);
+    store.getAll();
+    store.put(second);
+
+    assertNotNull(BitmapBlobStore.getInstance(context).get((String) second.largeIcon));
+  }
+
+  // makes the images look like they were stored before the grace period for saving the
+  // notifications that refer to them
+  private void ageImages() {
+    final long lastModified =
+        System.currentTimeMillis() - BitmapBlobStore.UNSAVED_IMAGE_GRACE_PERIOD_MILLISECONDS;
+    for (File file : blobDirectory().listFiles()) {
+      assertTrue(file.setLastModified(lastModified));
+    }
+  }
+
+  private File blobDirectory() {
+    return new File(context.getNoBackupFilesDir(), "flutter_local_notifications/blobs");
+  }
+
+  private void setUseCompactStorageFormat(boolean useCompactStorageFormat) {
+    context
+        .getSharedPreferences("notification_plugin_cache", Context.MODE_PRIVATE)
+        .edit()
+        .putBoolean("useCompactStorageFormat", useCompactStorageFormat)
+        .commit();
+  }
+
+  private static List<Integer> ids(List<NotificationDetails> notifications) {
+    final List<Integer> ids = new ArrayList<>();
+    for (NotificationDetails notificationDetails : notifications) {
+      ids.add(notificationDetails.id);
+    }
+    return ids;
+  }
+
+  private static NotificationDetails createNotificationDetails(int id, String title) {
+    final NotificationDetails notificationDetails = new NotificationDetails();
+    notificationDetails.id = id;
+    notificationDetails.title = title;
+    return notificationDetails;
+  }
+
+  private static NotificationDetails createNotificationDetailsWithLargeIcon(
+      int id, byte[] largeIcon) {
+    final NotificationDetails notificationDetails = createNotificationDetails(id, "title " + id);
+    notificationDetails.largeIcon = largeIcon;
+    notificationDetails.largeIconBitmapSource = BitmapSource.ByteArray;
+    return notificationDetails;
+  }
+}
@@ -0,0 +1,147 @@
+package com.dexterous.flutterlocalnotifications;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.AlarmManager;
+import android.content.Context;
+import androidx.test.core.app.ApplicationProvider;
+import io.flutter.embedding.engine.plugins.FlutterPlugin.FlutterPluginBinding;
+import io.flutter.plugin.common.BinaryMessenger;
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel.Result;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowAlarmManager;
+
+@RunWith(RobolectricTestRunner.class)
+public class ZonedScheduleBatchTest {
+  private static final int BENCHMARK_BATCH_SIZE = 500;
+
+  private Context context;
+  private FlutterLocalNotificationsPlugin plugin;
+
+  @Before
+  public void before() {
+    context = ApplicationProvider.getApplicationContext();
+    ScheduledNotificationStore.resetInstance();
+    ShadowAlarmManager.setCanScheduleExactAlarms(true);
+    FlutterPluginBinding binding = mock(FlutterPluginBinding.class);
+    when(binding.getApplicationContext()).thenReturn(context);
+    when(binding.getBinaryMessenger()).thenReturn(mock(BinaryMessenger.class));
+    plugin = new FlutterLocalNotificationsPlugin();
+    plugin.onAttachedToEngine(binding);
+  }
+
+  @Test
+  public void zonedScheduleBatch_schedulesAndPersistsEachNotification() {
+    final List<Map<String, Object>> results = zonedScheduleBatch(0, 3);
+
+    assertEquals(3, results.size());
+    for (int i = 0; i < results.size(); i++) {
+      assertEquals(i, results.get(i).get("id"));
+      assertNull(results.get(i).get("errorCode"));
+    }
+    assertEquals(3, ScheduledNotificationStore.getInstance(context).getAll().size());
+    assertEquals(3, shadowOf(getAlarmManager()).getScheduledAlarms().size());
+  }
+
+  @Test
+  public void zonedScheduleBatch_schedulesBatchThatSpansSeveralChunks() {
+    final List<Map<String, Object>> results = zonedScheduleBatch(0, 120);
+
+    assertEquals(120, results.size());
+    assertEquals(119, results.get(119).get("id"));
+    assertEquals(120, ScheduledNotificationStore.getInstance(context).getAll().size());
+    assertEquals(120, shadowOf(getAlarmManager()).getScheduledAlarms().size());
+  }
+
+  @Test
+  public void zonedScheduleBatch_reportsErrorWhenNotificationsAreMissing() {
+    final CapturingResult result = new CapturingResult();
+    plugin.onMethodCall(new MethodCall("zonedScheduleBatch", new HashMap<>()), result);
+
+    assertEquals("invalid_notifications", result.errorCode);
+    assertNull(result.value);
+  }
+
+  @Test
+  @Ignore("benchmark that is only run manually")
+  public void benchmark_zonedScheduleBatchComparedToZonedSchedule() {
+    long start = System.nanoTime();
+    for (int i = 0; i < BENCHMARK_BATCH_SIZE; i++) {
+      plugin.onMethodCall(new MethodCall("zonedSchedule", createArguments(i)), new CapturingResult());
+    }
+    final long loopNanos = System.nanoTime() - start;
+
+    start = System.nanoTime();
+    zonedScheduleBatch(BENCHMARK_BATCH_SIZE, BENCHMARK_BATCH_SIZE);
+    final long batchNanos = System.nanoTime() - start;
+
+    assertEquals(
+        BENCHMARK_BATCH_SIZE * 2, ScheduledNotificationStore.getInstance(context).getAll().size());
+    System.out.printf(
+        "zonedSchedule x %d: %d ms, zonedScheduleBatch(%d): %d ms%n",
+        BENCHMARK_BATCH_SIZE,
+        loopNanos / 1_000_000,
+        BENCHMARK_BATCH_SIZE,
+        batchNanos / 1_000_000);
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Map<String, Object>> zonedScheduleBatch(int firstId, int count) {
+    final List<Map<String, Object>> notifications = new ArrayList<>();
+    for (int id = firstId; id < firstId + count; id++) {
+      notifications.add(createArguments(id));
+    }
+    final Map<String, Object> arguments = new HashMap<>();
+    arguments.put("notifications", notifications);
+    final CapturingResult result = new CapturingResult();
+    plugin.onMethodCall(new MethodCall("zonedScheduleBatch", arguments), result);
+    return (List<Map<String, Object>>) result.value;
+  }
+
+  private static Map<String, Object> createArguments(int id) {
+    final Map<String, Object> arguments = new HashMap<>();
+    arguments.put("id", id);
+    arguments.put("title", "title " + id);
+    arguments.put("body", "body " + id);
+    arguments.put("payload", "");
+    arguments.put("timeZoneName", "UTC");
+    arguments.put("scheduledDateTime", LocalDateTime.now().plusDays(1).plusMinutes(id).toString());
+    return arguments;
+  }
+
+  private AlarmManager getAlarmManager() {
+    return (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+  }
+
+  private static class CapturingResult implements Result {
+    private Object value;
+    private String errorCode;
+
+    @Override
+    public void success(Object result) {
+      value = result;
+    }
+
+    @Override
+    public void error(String errorCode, String errorMessage, Object errorDetails) {
+      this.errorCode = errorCode;
+    }
+
+    @Override
+    public void notImplemented() {}
+  }
+}
@@ -0,0 +1,168 @@
+package com.dexterous.flutterlocalnotifications.models.adapters;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.dexterous.flutterlocalnotifications.models.BitmapSource;
+import com.dexterous.flutterlocalnotifications.models.IconSource;
+import com.dexterous.flutterlocalnotifications.models.MessageDetails;
+import com.dexterous.flutterlocalnotifications.models.NotificationAction;
+import com.dexterous.flutterlocalnotifications.models.NotificationAction.NotificationActionInput;
+import com.dexterous.flutterlocalnotifications.models.NotificationDetails;
+import com.dexterous.flutterlocalnotifications.models.NotificationStyle;
+import com.dexterous.flutterlocalnotifications.models.PersonDetails;
+import com.dexterous.flutterlocalnotifications.models.ScheduleMode;
+import com.dexterous.flutterlocalnotifications.models.styles.BigPictureStyleInformation;
+import com.dexterous.flutterlocalnotifications.models.styles.MessagingStyleInformation;
+import com.dexterous.flutterlocalnotifications.models.styles.StyleInformation;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+
+public class NotificationDetailsRecordTest {
+  private final Gson gson =
+      new GsonBuilder()
+          .registerTypeAdapter(NotificationDetails.class, new NotificationDetailsTypeAdapter())
+          .registerTypeHierarchyAdapter(StyleInformation.class, new StyleInformationTypeAdapter())
+          .registerTypeAdapter(NotificationAction.class, new NotificationActionTypeAdapter())
+          .registerTypeAdapter(PersonDetails.class, new PersonDetailsTypeAdapter())
+          .create();
+
+  @Test
+  public void toBytes_compactRecordCanBeReadBack() {
+    for (NotificationDetails details :
+        Arrays.asList(createBigPictureNotificationDetails(), createMessagingNotificationDetails())) {
+      final byte[] bytes = NotificationDetailsRecord.toBytes(gson, details, true);
+
+      assertTrue(NotificationDetailsRecord.isCompact(bytes));
+      assertEquals(
+          JsonParser.parseString(gson.toJson(details)),
+          JsonParser.parseString(gson.toJson(NotificationDetailsRecord.fromBytes(gson, bytes))));
+    }
+  }
+
+  @Test
+  public void toBytes_compactRecordHoldsBytesAsIs() {
+    final NotificationDetails details = createBigPictureNotificationDetails();
+
+    final byte[] compactBytes = NotificationDetailsRecord.toBytes(gson, details, true);
+    final byte[] jsonBytes = NotificationDetailsRecord.toBytes(gson, details, false);
+    final NotificationDetails deserialized = NotificationDetailsRecord.fromBytes(gson, compactBytes);
+
+    assertArrayEquals((byte[]) details.largeIcon, (byte[]) deserialized.largeIcon);
+    assertArrayEquals(
+        (byte[]) ((BigPictureStyleInformation) details.styleInformation).bigPicture,
+        (byte[]) ((BigPictureStyleInformation) deserialized.styleInformation).bigPicture);
+    assertTrue(compactBytes.length * 3 < jsonBytes.length);
+  }
+
+  @Test
+  public void fromBytes_readsJsonRecords() {
+    final NotificationDetails details = createMessagingNotificationDetails();
+    final byte[] bytes = gson.toJson(details).getBytes(StandardCharsets.UTF_8);
+
+    assertFalse(NotificationDetailsRecord.isCompact(bytes));
+    assertEquals(
+        JsonParser.parseString(gson.toJson(details)),
+        JsonParser.parseString(gson.toJson(NotificationDetailsRecord.fromBytes(gson, bytes))));
+  }
+
+  @Test(expected = JsonParseException.class)
+  public void fromBytes_throwsForUnsupportedVersion() {
+    final byte[] bytes =
+        NotificationDetailsRecord.toBytes(gson, createMessagingNotificationDetails(), true);
+    bytes[1] = NotificationDetailsRecord.VERSION + 1;
+
+    NotificationDetailsRecord.fromBytes(gson, bytes);
+  }
+
+  @Test(expected = JsonParseException.class)
+  public void fromBytes_throwsForTruncatedRecord() {
+    final byte[] bytes =
+        NotificationDetailsRecord.toBytes(gson, createMessagingNotificationDetails(), true);
+
+    NotificationDetailsRecord.fromBytes(gson, Arrays.copyOf(bytes, bytes.length / 2));
+  }
+
+  private static NotificationDetails createBigPictureNotificationDetails() {
+    final NotificationDetails details = createNotificationDetails(1);
+    details.style = NotificationStyle.BigPicture;
+    details.largeIcon = createBytes(16 * 1024);
+    details.largeIconBitmapSource = BitmapSource.ByteArray;
+    details.styleInformation =
+        new BigPictureStyleInformation(
+            false,
+            false,
+            "content title",
+            false,
+            "summary",
+            false,
+            null,
+            null,
+            createBytes(32 * 1024),
+            BitmapSource.ByteArray,
+            true,
+            null);
+    return details;
+  }
+
+  private static NotificationDetails createMessagingNotificationDetails() {
+    final NotificationDetails details = createNotificationDetails(2);
+    details.style = NotificationStyle.Messaging;
+    details.vibrationPattern = new long[] {0, 1000, -1, Long.MAX_VALUE};
+    details.actions =
+        Collections.singletonList(
+            new NotificationAction(
+                "reply",
+                "Reply",
+                0xFF0000FF,
+                null,
+                true,
+                null,
+                true,
+                null,
+                null,
+                null,
+                IconSource.DrawableResource,
+                Collections.singletonList(
+                    new NotificationActionInput(
+                        Arrays.asList("Yes", "No"), true, "Message", null))));
+    final PersonDetails me =
+        new PersonDetails(null, createBytes(100), IconSource.ByteArray, true, "me", "Me", null);
+    final ArrayList<MessageDetails> messages = new ArrayList<>();
+    messages.add(new MessageDetails("Hi 👋", 1_700_000_000_000L, me, null, null));
+    messages.add(new MessageDetails("Bye", 1_700_000_060_000L, null, null, null));
+    details.styleInformation =
+        new MessagingStyleInformation(me, "Conversation", true, messages, false, null);
+    return details;
+  }
+
+  private static NotificationDetails createNotificationDetails(int id) {
+    final NotificationDetails details = new NotificationDetails();
+    details.id = id;
+    details.title = "title " + id;
+    details.body = "body " + id;
+    details.channelId = "channel";
+    details.importance = -1000;
+    details.color = 0xFF00FF00;
+    details.millisecondsSinceEpoch = 1_900_000_000_000L;
+    details.scheduleMode = ScheduleMode.exactAllowWhileIdle;
+    return details;
+  }
+
+  private static byte[] createBytes(int length) {
+    final byte[] bytes = new byte[length];
+    for (int i = 0; i < length; i++) {
+      bytes[i] = (byte) (i * 31);
+    }
+    return bytes;
+  }
+}
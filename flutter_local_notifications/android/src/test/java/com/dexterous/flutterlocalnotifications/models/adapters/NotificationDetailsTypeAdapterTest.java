@@ -0,0 +1,326 @@
+package com.dexterous.flutterlocalnotifications.models.adapters;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.dexterous.flutterlocalnotifications.RuntimeTypeAdapterFactory;
+import com.dexterous.flutterlocalnotifications.models.BitmapSource;
+import com.dexterous.flutterlocalnotifications.models.DateTimeComponents;
+import com.dexterous.flutterlocalnotifications.models.IconSource;
+import com.dexterous.flutterlocalnotifications.models.MessageDetails;
+import com.dexterous.flutterlocalnotifications.models.NotificationAction;
+import com.dexterous.flutterlocalnotifications.models.NotificationAction.NotificationActionInput;
+import com.dexterous.flutterlocalnotifications.models.NotificationDetails;
+import com.dexterous.flutterlocalnotifications.models.NotificationStyle;
+import com.dexterous.flutterlocalnotifications.models.PersonDetails;
+import com.dexterous.flutterlocalnotifications.models.RecurrenceFrequency;
+import com.dexterous.flutterlocalnotifications.models.RecurrenceRule;
+import com.dexterous.flutterlocalnotifications.models.RepeatInterval;
+import com.dexterous.flutterlocalnotifications.models.ScheduleMode;
+import com.dexterous.flutterlocalnotifications.models.Time;
+import com.dexterous.flutterlocalnotifications.models.styles.BigPictureStyleInformation;
+import com.dexterous.flutterlocalnotifications.models.styles.BigTextStyleInformation;
+import com.dexterous.flutterlocalnotifications.models.styles.DefaultStyleInformation;
+import com.dexterous.flutterlocalnotifications.models.styles.InboxStyleInformation;
+import com.dexterous.flutterlocalnotifications.models.styles.MessagingStyleInformation;
+import com.dexterous.flutterlocalnotifications.models.styles.StyleInformation;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParser;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Ignore;
+import org.junit.Test;
+
+public class NotificationDetailsTypeAdapterTest {
+  private static final int BENCHMARK_WARMUP_ITERATIONS = 1_000;
+  private static final int BENCHMARK_ITERATIONS = 5_000;
+
+  private final Gson gson =
+      new GsonBuilder()
+          .registerTypeAdapter(NotificationDetails.class, new NotificationDetailsTypeAdapter())
+          .registerTypeHierarchyAdapter(StyleInformation.class, new StyleInformationTypeAdapter())
+          .registerTypeAdapter(NotificationAction.class, new NotificationActionTypeAdapter())
+          .registerTypeAdapter(PersonDetails.class, new PersonDetailsTypeAdapter())
+          .create();
+
+  // how the models were serialized before the hand-written adapters were added
+  private final Gson reflectiveGson =
+      new GsonBuilder()
+          .registerTypeAdapter(ScheduleMode.class, new ScheduleMode.Deserializer())
+          .registerTypeAdapterFactory(
+              RuntimeTypeAdapterFactory.of(StyleInformation.class)
+                  .registerSubtype(DefaultStyleInformation.class)
+                  .registerSubtype(BigTextStyleInformation.class)
+                  .registerSubtype(BigPictureStyleInformation.class)
+                  .registerSubtype(InboxStyleInformation.class)
+                  .registerSubtype(MessagingStyleInformation.class))
+          .create();
+
+  @Test
+  public void toJson_producesSameJsonAsReflection() {
+    for (NotificationDetails details : createNotificationDetails()) {
+      assertEquals(
+          JsonParser.parseString(reflectiveGson.toJson(details)),
+          JsonParser.parseString(gson.toJson(details)));
+    }
+  }
+
+  @Test
+  public void fromJson_readsJsonProducedByReflection() {
+    for (NotificationDetails details : createNotificationDetails()) {
+      final String json = reflectiveGson.toJson(details);
+
+      final NotificationDetails deserialized = gson.fromJson(json, NotificationDetails.class);
+
+      assertEquals(JsonParser.parseString(json), JsonParser.parseString(gson.toJson(deserialized)));
+    }
+  }
+
+  @Test
+  public void fromJson_readsByteArrays() {
+    final NotificationDetails details = createBigPictureNotificationDetails();
+
+    final NotificationDetails deserialized =
+        gson.fromJson(gson.toJson(details), NotificationDetails.class);
+
+    assertArrayEquals((byte[]) details.largeIcon, (byte[]) deserialized.largeIcon);
+    assertArrayEquals(
+        (byte[]) ((BigPictureStyleInformation) details.styleInformation).bigPicture,
+        (byte[]) ((BigPictureStyleInformation) deserialized.styleInformation).bigPicture);
+  }
+
+  @Test
+  public void fromJson_readsLegacyAllowWhileIdle() {
+    assertEquals(
+        ScheduleMode.exactAllowWhileIdle,
+        gson.fromJson("{\"id\":1,\"allowWhileIdle\":true}", NotificationDetails.class)
+            .scheduleMode);
+    assertEquals(
+        ScheduleMode.exact,
+        gson.fromJson("{\"id\":1,\"allowWhileIdle\":false}", NotificationDetails.class)
+            .scheduleMode);
+    assertEquals(
+        ScheduleMode.inexact,
+        gson.fromJson("{\"id\":1,\"scheduleMode\":\"inexact\"}", NotificationDetails.class)
+            .scheduleMode);
+  }
+
+  @Test
+  public void fromJson_skipsUnknownProperties() {
+    final NotificationDetails details =
+        gson.fromJson(
+            "{\"id\":1,\"unknown\":{\"a\":[1,2]},\"style\":\"Unknown\",\"title\":\"title\"}",
+            NotificationDetails.class);
+
+    assertEquals(Integer.valueOf(1), details.id);
+    assertEquals("title", details.title);
+    assertNull(details.style);
+    assertEquals("Default_Channel_Id", details.channelId);
+  }
+
+  @Test
+  @Ignore("benchmark that is only run manually")
+  public void benchmark_typeAdaptersComparedToReflection() {
+    final List<NotificationDetails> notificationDetails = createNotificationDetails();
+    final List<String> json = new ArrayList<>();
+    for (NotificationDetails details : notificationDetails) {
+      json.add(reflectiveGson.toJson(details));
+    }
+
+    runBenchmark(reflectiveGson, notificationDetails, json, BENCHMARK_WARMUP_ITERATIONS);
+    runBenchmark(gson, notificationDetails, json, BENCHMARK_WARMUP_ITERATIONS);
+    final long[] reflectiveNanos =
+        runBenchmark(reflectiveGson, notificationDetails, json, BENCHMARK_ITERATIONS);
+    final long[] adapterNanos = runBenchmark(gson, notificationDetails, json, BENCHMARK_ITERATIONS);
+
+    System.out.printf(
+        "toJson x %d: reflection %d ms, type adapters %d ms%n",
+        BENCHMARK_ITERATIONS * notificationDetails.size(),
+        reflectiveNanos[0] / 1_000_000,
+        adapterNanos[0] / 1_000_000);
+    System.out.printf(
+        "fromJson x %d: reflection %d ms, type adapters %d ms%n",
+        BENCHMARK_ITERATIONS * notificationDetails.size(),
+        reflectiveNanos[1] / 1_000_000,
+        adapterNanos[1] / 1_000_000);
+  }
+
+  private static long[] runBenchmark(
+      Gson gson, List<NotificationDetails> notificationDetails, List<String> json, int iterations) {
+    int length = 0;
+    long start = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      for (NotificationDetails details : notificationDetails) {
+        length += gson.toJson(details).length();
+      }
+    }
+    final long toJsonNanos = System.nanoTime() - start;
+
+    start = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      for (String value : json) {
+        length += gson.fromJson(value, NotificationDetails.class).id;
+      }
+    }
+    final long fromJsonNanos = System.nanoTime() - start;
+
+    // keeps the results from being optimised away
+    if (length == 0) {
+      throw new AssertionError();
+    }
+    return new long[] {toJsonNanos, fromJsonNanos};
+  }
+
+  private static List<NotificationDetails> createNotificationDetails() {
+    return Arrays.asList(
+        createDefaultNotificationDetails(),
+        createBigTextNotificationDetails(),
+        createBigPictureNotificationDetails(),
+        createInboxNotificationDetails(),
+        createMessagingNotificationDetails());
+  }
+
+  private static NotificationDetails createDefaultNotificationDetails() {
+    final NotificationDetails details = createNotificationDetails(1);
+    details.style = NotificationStyle.Default;
+    details.styleInformation = new DefaultStyleInformation(false, true);
+    details.repeatInterval = RepeatInterval.Daily;
+    details.repeatTime = new Time();
+    details.repeatTime.hour = 10;
+    details.repeatTime.minute = 30;
+    details.calledAt = 1_700_000_000_000L;
+    details.vibrationPattern = new long[] {0, 1000, 500, 2000};
+    details.additionalFlags = new int[] {4, 32};
+    details.actions =
+        Collections.singletonList(
+            new NotificationAction(
+                "reply",
+                "Reply",
+                0xFF0000FF,
+                "ic_reply",
+                true,
+                false,
+                true,
+                false,
+                1,
+                false,
+                IconSource.DrawableResource,
+                Collections.singletonList(
+                    new NotificationActionInput(
+                        Arrays.asList("Yes", "No"),
+                        true,
+                        "Message",
+                        Collections.singletonList("text/plain")))));
+    return details;
+  }
+
+  private static NotificationDetails createBigTextNotificationDetails() {
+    final NotificationDetails details = createNotificationDetails(2);
+    details.style = NotificationStyle.BigText;
+    details.styleInformation =
+        new BigTextStyleInformation(
+            false, false, "big text", true, "content title", false, "summary", null);
+    details.timeZoneName = "Europe/London";
+    details.scheduledDateTime = "2030-01-01T08:00:00";
+    details.matchDateTimeComponents = DateTimeComponents.DayOfWeekAndTime;
+    details.recurrenceRule = new RecurrenceRule();
+    details.recurrenceRule.frequency = RecurrenceFrequency.Monthly;
+    details.recurrenceRule.interval = 2;
+    details.recurrenceRule.byDay = Arrays.asList("MO", "TU", "WE", "TH", "FR");
+    details.recurrenceRule.bySetPos = new int[] {-1};
+    details.recurrenceRule.count = 10;
+    details.recurrenceRule.until = 1893456000000L;
+    details.scheduleMode = ScheduleMode.exactAllowWhileIdle;
+    return details;
+  }
+
+  private static NotificationDetails createBigPictureNotificationDetails() {
+    final NotificationDetails details = createNotificationDetails(3);
+    details.style = NotificationStyle.BigPicture;
+    details.largeIcon = createBytes(256);
+    details.largeIconBitmapSource = BitmapSource.ByteArray;
+    details.styleInformation =
+        new BigPictureStyleInformation(
+            true,
+            false,
+            "content title",
+            true,
+            "summary",
+            false,
+            "ic_large",
+            BitmapSource.DrawableResource,
+            createBytes(1024),
+            BitmapSource.ByteArray,
+            true,
+            false);
+    return details;
+  }
+
+  private static NotificationDetails createInboxNotificationDetails() {
+    final NotificationDetails details = createNotificationDetails(4);
+    details.style = NotificationStyle.Inbox;
+    details.styleInformation =
+        new InboxStyleInformation(
+            false,
+            false,
+            "content title",
+            false,
+            "summary",
+            true,
+            new ArrayList<>(Arrays.asList("line 1", "line 2", "line 3")),
+            true);
+    return details;
+  }
+
+  private static NotificationDetails createMessagingNotificationDetails() {
+    final NotificationDetails details = createNotificationDetails(5);
+    details.style = NotificationStyle.Messaging;
+    final PersonDetails me =
+        new PersonDetails(false, "ic_me", IconSource.DrawableResource, true, "me", "Me", null);
+    final PersonDetails friend =
+        new PersonDetails(
+            false, createBytes(64), IconSource.ByteArray, false, "friend", "Friend", "tel:123");
+    final ArrayList<MessageDetails> messages = new ArrayList<>();
+    messages.add(new MessageDetails("Hi", 1_700_000_000_000L, friend, null, null));
+    messages.add(
+        new MessageDetails("Photo", 1_700_000_060_000L, me, "image/png", "content://photo"));
+    details.styleInformation =
+        new MessagingStyleInformation(me, "Conversation", true, messages, false, false);
+    return details;
+  }
+
+  private static NotificationDetails createNotificationDetails(int id) {
+    final NotificationDetails details = new NotificationDetails();
+    details.id = id;
+    details.title = "title " + id;
+    details.body = "body " + id;
+    details.payload = "payload " + id;
+    details.icon = "ic_notification";
+    details.channelId = "channel";
+    details.channelName = "Channel";
+    details.channelDescription = "Channel description";
+    details.importance = 4;
+    details.priority = 1;
+    details.playSound = true;
+    details.enableVibration = true;
+    details.autoCancel = true;
+    details.groupKey = "group";
+    details.color = 0xFF00FF00;
+    details.millisecondsSinceEpoch = 1_900_000_000_000L;
+    details.tag = "tag";
+    details.iconResourceId = 123;
+    return details;
+  }
+
+  private static byte[] createBytes(int length) {
+    final byte[] bytes = new byte[length];
+    for (int i = 0; i < length; i++) {
+      bytes[i] = (byte) i;
+    }
+    return bytes;
+  }
+}
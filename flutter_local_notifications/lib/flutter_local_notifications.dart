@@ -10,6 +10,7 @@ export 'src/initialization_settings.dart';
 export 'src/notification_details.dart';
 export 'src/platform_flutter_local_notifications.dart'
     hide MethodChannelFlutterLocalNotificationsPlugin;
+export 'src/platform_specifics/android/background_engine_metrics.dart';
 export 'src/platform_specifics/android/bitmap.dart';
 export 'src/platform_specifics/android/enums.dart'
     hide AndroidBitmapSource, AndroidIconSource, AndroidNotificationSoundSource;
@@ -19,9 +20,12 @@ export 'src/platform_specifics/android/message.dart';
 export 'src/platform_specifics/android/notification_channel.dart';
 export 'src/platform_specifics/android/notification_channel_group.dart';
 export 'src/platform_specifics/android/notification_details.dart';
+export 'src/platform_specifics/android/notification_response_batching.dart';
 export 'src/platform_specifics/android/notification_sound.dart';
 export 'src/platform_specifics/android/person.dart';
+export 'src/platform_specifics/android/recurrence_rule.dart';
 export 'src/platform_specifics/android/schedule_mode.dart';
+export 'src/platform_specifics/android/scheduled_notification.dart';
 export 'src/platform_specifics/android/styles/big_picture_style_information.dart';
 export 'src/platform_specifics/android/styles/big_text_style_information.dart';
 export 'src/platform_specifics/android/styles/default_style_information.dart';
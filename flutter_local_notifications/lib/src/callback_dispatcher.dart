@@ -16,7 +16,7 @@ void callbackDispatcher() {
     'dexterous.com/flutter/local_notifications',
   );
 
-  channel.invokeMethod<int>('getCallbackHandle').then((int? handle) {
+  channel.invokeMethod<int>('getCallbackHandle').then((int? handle) async {
     final DidReceiveBackgroundNotificationResponseCallback? callback =
         handle == null
         ? null
@@ -25,38 +25,75 @@ void callbackDispatcher() {
               )
               as DidReceiveBackgroundNotificationResponseCallback?;
 
-    backgroundChannel
+    // Responses that were received in quick succession are sent as a list
+    // when they're batched.
+    final Stream<List<Map<String, dynamic>>> batches = backgroundChannel
         .receiveBroadcastStream()
-        .map<Map<dynamic, dynamic>>((dynamic event) => event)
-        .map<Map<String, dynamic>>(
-          (Map<dynamic, dynamic> event) => Map.castFrom(event),
-        )
-        .listen((Map<String, dynamic> event) {
-          final Object notificationId = event['notificationId'];
-          final int id;
-          if (notificationId is int) {
-            id = notificationId;
-          } else if (notificationId is String) {
-            id = int.parse(notificationId);
-          } else {
-            id = -1;
-          }
-          // A plain action tap doesn't include a response type, so default to
-          // it when none is provided.
-          final Object? responseTypeIndex = event['notificationResponseType'];
-          final NotificationResponseType notificationResponseType =
-              responseTypeIndex is int
-              ? NotificationResponseType.values[responseTypeIndex]
-              : NotificationResponseType.selectedNotificationAction;
-          callback?.call(
-            NotificationResponse(
-              id: id,
-              actionId: event['actionId'],
-              input: event['input'],
-              payload: event['payload'],
-              notificationResponseType: notificationResponseType,
-            ),
-          );
-        });
+        .map<List<Map<String, dynamic>>>(
+          (dynamic event) => event is List
+              ? event
+                    .map<Map<String, dynamic>>(
+                      (dynamic item) => Map.castFrom(item),
+                    )
+                    .toList()
+              : <Map<String, dynamic>>[Map.castFrom(event)],
+        );
+    // The events are handled one at a time so that they're acknowledged in the
+    // order they were received. Events that aren't acknowledged are passed to
+    // the callback again the next time the isolate starts.
+    await for (final List<Map<String, dynamic>> batch in batches) {
+      Object? sequence;
+      for (final Map<String, dynamic> event in batch) {
+        await _handleEvent(callback, event);
+        sequence = event['sequence'];
+      }
+      if (sequence is int) {
+        await channel.invokeMethod<void>('acknowledgeActionEvents', sequence);
+      }
+    }
   });
 }
+
+Future<void> _handleEvent(
+  DidReceiveBackgroundNotificationResponseCallback? callback,
+  Map<String, dynamic> event,
+) async {
+  final Object notificationId = event['notificationId'];
+  final int id;
+  if (notificationId is int) {
+    id = notificationId;
+  } else if (notificationId is String) {
+    id = int.parse(notificationId);
+  } else {
+    id = -1;
+  }
+  // A plain action tap doesn't include a response type, so default to
+  // it when none is provided.
+  final Object? responseTypeIndex = event['notificationResponseType'];
+  final NotificationResponseType notificationResponseType =
+      responseTypeIndex is int
+      ? NotificationResponseType.values[responseTypeIndex]
+      : NotificationResponseType.selectedNotificationAction;
+  try {
+    // This waits for callbacks that are asynchronous to complete.
+    await Future<void>.sync(
+      () => callback?.call(
+        NotificationResponse(
+          id: id,
+          actionId: event['actionId'],
+          input: event['input'],
+          payload: event['payload'],
+          notificationResponseType: notificationResponseType,
+        ),
+      ),
+    );
+  } catch (exception, stack) {
+    FlutterError.reportError(
+      FlutterErrorDetails(
+        exception: exception,
+        stack: stack,
+        library: 'flutter_local_notifications',
+      ),
+    );
+  }
+}
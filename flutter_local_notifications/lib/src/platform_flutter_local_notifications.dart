@@ -8,6 +8,7 @@ import 'package:timezone/timezone.dart' as tz;
 
 import 'callback_dispatcher.dart';
 import 'helpers.dart';
+import 'platform_specifics/android/background_engine_metrics.dart';
 import 'platform_specifics/android/enums.dart';
 import 'platform_specifics/android/icon.dart';
 import 'platform_specifics/android/initialization_settings.dart';
@@ -18,7 +19,9 @@ import 'platform_specifics/android/notification_channel_group.dart';
 import 'platform_specifics/android/notification_details.dart';
 import 'platform_specifics/android/notification_sound.dart';
 import 'platform_specifics/android/person.dart';
+import 'platform_specifics/android/recurrence_rule.dart';
 import 'platform_specifics/android/schedule_mode.dart';
+import 'platform_specifics/android/scheduled_notification.dart';
 import 'platform_specifics/android/styles/messaging_style_information.dart';
 import 'platform_specifics/darwin/initialization_settings.dart';
 import 'platform_specifics/darwin/mappers.dart';
@@ -83,9 +86,14 @@ class MethodChannelFlutterLocalNotificationsPlugin
   }
 
   @override
-  Future<List<PendingNotificationRequest>> pendingNotificationRequests() async {
+  Future<List<PendingNotificationRequest>> pendingNotificationRequests() =>
+      _pendingNotificationRequests();
+
+  Future<List<PendingNotificationRequest>> _pendingNotificationRequests([
+    Map<String, Object?>? arguments,
+  ]) async {
     final List<Map<dynamic, dynamic>>? pendingNotifications = await _channel
-        .invokeListMethod('pendingNotificationRequests');
+        .invokeListMethod('pendingNotificationRequests', arguments);
     return pendingNotifications
             ?.map(
               (p) => PendingNotificationRequest(
@@ -243,6 +251,12 @@ class AndroidFlutterLocalNotificationsPlugin
   /// This will also require additional setup for the app, especially in the
   /// app's `AndroidManifest.xml` file. Please see check the readme for further
   /// details.
+  ///
+  /// The [recurrenceRule] parameter schedules a notification that repeats in
+  /// ways that [matchDateTimeComponents] can't describe, such as every weekday
+  /// or the first Monday of each month, using a single scheduled notification.
+  /// The [scheduledDate] is the first occurrence. This takes precedence over
+  /// [matchDateTimeComponents].
   @override
   Future<void> zonedSchedule({
     required int id,
@@ -253,25 +267,87 @@ class AndroidFlutterLocalNotificationsPlugin
     DateTimeComponents? matchDateTimeComponents,
     AndroidNotificationDetails? notificationDetails,
     AndroidScheduleMode scheduleMode = AndroidScheduleMode.exact,
+    AndroidRecurrenceRule? recurrenceRule,
   }) async {
     validateId(id);
     validateDateIsInTheFuture(scheduledDate, matchDateTimeComponents);
 
-    await _channel.invokeMethod('zonedSchedule', <String, Object?>{
-      'id': id,
-      'title': title,
-      'body': body,
-      'platformSpecifics': _buildPlatformSpecifics(
-        notificationDetails,
-        scheduleMode,
+    await _channel.invokeMethod(
+      'zonedSchedule',
+      _buildZonedScheduleArguments(
+        AndroidScheduledNotification(
+          id: id,
+          title: title,
+          body: body,
+          scheduledDate: scheduledDate,
+          payload: payload,
+          matchDateTimeComponents: matchDateTimeComponents,
+          recurrenceRule: recurrenceRule,
+          notificationDetails: notificationDetails,
+          scheduleMode: scheduleMode,
+        ),
       ),
-      'payload': payload ?? '',
-      ...scheduledDate.toMap(),
-      if (matchDateTimeComponents != null)
-        'matchDateTimeComponents': matchDateTimeComponents.index,
-    });
+    );
   }
 
+  /// Schedules multiple notifications with a single call to the platform.
+  ///
+  /// Each of the [notifications] is scheduled in the same way as
+  /// [zonedSchedule]. This is more efficient when scheduling a large number
+  /// of notifications as the notifications are persisted together once all of
+  /// the alarms have been set up.
+  ///
+  /// A notification that is invalid or can't be scheduled doesn't prevent the
+  /// remaining notifications from being scheduled. Instead, the returned list
+  /// contains an [AndroidScheduleResult] for each notification, in the same
+  /// order as [notifications], that describes whether it was scheduled.
+  Future<List<AndroidScheduleResult>> zonedScheduleBatch(
+    List<AndroidScheduledNotification> notifications,
+  ) async {
+    for (final AndroidScheduledNotification notification in notifications) {
+      validateId(notification.id);
+      validateDateIsInTheFuture(
+        notification.scheduledDate,
+        notification.matchDateTimeComponents,
+      );
+    }
+
+    final List<Map<dynamic, dynamic>>? results = await _channel
+        .invokeListMethod('zonedScheduleBatch', <String, Object?>{
+          'notifications': notifications
+              .map(_buildZonedScheduleArguments)
+              .toList(),
+        });
+    return results
+            ?.map(
+              (r) => AndroidScheduleResult(
+                id: r['id'],
+                errorCode: r['errorCode'],
+                errorMessage: r['errorMessage'],
+              ),
+            )
+            .toList() ??
+        <AndroidScheduleResult>[];
+  }
+
+  Map<String, Object?> _buildZonedScheduleArguments(
+    AndroidScheduledNotification notification,
+  ) => <String, Object?>{
+    'id': notification.id,
+    'title': notification.title,
+    'body': notification.body,
+    'platformSpecifics': _buildPlatformSpecifics(
+      notification.notificationDetails,
+      notification.scheduleMode,
+    ),
+    'payload': notification.payload ?? '',
+    ...notification.scheduledDate.toMap(),
+    if (notification.matchDateTimeComponents != null)
+      'matchDateTimeComponents': notification.matchDateTimeComponents!.index,
+    if (notification.recurrenceRule != null)
+      'recurrenceRule': notification.recurrenceRule!.toMap(),
+  };
+
   /// Starts an Android foreground service with the given notification.
   ///
   /// The `id` must not be 0, since Android itself does not allow starting
@@ -477,6 +553,168 @@ class AndroidFlutterLocalNotificationsPlugin
     });
   }
 
+  /// Returns a list of notifications pending to be delivered/shown.
+  ///
+  /// The results can optionally be filtered so that only the notifications
+  /// that match all of the given [channelId], [groupKey] and [tag] are
+  /// returned. Specifying [scheduledFrom] and/or [scheduledTo] restricts the
+  /// results to the notifications that are next due to be shown within that
+  /// inclusive range.
+  ///
+  /// The results are ordered by id. When there are a large number of pending
+  /// notifications, they can be retrieved a page at a time by specifying the
+  /// [offset] of the first result and the maximum number of results to
+  /// return via [limit]. The amount of data sent back can be further reduced
+  /// by specifying the [fields] that are needed, in which case the other
+  /// fields of each [PendingNotificationRequest] will be `null`.
+  @override
+  Future<List<PendingNotificationRequest>> pendingNotificationRequests({
+    String? channelId,
+    String? groupKey,
+    String? tag,
+    DateTime? scheduledFrom,
+    DateTime? scheduledTo,
+    int offset = 0,
+    int? limit,
+    Set<AndroidPendingNotificationRequestField>? fields,
+  }) {
+    if (offset < 0) {
+      throw ArgumentError.value(offset, 'offset', 'must not be negative');
+    }
+    if (limit != null && limit < 0) {
+      throw ArgumentError.value(limit, 'limit', 'must not be negative');
+    }
+    final Map<String, Object?>? filterArguments =
+        _buildPendingNotificationFilter(
+          channelId: channelId,
+          groupKey: groupKey,
+          tag: tag,
+          scheduledFrom: scheduledFrom,
+          scheduledTo: scheduledTo,
+        );
+    if (filterArguments == null &&
+        offset == 0 &&
+        limit == null &&
+        fields == null) {
+      return _pendingNotificationRequests();
+    }
+    return _pendingNotificationRequests(<String, Object?>{
+      ...?filterArguments,
+      'offset': offset,
+      'limit': limit,
+      'fields': fields
+          ?.map((AndroidPendingNotificationRequestField f) => f.name)
+          .toList(),
+    });
+  }
+
+  /// Returns the number of notifications pending to be delivered/shown.
+  ///
+  /// This is cheaper than retrieving the pending notification requests when
+  /// only the number of them is needed. The same filters as
+  /// [pendingNotificationRequests] can be applied.
+  Future<int> getPendingNotificationCount({
+    String? channelId,
+    String? groupKey,
+    String? tag,
+    DateTime? scheduledFrom,
+    DateTime? scheduledTo,
+  }) async {
+    final int? count = await _channel.invokeMethod<int>(
+      'getPendingNotificationCount',
+      _buildPendingNotificationFilter(
+        channelId: channelId,
+        groupKey: groupKey,
+        tag: tag,
+        scheduledFrom: scheduledFrom,
+        scheduledTo: scheduledTo,
+      ),
+    );
+    return count ?? 0;
+  }
+
+  /// Returns how quickly notification actions were passed to the background
+  /// isolate since the app's process was started.
+  ///
+  /// This can be used to decide on the
+  /// [AndroidInitializationSettings.backgroundEngineIdleTimeout] that suits
+  /// how often the app receives notification actions.
+  Future<AndroidBackgroundEngineMetrics> getBackgroundEngineMetrics() async {
+    final Map<dynamic, dynamic> metrics =
+        await _channel.invokeMethod<Map<dynamic, dynamic>>(
+          'getBackgroundEngineMetrics',
+        ) ??
+        <dynamic, dynamic>{};
+    Duration toDuration(String key) =>
+        Duration(milliseconds: metrics[key] as int? ?? 0);
+    return AndroidBackgroundEngineMetrics(
+      isEngineRunning: metrics['engineRunning'] as bool? ?? false,
+      engineStartCount: metrics['engineStartCount'] as int? ?? 0,
+      lastEngineStartDuration: toDuration('lastEngineStartMilliseconds'),
+      totalEngineStartDuration: toDuration('totalEngineStartMilliseconds'),
+      dispatchCount: metrics['dispatchCount'] as int? ?? 0,
+      lastDispatchLatency: toDuration('lastDispatchLatencyMilliseconds'),
+      maxDispatchLatency: toDuration('maxDispatchLatencyMilliseconds'),
+      totalDispatchLatency: toDuration('totalDispatchLatencyMilliseconds'),
+    );
+  }
+
+  Map<String, Object?>? _buildPendingNotificationFilter({
+    String? channelId,
+    String? groupKey,
+    String? tag,
+    DateTime? scheduledFrom,
+    DateTime? scheduledTo,
+  }) {
+    if (channelId == null &&
+        groupKey == null &&
+        tag == null &&
+        scheduledFrom == null &&
+        scheduledTo == null) {
+      return null;
+    }
+    return <String, Object?>{
+      'channelId': channelId,
+      'groupKey': groupKey,
+      'tag': tag,
+      'fireTimeFrom': scheduledFrom?.millisecondsSinceEpoch,
+      'fireTimeTo': scheduledTo?.millisecondsSinceEpoch,
+    };
+  }
+
+  /// Cancels multiple notifications with a single call to the platform.
+  ///
+  /// When [ids] is provided, the notifications with those ids are cancelled.
+  /// Otherwise the notifications that match all of the given [tag],
+  /// [groupKey] and [channelId] are cancelled. At least one of these must be
+  /// provided.
+  ///
+  /// Similar to [cancel], this applies to notifications that have been
+  /// scheduled and those that have already been presented. Matching by
+  /// [channelId] only applies to presented notifications on Android 8.0 or
+  /// newer.
+  Future<void> cancelMany({
+    List<int>? ids,
+    String? tag,
+    String? groupKey,
+    String? channelId,
+  }) async {
+    if (ids == null && tag == null && groupKey == null && channelId == null) {
+      throw ArgumentError(
+        'Either ids or at least one of tag, groupKey or channelId must be '
+        'provided',
+      );
+    }
+    ids?.forEach(validateId);
+
+    return _channel.invokeMethod('cancelMany', <String, Object?>{
+      'ids': ids,
+      'tag': tag,
+      'groupKey': groupKey,
+      'channelId': channelId,
+    });
+  }
+
   /// Creates a notification channel group.
   ///
   /// This method is only applicable to Android versions 8.0 or newer.
@@ -487,6 +725,25 @@ class AndroidFlutterLocalNotificationsPlugin
     notificationChannelGroup.toMap(),
   );
 
+  /// Creates multiple notification channel groups with a single call to the
+  /// platform.
+  ///
+  /// Each of the [notificationChannelGroups] is created in the same way as
+  /// [createNotificationChannelGroup]. This is more efficient when an app
+  /// sets up several groups, such as when it's first launched.
+  ///
+  /// This method is only applicable to Android versions 8.0 or newer.
+  Future<void> createNotificationChannelGroups(
+    List<AndroidNotificationChannelGroup> notificationChannelGroups,
+  ) => _channel.invokeMethod(
+    'createNotificationChannelGroups',
+    <String, Object>{
+      'groups': notificationChannelGroups
+          .map((AndroidNotificationChannelGroup group) => group.toMap())
+          .toList(),
+    },
+  );
+
   /// Deletes the notification channel group with the specified [groupId]
   /// as well as all of the channels belonging to the group.
   ///
@@ -504,6 +761,26 @@ class AndroidFlutterLocalNotificationsPlugin
     notificationChannel.toMap(),
   );
 
+  /// Creates multiple notification channels with a single call to the
+  /// platform.
+  ///
+  /// Each of the [notificationChannels] is created in the same way as
+  /// [createNotificationChannel]. This is more efficient when an app sets up
+  /// several channels, such as when it's first launched. Groups that the
+  /// channels belong to should be created beforehand.
+  ///
+  /// This method is only applicable to Android versions 8.0 or newer.
+  Future<void> createNotificationChannels(
+    List<AndroidNotificationChannel> notificationChannels,
+  ) => _channel.invokeMethod(
+    'createNotificationChannels',
+    <String, Object>{
+      'channels': notificationChannels
+          .map((AndroidNotificationChannel channel) => channel.toMap())
+          .toList(),
+    },
+  );
+
   /// Deletes the notification channel with the specified [channelId].
   ///
   /// This method is only applicable to Android versions 8.0 or newer.
@@ -648,16 +925,17 @@ class AndroidFlutterLocalNotificationsPlugin
     switch (call.method) {
       case 'didReceiveNotificationResponse':
         _onDidReceiveNotificationResponse?.call(
-          NotificationResponse(
-            id: call.arguments['notificationId'],
-            actionId: call.arguments['actionId'],
-            input: call.arguments['input'],
-            payload: call.arguments['payload'],
-            notificationResponseType: NotificationResponseType
-                .values[call.arguments['notificationResponseType']],
-          ),
+          _toNotificationResponse(call.arguments),
         );
         break;
+      case 'didReceiveNotificationResponses':
+        // A batch of responses that were received in quick succession.
+        for (final Map<dynamic, dynamic> response in call.arguments) {
+          _onDidReceiveNotificationResponse?.call(
+            _toNotificationResponse(response),
+          );
+        }
+        break;
       default:
         return await Future<void>.error('Method not defined');
     }
@@ -1130,3 +1408,14 @@ void _evaluateBackgroundNotificationCallback(
     arguments['callback_handle'] = callback!.toRawHandle();
   }
 }
+
+/// Converts a notification response that was sent by the Android side.
+NotificationResponse _toNotificationResponse(Map<dynamic, dynamic> response) =>
+    NotificationResponse(
+      id: response['notificationId'],
+      actionId: response['actionId'],
+      input: response['input'],
+      payload: response['payload'],
+      notificationResponseType: NotificationResponseType
+          .values[response['notificationResponseType']],
+    );
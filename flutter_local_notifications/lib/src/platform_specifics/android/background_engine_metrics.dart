@@ -0,0 +1,62 @@
+/// Describes how quickly notification actions were passed to the background
+/// isolate since the app's process was started.
+///
+/// Background notification actions are handled by a Flutter engine that is
+/// started when the first action is received. The engine is kept running for
+/// the actions that follow until it has been idle for
+/// `AndroidInitializationSettings.backgroundEngineIdleTimeout` or the system
+/// asks the app to trim its memory.
+class AndroidBackgroundEngineMetrics {
+  /// Constructs an instance of [AndroidBackgroundEngineMetrics].
+  const AndroidBackgroundEngineMetrics({
+    required this.isEngineRunning,
+    required this.engineStartCount,
+    required this.lastEngineStartDuration,
+    required this.totalEngineStartDuration,
+    required this.dispatchCount,
+    required this.lastDispatchLatency,
+    required this.maxDispatchLatency,
+    required this.totalDispatchLatency,
+  });
+
+  /// Whether the engine is currently running.
+  final bool isEngineRunning;
+
+  /// The number of times the engine was started.
+  final int engineStartCount;
+
+  /// How long it took for the background isolate to listen for actions the
+  /// last time the engine was started.
+  final Duration lastEngineStartDuration;
+
+  /// How long it took for the background isolate to listen for actions across
+  /// all of the times the engine was started.
+  final Duration totalEngineStartDuration;
+
+  /// The number of actions that were passed to the background isolate.
+  final int dispatchCount;
+
+  /// The time between the last action being received and it being passed to
+  /// the background isolate.
+  final Duration lastDispatchLatency;
+
+  /// The longest time between an action being received and it being passed to
+  /// the background isolate.
+  final Duration maxDispatchLatency;
+
+  /// The time between each action being received and it being passed to the
+  /// background isolate, added up across all of the actions.
+  final Duration totalDispatchLatency;
+
+  /// The average time it took for the background isolate to listen for
+  /// actions when the engine was started.
+  Duration get averageEngineStartDuration => engineStartCount == 0
+      ? Duration.zero
+      : totalEngineStartDuration ~/ engineStartCount;
+
+  /// The average time between an action being received and it being passed to
+  /// the background isolate.
+  Duration get averageDispatchLatency => dispatchCount == 0
+      ? Duration.zero
+      : totalDispatchLatency ~/ dispatchCount;
+}
@@ -10,6 +10,25 @@ enum AndroidBitmapSource {
   byteArray,
 }
 
+/// The pixel formats that images shown in Android notifications can be decoded
+/// with.
+enum AndroidBitmapConfig {
+  /// Each pixel is stored in 4 bytes. This is the default.
+  argb8888,
+
+  /// Each pixel is stored in 2 bytes without an alpha channel.
+  ///
+  /// This halves the memory used by images but transparent areas are drawn as
+  /// black so this is best suited to photos.
+  rgb565,
+
+  /// Images are stored in graphics memory only.
+  ///
+  /// This is only supported on Android 8.0 or newer. Older versions fall back
+  /// to [argb8888].
+  hardware,
+}
+
 /// Specifies the source for icons.
 enum AndroidIconSource {
   /// A drawable resource.
@@ -58,6 +77,22 @@ enum AndroidNotificationSoundSource {
   uri,
 }
 
+/// The optional fields of a pending notification request.
+///
+/// Used to limit which fields are sent back by
+/// `AndroidFlutterLocalNotificationsPlugin.pendingNotificationRequests`. The
+/// id of each pending notification request is always sent back.
+enum AndroidPendingNotificationRequestField {
+  /// The notification's title.
+  title,
+
+  /// The notification's body.
+  body,
+
+  /// The notification's payload.
+  payload,
+}
+
 /// The available actions for managing notification channels.
 enum AndroidNotificationChannelAction {
   /// Create a channel if it doesn't exist.
@@ -1,8 +1,120 @@
+import 'enums.dart';
+import 'notification_response_batching.dart';
+
 /// Plugin initialization settings for Android.
 class AndroidInitializationSettings {
   /// Constructs an instance of [AndroidInitializationSettings].
-  const AndroidInitializationSettings(this.defaultIcon);
+  const AndroidInitializationSettings(
+    this.defaultIcon, {
+    this.useCompactStorageFormat = false,
+    this.bitmapConfig = AndroidBitmapConfig.argb8888,
+    this.maxBitmapBytesPerNotification,
+    this.maxScheduledAlarms,
+    this.scheduledAlarmHorizon,
+    this.useAlarmDispatcher = false,
+    this.useIdOnlyAlarmIntents = false,
+    this.useDirectBootIndex = false,
+    this.backgroundEngineIdleTimeout,
+    this.notificationResponseBatching,
+  }) : assert(maxScheduledAlarms == null || maxScheduledAlarms > 0);
 
   /// Specifies the default icon for notifications.
   final String defaultIcon;
+
+  /// Whether scheduled notifications are saved using a compact binary format
+  /// instead of JSON.
+  ///
+  /// The compact format is considerably smaller for notifications that contain
+  /// images specified as byte arrays. Notifications that were saved using the
+  /// other format are converted the next time the scheduled notifications are
+  /// loaded so this can be changed at any time.
+  final bool useCompactStorageFormat;
+
+  /// The pixel format that the large icon and big picture of notifications are
+  /// decoded with.
+  ///
+  /// Images are always decoded at the size they're displayed at rather than at
+  /// their original size.
+  final AndroidBitmapConfig bitmapConfig;
+
+  /// The maximum number of bytes that the decoded images of a notification may
+  /// use.
+  ///
+  /// Images that would exceed this are decoded at a lower resolution. The large
+  /// icon may use up to an eighth of this and the big picture up to three
+  /// quarters. When this isn't specified, images are only limited by the size
+  /// they're displayed at.
+  final int? maxBitmapBytesPerNotification;
+
+  /// The maximum number of scheduled notifications that have an alarm set at
+  /// any one time.
+  ///
+  /// Apps can only have a limited number of alarms set, which is around 500 on
+  /// most devices. When this is specified, every scheduled notification is
+  /// still saved but alarms are only set for the notifications that are due
+  /// soonest. Alarms are set for the remaining notifications as the earlier
+  /// ones are shown or cancelled. This is intended for apps that schedule a
+  /// large number of notifications.
+  final int? maxScheduledAlarms;
+
+  /// Limits the alarms that are set to the scheduled notifications that are
+  /// due within this duration.
+  ///
+  /// This works in the same way as [maxScheduledAlarms] and both may be
+  /// specified. Alarms for notifications that are due later are set once they
+  /// come within this duration.
+  final Duration? scheduledAlarmHorizon;
+
+  /// Whether scheduled notifications are shown using a single alarm instead of
+  /// an alarm for each notification.
+  ///
+  /// The alarm is set for the next time that any notification is due. When it
+  /// goes off, every notification that is due is shown at once before the alarm
+  /// is set for the next time. This suits apps where many notifications are due
+  /// at the same time and takes precedence over [maxScheduledAlarms] and
+  /// [scheduledAlarmHorizon].
+  final bool useAlarmDispatcher;
+
+  /// Whether the alarms of scheduled notifications only hold the id of the
+  /// notification instead of all of its details.
+  ///
+  /// The details are loaded from the saved scheduled notifications when the
+  /// alarm goes off. This keeps the alarms small for notifications that have a
+  /// lot of content and means that an alarm that was set before a notification
+  /// was cancelled or scheduled again is ignored.
+  final bool useIdOnlyAlarmIntents;
+
+  /// Whether scheduled notifications can be shown before the user has
+  /// unlocked the device after it has been restarted.
+  ///
+  /// When enabled, the time, channel and icon of each scheduled notification
+  /// are kept in storage that can be read before the device is unlocked. The
+  /// content of the notifications isn't kept there. Notifications that are due
+  /// whilst the device is locked are shown without their content and are
+  /// replaced with the full notification once the device is unlocked.
+  ///
+  /// This requires the `ScheduledNotificationReceiver` and
+  /// `ScheduledNotificationBootReceiver` to be declared with
+  /// `android:directBootAware="true"` and the latter to also receive the
+  /// `android.intent.action.LOCKED_BOOT_COMPLETED` action.
+  final bool useDirectBootIndex;
+
+  /// How long the Flutter engine that handles notification actions in the
+  /// background is kept running after the last action was received.
+  ///
+  /// Starting the engine takes a noticeable amount of time so it's kept
+  /// running to handle actions that follow soon after. The engine is destroyed
+  /// once it has been idle for this duration so that the memory it uses is
+  /// released, and is started again for the next action. When this is `null`,
+  /// the engine keeps running until the system asks the app to trim its
+  /// memory. The engine isn't destroyed because of this timeout whilst the
+  /// background callback is still handling a notification response.
+  final Duration? backgroundEngineIdleTimeout;
+
+  /// Whether notification responses that are received in quick succession are
+  /// sent as a batch to the `onDidReceiveNotificationResponse` and
+  /// `onDidReceiveBackgroundNotificationResponse` callbacks.
+  ///
+  /// When this is `null`, each response is sent as soon as it is received.
+  final AndroidNotificationResponseBatching? notificationResponseBatching;
 }
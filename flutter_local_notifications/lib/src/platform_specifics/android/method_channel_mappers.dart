@@ -1,5 +1,8 @@
+import 'dart:typed_data';
 import 'dart:ui';
 
+import '../../types.dart';
+
 import 'enums.dart';
 import 'initialization_settings.dart';
 import 'message.dart';
@@ -8,6 +11,7 @@ import 'notification_channel_group.dart';
 import 'notification_details.dart';
 import 'notification_sound.dart';
 import 'person.dart';
+import 'recurrence_rule.dart';
 import 'styles/big_picture_style_information.dart';
 import 'styles/big_text_style_information.dart';
 import 'styles/default_style_information.dart';
@@ -16,9 +20,57 @@ import 'styles/media_style_information.dart';
 import 'styles/messaging_style_information.dart';
 
 extension AndroidInitializationSettingsMapper on AndroidInitializationSettings {
-  Map<String, Object> toMap() => <String, Object>{'defaultIcon': defaultIcon};
+  Map<String, Object> toMap() => <String, Object>{
+    'defaultIcon': defaultIcon,
+    'useCompactStorageFormat': useCompactStorageFormat,
+    'bitmapConfig': bitmapConfig.name,
+    if (maxBitmapBytesPerNotification != null)
+      'maxBitmapBytesPerNotification': maxBitmapBytesPerNotification!,
+    if (maxScheduledAlarms != null) 'maxScheduledAlarms': maxScheduledAlarms!,
+    if (scheduledAlarmHorizon != null)
+      'scheduledAlarmHorizonMilliseconds':
+          scheduledAlarmHorizon!.inMilliseconds,
+    'useAlarmDispatcher': useAlarmDispatcher,
+    'useIdOnlyAlarmIntents': useIdOnlyAlarmIntents,
+    'useDirectBootIndex': useDirectBootIndex,
+    if (backgroundEngineIdleTimeout != null)
+      'backgroundEngineIdleTimeoutMilliseconds':
+          backgroundEngineIdleTimeout!.inMilliseconds,
+    if (notificationResponseBatching != null) ...<String, Object>{
+      'notificationResponseBatchMaxSize':
+          notificationResponseBatching!.maxBatchSize,
+      'notificationResponseBatchMaxLatencyMilliseconds':
+          notificationResponseBatching!.maxLatency.inMilliseconds,
+    },
+  };
+}
+
+extension AndroidRecurrenceRuleMapper on AndroidRecurrenceRule {
+  Map<String, Object> toMap() => <String, Object>{
+    'frequency': frequency.index,
+    'interval': interval,
+    if (byDay != null) 'byDay': byDay!.map(_toRuleDay).toList(),
+    if (byMonthDay != null) 'byMonthDay': Int32List.fromList(byMonthDay!),
+    if (bySetPosition != null) 'bySetPos': Int32List.fromList(bySetPosition!),
+    if (count != null) 'count': count!,
+    if (until != null) 'until': until!.millisecondsSinceEpoch,
+  };
 }
 
+// the form used by the BYDAY part of an RRULE e.g. MO, 1MO or -1FR
+String _toRuleDay(AndroidRecurrenceDay day) =>
+    '${day.occurrence ?? ''}${_dayAbbreviations[day.day]}';
+
+const Map<Day, String> _dayAbbreviations = <Day, String>{
+  Day.monday: 'MO',
+  Day.tuesday: 'TU',
+  Day.wednesday: 'WE',
+  Day.thursday: 'TH',
+  Day.friday: 'FR',
+  Day.saturday: 'SA',
+  Day.sunday: 'SU',
+};
+
 extension MessageMapper on Message {
   Map<String, Object?> toMap() => <String, Object?>{
     'text': text,
@@ -0,0 +1,22 @@
+/// Specifies how notification responses are batched before they are passed to
+/// the callbacks.
+///
+/// Responses that are received in quick succession, such as when the user
+/// dismisses a group of notifications, are sent from the platform as a single
+/// message instead of a message for each of them. The callbacks are still
+/// called once for each response, in the order they were received.
+class AndroidNotificationResponseBatching {
+  /// Constructs an instance of [AndroidNotificationResponseBatching].
+  const AndroidNotificationResponseBatching({
+    this.maxBatchSize = 50,
+    this.maxLatency = const Duration(milliseconds: 100),
+  }) : assert(maxBatchSize > 0);
+
+  /// The most responses that are sent in a single message.
+  ///
+  /// A batch is sent as soon as it has this many responses.
+  final int maxBatchSize;
+
+  /// The longest time a response is held back for others to be batched with.
+  final Duration maxLatency;
+}
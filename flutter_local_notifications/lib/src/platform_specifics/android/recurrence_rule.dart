@@ -0,0 +1,95 @@
+import '../../types.dart';
+
+/// How often a notification that follows an [AndroidRecurrenceRule] repeats.
+enum AndroidRecurrenceFrequency {
+  /// Repeats every day.
+  daily,
+
+  /// Repeats every week.
+  weekly,
+
+  /// Repeats every month.
+  monthly,
+
+  /// Repeats every year.
+  yearly,
+}
+
+/// A day of the week that an [AndroidRecurrenceRule] matches.
+class AndroidRecurrenceDay {
+  /// Constructs an instance of [AndroidRecurrenceDay].
+  const AndroidRecurrenceDay(this.day, {this.occurrence})
+    : assert(
+        occurrence == null ||
+            (occurrence != 0 && occurrence >= -53 && occurrence <= 53),
+      );
+
+  /// The day of the week.
+  final Day day;
+
+  /// Limits the match to the nth occurrence of [day] within the month or the
+  /// year, depending on the frequency of the rule.
+  ///
+  /// Negative values count back from the end e.g. `-1` is the last occurrence.
+  /// When this isn't specified, every occurrence of [day] matches. This is
+  /// only used by rules that repeat monthly or yearly.
+  final int? occurrence;
+}
+
+/// A rule that describes when a scheduled notification repeats.
+///
+/// This mirrors the `RRULE` property of the iCalendar specification. The
+/// scheduled date of the notification is its first occurrence and provides
+/// the time of day of every occurrence. It also provides the day of the week,
+/// the day of the month or the date that the notification repeats on when
+/// [byDay] and [byMonthDay] aren't specified.
+///
+/// For example, a notification at 8:00 on every weekday uses a rule that
+/// repeats [AndroidRecurrenceFrequency.weekly] with [byDay] set to Monday
+/// through Friday, and one on the first Monday of each month uses a rule that
+/// repeats [AndroidRecurrenceFrequency.monthly] with [byDay] set to Monday
+/// with an occurrence of 1.
+class AndroidRecurrenceRule {
+  /// Constructs an instance of [AndroidRecurrenceRule].
+  const AndroidRecurrenceRule({
+    required this.frequency,
+    this.interval = 1,
+    this.byDay,
+    this.byMonthDay,
+    this.bySetPosition,
+    this.count,
+    this.until,
+  }) : assert(interval > 0),
+       assert(count == null || count > 0);
+
+  /// How often the notification repeats.
+  final AndroidRecurrenceFrequency frequency;
+
+  /// The number of days, weeks, months or years between each period in which
+  /// the notification repeats.
+  final int interval;
+
+  /// The days of the week that the notification repeats on.
+  final List<AndroidRecurrenceDay>? byDay;
+
+  /// The days of the month that the notification repeats on.
+  ///
+  /// Negative values count back from the end of the month e.g. `-1` is the
+  /// last day of the month. Months that don't have the day are skipped.
+  final List<int>? byMonthDay;
+
+  /// Limits the occurrences within each period to the ones at these
+  /// positions.
+  ///
+  /// Positions start at 1 and negative values count back from the end e.g. a
+  /// monthly rule with [byDay] set to Monday through Friday and a position of
+  /// `-1` matches the last weekday of each month.
+  final List<int>? bySetPosition;
+
+  /// The number of times the notification is shown, including the first
+  /// occurrence.
+  final int? count;
+
+  /// The notification isn't shown after this date.
+  final DateTime? until;
+}
@@ -0,0 +1,82 @@
+import 'package:flutter_local_notifications_platform_interface/flutter_local_notifications_platform_interface.dart';
+import 'package:timezone/timezone.dart' as tz;
+
+import 'notification_details.dart';
+import 'recurrence_rule.dart';
+import 'schedule_mode.dart';
+
+/// A notification to be scheduled as part of a batch.
+///
+/// The properties mirror the parameters of
+/// `AndroidFlutterLocalNotificationsPlugin.zonedSchedule`.
+class AndroidScheduledNotification {
+  /// Constructs an instance of [AndroidScheduledNotification].
+  const AndroidScheduledNotification({
+    required this.id,
+    required this.scheduledDate,
+    this.title,
+    this.body,
+    this.payload,
+    this.matchDateTimeComponents,
+    this.recurrenceRule,
+    this.notificationDetails,
+    this.scheduleMode = AndroidScheduleMode.exact,
+  });
+
+  /// The id of the notification.
+  final int id;
+
+  /// The title of the notification.
+  final String? title;
+
+  /// The body of the notification.
+  final String? body;
+
+  /// The date and time the notification should be shown.
+  final tz.TZDateTime scheduledDate;
+
+  /// The payload passed back when the notification is selected.
+  final String? payload;
+
+  /// Used to schedule a notification that repeats based on matching date and
+  /// time components of the [scheduledDate].
+  final DateTimeComponents? matchDateTimeComponents;
+
+  /// Used to schedule a notification that repeats based on a recurrence rule,
+  /// where the [scheduledDate] is the first occurrence.
+  ///
+  /// This takes precedence over [matchDateTimeComponents].
+  final AndroidRecurrenceRule? recurrenceRule;
+
+  /// The Android-specific details of the notification.
+  final AndroidNotificationDetails? notificationDetails;
+
+  /// The precision of the timing for the notification to appear.
+  final AndroidScheduleMode scheduleMode;
+}
+
+/// The outcome of scheduling a notification that was part of a batch.
+class AndroidScheduleResult {
+  /// Constructs an instance of [AndroidScheduleResult].
+  const AndroidScheduleResult({
+    required this.id,
+    this.errorCode,
+    this.errorMessage,
+  });
+
+  /// The id of the notification.
+  final int id;
+
+  /// The code of the error that prevented the notification from being
+  /// scheduled.
+  ///
+  /// This is `null` when the notification was scheduled.
+  final String? errorCode;
+
+  /// A description of the error that prevented the notification from being
+  /// scheduled.
+  final String? errorMessage;
+
+  /// Whether the notification was scheduled.
+  bool get isScheduled => errorCode == null;
+}
@@ -38,6 +38,32 @@ void main() {
               return <Map<String, Object?>>[];
             } else if (methodCall.method == 'getNotificationAppLaunchDetails') {
               return null;
+            } else if (methodCall.method == 'getPendingNotificationCount') {
+              return 3;
+            } else if (methodCall.method == 'getBackgroundEngineMetrics') {
+              return <String, Object?>{
+                'engineRunning': true,
+                'engineStartCount': 2,
+                'lastEngineStartMilliseconds': 300,
+                'totalEngineStartMilliseconds': 700,
+                'dispatchCount': 4,
+                'lastDispatchLatencyMilliseconds': 5,
+                'maxDispatchLatencyMilliseconds': 400,
+                'totalDispatchLatencyMilliseconds': 800,
+              };
+            } else if (methodCall.method == 'zonedScheduleBatch') {
+              return <Map<String, Object?>>[
+                <String, Object?>{
+                  'id': 1,
+                  'errorCode': null,
+                  'errorMessage': null,
+                },
+                <String, Object?>{
+                  'id': 2,
+                  'errorCode': 'exact_alarms_not_permitted',
+                  'errorMessage': 'Exact alarms are not permitted',
+                },
+              ];
             }
             return null;
           });
@@ -58,7 +84,151 @@ void main() {
       expect(log, <Matcher>[
         isMethodCall(
           'initialize',
-          arguments: <String, Object>{'defaultIcon': 'app_icon'},
+          arguments: <String, Object>{
+            'defaultIcon': 'app_icon',
+            'useCompactStorageFormat': false,
+            'bitmapConfig': 'argb8888',
+            'useAlarmDispatcher': false,
+            'useIdOnlyAlarmIntents': false,
+            'useDirectBootIndex': false,
+          },
+        ),
+      ]);
+    });
+
+    test('initialize with compact storage format', () async {
+      const AndroidInitializationSettings androidInitializationSettings =
+          AndroidInitializationSettings(
+            'app_icon',
+            useCompactStorageFormat: true,
+          );
+      const InitializationSettings initializationSettings =
+          InitializationSettings(android: androidInitializationSettings);
+      await flutterLocalNotificationsPlugin.initialize(
+        settings: initializationSettings,
+      );
+      expect(log, <Matcher>[
+        isMethodCall(
+          'initialize',
+          arguments: <String, Object>{
+            'defaultIcon': 'app_icon',
+            'useCompactStorageFormat': true,
+            'bitmapConfig': 'argb8888',
+            'useAlarmDispatcher': false,
+            'useIdOnlyAlarmIntents': false,
+            'useDirectBootIndex': false,
+          },
+        ),
+      ]);
+    });
+
+    test('initialize with bitmap decoding settings', () async {
+      const AndroidInitializationSettings androidInitializationSettings =
+          AndroidInitializationSettings(
+            'app_icon',
+            bitmapConfig: AndroidBitmapConfig.rgb565,
+            maxBitmapBytesPerNotification: 1024 * 1024,
+          );
+      const InitializationSettings initializationSettings =
+          InitializationSettings(android: androidInitializationSettings);
+      await flutterLocalNotificationsPlugin.initialize(
+        settings: initializationSettings,
+      );
+      expect(log, <Matcher>[
+        isMethodCall(
+          'initialize',
+          arguments: <String, Object>{
+            'defaultIcon': 'app_icon',
+            'useCompactStorageFormat': false,
+            'bitmapConfig': 'rgb565',
+            'maxBitmapBytesPerNotification': 1024 * 1024,
+            'useAlarmDispatcher': false,
+            'useIdOnlyAlarmIntents': false,
+            'useDirectBootIndex': false,
+          },
+        ),
+      ]);
+    });
+
+    test('initialize with scheduled alarm limits', () async {
+      const AndroidInitializationSettings androidInitializationSettings =
+          AndroidInitializationSettings(
+            'app_icon',
+            maxScheduledAlarms: 100,
+            scheduledAlarmHorizon: Duration(days: 2),
+          );
+      const InitializationSettings initializationSettings =
+          InitializationSettings(android: androidInitializationSettings);
+      await flutterLocalNotificationsPlugin.initialize(
+        settings: initializationSettings,
+      );
+      expect(log, <Matcher>[
+        isMethodCall(
+          'initialize',
+          arguments: <String, Object>{
+            'defaultIcon': 'app_icon',
+            'useCompactStorageFormat': false,
+            'bitmapConfig': 'argb8888',
+            'maxScheduledAlarms': 100,
+            'scheduledAlarmHorizonMilliseconds': 2 * 24 * 60 * 60 * 1000,
+            'useAlarmDispatcher': false,
+            'useIdOnlyAlarmIntents': false,
+            'useDirectBootIndex': false,
+          },
+        ),
+      ]);
+    });
+
+    test('initialize with alarm dispatcher', () async {
+      const AndroidInitializationSettings androidInitializationSettings =
+          AndroidInitializationSettings('app_icon', useAlarmDispatcher: true);
+      const InitializationSettings initializationSettings =
+          InitializationSettings(android: androidInitializationSettings);
+      await flutterLocalNotificationsPlugin.initialize(
+        settings: initializationSettings,
+      );
+      expect(log, <Matcher>[
+        isMethodCall(
+          'initialize',
+          arguments: <String, Object>{
+            'defaultIcon': 'app_icon',
+            'useCompactStorageFormat': false,
+            'bitmapConfig': 'argb8888',
+            'useAlarmDispatcher': true,
+            'useIdOnlyAlarmIntents': false,
+            'useDirectBootIndex': false,
+          },
+        ),
+      ]);
+    });
+
+    test('initialize with notification response batching', () async {
+      const AndroidInitializationSettings androidInitializationSettings =
+          AndroidInitializationSettings(
+            'app_icon',
+            notificationResponseBatching: AndroidNotificationResponseBatching(
+              maxBatchSize: 20,
+              maxLatency: Duration(milliseconds: 250),
+            ),
+          );
+      const InitializationSettings initializationSettings =
+          InitializationSettings(android: androidInitializationSettings);
+      await flutterLocalNotificationsPlugin.initialize(
+        settings: initializationSettings,
+      );
+      expect(log, <Matcher>[
+        isMethodCall(
+          'initialize',
+          arguments: <String, Object>{
+            'defaultIcon': 'app_icon',
+            'useCompactStorageFormat': false,
+            'bitmapConfig': 'argb8888',
+            'useAlarmDispatcher': false,
+            'useIdOnlyAlarmIntents': false,
+            'useDirectBootIndex': false,
+            'notificationResponseBatchMaxSize': 20,
+            'notificationResponseBatchMaxLatencyMilliseconds': 250,
+          },
         ),
       ]);
     });
@@ -2762,6 +2932,122 @@ void main() {
       });
     });
 
+    test('zonedScheduleBatch', () async {
+      tz.initializeTimeZones();
+      tz.setLocalLocation(tz.getLocation('Australia/Sydney'));
+      final tz.TZDateTime scheduledDate = tz.TZDateTime.now(
+        tz.local,
+      ).add(const Duration(seconds: 5));
+      final List<AndroidScheduleResult> results =
+          await flutterLocalNotificationsPlugin
+              .resolvePlatformSpecificImplementation<
+                AndroidFlutterLocalNotificationsPlugin
+              >()!
+              .zonedScheduleBatch(<AndroidScheduledNotification>[
+                AndroidScheduledNotification(
+                  id: 1,
+                  title: 'notification title',
+                  scheduledDate: scheduledDate,
+                ),
+                AndroidScheduledNotification(
+                  id: 2,
+                  body: 'notification body',
+                  scheduledDate: scheduledDate,
+                  payload: 'payload',
+                  scheduleMode: AndroidScheduleMode.inexact,
+                ),
+              ]);
+      expect(log, <Matcher>[
+        isMethodCall(
+          'zonedScheduleBatch',
+          arguments: <String, Object>{
+            'notifications': <Map<String, Object?>>[
+              <String, Object?>{
+                'id': 1,
+                'title': 'notification title',
+                'body': null,
+                'platformSpecifics': <String, Object?>{'scheduleMode': 'exact'},
+                'payload': '',
+                'timeZoneName': 'Australia/Sydney',
+                'scheduledDateTime': convertDateToISO8601String(scheduledDate),
+                'scheduledDateTimeISO8601': scheduledDate.toIso8601String(),
+              },
+              <String, Object?>{
+                'id': 2,
+                'title': null,
+                'body': 'notification body',
+                'platformSpecifics': <String, Object?>{
+                  'scheduleMode': 'inexact',
+                },
+                'payload': 'payload',
+                'timeZoneName': 'Australia/Sydney',
+                'scheduledDateTime': convertDateToISO8601String(scheduledDate),
+                'scheduledDateTimeISO8601': scheduledDate.toIso8601String(),
+              },
+            ],
+          },
+        ),
+      ]);
+      expect(results.map((r) => r.id), <int>[1, 2]);
+      expect(results[0].isScheduled, isTrue);
+      expect(results[1].isScheduled, isFalse);
+      expect(results[1].errorCode, 'exact_alarms_not_permitted');
+    });
+
+    test('zonedSchedule with recurrence rule', () async {
+      tz.initializeTimeZones();
+      tz.setLocalLocation(tz.getLocation('Australia/Sydney'));
+      final tz.TZDateTime scheduledDate = tz.TZDateTime.now(
+        tz.local,
+      ).add(const Duration(seconds: 5));
+      await flutterLocalNotificationsPlugin
+          .resolvePlatformSpecificImplementation<
+            AndroidFlutterLocalNotificationsPlugin
+          >()!
+          .zonedSchedule(
+            id: 1,
+            title: 'notification title',
+            scheduledDate: scheduledDate,
+            recurrenceRule: AndroidRecurrenceRule(
+              frequency: AndroidRecurrenceFrequency.monthly,
+              interval: 2,
+              byDay: const <AndroidRecurrenceDay>[
+                AndroidRecurrenceDay(Day.monday, occurrence: 1),
+                AndroidRecurrenceDay(Day.friday, occurrence: -1),
+                AndroidRecurrenceDay(Day.sunday),
+              ],
+              byMonthDay: const <int>[1, -1],
+              bySetPosition: const <int>[-1],
+              count: 10,
+              until: DateTime.fromMillisecondsSinceEpoch(1893456000000),
+            ),
+          );
+      expect(log, <Matcher>[
+        isMethodCall(
+          'zonedSchedule',
+          arguments: <String, Object?>{
+            'id': 1,
+            'title': 'notification title',
+            'body': null,
+            'platformSpecifics': <String, Object?>{'scheduleMode': 'exact'},
+            'payload': '',
+            'timeZoneName': 'Australia/Sydney',
+            'scheduledDateTime': convertDateToISO8601String(scheduledDate),
+            'scheduledDateTimeISO8601': scheduledDate.toIso8601String(),
+            'recurrenceRule': <String, Object>{
+              'frequency': AndroidRecurrenceFrequency.monthly.index,
+              'interval': 2,
+              'byDay': <String>['1MO', '-1FR', 'SU'],
+              'byMonthDay': Int32List.fromList(<int>[1, -1]),
+              'bySetPos': Int32List.fromList(<int>[-1]),
+              'count': 10,
+              'until': 1893456000000,
+            },
+          },
+        ),
+      ]);
+    });
+
     group('createNotificationChannelGroup', () {
       test('without description', () async {
         await flutterLocalNotificationsPlugin
@@ -2894,6 +3180,67 @@ void main() {
       ]);
     });
 
+    test('createNotificationChannelGroups', () async {
+      await flutterLocalNotificationsPlugin
+          .resolvePlatformSpecificImplementation<
+            AndroidFlutterLocalNotificationsPlugin
+          >()!
+          .createNotificationChannelGroups(
+            const <AndroidNotificationChannelGroup>[
+              AndroidNotificationChannelGroup('groupId1', 'groupName1'),
+              AndroidNotificationChannelGroup(
+                'groupId2',
+                'groupName2',
+                description: 'groupDescription2',
+              ),
+            ],
+          );
+      expect(log, <Matcher>[
+        isMethodCall(
+          'createNotificationChannelGroups',
+          arguments: <String, Object>{
+            'groups': <Map<String, Object?>>[
+              <String, Object?>{
+                'id': 'groupId1',
+                'name': 'groupName1',
+                'description': null,
+              },
+              <String, Object?>{
+                'id': 'groupId2',
+                'name': 'groupName2',
+                'description': 'groupDescription2',
+              },
+            ],
+          },
+        ),
+      ]);
+    });
+
+    test('createNotificationChannels', () async {
+      await flutterLocalNotificationsPlugin
+          .resolvePlatformSpecificImplementation<
+            AndroidFlutterLocalNotificationsPlugin
+          >()!
+          .createNotificationChannels(const <AndroidNotificationChannel>[
+            AndroidNotificationChannel('channelId1', 'channelName1'),
+            AndroidNotificationChannel(
+              'channelId2',
+              'channelName2',
+              groupId: 'channelGroupId',
+              importance: Importance.max,
+            ),
+          ]);
+      final Map<dynamic, dynamic> arguments = log.single.arguments;
+      final List<dynamic> channels = arguments['channels'];
+      expect(log.single.method, 'createNotificationChannels');
+      expect(channels, hasLength(2));
+      expect(channels[0]['id'], 'channelId1');
+      expect(channels[0]['importance'], Importance.defaultImportance.value);
+      expect(channels[1]['id'], 'channelId2');
+      expect(channels[1]['groupId'], 'channelGroupId');
+      expect(channels[1]['importance'], Importance.max.value);
+    });
+
     test('deleteNotificationChannel', () async {
       await flutterLocalNotificationsPlugin
           .resolvePlatformSpecificImplementation<
@@ -2925,6 +3272,56 @@ void main() {
       ]);
     });
 
+    test('cancelMany with ids', () async {
+      await flutterLocalNotificationsPlugin
+          .resolvePlatformSpecificImplementation<
+            AndroidFlutterLocalNotificationsPlugin
+          >()!
+          .cancelMany(ids: <int>[1, 2, 3]);
+      expect(log, <Matcher>[
+        isMethodCall(
+          'cancelMany',
+          arguments: <String, Object?>{
+            'ids': <int>[1, 2, 3],
+            'tag': null,
+            'groupKey': null,
+            'channelId': null,
+          },
+        ),
+      ]);
+    });
+
+    test('cancelMany with group key and channel id', () async {
+      await flutterLocalNotificationsPlugin
+          .resolvePlatformSpecificImplementation<
+            AndroidFlutterLocalNotificationsPlugin
+          >()!
+          .cancelMany(groupKey: 'groupKey', channelId: 'channelId');
+      expect(log, <Matcher>[
+        isMethodCall(
+          'cancelMany',
+          arguments: <String, Object?>{
+            'ids': null,
+            'tag': null,
+            'groupKey': 'groupKey',
+            'channelId': 'channelId',
+          },
+        ),
+      ]);
+    });
+
+    test('cancelMany without ids or filters', () async {
+      expect(
+        () => flutterLocalNotificationsPlugin
+            .resolvePlatformSpecificImplementation<
+              AndroidFlutterLocalNotificationsPlugin
+            >()!
+            .cancelMany(),
+        throwsArgumentError,
+      );
+      expect(log, isEmpty);
+    });
+
     test('cancelAll', () async {
       await flutterLocalNotificationsPlugin.cancelAll();
       expect(log, <Matcher>[isMethodCall('cancelAll', arguments: null)]);
@@ -2944,6 +3341,105 @@ void main() {
       ]);
     });
 
+    test('pendingNotificationRequests with filters', () async {
+      final DateTime scheduledFrom = DateTime(2025, 1, 1);
+      final DateTime scheduledTo = DateTime(2025, 1, 2);
+      await flutterLocalNotificationsPlugin
+          .resolvePlatformSpecificImplementation<
+            AndroidFlutterLocalNotificationsPlugin
+          >()!
+          .pendingNotificationRequests(
+            channelId: 'channelId',
+            scheduledFrom: scheduledFrom,
+            scheduledTo: scheduledTo,
+          );
+      expect(log, <Matcher>[
+        isMethodCall(
+          'pendingNotificationRequests',
+          arguments: <String, Object?>{
+            'channelId': 'channelId',
+            'groupKey': null,
+            'tag': null,
+            'fireTimeFrom': scheduledFrom.millisecondsSinceEpoch,
+            'fireTimeTo': scheduledTo.millisecondsSinceEpoch,
+            'offset': 0,
+            'limit': null,
+            'fields': null,
+          },
+        ),
+      ]);
+    });
+
+    test('pendingNotificationRequests with paging and fields', () async {
+      await flutterLocalNotificationsPlugin
+          .resolvePlatformSpecificImplementation<
+            AndroidFlutterLocalNotificationsPlugin
+          >()!
+          .pendingNotificationRequests(
+            offset: 100,
+            limit: 50,
+            fields: <AndroidPendingNotificationRequestField>{
+              AndroidPendingNotificationRequestField.title,
+            },
+          );
+      expect(log, <Matcher>[
+        isMethodCall(
+          'pendingNotificationRequests',
+          arguments: <String, Object?>{
+            'offset': 100,
+            'limit': 50,
+            'fields': <String>['title'],
+          },
+        ),
+      ]);
+    });
+
+    test('getPendingNotificationCount', () async {
+      final int count = await flutterLocalNotificationsPlugin
+          .resolvePlatformSpecificImplementation<
+            AndroidFlutterLocalNotificationsPlugin
+          >()!
+          .getPendingNotificationCount(tag: 'tag');
+      expect(count, 3);
+      expect(log, <Matcher>[
+        isMethodCall(
+          'getPendingNotificationCount',
+          arguments: <String, Object?>{
+            'channelId': null,
+            'groupKey': null,
+            'tag': 'tag',
+            'fireTimeFrom': null,
+            'fireTimeTo': null,
+          },
+        ),
+      ]);
+    });
+
+    test('getBackgroundEngineMetrics', () async {
+      final AndroidBackgroundEngineMetrics metrics =
+          await flutterLocalNotificationsPlugin
+              .resolvePlatformSpecificImplementation<
+                AndroidFlutterLocalNotificationsPlugin
+              >()!
+              .getBackgroundEngineMetrics();
+      expect(metrics.isEngineRunning, isTrue);
+      expect(metrics.engineStartCount, 2);
+      expect(
+        metrics.lastEngineStartDuration,
+        const Duration(milliseconds: 300),
+      );
+      expect(
+        metrics.averageEngineStartDuration,
+        const Duration(milliseconds: 350),
+      );
+      expect(metrics.dispatchCount, 4);
+      expect(metrics.maxDispatchLatency, const Duration(milliseconds: 400));
+      expect(metrics.averageDispatchLatency, const Duration(milliseconds: 200));
+      expect(log, <Matcher>[
+        isMethodCall('getBackgroundEngineMetrics', arguments: null),
+      ]);
+    });
+
     test('getActiveNotifications', () async {
       await flutterLocalNotificationsPlugin.getActiveNotifications();
       expect(log, <Matcher>[
@@ -3233,5 +3729,47 @@ void main() {
       expect(receivedResponse!.id, 1);
       expect(receivedResponse!.payload, 'item x');
     });
+
+    test('batched notification responses', () async {
+      const AndroidInitializationSettings androidInitializationSettings =
+          AndroidInitializationSettings('app_icon');
+      const InitializationSettings initializationSettings =
+          InitializationSettings(android: androidInitializationSettings);
+      final List<NotificationResponse> receivedResponses =
+          <NotificationResponse>[];
+      await flutterLocalNotificationsPlugin.initialize(
+        settings: initializationSettings,
+        onDidReceiveNotificationResponse: receivedResponses.add,
+      );
+
+      await TestDefaultBinaryMessengerBinding.instance.defaultBinaryMessenger
+          .handlePlatformMessage(
+            channel.name,
+            channel.codec.encodeMethodCall(
+              MethodCall('didReceiveNotificationResponses', <Object?>[
+                for (int id = 1; id <= 3; id++)
+                  <String, Object?>{
+                    'notificationId': id,
+                    'actionId': null,
+                    'input': null,
+                    'payload': 'item $id',
+                    'notificationResponseType': 2,
+                  },
+              ]),
+            ),
+            (ByteData? data) {},
+          );
+
+      expect(receivedResponses.map((NotificationResponse r) => r.id), <int>[
+        1,
+        2,
+        3,
+      ]);
+      expect(receivedResponses.last.payload, 'item 3');
+      expect(
+        receivedResponses.last.notificationResponseType,
+        NotificationResponseType.notificationDismissed,
+      );
+    });
   });
 }